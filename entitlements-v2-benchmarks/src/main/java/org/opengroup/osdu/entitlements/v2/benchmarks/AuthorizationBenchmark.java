@@ -0,0 +1,110 @@
+/*
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.entitlements.v2.auth.AuthorizationServiceEntitlements;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.service.GroupsProvider;
+import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Role check of {@link AuthorizationServiceEntitlements} for users with a growing number of
+ * groups. The groups come from memory, so only the matching of the group names is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+  private static final String ROLE = "service.entitlements.user";
+
+  @Param({"10", "100", "1000"})
+  private int groupCount;
+
+  private AuthorizationServiceEntitlements authorizationService;
+  private DpsHeaders headers;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Set<ParentReference> groups = new HashSet<>();
+    for (int i = 0; i < groupCount - 2; i++) {
+      groups.add(group("data.bench.g" + i));
+    }
+    groups.add(group("users"));
+    groups.add(group(ROLE));
+    GroupsProvider groupsProvider = (requesterId, partitionId) -> groups;
+
+    RequestInfoUtilService requestInfoUtilService = new RequestInfoUtilService();
+    inject(requestInfoUtilService, "log", HierarchyFixture.silentLog());
+
+    authorizationService = new AuthorizationServiceEntitlements();
+    inject(authorizationService, "log", HierarchyFixture.silentLog());
+    inject(authorizationService, "requestInfoUtilService", requestInfoUtilService);
+    inject(authorizationService, "groupsProvider", groupsProvider);
+
+    Map<String, String> headerMap = new HashMap<>();
+    headerMap.put(DpsHeaders.USER_ID, HierarchyFixture.MEMBER_EMAIL);
+    headerMap.put(DpsHeaders.DATA_PARTITION_ID, HierarchyFixture.PARTITION_ID);
+    headers = DpsHeaders.createFromMap(headerMap);
+  }
+
+  @Benchmark
+  public boolean currentUserAuthorized() {
+    return authorizationService.isCurrentUserAuthorized(headers, ROLE);
+  }
+
+  @Benchmark
+  public boolean givenUserNotAuthorized() {
+    return authorizationService.isGivenUserAuthorized(HierarchyFixture.MEMBER_EMAIL,
+        HierarchyFixture.PARTITION_ID, "service.entitlements.admin");
+  }
+
+  private static ParentReference group(String name) {
+    return ParentReference.builder()
+        .id(String.format("%s@%s.%s", name, HierarchyFixture.PARTITION_ID, HierarchyFixture.DOMAIN))
+        .name(name)
+        .dataPartitionId(HierarchyFixture.PARTITION_ID)
+        .build();
+  }
+
+  private static void inject(Object target, String fieldName, Object value) {
+    Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+    ReflectionUtils.makeAccessible(field);
+    ReflectionUtils.setField(field, target, value);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.entitlements.v2.jdbc.JdbcAppProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.RedisLease;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.SingleFlight;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupCacheServiceJdbc;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * {@link GroupCacheServiceJdbc#getFromPartitionCache} on a warm cache and on a cache that never
+ * keeps entries, so every call of the miss path rebuilds the entry from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCacheServiceBenchmark {
+
+  @Param({"5", "10"})
+  private int depth;
+
+  @Param({"20"})
+  private int width;
+
+  private HierarchyFixture fixture;
+  private GroupCacheServiceJdbc warmCacheService;
+  private GroupCacheServiceJdbc coldCacheService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    fixture = HierarchyFixture.create(depth, width);
+    warmCacheService = createService(new MapCache());
+    coldCacheService = createService(new NoStoreCache());
+    warmCacheService.getFromPartitionCache(HierarchyFixture.MEMBER_EMAIL,
+        HierarchyFixture.PARTITION_ID);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    fixture.close();
+  }
+
+  @Benchmark
+  public Set<ParentReference> cacheHit() {
+    return warmCacheService.getFromPartitionCache(HierarchyFixture.MEMBER_EMAIL,
+        HierarchyFixture.PARTITION_ID);
+  }
+
+  @Benchmark
+  public Set<ParentReference> cacheMiss() {
+    return coldCacheService.getFromPartitionCache(HierarchyFixture.MEMBER_EMAIL,
+        HierarchyFixture.PARTITION_ID);
+  }
+
+  private GroupCacheServiceJdbc createService(ICache<String, ParentReferences> cache) {
+    return new GroupCacheServiceJdbc(new JdbcAppProperties(), new EntConfigProperties(), cache,
+        fixture.createRetrieveGroupRepo(), new SingleFlight<>(),
+        new DefaultListableBeanFactory().getBeanProvider(RedisLease.class),
+        new ListGroupResponseCache());
+  }
+
+  private static class MapCache implements ICache<String, ParentReferences> {
+
+    private final Map<String, ParentReferences> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, ParentReferences value) {
+      entries.put(key, value);
+    }
+
+    @Override
+    public ParentReferences get(String key) {
+      return entries.get(key);
+    }
+
+    @Override
+    public void delete(String key) {
+      entries.remove(key);
+    }
+
+    @Override
+    public void clearAll() {
+      entries.clear();
+    }
+  }
+
+  private static class NoStoreCache implements ICache<String, ParentReferences> {
+
+    @Override
+    public void put(String key, ParentReferences value) {
+    }
+
+    @Override
+    public ParentReferences get(String key) {
+      return null;
+    }
+
+    @Override
+    public void delete(String key) {
+    }
+
+    @Override
+    public void clearAll() {
+    }
+  }
+}
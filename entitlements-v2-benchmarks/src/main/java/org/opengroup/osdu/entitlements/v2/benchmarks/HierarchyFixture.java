@@ -0,0 +1,152 @@
+/*
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcDataSource;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.retrievegroup.RetrieveGroupRepoJdbc;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * In-memory H2 database holding a generated group hierarchy, used as a Postgres stand-in.
+ *
+ * <p>The hierarchy has {@code depth} levels of {@code width} groups. Group {@code j} of a level is
+ * a member of groups {@code j} and {@code j + 1} of the level above, so the walk has to merge
+ * shared ancestors like it does on real data. The benchmarked user is a direct member of every
+ * group of the bottom level and reaches all {@code depth * width} groups.
+ */
+public class HierarchyFixture implements AutoCloseable {
+
+  public static final String PARTITION_ID = "dp";
+  public static final String DOMAIN = "contoso.com";
+  public static final String MEMBER_EMAIL = "member@" + DOMAIN;
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE \"group\" (id bigint PRIMARY KEY, name varchar, description text, email varchar,"
+          + " partition_id varchar)",
+      "CREATE TABLE embedded_group (parent_id bigint, child_id bigint)",
+      "CREATE TABLE member_to_group (group_id bigint, member_id bigint, role varchar)",
+      "CREATE TABLE member (id bigint PRIMARY KEY, email varchar, partition_id varchar)",
+      "CREATE INDEX idx_group_email ON \"group\" (email)",
+      "CREATE INDEX idx_group_to_group ON embedded_group (parent_id, child_id)",
+      "CREATE INDEX idx_group_to_group_child ON embedded_group (child_id)",
+      "CREATE INDEX idx_member_to_group ON member_to_group (group_id, member_id)",
+      "CREATE INDEX idx_member_to_group_member ON member_to_group (member_id)",
+      "CREATE INDEX idx_member_email ON member (email)"
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int depth;
+  private final int width;
+
+  private HierarchyFixture(JdbcTemplate jdbcTemplate, int depth, int width) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.depth = depth;
+    this.width = width;
+  }
+
+  public static HierarchyFixture create(int depth, int width) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    dataSource.setUser("sa");
+    HierarchyFixture fixture = new HierarchyFixture(new JdbcTemplate(dataSource), depth, width);
+    fixture.populate();
+    return fixture;
+  }
+
+  public RetrieveGroupRepoJdbc createRetrieveGroupRepo() {
+    EntConfigProperties properties = new EntConfigProperties();
+    properties.setClosureTableEnabled(false);
+    return new RetrieveGroupRepoJdbc(null, null, null,
+        new NamedParameterJdbcTemplate(jdbcTemplate), silentLog(), null,
+        new ClosureTableService(properties, null));
+  }
+
+  public EntityNode getMemberNode() {
+    return EntityNode.createMemberNodeForNewUser(MEMBER_EMAIL, PARTITION_ID);
+  }
+
+  public EntityNode getBottomGroupNode() {
+    return EntityNode.createNodeFromGroupEmail(groupEmail(0, 0));
+  }
+
+  public int getGroupCount() {
+    return depth * width;
+  }
+
+  /**
+   * Stub-only mock, it does not record invocations and adds next to nothing to the measurements.
+   */
+  public static JaxRsDpsLog silentLog() {
+    return mock(JaxRsDpsLog.class, withSettings().stubOnly());
+  }
+
+  static String groupName(int level, int index) {
+    return String.format("data.bench.l%d.g%d", level, index);
+  }
+
+  static String groupEmail(int level, int index) {
+    return String.format("%s@%s.%s", groupName(level, index), PARTITION_ID, DOMAIN);
+  }
+
+  private void populate() {
+    for (String statement : SCHEMA) {
+      jdbcTemplate.execute(statement);
+    }
+
+    List<Object[]> groups = new ArrayList<>();
+    List<Object[]> edges = new ArrayList<>();
+    for (int level = 0; level < depth; level++) {
+      for (int index = 0; index < width; index++) {
+        groups.add(new Object[]{groupId(level, index), groupName(level, index), "generated",
+            groupEmail(level, index), PARTITION_ID});
+        if (level + 1 < depth) {
+          edges.add(new Object[]{groupId(level + 1, index), groupId(level, index)});
+          if (width > 1) {
+            edges.add(new Object[]{groupId(level + 1, (index + 1) % width), groupId(level, index)});
+          }
+        }
+      }
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO \"group\" VALUES (?, ?, ?, ?, ?)", groups);
+    jdbcTemplate.batchUpdate("INSERT INTO embedded_group VALUES (?, ?)", edges);
+
+    jdbcTemplate.update("INSERT INTO member VALUES (1, ?, ?)", MEMBER_EMAIL, PARTITION_ID);
+    List<Object[]> memberships = new ArrayList<>();
+    for (int index = 0; index < width; index++) {
+      memberships.add(new Object[]{groupId(0, index), 1L, index == 0 ? "OWNER" : "MEMBER"});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO member_to_group VALUES (?, ?, ?)", memberships);
+  }
+
+  private long groupId(int level, int index) {
+    return (long) level * width + index + 1;
+  }
+
+  @Override
+  public void close() {
+    jdbcTemplate.execute("SHUTDOWN");
+  }
+}
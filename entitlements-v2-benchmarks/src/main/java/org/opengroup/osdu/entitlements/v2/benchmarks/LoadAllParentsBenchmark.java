@@ -0,0 +1,85 @@
+/*
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.retrievegroup.RetrieveGroupRepoJdbc;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.ParentTreeDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recursive parent walk of {@link RetrieveGroupRepoJdbc#loadAllParents} over generated
+ * hierarchies of growing depth and fan-out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadAllParentsBenchmark {
+
+  @Param({"2", "5", "10"})
+  private int depth;
+
+  @Param({"5", "20"})
+  private int width;
+
+  private HierarchyFixture fixture;
+  private RetrieveGroupRepoJdbc retrieveGroupRepo;
+  private EntityNode memberNode;
+  private EntityNode groupNode;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    fixture = HierarchyFixture.create(depth, width);
+    retrieveGroupRepo = fixture.createRetrieveGroupRepo();
+    memberNode = fixture.getMemberNode();
+    groupNode = fixture.getBottomGroupNode();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    fixture.close();
+  }
+
+  @Benchmark
+  public ParentTreeDto loadAllParentsOfUser() {
+    return retrieveGroupRepo.loadAllParents(memberNode, false);
+  }
+
+  @Benchmark
+  public ParentTreeDto loadAllParentsOfUserWithRoles() {
+    return retrieveGroupRepo.loadAllParents(memberNode, true);
+  }
+
+  @Benchmark
+  public ParentTreeDto loadAllParentsOfGroup() {
+    return retrieveGroupRepo.loadAllParents(groupNode, false);
+  }
+}
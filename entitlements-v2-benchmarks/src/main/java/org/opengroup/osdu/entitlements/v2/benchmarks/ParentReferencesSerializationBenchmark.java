@@ -0,0 +1,110 @@
+/*
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.util.ReferencesCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of the cached {@link ParentReferences} of a user, which is paid on every
+ * read and write of the user groups cache, in JSON and in the compact {@link ReferencesCodec}
+ * format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParentReferencesSerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ParentReferences parentReferences;
+  private byte[] encoded;
+  private byte[] compact;
+  private byte[] deflated;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Set<ParentReference> references = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      String name = "data.bench.g" + i;
+      references.add(ParentReference.builder()
+          .id(String.format("%s@%s.%s", name, HierarchyFixture.PARTITION_ID,
+              HierarchyFixture.DOMAIN))
+          .name(name)
+          .description("generated")
+          .dataPartitionId(HierarchyFixture.PARTITION_ID)
+          .role(i == 0 ? "OWNER" : "MEMBER")
+          .build());
+    }
+    parentReferences = new ParentReferences();
+    parentReferences.setParentReferencesOfUser(references);
+    encoded = objectMapper.writeValueAsBytes(parentReferences);
+    compact = ReferencesCodec.encode(parentReferences, ReferencesCodec.NO_COMPRESSION);
+    deflated = ReferencesCodec.encode(parentReferences, 0);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return objectMapper.writeValueAsBytes(parentReferences);
+  }
+
+  @Benchmark
+  public ParentReferences decode() throws IOException {
+    return objectMapper.readValue(encoded, ParentReferences.class);
+  }
+
+  @Benchmark
+  public byte[] encodeCompact() {
+    return ReferencesCodec.encode(parentReferences, ReferencesCodec.NO_COMPRESSION);
+  }
+
+  @Benchmark
+  public ParentReferences decodeCompact() {
+    return ReferencesCodec.decodeParentReferences(compact);
+  }
+
+  @Benchmark
+  public byte[] encodeDeflated() {
+    return ReferencesCodec.encode(parentReferences, 0);
+  }
+
+  @Benchmark
+  public ParentReferences decodeDeflated() {
+    return ReferencesCodec.decodeParentReferences(deflated);
+  }
+}
@@ -19,6 +19,11 @@ package org.opengroup.osdu.entitlements.v2.jdbc.cache;
 
 import com.nimbusds.openid.connect.sdk.claims.UserInfo;
 import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.opengroup.osdu.core.cache.RedisCacheBuilder;
 import org.opengroup.osdu.core.cache.RedisCodecFactory;
 import org.opengroup.osdu.core.common.cache.ICache;
@@ -28,12 +33,17 @@ import org.opengroup.osdu.core.common.cache.enums.CachingStrategy;
 import org.opengroup.osdu.core.common.partition.PartitionInfo;
 import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
 import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 @Configuration
 public class CacheConfig {
 
+  private static final String USER_GROUPS_CACHE_LOADS_METRIC = "entitlements.user.groups.cache.loads";
+
   private final ClientOptions clientOptions =  ClientOptions.builder()
       .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
       .build();
@@ -60,19 +70,73 @@ public class CacheConfig {
   @Bean
   public ICache<String, ParentReferences> userGroupsCache(
       EntConfigProperties properties,
-      RedisCodecFactory<String, ParentReferences> redisCodecFactory
+      RedisCodecFactory<String, ParentReferences> redisCodecFactory,
+      ObjectProvider<MeterRegistry> meterRegistry
   ) {
-    RedisCacheBuilder<String, ParentReferences> userInfoRedisCacheBuilder = new RedisCacheBuilder<>(
-        redisCodecFactory);
-    return userInfoRedisCacheBuilder.buildRedisCache(
-        properties.getRedisUserGroupsHost(),
-        properties.getRedisUserGroupsPort(),
-        properties.getRedisUserGroupsPassword(),
-        properties.getRedisUserGroupsExpiration(),
-        properties.getRedisUserGroupsWithSsl(),
-        clientOptions,
-        String.class,
-        ParentReferences.class
+    ICache<String, ParentReferences> redisCache;
+    if (Boolean.TRUE.equals(properties.getRedisUserGroupsCompactCodecEnabled())) {
+      redisCache = new CompactRedisCache(
+          createUserGroupsRedisClient(properties),
+          properties.getRedisUserGroupsExpiration(),
+          properties.getRedisUserGroupsCompressionThreshold()
+      );
+    } else {
+      RedisCacheBuilder<String, ParentReferences> userInfoRedisCacheBuilder = new RedisCacheBuilder<>(
+          redisCodecFactory);
+      redisCache = userInfoRedisCacheBuilder.buildRedisCache(
+          properties.getRedisUserGroupsHost(),
+          properties.getRedisUserGroupsPort(),
+          properties.getRedisUserGroupsPassword(),
+          properties.getRedisUserGroupsExpiration(),
+          properties.getRedisUserGroupsWithSsl(),
+          clientOptions,
+          String.class,
+          ParentReferences.class
+      );
+    }
+    if (!Boolean.TRUE.equals(properties.getRedisUserGroupsNearCacheEnabled())) {
+      return redisCache;
+    }
+
+    RedisInvalidationChannel invalidationChannel = new RedisInvalidationChannel(
+        createUserGroupsRedisClient(properties),
+        properties.getRedisUserGroupsInvalidationChannel()
+    );
+    NearCache<ParentReferences> nearCache = new NearCache<>(
+        redisCache,
+        invalidationChannel,
+        properties.getRedisUserGroupsNearCacheSize(),
+        properties.getRedisUserGroupsNearCacheExpiration()
+    );
+    meterRegistry.ifAvailable(registry ->
+        GuavaCacheMetrics.monitor(registry, nearCache.getLocalCache(), "userGroupsNearCache"));
+    return nearCache;
+  }
+
+  @Bean
+  public SingleFlight<ParentReferences> userGroupsCacheSingleFlight(
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    SingleFlight<ParentReferences> singleFlight = new SingleFlight<>();
+    meterRegistry.ifAvailable(registry -> {
+      FunctionCounter.builder(USER_GROUPS_CACHE_LOADS_METRIC, singleFlight,
+              SingleFlight::getLeaderLoads)
+          .tag("type", "leader")
+          .register(registry);
+      FunctionCounter.builder(USER_GROUPS_CACHE_LOADS_METRIC, singleFlight,
+              SingleFlight::getCoalescedLoads)
+          .tag("type", "coalesced")
+          .register(registry);
+    });
+    return singleFlight;
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "redis-user-groups-rebuild-lease-enabled", havingValue = "true")
+  public RedisLease userGroupsRebuildLease(EntConfigProperties properties) {
+    return new RedisLease(
+        createUserGroupsRedisClient(properties),
+        properties.getRedisUserGroupsRebuildLeaseExpiration(),
+        properties.getRedisUserGroupsRebuildLeaseWait()
     );
   }
 
@@ -82,4 +146,16 @@ public class CacheConfig {
     return new VmCache<>(properties.getPartitionInfoVmCacheExpTime(),
         properties.getPartitionInfoVmCacheSize(), CachingStrategy.EXPIRE_AFTER_WRITE);
   }
-}
\ No newline at end of file
+
+  private RedisClient createUserGroupsRedisClient(EntConfigProperties properties) {
+    RedisURI.Builder uriBuilder = RedisURI.Builder
+        .redis(properties.getRedisUserGroupsHost(), properties.getRedisUserGroupsPort())
+        .withSsl(Boolean.TRUE.equals(properties.getRedisUserGroupsWithSsl()));
+    if (StringUtils.hasText(properties.getRedisUserGroupsPassword())) {
+      uriBuilder.withPassword(properties.getRedisUserGroupsPassword().toCharArray());
+    }
+    RedisClient redisClient = RedisClient.create(uriBuilder.build());
+    redisClient.setOptions(clientOptions);
+    return redisClient;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.util.ReferencesCodec;
+
+/**
+ * Redis cache of the user groups storing them in the compact {@link ReferencesCodec} format.
+ * Values written in another format, such as the entries of the default cache before the switch,
+ * are read as misses and overwritten by the next load. Failures are only logged, a failed read
+ * being a miss as well.
+ */
+@Slf4j
+public class CompactRedisCache implements ICache<String, ParentReferences>, AutoCloseable {
+
+  private static final RedisCodec<String, byte[]> CODEC =
+      RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+  private final RedisClient redisClient;
+  private final long expirationSeconds;
+  private final int compressionThreshold;
+
+  private final Lock connectionLock = new ReentrantLock();
+
+  private volatile StatefulRedisConnection<String, byte[]> connection;
+
+  public CompactRedisCache(RedisClient redisClient, long expirationSeconds,
+      int compressionThreshold) {
+    this.redisClient = redisClient;
+    this.expirationSeconds = expirationSeconds;
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  public void put(String key, ParentReferences value) {
+    try {
+      getConnection().sync()
+          .setex(key, expirationSeconds, ReferencesCodec.encode(value, compressionThreshold));
+    } catch (Exception e) {
+      log.warn("Unable to put user groups of {} to the cache", key, e);
+    }
+  }
+
+  @Override
+  public ParentReferences get(String key) {
+    try {
+      byte[] value = getConnection().sync().get(key);
+      if (!ReferencesCodec.isEncoded(value)) {
+        return null;
+      }
+      return ReferencesCodec.decodeParentReferences(value);
+    } catch (Exception e) {
+      log.warn("Unable to get user groups of {} from the cache", key, e);
+      return null;
+    }
+  }
+
+  @Override
+  public void delete(String key) {
+    try {
+      getConnection().sync().del(key);
+    } catch (Exception e) {
+      log.warn("Unable to delete user groups of {} from the cache", key, e);
+    }
+  }
+
+  @Override
+  public void clearAll() {
+    try {
+      getConnection().sync().flushdb();
+    } catch (Exception e) {
+      log.warn("Unable to clear the user groups cache", e);
+    }
+  }
+
+  private StatefulRedisConnection<String, byte[]> getConnection() {
+    StatefulRedisConnection<String, byte[]> current = connection;
+    if (Objects.nonNull(current)) {
+      return current;
+    }
+    connectionLock.lock();
+    try {
+      if (Objects.isNull(connection)) {
+        connection = redisClient.connect(CODEC);
+      }
+      return connection;
+    } finally {
+      connectionLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (Objects.nonNull(connection)) {
+      connection.close();
+    }
+    redisClient.shutdown();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.opengroup.osdu.core.common.cache.ICache;
+
+/**
+ * Two-tier cache: a bounded in-process cache in front of a shared (Redis) cache. Deletions are
+ * broadcast over the invalidation channel so that the other pods drop their local copies too.
+ * The local entries are all dropped when the subscription to the channel is restored, since the
+ * invalidations published while it was down were missed.
+ */
+public class NearCache<V> implements ICache<String, V>, AutoCloseable {
+
+  private final Cache<String, V> localCache;
+  private final ICache<String, V> sharedCache;
+  private final RedisInvalidationChannel invalidationChannel;
+  private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+  private final List<Runnable> resubscriptionListeners = new CopyOnWriteArrayList<>();
+
+  public NearCache(ICache<String, V> sharedCache, RedisInvalidationChannel invalidationChannel,
+      long maximumSize, long expirationSeconds) {
+    this.localCache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+    this.sharedCache = sharedCache;
+    this.invalidationChannel = invalidationChannel;
+    this.invalidationChannel.subscribe(key -> {
+      localCache.invalidate(key);
+      invalidationListeners.forEach(listener -> listener.accept(key));
+    }, () -> {
+      localCache.invalidateAll();
+      resubscriptionListeners.forEach(Runnable::run);
+    });
+  }
+
+  /**
+   * Called with the keys the other pods delete or replace, once the local entry is dropped.
+   */
+  public void addInvalidationListener(Consumer<String> listener) {
+    invalidationListeners.add(listener);
+  }
+
+  /**
+   * Called when the subscription to the invalidations is restored, once the local entries are
+   * dropped.
+   */
+  public void addResubscriptionListener(Runnable listener) {
+    resubscriptionListeners.add(listener);
+  }
+
+  @Override
+  public void put(String key, V value) {
+    sharedCache.put(key, value);
+    localCache.put(key, value);
+  }
+
+  /**
+   * Overwrites the entry and drops the copies of the previous value the other pods hold locally.
+   */
+  public void replace(String key, V value) {
+    put(key, value);
+    invalidationChannel.publish(key);
+  }
+
+  @Override
+  public V get(String key) {
+    V value = localCache.getIfPresent(key);
+    if (value == null) {
+      value = sharedCache.get(key);
+      if (value != null) {
+        localCache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public void delete(String key) {
+    localCache.invalidate(key);
+    sharedCache.delete(key);
+    invalidationChannel.publish(key);
+  }
+
+  /**
+   * Drops the entry from both tiers without broadcasting it, for invalidations that every pod
+   * receives on its own.
+   */
+  public void evict(String key) {
+    localCache.invalidate(key);
+    sharedCache.delete(key);
+  }
+
+  @Override
+  public void clearAll() {
+    localCache.invalidateAll();
+    sharedCache.clearAll();
+  }
+
+  public Cache<String, V> getLocalCache() {
+    return localCache;
+  }
+
+  public CacheStats getStats() {
+    return localCache.stats();
+  }
+
+  @Override
+  public void close() {
+    invalidationChannel.close();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts invalidated cache keys to all pods over a Redis pub/sub channel. Failures to publish
+ * are only logged: the receivers' local entries still expire by TTL. A subscription that fails or
+ * drops is retried with an exponential backoff, and the subscriber is told once it is back, since
+ * the invalidations published in the meantime were missed.
+ */
+@Slf4j
+public class RedisInvalidationChannel implements AutoCloseable {
+
+  static final long MIN_RESUBSCRIBE_DELAY_MILLIS = 500;
+  static final long MAX_RESUBSCRIBE_DELAY_MILLIS = 30_000;
+
+  private final RedisClient redisClient;
+  private final String channel;
+
+  private final Lock connectionLock = new ReentrantLock();
+  private final AtomicBoolean resubscribing = new AtomicBoolean();
+  private final ScheduledExecutorService resubscribeExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-invalidation-resubscribe");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private volatile StatefulRedisConnection<String, String> publishConnection;
+  private volatile StatefulRedisPubSubConnection<String, String> subscribeConnection;
+  private volatile boolean closed;
+  private Consumer<String> listener;
+  private Runnable resubscriptionListener;
+
+  public RedisInvalidationChannel(RedisClient redisClient, String channel) {
+    this.redisClient = redisClient;
+    this.channel = channel;
+  }
+
+  /**
+   * @param listener called with every invalidated key
+   * @param resubscriptionListener called when the subscription is restored after a failure
+   */
+  public void subscribe(Consumer<String> listener, Runnable resubscriptionListener) {
+    this.listener = listener;
+    this.resubscriptionListener = resubscriptionListener;
+    redisClient.addListener(new RedisConnectionStateListener() {
+      @Override
+      public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+        if (Objects.nonNull(connection) && connection == subscribeConnection) {
+          log.warn("Lost the subscription to cache invalidation channel {}, resubscribing", channel);
+          scheduleResubscribe();
+        }
+      }
+    });
+    if (!connectSubscription()) {
+      scheduleResubscribe();
+    }
+  }
+
+  private boolean connectSubscription() {
+    StatefulRedisPubSubConnection<String, String> connection = null;
+    try {
+      connection = redisClient.connectPubSub();
+      connection.addListener(new RedisPubSubAdapter<>() {
+        @Override
+        public void message(String messageChannel, String key) {
+          if (channel.equals(messageChannel)) {
+            listener.accept(key);
+          }
+        }
+      });
+      connection.sync().subscribe(channel);
+      subscribeConnection = connection;
+      return true;
+    } catch (Exception e) {
+      log.warn("Unable to subscribe to cache invalidation channel {}", channel, e);
+      if (Objects.nonNull(connection)) {
+        connection.closeAsync();
+      }
+      return false;
+    }
+  }
+
+  private void scheduleResubscribe() {
+    if (!closed && resubscribing.compareAndSet(false, true)) {
+      schedule(MIN_RESUBSCRIBE_DELAY_MILLIS);
+    }
+  }
+
+  private void schedule(long delayMillis) {
+    resubscribeExecutor.schedule(() -> resubscribe(delayMillis), delayMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void resubscribe(long delayMillis) {
+    StatefulRedisPubSubConnection<String, String> previous = subscribeConnection;
+    subscribeConnection = null;
+    if (Objects.nonNull(previous)) {
+      previous.closeAsync();
+    }
+    if (closed) {
+      return;
+    }
+    if (connectSubscription()) {
+      resubscribing.set(false);
+      log.info("Resubscribed to cache invalidation channel {}", channel);
+      resubscriptionListener.run();
+    } else {
+      schedule(Math.min(delayMillis * 2, MAX_RESUBSCRIBE_DELAY_MILLIS));
+    }
+  }
+
+  public void publish(String key) {
+    try {
+      getPublishConnection().async().publish(channel, key);
+    } catch (Exception e) {
+      log.warn("Unable to publish cache invalidation of key {} to channel {}", key, channel, e);
+    }
+  }
+
+  private StatefulRedisConnection<String, String> getPublishConnection() {
+    StatefulRedisConnection<String, String> current = publishConnection;
+    if (Objects.nonNull(current)) {
+      return current;
+    }
+    connectionLock.lock();
+    try {
+      if (Objects.isNull(publishConnection)) {
+        publishConnection = redisClient.connect();
+      }
+      return publishConnection;
+    } finally {
+      connectionLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    resubscribeExecutor.shutdownNow();
+    if (Objects.nonNull(subscribeConnection)) {
+      subscribeConnection.close();
+    }
+    if (Objects.nonNull(publishConnection)) {
+      publishConnection.close();
+    }
+    redisClient.shutdown();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Short-lived cross-pod lease stored in Redis. Only the holder of the token can release it, and
+ * an abandoned lease expires on its own.
+ */
+@Slf4j
+public class RedisLease implements AutoCloseable {
+
+  private static final String RELEASE_SCRIPT =
+      "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+  private final RedisClient redisClient;
+  @Getter
+  private final long expirationMillis;
+  @Getter
+  private final long waitMillis;
+
+  private final Lock connectionLock = new ReentrantLock();
+
+  private volatile StatefulRedisConnection<String, String> connection;
+
+  public RedisLease(RedisClient redisClient, long expirationMillis, long waitMillis) {
+    this.redisClient = redisClient;
+    this.expirationMillis = expirationMillis;
+    this.waitMillis = waitMillis;
+  }
+
+  /**
+   * @return the token to release the lease with, or null if the lease is held by someone else.
+   * If Redis is not reachable the lease is considered granted.
+   */
+  public String tryAcquire(String key) {
+    String token = UUID.randomUUID().toString();
+    try {
+      String result = getConnection().sync()
+          .set(key, token, SetArgs.Builder.nx().px(expirationMillis));
+      return "OK".equals(result) ? token : null;
+    } catch (Exception e) {
+      log.warn("Unable to acquire lease {}", key, e);
+      return token;
+    }
+  }
+
+  public void release(String key, String token) {
+    try {
+      getConnection().sync()
+          .eval(RELEASE_SCRIPT, ScriptOutputType.INTEGER, new String[]{key}, token);
+    } catch (Exception e) {
+      log.warn("Unable to release lease {}, it will expire in {} ms", key, expirationMillis, e);
+    }
+  }
+
+  /**
+   * Guarded by a lock rather than synchronized, which would pin a virtual thread while connecting.
+   */
+  private StatefulRedisConnection<String, String> getConnection() {
+    StatefulRedisConnection<String, String> current = connection;
+    if (Objects.nonNull(current)) {
+      return current;
+    }
+    connectionLock.lock();
+    try {
+      if (Objects.isNull(connection)) {
+        connection = redisClient.connect();
+      }
+      return connection;
+    } finally {
+      connectionLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (Objects.nonNull(connection)) {
+      connection.close();
+    }
+    redisClient.shutdown();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller (leader) runs the loader, the
+ * callers arriving while it runs wait for and share its result.
+ */
+public class SingleFlight<V> {
+
+  private final ConcurrentMap<String, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+  private final LongAdder leaderLoads = new LongAdder();
+  private final LongAdder coalescedLoads = new LongAdder();
+
+  public V execute(String key, Supplier<V> loader) {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> inFlightCall = calls.putIfAbsent(key, call);
+    if (inFlightCall != null) {
+      coalescedLoads.increment();
+      return await(inFlightCall);
+    }
+
+    leaderLoads.increment();
+    try {
+      V value = loader.get();
+      call.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      calls.remove(key, call);
+    }
+  }
+
+  public long getLeaderLoads() {
+    return leaderLoads.sum();
+  }
+
+  public long getCoalescedLoads() {
+    return coalescedLoads.sum();
+  }
+
+  private V await(CompletableFuture<V> call) {
+    try {
+      return call.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.config;
+
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics.CountingJdbcTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Replaces the auto-configured {@link JdbcTemplate}, with the same settings, so that the named
+ * parameter template and the repositories count their statements as well.
+ */
+@Configuration
+public class CountingJdbcTemplateConfig {
+
+  @Bean
+  public JdbcTemplate jdbcTemplate(DataSource dataSource,
+      ObjectProvider<JdbcProperties> jdbcProperties) {
+    JdbcTemplate jdbcTemplate = new CountingJdbcTemplate(dataSource);
+    jdbcProperties.ifAvailable(properties -> {
+      JdbcProperties.Template template = properties.getTemplate();
+      jdbcTemplate.setFetchSize(template.getFetchSize());
+      jdbcTemplate.setMaxRows(template.getMaxRows());
+      if (Objects.nonNull(template.getQueryTimeout())) {
+        jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+      }
+    });
+    return jdbcTemplate;
+  }
+}
@@ -17,15 +17,31 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.config;
 
+import static org.opengroup.osdu.entitlements.v2.jdbc.config.PropertyResolverUtil.findPartitionProperty;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.PropertyResolverUtil.getPartitionProperty;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import jakarta.annotation.PreDestroy;
 import javax.sql.DataSource;
@@ -33,11 +49,28 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opengroup.osdu.core.common.partition.IPropertyResolver;
 import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+/**
+ * Routes the connections to one Hikari pool per tenant, created on first use from the partition
+ * properties. The lookup of an existing pool only reads the map, the map is locked only to create
+ * or replace a pool. Pools of tenants not used for datasource-idle-eviction-minutes are closed,
+ * except for the system tenant and the pre-warmed partitions.
+ *
+ * <p>When the partition defines a replica, the read-only requests marked in
+ * {@link ThreadLocalTenantStorage} are routed to it, unless its replication lag exceeds
+ * datasource-replica-max-lag-millis, it cannot be reached, or this pod routed another request of
+ * the tenant to the primary within that time. Everything else stays on the primary.
+ *
+ * <p>The connections of the primary pools turn on the membership notifications of the database
+ * triggers when redis-user-groups-db-invalidation-enabled is set.
+ */
 @Slf4j
 @Primary
 @Component
@@ -49,15 +82,67 @@ public class MultiTenantRoutingDatasource extends AbstractRoutingDataSource {
   public static final String USERNAME = DATASOURCE.concat("username");
   public static final String PASSWORD = DATASOURCE.concat("password");
   public static final String SCHEMA = DATASOURCE.concat("schema");
+  public static final String MAXIMUM_POOL_SIZE = DATASOURCE.concat("maximumPoolSize");
+  public static final String MINIMUM_IDLE = DATASOURCE.concat("minimumIdle");
+  public static final String CONNECTION_TIMEOUT = DATASOURCE.concat("connectionTimeout");
+  public static final String IDLE_TIMEOUT = DATASOURCE.concat("idleTimeout");
+  public static final String MAX_LIFETIME = DATASOURCE.concat("maxLifetime");
+  public static final String PREPARE_THRESHOLD = DATASOURCE.concat("prepareThreshold");
+  public static final String PREPARED_STATEMENT_CACHE_QUERIES =
+      DATASOURCE.concat("preparedStatementCacheQueries");
+  public static final String PREPARED_STATEMENT_CACHE_SIZE_MIB =
+      DATASOURCE.concat("preparedStatementCacheSizeMiB");
+  public static final String REPLICA_DATASOURCE = DATASOURCE.concat("replica.");
+  public static final String REPLICA_URL = REPLICA_DATASOURCE.concat("url");
+
+  private static final String POOL_NAME_PREFIX = "entitlements-";
+  private static final String REPLICA_KEY_SUFFIX = "-replica";
+  private static final long TOUCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final String QUERY_REPLICATION_LAG = """
+      SELECT CASE
+        WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+      END""";
+  private static final String ENABLE_NOTIFICATIONS = "SET entitlements.notify = 'on'";
 
   private final EntConfigProperties properties;
   private final IPropertyResolver propertyResolver;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
 
-  private ConcurrentMap<String, HikariDataSource> tenantDataSourceMap;
+  private ConcurrentMap<String, TenantPool> tenantDataSourceMap;
+  private ConcurrentMap<String, ReplicaState> replicaStates;
+  private ScheduledExecutorService evictionExecutor;
 
   @Override
   public void afterPropertiesSet() {
     tenantDataSourceMap = new ConcurrentHashMap<>();
+    replicaStates = new ConcurrentHashMap<>();
+    Integer evictionMinutes = properties.getDatasourceIdleEvictionMinutes();
+    if (Objects.nonNull(evictionMinutes) && evictionMinutes > 0) {
+      Duration idleTime = Duration.ofMinutes(evictionMinutes);
+      evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tenant-datasource-eviction");
+        thread.setDaemon(true);
+        return thread;
+      });
+      evictionExecutor.scheduleWithFixedDelay(() -> evictIdleDataSources(idleTime),
+          1, 1, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * Opens the pools of the system tenant and of the configured partitions, so that the first
+   * requests do not wait for them.
+   */
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    for (String partitionId : getPinnedTenants()) {
+      try {
+        getValidDataSource(partitionId);
+      } catch (RuntimeException e) {
+        log.warn("Unable to pre-warm the datasource of partition {}", partitionId, e);
+      }
+    }
   }
 
   @Override
@@ -76,6 +161,17 @@ public class MultiTenantRoutingDatasource extends AbstractRoutingDataSource {
     if (Objects.isNull(tenantId)) {
       return getResolvedDefaultDataSource();
     }
+    if (ThreadLocalTenantStorage.isPrimaryRead()) {
+      return getValidDataSource(tenantId);
+    }
+    if (ThreadLocalTenantStorage.isReadOnly()) {
+      HikariDataSource replica = findUsableReplica(tenantId);
+      if (Objects.nonNull(replica)) {
+        return replica;
+      }
+    } else {
+      getReplicaState(tenantId).markPrimaryUse();
+    }
     return getValidDataSource(tenantId);
   }
 
@@ -84,43 +180,275 @@ public class MultiTenantRoutingDatasource extends AbstractRoutingDataSource {
     Assert.state(this.tenantDataSourceMap != null,
         "DataSources not resolved yet - call afterPropertiesSet");
     return tenantDataSourceMap.entrySet().stream()
-        .collect(Collectors.toUnmodifiableMap(Entry::getKey, Entry::getValue));
+        .collect(Collectors.toUnmodifiableMap(Entry::getKey, entry -> entry.getValue().dataSource));
+  }
+
+  /**
+   * Closes the pools without connections in use whose tenant was not routed to for the given time.
+   * A pool is marked as closing before its last use is checked again under the lock of its entry,
+   * and a request checks the mark after touching the pool: either the sweeper sees the request,
+   * or the request sees the mark and gets its pool through {@code compute}.
+   */
+  void evictIdleDataSources(Duration idleTime) {
+    Set<String> pinnedTenants = getPinnedTenants();
+    tenantDataSourceMap.forEach((tenantId, pool) -> {
+      if (pinnedTenants.contains(tenantId) || !pool.isIdle(idleTime)) {
+        return;
+      }
+      AtomicBoolean evicted = new AtomicBoolean();
+      tenantDataSourceMap.computeIfPresent(tenantId, (poolKey, currentPool) -> {
+        if (currentPool != pool) {
+          return currentPool;
+        }
+        currentPool.closing = true;
+        HikariPoolMXBean poolBean = currentPool.dataSource.getHikariPoolMXBean();
+        if (!currentPool.isIdle(idleTime)
+            || (Objects.nonNull(poolBean) && poolBean.getActiveConnections() > 0)) {
+          currentPool.closing = false;
+          return currentPool;
+        }
+        evicted.set(true);
+        return null;
+      });
+      if (evicted.get()) {
+        log.info("Closing the datasource of tenant {}, unused for {}", tenantId, idleTime);
+        pool.dataSource.close();
+      }
+    });
   }
 
   private HikariDataSource getValidDataSource(String tenantId) {
-    return tenantDataSourceMap.compute(tenantId, (key, currentDataSource) -> {
-      if (currentDataSource != null && !currentDataSource.isClosed()) {
-        return currentDataSource;
+    return getValidDataSource(tenantId, () -> getDataSource(tenantId, DATASOURCE, tenantId));
+  }
+
+  private HikariDataSource getValidDataSource(String key, Supplier<HikariDataSource> factory) {
+    TenantPool pool = tenantDataSourceMap.get(key);
+    if (pool != null) {
+      pool.touch();
+      if (pool.isUsable()) {
+        return pool.dataSource;
+      }
+    }
+    pool = tenantDataSourceMap.compute(key, (poolKey, currentPool) -> {
+      if (currentPool != null && currentPool.isUsable()) {
+        return currentPool;
       } else {
-        if (currentDataSource != null) {
-          currentDataSource.close();
+        if (currentPool != null) {
+          currentPool.dataSource.close();
         }
-        return getDataSource(tenantId);
+        return new TenantPool(factory.get());
       }
     });
+    pool.touch();
+    return pool.dataSource;
   }
 
-  private HikariDataSource getDataSource(String partitionId) {
-    String url = getPartitionProperty(properties, propertyResolver, URL, partitionId);
-    String username = getPartitionProperty(properties, propertyResolver, USERNAME, partitionId);
-    String password = getPartitionProperty(properties, propertyResolver, PASSWORD, partitionId);
-    String schema = getPartitionProperty(properties, propertyResolver, SCHEMA, partitionId);
+  /**
+   * @param prefix {@link #DATASOURCE} or {@link #REPLICA_DATASOURCE}, the replica falls back to
+   *               the credentials and schema of the primary
+   */
+  private HikariDataSource getDataSource(String partitionId, String prefix, String poolKey) {
+    String url = getPartitionProperty(properties, propertyResolver, withPrefix(prefix, URL),
+        partitionId);
+    String username = findDataSourceProperty(partitionId, prefix, USERNAME);
+    String password = findDataSourceProperty(partitionId, prefix, PASSWORD);
+    String schema = findDataSourceProperty(partitionId, prefix, SCHEMA);
 
     HikariConfig hikariConfig = new HikariConfig();
     hikariConfig.setJdbcUrl(url);
     hikariConfig.setUsername(username);
     hikariConfig.setPassword(password);
     hikariConfig.setSchema(schema);
+    hikariConfig.setPoolName(POOL_NAME_PREFIX + poolKey);
+    if (!DATASOURCE.equals(prefix)) {
+      hikariConfig.setReadOnly(true);
+    } else if (Boolean.TRUE.equals(properties.getRedisUserGroupsDbInvalidationEnabled())) {
+      hikariConfig.setConnectionInitSql(ENABLE_NOTIFICATIONS);
+    }
+    setIntProperty(partitionId, withPrefix(prefix, MAXIMUM_POOL_SIZE),
+        hikariConfig::setMaximumPoolSize);
+    setIntProperty(partitionId, withPrefix(prefix, MINIMUM_IDLE), hikariConfig::setMinimumIdle);
+    setLongProperty(partitionId, withPrefix(prefix, CONNECTION_TIMEOUT),
+        hikariConfig::setConnectionTimeout);
+    setLongProperty(partitionId, withPrefix(prefix, IDLE_TIMEOUT), hikariConfig::setIdleTimeout);
+    setLongProperty(partitionId, withPrefix(prefix, MAX_LIFETIME), hikariConfig::setMaxLifetime);
+    for (String driverProperty : new String[]{PREPARE_THRESHOLD, PREPARED_STATEMENT_CACHE_QUERIES,
+        PREPARED_STATEMENT_CACHE_SIZE_MIB}) {
+      findPartitionProperty(properties, propertyResolver, withPrefix(prefix, driverProperty),
+          partitionId)
+          .ifPresent(value -> hikariConfig.addDataSourceProperty(
+              driverProperty.substring(DATASOURCE.length()), value));
+    }
+    meterRegistry.ifAvailable(hikariConfig::setMetricRegistry);
     return new HikariDataSource(hikariConfig);
   }
 
+  private String findDataSourceProperty(String partitionId, String prefix, String propertyName) {
+    return findPartitionProperty(properties, propertyResolver, withPrefix(prefix, propertyName),
+        partitionId)
+        .orElseGet(() -> getPartitionProperty(properties, propertyResolver, propertyName,
+            partitionId));
+  }
+
+  private static String withPrefix(String prefix, String propertyName) {
+    return prefix.concat(propertyName.substring(DATASOURCE.length()));
+  }
+
+  private void setIntProperty(String partitionId, String propertyName, Consumer<Integer> setter) {
+    findPartitionProperty(properties, propertyResolver, propertyName, partitionId)
+        .map(Integer::valueOf)
+        .ifPresent(setter);
+  }
+
+  private void setLongProperty(String partitionId, String propertyName, Consumer<Long> setter) {
+    findPartitionProperty(properties, propertyResolver, propertyName, partitionId)
+        .map(Long::valueOf)
+        .ifPresent(setter);
+  }
+
+  /**
+   * @return the replica pool of the tenant, or null when the reads have to go to the primary
+   */
+  private HikariDataSource findUsableReplica(String tenantId) {
+    ReplicaState state = getReplicaState(tenantId);
+    if (!state.configured) {
+      return null;
+    }
+    long maxLagMillis = properties.getDatasourceReplicaMaxLagMillis();
+    long now = System.nanoTime();
+    if (now - state.lastPrimaryUseNanos < TimeUnit.MILLISECONDS.toNanos(maxLagMillis)) {
+      return null;
+    }
+    boolean checkDue = now - state.checkedAtNanos
+        > TimeUnit.SECONDS.toNanos(properties.getDatasourceReplicaLagCheckSeconds());
+    if (!checkDue && state.lagMillis > maxLagMillis) {
+      return null;
+    }
+    try {
+      HikariDataSource replica = getValidDataSource(tenantId + REPLICA_KEY_SUFFIX,
+          () -> getDataSource(tenantId, REPLICA_DATASOURCE, tenantId + REPLICA_KEY_SUFFIX));
+      if (checkDue && state.startCheck()) {
+        try {
+          state.lagMillis = measureLagMillis(replica);
+        } finally {
+          state.checkedAtNanos = System.nanoTime();
+          state.endCheck();
+        }
+      }
+      return state.lagMillis <= maxLagMillis ? replica : null;
+    } catch (RuntimeException e) {
+      log.warn("Replica of tenant {} is not available, reading from the primary", tenantId, e);
+      state.lagMillis = Long.MAX_VALUE;
+      state.checkedAtNanos = System.nanoTime();
+      return null;
+    }
+  }
+
+  private ReplicaState getReplicaState(String tenantId) {
+    ReplicaState state = replicaStates.get(tenantId);
+    if (state != null) {
+      return state;
+    }
+    return replicaStates.computeIfAbsent(tenantId, key -> new ReplicaState(
+        findPartitionProperty(properties, propertyResolver, REPLICA_URL, key).isPresent()));
+  }
+
+  private static long measureLagMillis(DataSource replica) {
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(QUERY_REPLICATION_LAG)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Unable to measure the replication lag", e);
+    }
+  }
+
+  private Set<String> getPinnedTenants() {
+    Set<String> pinnedTenants = new HashSet<>();
+    pinnedTenants.add(properties.getSystemTenant());
+    if (Objects.nonNull(properties.getDatasourcePrewarmPartitions())) {
+      pinnedTenants.addAll(properties.getDatasourcePrewarmPartitions());
+    }
+    pinnedTenants.addAll(pinnedTenants.stream()
+        .map(tenantId -> tenantId + REPLICA_KEY_SUFFIX)
+        .toList());
+    return pinnedTenants;
+  }
+
   @PreDestroy
   private void shutDown() {
-    tenantDataSourceMap.forEach((key, dataSource) -> {
-          if (!dataSource.isClosed()) {
-            dataSource.close();
+    if (Objects.nonNull(evictionExecutor)) {
+      evictionExecutor.shutdownNow();
+    }
+    tenantDataSourceMap.forEach((key, pool) -> {
+          if (!pool.dataSource.isClosed()) {
+            pool.dataSource.close();
           }
         }
     );
   }
+
+  private static class TenantPool {
+
+    private final HikariDataSource dataSource;
+    private volatile long lastUsedNanos;
+    private volatile boolean closing;
+
+    private TenantPool(HikariDataSource dataSource) {
+      this.dataSource = dataSource;
+      this.lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Writes the shared field at most once per second, not on every connection checkout.
+     */
+    private void touch() {
+      long now = System.nanoTime();
+      if (now - lastUsedNanos > TOUCH_INTERVAL_NANOS) {
+        lastUsedNanos = now;
+      }
+    }
+
+    private boolean isIdle(Duration idleTime) {
+      return System.nanoTime() - lastUsedNanos >= idleTime.toNanos();
+    }
+
+    private boolean isUsable() {
+      return !closing && !dataSource.isClosed();
+    }
+  }
+
+  private static class ReplicaState {
+
+    private final boolean configured;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile long checkedAtNanos;
+    private volatile long lastPrimaryUseNanos;
+
+    private ReplicaState(boolean configured) {
+      long now = System.nanoTime();
+      this.configured = configured;
+      this.checkedAtNanos = now - TimeUnit.DAYS.toNanos(1);
+      this.lastPrimaryUseNanos = now - TimeUnit.DAYS.toNanos(1);
+    }
+
+    private void markPrimaryUse() {
+      if (configured) {
+        lastPrimaryUseNanos = System.nanoTime();
+      }
+    }
+
+    /**
+     * Only one thread measures the lag at a time, the others keep using the last measure.
+     */
+    private boolean startCheck() {
+      return checking.compareAndSet(false, true);
+    }
+
+    private void endCheck() {
+      checking.set(false);
+    }
+  }
 }
@@ -17,6 +17,8 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.config;
 
+import java.util.Optional;
+import org.apache.commons.lang3.StringUtils;
 import org.opengroup.osdu.core.common.partition.IPropertyResolver;
 import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
 
@@ -28,4 +30,13 @@ public class PropertyResolverUtil {
     return resolver.getPropertyValue(fullName, partitionId);
   }
 
+  /**
+   * Resolves a property the partition may not define, empty when it is missing or blank.
+   */
+  public static Optional<String> findPartitionProperty(EntConfigProperties properties,
+      IPropertyResolver resolver, String propertyName, String partitionId) {
+    return Optional.ofNullable(getPartitionProperty(properties, resolver, propertyName, partitionId))
+        .filter(StringUtils::isNotBlank);
+  }
+
 }
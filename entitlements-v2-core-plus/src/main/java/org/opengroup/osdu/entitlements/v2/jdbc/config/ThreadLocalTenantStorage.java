@@ -1,8 +1,17 @@
 package org.opengroup.osdu.entitlements.v2.jdbc.config;
 
+import java.util.function.Supplier;
+
+/**
+ * Tenant of the current request. It is bound to the request thread, platform or virtual, for the
+ * whole request and removed on completion, so nothing is left behind on pooled threads. Work
+ * handed off to other threads does not see it and has to set it itself.
+ */
 public class ThreadLocalTenantStorage {
 
   private static final ThreadLocal<String> tenant = new ThreadLocal<>();
+  private static final ThreadLocal<Boolean> readOnly = new ThreadLocal<>();
+  private static final ThreadLocal<Boolean> primaryRead = new ThreadLocal<>();
 
   private ThreadLocalTenantStorage() {
   }
@@ -15,8 +24,40 @@ public class ThreadLocalTenantStorage {
     return tenant.get();
   }
 
+  /**
+   * Marks the current request as not writing, its reads can be served by a replica.
+   */
+  public static void setReadOnly(boolean readOnlyRequest) {
+    readOnly.set(readOnlyRequest);
+  }
+
+  public static boolean isReadOnly() {
+    return Boolean.TRUE.equals(readOnly.get());
+  }
+
+  /**
+   * Runs the reads whose result is kept in a shared cache on the primary, a lagging replica would
+   * leave stale entries there for the whole cache expiration. Unlike a write, it does not keep the
+   * following reads of the pod on the primary.
+   */
+  public static <T> T readFromPrimary(Supplier<T> action) {
+    Boolean previous = primaryRead.get();
+    primaryRead.set(true);
+    try {
+      return action.get();
+    } finally {
+      primaryRead.set(previous);
+    }
+  }
+
+  public static boolean isPrimaryRead() {
+    return Boolean.TRUE.equals(primaryRead.get());
+  }
+
   public static void clear() {
     tenant.remove();
+    readOnly.remove();
+    primaryRead.remove();
   }
 
 }
@@ -17,6 +17,8 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.config.properties;
 
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -40,10 +42,37 @@ public class EntConfigProperties {
     private String redisUserGroupsPassword;
     private Integer redisUserGroupsExpiration = 30;
     private Boolean redisUserGroupsWithSsl = false;
+    private Boolean redisUserGroupsNearCacheEnabled = false;
+    private Integer redisUserGroupsNearCacheSize = 10000;
+    private Integer redisUserGroupsNearCacheExpiration = 5;
+    private String redisUserGroupsInvalidationChannel = "entitlements-user-groups-invalidation";
+    private Integer redisUserGroupsRebuildLeaseExpiration = 5000;
+    private Integer redisUserGroupsRebuildLeaseWait = 2000;
+    private Boolean redisUserGroupsDeltaApplyEnabled = false;
+    private Boolean redisUserGroupsCompactCodecEnabled = false;
+    private Integer redisUserGroupsCompressionThreshold = 4096;
+    private Boolean redisUserGroupsDbInvalidationEnabled = false;
+    private Integer redisUserGroupsDbInvalidationCoalesceMillis = 200;
 
     private int partitionInfoVmCacheExpTime = 60;
     private int partitionInfoVmCacheSize = 100;
 
+    private Boolean closureTableEnabled = false;
+    private Boolean closureTableVerifyOnStartup = false;
+
+    private Boolean groupMemberCountEnabled = false;
+    private Boolean groupMemberCountVerifyOnStartup = false;
+
     private String systemTenant;
     private String partitionPropertiesPrefix;
+
+    private List<String> datasourcePrewarmPartitions = new ArrayList<>();
+    private Integer datasourceIdleEvictionMinutes = 0;
+    private Integer datasourceReplicaMaxLagMillis = 1000;
+    private Integer datasourceReplicaLagCheckSeconds = 5;
+
+    private Boolean eventOutboxEnabled = false;
+    private Integer eventOutboxRelayIntervalMillis = 1000;
+    private Integer eventOutboxRelayBatchSize = 100;
+    private Integer eventOutboxPublishBatchSize = 10;
 }
@@ -27,7 +27,6 @@ import org.opengroup.osdu.entitlements.v2.jdbc.interceptor.authenticator.IAuthen
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
-import org.springframework.web.servlet.ModelAndView;
 
 @Component
 @RequiredArgsConstructor
@@ -38,6 +37,7 @@ public class RequestHeaderInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ThreadLocalTenantStorage.clear();
         if (!request.getMethod().equalsIgnoreCase("GET") && request.getHeader(DpsHeaders.ON_BEHALF_OF) != null) {
             throw new AppException(HttpStatus.BAD_REQUEST.value(),
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
@@ -50,6 +50,7 @@ public class RequestHeaderInterceptor implements HandlerInterceptor {
         if (iAuthenticator.requestIsAuthenticated(request)) {
             String tenantId = request.getHeader(DpsHeaders.DATA_PARTITION_ID);
             ThreadLocalTenantStorage.setTenantName(tenantId);
+            ThreadLocalTenantStorage.setReadOnly(isReadOnlyRequest(request));
             return true;
         } else {
             throw new AppException(HttpStatus.UNAUTHORIZED.value(),
@@ -58,11 +59,23 @@ public class RequestHeaderInterceptor implements HandlerInterceptor {
         }
     }
 
+    /**
+     * Unlike postHandle, also called when the handler failed, so that the tenant does not leak to
+     * the next request served by the same thread.
+     */
     @Override
-    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
-        ModelAndView modelAndView) throws Exception {
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+        Exception ex) throws Exception {
         ThreadLocalTenantStorage.clear();
-        HandlerInterceptor.super.postHandle(request, response, handler, modelAndView);
+        HandlerInterceptor.super.afterCompletion(request, response, handler, ex);
+    }
+
+    /**
+     * GET endpoints, such as the groups and members listings and counts, never write, so their
+     * reads, including the user groups cache rebuilds, can go to a replica.
+     */
+    private boolean isReadOnlyRequest(HttpServletRequest request) {
+        return request.getMethod().equalsIgnoreCase("GET");
     }
 
     private boolean isSwaggerRequest(HttpServletRequest request) {
@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.logging.AsyncAuditSink;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the queue depth and the dropped and spilled events of the asynchronous audit sink.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditSinkMetrics implements MeterBinder {
+
+  private final AsyncAuditSink auditSink;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("entitlements.audit.queue.depth", auditSink, AsyncAuditSink::getQueueDepth)
+        .register(registry);
+    FunctionCounter.builder("entitlements.audit.dropped", auditSink,
+            AsyncAuditSink::getDroppedEvents)
+        .register(registry);
+    FunctionCounter.builder("entitlements.audit.spilled", auditSink,
+            AsyncAuditSink::getSpilledEvents)
+        .register(registry);
+  }
+}
@@ -1,63 +0,0 @@
-/*
- *  Copyright 2020-2022 Google LLC
- *  Copyright 2020-2022 EPAM Systems, Inc
- *
- *  Licensed under the Apache License, Version 2.0 (the "License");
- *  you may not use this file except in compliance with the License.
- *  You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- *  Unless required by applicable law or agreed to in writing, software
- *  distributed under the License is distributed on an "AS IS" BASIS,
- *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- *  See the License for the specific language governing permissions and
- *  limitations under the License.
- */
-
-package org.opengroup.osdu.entitlements.v2.jdbc.mapper;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import lombok.RequiredArgsConstructor;
-import org.opengroup.osdu.core.common.model.http.AppException;
-import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
-import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntityList;
-import org.springframework.http.HttpStatus;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.stereotype.Component;
-
-@Component
-@RequiredArgsConstructor
-public class GroupInfoEntityListMapper implements RowMapper<GroupInfoEntityList> {
-
-    private final ObjectMapper objectMapper;
-
-    @Override
-    public GroupInfoEntityList mapRow(ResultSet rs, int rowNum) {
-        GroupInfoEntityList.GroupInfoEntityListBuilder entityListBuilder = GroupInfoEntityList.builder();
-        try {
-            String groupInfoEntitiesRaw = rs.getString("groupInfoEntities");
-            if(Objects.nonNull(groupInfoEntitiesRaw) && !groupInfoEntitiesRaw.isEmpty()){
-                List<GroupInfoEntity> groupInfoEntities = objectMapper.readValue(groupInfoEntitiesRaw, new TypeReference<List<GroupInfoEntity>>() {
-                });
-                entityListBuilder.groupInfoEntities(groupInfoEntities);
-            }else {
-                entityListBuilder.groupInfoEntities(Collections.emptyList());
-            }
-            entityListBuilder.totalCount(rs.getLong("totalCount")).build();
-        } catch (JsonProcessingException e) {
-            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(),
-                "Unable to parse group info from database", e);
-        } catch (SQLException e) {
-            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(), "Database access error", e);
-        }
-        return entityListBuilder.build();
-    }
-}
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ChangeEventOutboxRunner;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stores the change events in the outbox of the current tenant from the transactional JDBC
+ * repositories, so that they commit or roll back with the membership change they describe. The
+ * events are the ones the core services publish afterwards, which {@link ChangeEventOutboxPublisher}
+ * then leaves out. {@link ChangeEventOutboxRelay} sends them to the broker publisher of the
+ * provider.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeEventOutbox {
+
+  static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private final EntConfigProperties properties;
+  private final ChangeEventOutboxRunner outboxRunner;
+  private final ChangeEventOutboxRelay outboxRelay;
+  private final RequestInfo requestInfo;
+
+  @Value("${event-publishing.enabled:false}")
+  private boolean eventPublishingEnabled;
+
+  public boolean isEnabled() {
+    return eventPublishingEnabled && Boolean.TRUE.equals(properties.getEventOutboxEnabled());
+  }
+
+  public void onMemberAdded(EntityNode groupNode, EntityNode memberNode) {
+    if (!isEnabled()) {
+      return;
+    }
+    store(groupNode.getDataPartitionId(), List.of(
+        memberChanged(groupNode.getNodeId(), memberNode.getNodeId(), EntitlementsChangeAction.add,
+            getRequesterId())));
+  }
+
+  public void onMembersAdded(List<BatchAddMemberRepoDto> memberships) {
+    if (!isEnabled() || memberships.isEmpty()) {
+      return;
+    }
+    String requesterId = getRequesterId();
+    store(memberships.get(0).getGroupNode().getDataPartitionId(), memberships.stream()
+        .map(membership -> memberChanged(membership.getGroupNode().getNodeId(),
+            membership.getAddMemberRepoDto().getMemberNode().getNodeId(),
+            EntitlementsChangeAction.add, requesterId))
+        .toList());
+  }
+
+  public void onMemberRemoved(List<String> groupEmails, String memberEmail, String partitionId,
+      String requesterId) {
+    if (!isEnabled() || groupEmails.isEmpty()) {
+      return;
+    }
+    store(partitionId, groupEmails.stream()
+        .map(groupEmail -> memberChanged(groupEmail, memberEmail, EntitlementsChangeAction.remove,
+            requesterId))
+        .toList());
+  }
+
+  public void onGroupDeleted(EntityNode groupNode) {
+    if (!isEnabled()) {
+      return;
+    }
+    store(groupNode.getDataPartitionId(), List.of(EntitlementsChangeEvent.builder()
+        .kind(EntitlementsChangeType.groupDeleted)
+        .group(groupNode.getNodeId())
+        .modifiedBy(getRequesterId())
+        .modifiedOn(System.currentTimeMillis())
+        .build()));
+  }
+
+  public void onGroupRenamed(EntityNode groupNode, String newGroupEmail) {
+    if (!isEnabled()) {
+      return;
+    }
+    store(groupNode.getDataPartitionId(), List.of(EntitlementsChangeEvent.builder()
+        .kind(EntitlementsChangeType.groupChanged)
+        .group(groupNode.getNodeId())
+        .updatedGroupEmail(newGroupEmail)
+        .action(EntitlementsChangeAction.replace)
+        .modifiedBy(getRequesterId())
+        .modifiedOn(System.currentTimeMillis())
+        .build()));
+  }
+
+  private void store(String partitionId, List<EntitlementsChangeEvent> events) {
+    outboxRunner.insert(partitionId, events.stream().map(ChangeEventOutbox::toJson).toList());
+    String tenant = ThreadLocalTenantStorage.getTenantName();
+    outboxRelay.register(Objects.isNull(tenant) ? properties.getSystemTenant() : tenant);
+  }
+
+  private String getRequesterId() {
+    return requestInfo.getHeaders().getUserId();
+  }
+
+  private static EntitlementsChangeEvent memberChanged(String groupEmail, String memberEmail,
+      EntitlementsChangeAction action, String requesterId) {
+    return EntitlementsChangeEvent.builder()
+        .kind(EntitlementsChangeType.groupChanged)
+        .group(groupEmail)
+        .user(memberEmail)
+        .action(action)
+        .modifiedBy(requesterId)
+        .modifiedOn(System.currentTimeMillis())
+        .build();
+  }
+
+  private static String toJson(EntitlementsChangeEvent event) {
+    try {
+      return OBJECT_MAPPER.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize the change event", e);
+    }
+  }
+}
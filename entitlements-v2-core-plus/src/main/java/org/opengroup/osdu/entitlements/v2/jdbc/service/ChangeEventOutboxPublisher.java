@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.model.status.Message;
+import org.opengroup.osdu.core.common.status.IEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replaces the broker publisher of the provider for the core services when the outbox is enabled.
+ * Their events are already stored by {@link ChangeEventOutbox} in the transaction of the change,
+ * so they are not sent again from here. {@link ChangeEventOutboxRelay} sends them afterwards to
+ * the broker publisher.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(value = "event-outbox-enabled", havingValue = "true")
+public class ChangeEventOutboxPublisher implements IEventPublisher {
+
+  @Override
+  public void publish(Message[] messages, Map<String, String> headers) {
+    log.debug("{} change events left to the outbox relay.", messages.length);
+  }
+}
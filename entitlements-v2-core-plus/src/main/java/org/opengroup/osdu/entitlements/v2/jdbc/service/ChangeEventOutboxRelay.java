@@ -0,0 +1,227 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.status.IEventPublisher;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.model.ChangeEventOutboxEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ChangeEventOutboxRunner;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends the events of the change event outbox to the broker publisher of the provider, that is
+ * the {@link IEventPublisher} other than {@link ChangeEventOutboxPublisher}. The application does
+ * not start with the outbox enabled and no such publisher, as the outbox would never be drained.
+ * Every event-outbox-relay-interval-millis the relay drains the outbox of the system tenant, of
+ * the pre-warmed partitions and of the tenants this pod stored events for since it started.
+ *
+ * <p>The delivery is at least once: the events are deleted in the transaction that locked them,
+ * after the broker accepted them, so that a failure or a crash in between sends them again. The
+ * identical events of a batch are sent once, and the changes of a group deleted later in the
+ * batch are not sent. The events go to the broker by event-outbox-publish-batch-size, which
+ * should match the batch size of the broker publisher.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeEventOutboxRelay {
+
+  private static final String DELIVERY_LAG_METRIC = "entitlements.outbox.delivery.lag";
+  private static final String OLDEST_EVENT_AGE_METRIC = "entitlements.outbox.oldest.age";
+
+  private final EntConfigProperties properties;
+  private final ChangeEventOutboxRunner outboxRunner;
+  private final ObjectProvider<IEventPublisher> eventPublishers;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  private final Set<String> tenants = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<String, AtomicLong> oldestEventAgeMillis = new ConcurrentHashMap<>();
+  private ScheduledExecutorService relayExecutor;
+
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!Boolean.TRUE.equals(properties.getEventOutboxEnabled())) {
+      return;
+    }
+    tenants.add(properties.getSystemTenant());
+    if (Objects.nonNull(properties.getDatasourcePrewarmPartitions())) {
+      tenants.addAll(properties.getDatasourcePrewarmPartitions());
+    }
+    if (Objects.isNull(findBrokerPublisher())) {
+      throw new IllegalStateException(
+          "event-outbox-enabled requires an event publisher of the provider to relay the outbox to");
+    }
+    long intervalMillis = properties.getEventOutboxRelayIntervalMillis();
+    relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "change-event-outbox-relay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    relayExecutor.scheduleWithFixedDelay(this::relayAll, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void register(String tenant) {
+    tenants.add(tenant);
+  }
+
+  void relayAll() {
+    IEventPublisher broker = findBrokerPublisher();
+    if (Objects.isNull(broker)) {
+      return;
+    }
+    int batchSize = properties.getEventOutboxRelayBatchSize();
+    for (String tenant : tenants) {
+      ThreadLocalTenantStorage.setTenantName(tenant);
+      try {
+        while (outboxRunner.relay(batchSize, events -> send(broker, events)) == batchSize) {
+          log.debug("Relayed a full batch of change events of tenant {}.", tenant);
+        }
+        recordOldestEventAge(tenant);
+      } catch (RuntimeException e) {
+        log.warn("Unable to relay the change events of tenant {}, retrying later.", tenant, e);
+        recordOldestEventAge(tenant);
+      } finally {
+        ThreadLocalTenantStorage.clear();
+      }
+    }
+  }
+
+  void send(IEventPublisher broker, List<ChangeEventOutboxEntity> outboxEvents) {
+    Map<String, List<EntitlementsChangeEvent>> eventsByPartition = new LinkedHashMap<>();
+    for (ChangeEventOutboxEntity outboxEvent : outboxEvents) {
+      EntitlementsChangeEvent event = fromJson(outboxEvent);
+      if (Objects.nonNull(event)) {
+        eventsByPartition.computeIfAbsent(outboxEvent.getPartitionId(), key -> new ArrayList<>())
+            .add(event);
+      }
+    }
+    int publishBatchSize = properties.getEventOutboxPublishBatchSize();
+    eventsByPartition.forEach((partitionId, events) -> {
+      List<EntitlementsChangeEvent> coalesced = coalesce(events);
+      Map<String, String> headers = Map.of(DpsHeaders.DATA_PARTITION_ID, partitionId);
+      for (int i = 0; i < coalesced.size(); i += publishBatchSize) {
+        broker.publish(coalesced.subList(i, Math.min(coalesced.size(), i + publishBatchSize))
+            .toArray(new EntitlementsChangeEvent[0]), headers);
+      }
+    });
+    Instant now = Instant.now();
+    meterRegistry.ifAvailable(registry -> outboxEvents.forEach(outboxEvent ->
+        Timer.builder(DELIVERY_LAG_METRIC)
+            .register(registry)
+            .record(Duration.between(outboxEvent.getCreatedAt(), now))));
+  }
+
+  /**
+   * Keeps the last of the events that differ only by their author and time, and drops the
+   * changes of a group that is deleted afterwards. The events stay in the order of their last
+   * occurrence, so that the final state of each membership is preserved.
+   */
+  static List<EntitlementsChangeEvent> coalesce(List<EntitlementsChangeEvent> events) {
+    Map<List<Object>, EntitlementsChangeEvent> latestEvents = new LinkedHashMap<>();
+    for (EntitlementsChangeEvent event : events) {
+      if (EntitlementsChangeType.groupDeleted.equals(event.getKind())) {
+        latestEvents.values().removeIf(previous ->
+            EntitlementsChangeType.groupChanged.equals(previous.getKind())
+                && previous.getGroup().equalsIgnoreCase(event.getGroup()));
+      }
+      List<Object> key = Arrays.asList(event.getKind(), event.getGroup(), event.getUser(),
+          event.getUpdatedGroupEmail(), event.getAction());
+      latestEvents.remove(key);
+      latestEvents.put(key, event);
+    }
+    return new ArrayList<>(latestEvents.values());
+  }
+
+  private IEventPublisher findBrokerPublisher() {
+    return eventPublishers.stream()
+        .filter(publisher -> !(publisher instanceof ChangeEventOutboxPublisher))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private void recordOldestEventAge(String tenant) {
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    if (Objects.isNull(registry)) {
+      return;
+    }
+    try {
+      long ageMillis = outboxRunner.findOldestCreatedAt()
+          .map(createdAt -> Duration.between(createdAt, Instant.now()).toMillis())
+          .orElse(0L);
+      oldestEventAgeMillis.computeIfAbsent(tenant, key -> {
+        AtomicLong age = new AtomicLong();
+        Gauge.builder(OLDEST_EVENT_AGE_METRIC, age, AtomicLong::get)
+            .tag("tenant", key)
+            .baseUnit("milliseconds")
+            .register(registry);
+        return age;
+      }).set(ageMillis);
+    } catch (RuntimeException e) {
+      log.debug("Unable to measure the change event outbox of tenant {}.", tenant, e);
+    }
+  }
+
+  /**
+   * An event that cannot be read is dropped instead of blocking the outbox.
+   */
+  private static EntitlementsChangeEvent fromJson(ChangeEventOutboxEntity outboxEvent) {
+    try {
+      return ChangeEventOutbox.OBJECT_MAPPER.readValue(outboxEvent.getPayload(),
+          EntitlementsChangeEvent.class);
+    } catch (JsonProcessingException e) {
+      log.error("Dropping the unreadable change event {} of the outbox.", outboxEvent.getId(), e);
+      return null;
+    }
+  }
+
+  @PreDestroy
+  private void shutDown() {
+    if (Objects.nonNull(relayExecutor)) {
+      relayExecutor.shutdownNow();
+    }
+  }
+}
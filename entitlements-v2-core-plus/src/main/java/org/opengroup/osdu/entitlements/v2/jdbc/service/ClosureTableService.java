@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ClosureTableRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point of the optional closure table mode. When enabled, the write repositories keep
+ * group_closure in sync with embedded_group and the read paths use it instead of recursive
+ * queries once the table of the tenant is known to be populated.
+ *
+ * <p>The tables of the pinned tenants (the system tenant and the pre-warmed partitions) are
+ * checked and backfilled on startup. Another tenant reads with the recursive queries while its
+ * table is checked, and backfilled if needed, in the background, never within a request. The
+ * writes maintain the table whether it is ready or not: a backfill only sees the committed edges,
+ * so the ones committed after it has to be applied on top of it.
+ *
+ * <p>The changes and the rebuild hold the same exclusive advisory lock of the schema until the
+ * end of their transaction, so that two edges added on the same path see each other's rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClosureTableService {
+
+  private final EntConfigProperties properties;
+  private final ClosureTableRunner closureTableRunner;
+
+  private final Set<String> readyTenants = ConcurrentHashMap.newKeySet();
+  private final Set<String> preparingTenants = ConcurrentHashMap.newKeySet();
+  private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "closure-table-rebuild");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!isEnabled()) {
+      return;
+    }
+    Set<String> tenants = new LinkedHashSet<>();
+    tenants.add(properties.getSystemTenant());
+    if (Objects.nonNull(properties.getDatasourcePrewarmPartitions())) {
+      tenants.addAll(properties.getDatasourcePrewarmPartitions());
+    }
+    for (String tenant : tenants) {
+      ThreadLocalTenantStorage.setTenantName(tenant);
+      try {
+        prepare(tenant, Boolean.TRUE.equals(properties.getClosureTableVerifyOnStartup()));
+      } catch (RuntimeException e) {
+        log.warn("Unable to prepare the closure table of tenant {}.", tenant, e);
+      } finally {
+        ThreadLocalTenantStorage.clear();
+      }
+    }
+  }
+
+  /**
+   * Whether the writes have to maintain the closure table.
+   */
+  public boolean isEnabled() {
+    return Boolean.TRUE.equals(properties.getClosureTableEnabled());
+  }
+
+  /**
+   * Whether the reads of the current tenant can use the closure table. The first call for a
+   * tenant that is not ready starts checking its table in the background.
+   */
+  public boolean isReady() {
+    if (!isEnabled()) {
+      return false;
+    }
+    String tenant = getCurrentTenant();
+    if (readyTenants.contains(tenant)) {
+      return true;
+    }
+    if (preparingTenants.add(tenant)) {
+      rebuildExecutor.execute(() -> prepareInBackground(tenant));
+    }
+    return false;
+  }
+
+  public void onGroupCreated(Long groupId) {
+    if (isEnabled()) {
+      closureTableRunner.lockPaths();
+      closureTableRunner.addGroup(groupId);
+    }
+  }
+
+  public void onEdgeAdded(Long parentId, Long childId) {
+    if (isEnabled()) {
+      closureTableRunner.lockPaths();
+      closureTableRunner.addEdge(parentId, childId);
+    }
+  }
+
+  public void onEdgeRemoved(Long parentId) {
+    if (isEnabled()) {
+      closureTableRunner.lockPaths();
+      closureTableRunner.recomputeAncestors(closureTableRunner.findAncestorIds(parentId));
+    }
+  }
+
+  /**
+   * Returns the ids of the groups whose paths have to be re-derived once the group is deleted or
+   * detached from all its parents.
+   */
+  public List<Long> beforeGroupDeleted(Long groupId) {
+    if (!isEnabled()) {
+      return Collections.emptyList();
+    }
+    closureTableRunner.lockPaths();
+    return closureTableRunner.findAncestorIds(groupId).stream()
+        .filter(ancestorId -> !Objects.equals(ancestorId, groupId))
+        .toList();
+  }
+
+  public void afterGroupDeleted(List<Long> ancestorIds) {
+    if (isEnabled()) {
+      closureTableRunner.recomputeAncestors(ancestorIds);
+    }
+  }
+
+  /**
+   * Compares the closure table of the current tenant with the result of the recursive walk over
+   * embedded_group and rebuilds it when they differ.
+   *
+   * @return true if the table was consistent
+   */
+  public boolean verifyAndRepair() {
+    long missingRows = closureTableRunner.countMissingRows();
+    long staleRows = closureTableRunner.countStaleRows();
+    if (missingRows == 0 && staleRows == 0) {
+      log.debug("Closure table of tenant {} is consistent.", getCurrentTenant());
+      return true;
+    }
+    log.warn("Closure table of tenant {} is inconsistent: {} missing and {} stale rows, rebuilding it.",
+        getCurrentTenant(), missingRows, staleRows);
+    closureTableRunner.rebuild();
+    return false;
+  }
+
+  private void prepare(String tenant, boolean verify) {
+    if (!closureTableRunner.isPopulated()) {
+      log.info("Closure table of tenant {} is not populated, rebuilding it.", tenant);
+      closureTableRunner.rebuild();
+    } else if (verify) {
+      verifyAndRepair();
+    }
+    readyTenants.add(tenant);
+  }
+
+  private void prepareInBackground(String tenant) {
+    ThreadLocalTenantStorage.setTenantName(tenant);
+    try {
+      prepare(tenant, false);
+    } catch (RuntimeException e) {
+      log.warn("Unable to prepare the closure table of tenant {}.", tenant, e);
+    } finally {
+      preparingTenants.remove(tenant);
+      ThreadLocalTenantStorage.clear();
+    }
+  }
+
+  private String getCurrentTenant() {
+    String tenant = ThreadLocalTenantStorage.getTenantName();
+    return Objects.isNull(tenant) ? properties.getSystemTenant() : tenant;
+  }
+
+  @PreDestroy
+  private void shutDown() {
+    rebuildExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.opengroup.osdu.entitlements.v2.jdbc.config.PropertyResolverUtil.getPartitionProperty;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.partition.IPropertyResolver;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantRoutingDatasource;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts the cached groups of the members whose memberships changed in the database, whoever
+ * changed them. The triggers of member_to_group and embedded_group send
+ * {@code schema:kind:partition:email} payloads on the {@value #CHANNEL} channel, where the kind
+ * is {@code m} for a user and {@code g} for a child group, whose members are evicted as well.
+ * The members and groups notify their own deletion, along with their direct members. The triggers
+ * only notify on the connections where the entitlements.notify setting is {@code on}: the pools of
+ * the service set it when the listener is enabled, other writers set it on the database.
+ *
+ * <p>Each pod listens on one connection per pinned tenant (the system tenant and the pre-warmed
+ * partitions), which stays borrowed from the pool of the tenant. The payloads received within
+ * redis-user-groups-db-invalidation-coalesce-millis are applied together. Postgres does not keep
+ * the notifications sent while a listener is disconnected, so after a reconnection the local
+ * entries are dropped and the shared ones are left to their expiration.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatabaseInvalidationListener {
+
+  static final String CHANNEL = "entitlements_invalidation";
+
+  private static final String MEMBER_CHANGE = "m";
+  private static final String GROUP_CHANGE = "g";
+  private static final int POLL_TIMEOUT_MILLIS = 1000;
+  private static final long INITIAL_BACKOFF_MILLIS = 500;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+  private final EntConfigProperties properties;
+  private final IPropertyResolver propertyResolver;
+  private final DataSource dataSource;
+  private final GroupCacheServiceJdbc groupCacheService;
+  private final JdbcTemplateRunner jdbcTemplateRunner;
+
+  private volatile boolean running;
+  private ExecutorService listenerExecutor;
+
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!Boolean.TRUE.equals(properties.getRedisUserGroupsDbInvalidationEnabled())) {
+      return;
+    }
+    Set<String> tenants = new LinkedHashSet<>();
+    tenants.add(properties.getSystemTenant());
+    if (Objects.nonNull(properties.getDatasourcePrewarmPartitions())) {
+      tenants.addAll(properties.getDatasourcePrewarmPartitions());
+    }
+    running = true;
+    listenerExecutor = Executors.newFixedThreadPool(tenants.size(), runnable -> {
+      Thread thread = new Thread(runnable, "db-invalidation-listener");
+      thread.setDaemon(true);
+      return thread;
+    });
+    tenants.forEach(tenant -> listenerExecutor.execute(() -> listen(tenant)));
+  }
+
+  private void listen(String tenant) {
+    ThreadLocalTenantStorage.setTenantName(tenant);
+    String schema = getPartitionProperty(properties, propertyResolver,
+        MultiTenantRoutingDatasource.SCHEMA, tenant);
+    long backoffMillis = INITIAL_BACKOFF_MILLIS;
+    boolean reconnecting = false;
+    try {
+      while (running) {
+        try (Connection connection = dataSource.getConnection()) {
+          try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+          }
+          if (reconnecting) {
+            groupCacheService.invalidateLocalCache();
+          }
+          log.info("Listening to the database invalidations of tenant {}.", tenant);
+          backoffMillis = INITIAL_BACKOFF_MILLIS;
+          receive(connection.unwrap(PGConnection.class), schema);
+        } catch (SQLException | RuntimeException e) {
+          if (!running) {
+            return;
+          }
+          log.warn("Lost the database invalidations of tenant {}, reconnecting in {} ms.",
+              tenant, backoffMillis, e);
+          reconnecting = true;
+          TimeUnit.MILLISECONDS.sleep(backoffMillis);
+          backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      ThreadLocalTenantStorage.clear();
+    }
+  }
+
+  private void receive(PGConnection connection, String schema) throws SQLException {
+    long coalesceNanos = TimeUnit.MILLISECONDS.toNanos(
+        properties.getRedisUserGroupsDbInvalidationCoalesceMillis());
+    while (running) {
+      Set<String> payloads = new LinkedHashSet<>();
+      addPayloads(payloads, connection.getNotifications(POLL_TIMEOUT_MILLIS));
+      if (payloads.isEmpty()) {
+        continue;
+      }
+      long deadline = System.nanoTime() + coalesceNanos;
+      long remainingMillis;
+      while ((remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+        addPayloads(payloads, connection.getNotifications((int) remainingMillis));
+      }
+      applyPayloads(schema, payloads);
+    }
+  }
+
+  private static void addPayloads(Set<String> payloads, PGNotification[] notifications) {
+    if (Objects.nonNull(notifications)) {
+      for (PGNotification notification : notifications) {
+        payloads.add(notification.getParameter());
+      }
+    }
+  }
+
+  /**
+   * Evicts every impacted member once. The payloads of other schemas, sent by the tenants
+   * sharing the database, are left to their own listener.
+   */
+  void applyPayloads(String schema, Collection<String> payloads) {
+    Map<String, Set<String>> membersByPartition = new HashMap<>();
+    for (String payload : payloads) {
+      String[] parts = payload.split(":", 4);
+      if (parts.length != 4 || (Objects.nonNull(schema) && !schema.equalsIgnoreCase(parts[0]))) {
+        continue;
+      }
+      String partitionId = parts[2];
+      String email = parts[3];
+      Set<String> members = membersByPartition.computeIfAbsent(partitionId,
+          key -> new LinkedHashSet<>());
+      if (MEMBER_CHANGE.equals(parts[1])) {
+        members.add(email);
+      } else if (GROUP_CHANGE.equals(parts[1])) {
+        members.add(email);
+        try {
+          members.addAll(jdbcTemplateRunner.getAffectedMembersForGroup(
+              EntityNode.createNodeFromGroupEmail(email)));
+        } catch (RuntimeException e) {
+          log.warn("Unable to load the members of group {} to invalidate.", email, e);
+        }
+      }
+    }
+    membersByPartition.forEach((partitionId, members) -> members.forEach(member -> {
+      try {
+        groupCacheService.evictListGroupCacheForUser(member, partitionId);
+      } catch (RuntimeException e) {
+        log.warn("Unable to invalidate the cached groups of {}.", member, e);
+      }
+    }));
+  }
+
+  @PreDestroy
+  private void shutDown() {
+    running = false;
+    if (Objects.nonNull(listenerExecutor)) {
+      listenerExecutor.shutdownNow();
+    }
+  }
+}
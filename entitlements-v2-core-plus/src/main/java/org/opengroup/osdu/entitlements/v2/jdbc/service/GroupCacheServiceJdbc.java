@@ -17,28 +17,65 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.service;
 
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.core.common.cache.ICache;
 import org.opengroup.osdu.entitlements.v2.jdbc.JdbcAppProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.NearCache;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.RedisLease;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.SingleFlight;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferencesDelta;
+import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.service.GroupCacheService;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.opengroup.osdu.entitlements.v2.util.GroupEmailUtil;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class GroupCacheServiceJdbc implements GroupCacheService {
 
+    private static final String LEASE_KEY_PREFIX = "lease-";
+    private static final long LEASE_POLL_INTERVAL_MILLIS = 50;
+
     private final JdbcAppProperties config;
 
+    private final EntConfigProperties properties;
+
     private final ICache<String, ParentReferences> entityGroupsCache;
 
     private final RetrieveGroupRepo retrieveGroupRepo;
 
+    private final SingleFlight<ParentReferences> singleFlight;
+
+    private final ObjectProvider<RedisLease> rebuildLease;
+
+    private final ListGroupResponseCache listGroupResponseCache;
+
+    /**
+     * The rendered responses of the other pods are dropped along with their near cache entries,
+     * and all of them once the near cache is dropped on resubscription.
+     */
+    @PostConstruct
+    void subscribeResponseCacheInvalidation() {
+        if (entityGroupsCache instanceof NearCache<ParentReferences> nearCache) {
+            nearCache.addInvalidationListener(cacheKey ->
+                listGroupResponseCache.invalidate(cacheKey.substring(0, cacheKey.lastIndexOf('-'))));
+            nearCache.addResubscriptionListener(listGroupResponseCache::invalidateAll);
+        }
+    }
+
     @Override
     public Set<ParentReference> getFromPartitionCache(String requesterId, String partitionId) {
         return getFromPartitionCache(requesterId, partitionId, Boolean.FALSE);
@@ -61,11 +98,61 @@ public class GroupCacheServiceJdbc implements GroupCacheService {
         }
     }
 
+    /**
+     * Patches the cached parent references of the impacted users with the gained references
+     * instead of deleting them, so that adding a member with many transitive users does not force
+     * as many cold rebuilds. Entries that are not cached are left to the next read. The patches
+     * need the rebuild lease, without it the entries are deleted.
+     */
+    @Override
+    public void applyParentReferencesDelta(Set<String> userIds, String partitionId,
+        ParentReferencesDelta delta) {
+        if (!Boolean.TRUE.equals(properties.getRedisUserGroupsDeltaApplyEnabled())) {
+            refreshListGroupCache(userIds, partitionId);
+            return;
+        }
+        Set<ParentReference> inheritedParents = delta.getInheritedParents().get();
+        for (String userId : userIds) {
+            EntityNode node = getNodeByNodeType(userId, partitionId);
+            boolean directMember = node.getNodeId()
+                .equalsIgnoreCase(delta.getMemberNode().getNodeId());
+            patchCacheEntry(getCacheKey(node, false), delta, inheritedParents, directMember, false);
+            patchCacheEntry(getCacheKey(node, true), delta, inheritedParents, directMember, true);
+            listGroupResponseCache.invalidate(node.getUniqueIdentifier());
+        }
+    }
+
     @Override
     public void flushListGroupCacheForUser(String userId, String partitionId) {
         EntityNode node = getNodeByNodeType(userId, partitionId);
         entityGroupsCache.delete(getCacheKey(node, true));
         entityGroupsCache.delete(getCacheKey(node, false));
+        listGroupResponseCache.invalidate(node.getUniqueIdentifier());
+    }
+
+    /**
+     * Same as {@link #flushListGroupCacheForUser(String, String)}, for invalidations received by
+     * every pod: the near cache entries are not broadcast again.
+     */
+    public void evictListGroupCacheForUser(String userId, String partitionId) {
+        EntityNode node = getNodeByNodeType(userId, partitionId);
+        if (entityGroupsCache instanceof NearCache<ParentReferences> nearCache) {
+            nearCache.evict(getCacheKey(node, true));
+            nearCache.evict(getCacheKey(node, false));
+            listGroupResponseCache.invalidate(node.getUniqueIdentifier());
+        } else {
+            flushListGroupCacheForUser(userId, partitionId);
+        }
+    }
+
+    /**
+     * Drops the entries this pod holds locally, the shared ones are left to their expiration.
+     */
+    public void invalidateLocalCache() {
+        if (entityGroupsCache instanceof NearCache<ParentReferences> nearCache) {
+            nearCache.getLocalCache().invalidateAll();
+        }
+        listGroupResponseCache.invalidateAll();
     }
 
     private EntityNode getNodeByNodeType(String memberId, String partitionId) {
@@ -79,16 +166,141 @@ public class GroupCacheServiceJdbc implements GroupCacheService {
         String cacheKey = getCacheKey(entityNode, roleRequired);
         ParentReferences parentReferences = this.entityGroupsCache.get(cacheKey);
         if (parentReferences == null) {
-            Set<ParentReference> parentReferenceSet = retrieveGroupRepo
-                .loadAllParents(entityNode, roleRequired)
-                .getParentReferences();
-            parentReferences = new ParentReferences();
-            parentReferences.setParentReferencesOfUser(parentReferenceSet);
-            entityGroupsCache.put(cacheKey, parentReferences);
+            parentReferences = singleFlight.execute(cacheKey,
+                () -> rebuildCacheEntry(entityNode, cacheKey, roleRequired));
+        }
+        return parentReferences;
+    }
+
+    /**
+     * Runs once per pod for concurrent misses of the same key. When the rebuild lease is
+     * enabled, only the lease holder queries the database and the other pods wait for its
+     * result to appear in the cache, loading it themselves if it does not in time.
+     */
+    private ParentReferences rebuildCacheEntry(EntityNode entityNode, String cacheKey,
+        boolean roleRequired) {
+        ParentReferences parentReferences = entityGroupsCache.get(cacheKey);
+        if (parentReferences != null) {
+            return parentReferences;
+        }
+        RedisLease lease = rebuildLease.getIfAvailable();
+        if (lease == null) {
+            return loadAndCache(entityNode, cacheKey, roleRequired);
+        }
+
+        String leaseKey = LEASE_KEY_PREFIX + cacheKey;
+        String token = lease.tryAcquire(leaseKey);
+        if (token != null) {
+            try {
+                return loadAndCache(entityNode, cacheKey, roleRequired);
+            } finally {
+                lease.release(leaseKey, token);
+            }
         }
+
+        parentReferences = awaitCacheEntry(cacheKey, lease.getWaitMillis());
+        return parentReferences != null
+            ? parentReferences
+            : loadAndCache(entityNode, cacheKey, roleRequired);
+    }
+
+    private ParentReferences awaitCacheEntry(String cacheKey, long waitMillis) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(LEASE_POLL_INTERVAL_MILLIS);
+                ParentReferences parentReferences = entityGroupsCache.get(cacheKey);
+                if (parentReferences != null) {
+                    return parentReferences;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * The parents are read from the primary even for a read-only request, as the entry is shared
+     * with the other pods that may have just changed them.
+     */
+    private ParentReferences loadAndCache(EntityNode entityNode, String cacheKey,
+        boolean roleRequired) {
+        Set<ParentReference> parentReferenceSet = ThreadLocalTenantStorage.readFromPrimary(() ->
+            retrieveGroupRepo.loadAllParents(entityNode, roleRequired).getParentReferences());
+        ParentReferences parentReferences = new ParentReferences();
+        parentReferences.setParentReferencesOfUser(parentReferenceSet);
+        entityGroupsCache.put(cacheKey, parentReferences);
         return parentReferences;
     }
 
+    /**
+     * The patch holds the rebuild lease of the entry, so it does not interleave with a rebuild or
+     * another patch. Without the rebuild lease, or when it is taken, the entry is deleted as
+     * {@link #flushListGroupCacheForUser(String, String)} does, since concurrent patches would
+     * each write back their own merge.
+     */
+    private void patchCacheEntry(String cacheKey, ParentReferencesDelta delta,
+        Set<ParentReference> inheritedParents, boolean directMember, boolean roleRequired) {
+        RedisLease lease = rebuildLease.getIfAvailable();
+        String leaseKey = LEASE_KEY_PREFIX + cacheKey;
+        String token = lease == null ? null : lease.tryAcquire(leaseKey);
+        if (token == null) {
+            entityGroupsCache.delete(cacheKey);
+            return;
+        }
+        try {
+            ParentReferences parentReferences = entityGroupsCache.get(cacheKey);
+            if (parentReferences == null) {
+                return;
+            }
+            parentReferences.setParentReferencesOfUser(mergeParentReferences(
+                parentReferences.getParentReferencesOfUser(), delta, inheritedParents, directMember,
+                roleRequired));
+            if (entityGroupsCache instanceof NearCache<ParentReferences> nearCache) {
+                nearCache.replace(cacheKey, parentReferences);
+            } else {
+                entityGroupsCache.put(cacheKey, parentReferences);
+            }
+        } finally {
+            lease.release(leaseKey, token);
+        }
+    }
+
+    /**
+     * Mirrors the roles returned by the parents query: the role is only kept with roleRequired,
+     * a direct member gets its own role in the group and every inherited group is a MEMBER one.
+     */
+    private static Set<ParentReference> mergeParentReferences(Set<ParentReference> cached,
+        ParentReferencesDelta delta, Set<ParentReference> inheritedParents, boolean directMember,
+        boolean roleRequired) {
+        String inheritedRole = roleRequired ? Role.MEMBER.getValue() : null;
+        Map<String, ParentReference> referencesById = new HashMap<>();
+        cached.forEach(ref -> referencesById.put(ref.getId(), ref));
+        inheritedParents.forEach(ref ->
+            referencesById.putIfAbsent(ref.getId(), withRole(ref, inheritedRole)));
+
+        ParentReference directParent = delta.getDirectParent();
+        if (directMember && roleRequired) {
+            referencesById.put(directParent.getId(),
+                withRole(directParent, delta.getRole().getValue()));
+        } else {
+            referencesById.putIfAbsent(directParent.getId(), withRole(directParent, inheritedRole));
+        }
+        return new HashSet<>(referencesById.values());
+    }
+
+    private static ParentReference withRole(ParentReference ref, String role) {
+        return ParentReference.builder()
+            .id(ref.getId())
+            .name(ref.getName())
+            .description(ref.getDescription())
+            .dataPartitionId(ref.getDataPartitionId())
+            .appIds(ref.getAppIds())
+            .role(role)
+            .build();
+    }
+
     private static String getCacheKey(EntityNode entityNode, boolean roleRequired) {
         return entityNode.getUniqueIdentifier() + "-" + roleRequired;
     }
@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupMemberCountRunner;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point of the optional group size counters. When enabled, the write repositories keep
+ * group_member_count in sync with member_to_group and embedded_group in the same transaction,
+ * and the group size is read from it instead of being counted.
+ *
+ * <p>The counters of the pinned tenants (the system tenant and the pre-warmed partitions) are
+ * backfilled on startup. The group size of another tenant whose table is not populated yet is
+ * counted while its counters are backfilled in the background, never within a request. The
+ * writers hold a shared advisory lock until the end of their transaction and the rebuild an
+ * exclusive one, so that no update is lost while the counters are recomputed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroupMemberCountService {
+
+  private final EntConfigProperties properties;
+  private final GroupMemberCountRunner groupMemberCountRunner;
+
+  private final Set<String> readyTenants = ConcurrentHashMap.newKeySet();
+  private final Set<String> rebuildingTenants = ConcurrentHashMap.newKeySet();
+  private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "group-member-count-rebuild");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!isEnabled()) {
+      return;
+    }
+    Set<String> tenants = new LinkedHashSet<>();
+    tenants.add(properties.getSystemTenant());
+    if (Objects.nonNull(properties.getDatasourcePrewarmPartitions())) {
+      tenants.addAll(properties.getDatasourcePrewarmPartitions());
+    }
+    for (String tenant : tenants) {
+      ThreadLocalTenantStorage.setTenantName(tenant);
+      try {
+        if (!groupMemberCountRunner.isPopulated()) {
+          log.info("Group member counters of tenant {} are not populated, rebuilding them.", tenant);
+          groupMemberCountRunner.rebuild();
+        } else if (Boolean.TRUE.equals(properties.getGroupMemberCountVerifyOnStartup())) {
+          verifyAndRepair();
+        }
+        readyTenants.add(tenant);
+      } catch (RuntimeException e) {
+        log.warn("Unable to prepare the group member counters of tenant {}.", tenant, e);
+      } finally {
+        ThreadLocalTenantStorage.clear();
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return Boolean.TRUE.equals(properties.getGroupMemberCountEnabled());
+  }
+
+  public void onGroupCreated(Long groupId) {
+    if (isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.addGroup(groupId);
+    }
+  }
+
+  public void onUserAdded(Long groupId, Role role) {
+    if (isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.addUser(groupId, role);
+    }
+  }
+
+  public void onUserAdded(String groupEmail, Role role) {
+    if (isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.addUser(groupEmail, role);
+    }
+  }
+
+  public void onUsersAdded(List<BatchAddMemberRepoDto> memberships) {
+    if (!memberships.isEmpty() && isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.addUsers(memberships);
+    }
+  }
+
+  public void onChildGroupAdded(Long parentId) {
+    if (isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.addChildGroup(parentId);
+    }
+  }
+
+  /**
+   * Must be called before the memberships are deleted.
+   */
+  public void beforeUserRemoved(String memberEmail, List<String> groupEmails) {
+    if (!groupEmails.isEmpty() && isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.removeUserFromGroups(memberEmail, groupEmails);
+    }
+  }
+
+  /**
+   * Must be called before the child group is detached from the parents.
+   */
+  public void beforeChildGroupRemoved(Long childId, List<String> parentEmails) {
+    if (!parentEmails.isEmpty() && isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.removeChildGroupFromParents(childId, parentEmails);
+    }
+  }
+
+  /**
+   * Must be called before the group is deleted.
+   */
+  public void beforeGroupDeleted(Long groupId) {
+    if (isEnabled()) {
+      groupMemberCountRunner.lockCounters();
+      groupMemberCountRunner.removeChildGroupFromAllParents(groupId);
+    }
+  }
+
+  /**
+   * @return the number of direct members of the group with the given role, all of them if the
+   * role is null, or empty when the counters are disabled or not populated yet
+   */
+  public Optional<Integer> findMembersCount(String groupEmail, Role role) {
+    if (!isEnabled() || !isReady(getCurrentTenant())) {
+      return Optional.empty();
+    }
+    return groupMemberCountRunner.findMembersCount(groupEmail, role);
+  }
+
+  /**
+   * @return the number of direct members of every given group with counters, of all roles, or
+   * empty when the counters are disabled or not populated yet
+   */
+  public Optional<Map<String, Integer>> findMembersCounts(Collection<String> groupEmails) {
+    if (!isEnabled() || !isReady(getCurrentTenant())) {
+      return Optional.empty();
+    }
+    return Optional.of(groupMemberCountRunner.findMembersCounts(groupEmails));
+  }
+
+  /**
+   * Compares the counters of the current tenant with the actual memberships and rebuilds them
+   * when they differ.
+   *
+   * @return true if the counters were consistent
+   */
+  public boolean verifyAndRepair() {
+    long staleRows = groupMemberCountRunner.countStaleRows();
+    if (staleRows == 0) {
+      log.debug("Group member counters of tenant {} are consistent.", getCurrentTenant());
+      return true;
+    }
+    log.warn("Group member counters of tenant {} are inconsistent for {} groups, rebuilding them.",
+        getCurrentTenant(), staleRows);
+    groupMemberCountRunner.rebuild();
+    return false;
+  }
+
+  private boolean isReady(String tenant) {
+    if (readyTenants.contains(tenant)) {
+      return true;
+    }
+    if (groupMemberCountRunner.isPopulated()) {
+      readyTenants.add(tenant);
+      return true;
+    }
+    if (rebuildingTenants.add(tenant)) {
+      rebuildExecutor.execute(() -> rebuildInBackground(tenant));
+    }
+    return false;
+  }
+
+  private void rebuildInBackground(String tenant) {
+    ThreadLocalTenantStorage.setTenantName(tenant);
+    try {
+      log.info("Group member counters of tenant {} are not populated, rebuilding them.", tenant);
+      groupMemberCountRunner.rebuild();
+      readyTenants.add(tenant);
+    } catch (RuntimeException e) {
+      log.warn("Unable to rebuild the group member counters of tenant {}.", tenant, e);
+    } finally {
+      rebuildingTenants.remove(tenant);
+      ThreadLocalTenantStorage.clear();
+    }
+  }
+
+  private String getCurrentTenant() {
+    String tenant = ThreadLocalTenantStorage.getTenantName();
+    return Objects.isNull(tenant) ? properties.getSystemTenant() : tenant;
+  }
+
+  @PreDestroy
+  private void shutDown() {
+    rebuildExecutor.shutdownNow();
+  }
+}
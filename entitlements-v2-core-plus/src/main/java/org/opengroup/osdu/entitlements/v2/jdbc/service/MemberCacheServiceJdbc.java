@@ -14,8 +14,13 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.service;
 
+import java.util.Collection;
+import java.util.Map;
+
+import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountServiceDto;
 import org.opengroup.osdu.entitlements.v2.service.GroupCacheService;
 import org.opengroup.osdu.entitlements.v2.service.MemberCacheService;
+import org.opengroup.osdu.entitlements.v2.spi.memberscount.MembersCountRepo;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -25,6 +30,24 @@ import lombok.RequiredArgsConstructor;
 public class MemberCacheServiceJdbc implements MemberCacheService {
 
     private final GroupCacheService groupCacheService;
+    private final MembersCountRepo membersCountRepo;
+
+    /**
+     * The members of a group are not cached here, the size is read from the group member counters
+     * or counted by the database.
+     */
+    @Override
+    public int getGroupSize(String groupId, String partitionId) {
+        return membersCountRepo.getMembersCount(MembersCountServiceDto.builder()
+                .groupId(groupId)
+                .partitionId(partitionId)
+                .build()).getMembersCount();
+    }
+
+    @Override
+    public Map<String, Integer> getGroupSizes(Collection<String> groupIds, String partitionId) {
+        return membersCountRepo.getMembersCounts(partitionId, groupIds);
+    }
 
     @Override
     public void flushListMemberCacheForGroup(String groupId, String partitionId) {
@@ -20,25 +20,32 @@ package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.addmember;
 import static java.lang.String.format;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ChangeEventOutbox;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics.DbRoundTripMetrics;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
-import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.MemberRepository;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.spi.Operation;
 import org.opengroup.osdu.entitlements.v2.spi.addmember.AddMemberRepo;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -46,15 +53,20 @@ public class AddMemberRepoJdbc implements AddMemberRepo {
 
 	private final JaxRsDpsLog log;
 	private final GroupRepository groupRepository;
-	private final MemberRepository memberRepository;
 	private final JdbcTemplateRunner jdbcTemplateRunner;
+	private final ClosureTableService closureTableService;
+	private final GroupMemberCountService groupMemberCountService;
+	private final DbRoundTripMetrics dbRoundTripMetrics;
+	private final ChangeEventOutbox changeEventOutbox;
 
 	@Override
+	@Transactional
 	public Set<String> addMember(EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto) {
 		log.debug(format("Adding member %s into the group %s and updating the data model in database", addMemberRepoDto.getMemberNode().getNodeId(), groupEntityNode.getNodeId()));
 
 		try {
-			return executeAddMemberOperation(groupEntityNode, addMemberRepoDto);
+			return dbRoundTripMetrics.measure(DbRoundTripMetrics.ADD_MEMBER,
+					() -> executeAddMemberOperation(groupEntityNode, addMemberRepoDto));
 		} catch (DuplicateKeyException e) {
 			throw new DatabaseAccessException(HttpStatus.CONFLICT, format(
 					"%s is already a member of group %s",
@@ -71,6 +83,23 @@ public class AddMemberRepoJdbc implements AddMemberRepo {
 		}
 	}
 
+	/**
+	 * Groups added as members go through the single membership path as every new edge has to be
+	 * reflected in the closure table, users are inserted with two batched statements.
+	 */
+	@Override
+	@Transactional
+	public Set<String> addMembers(List<BatchAddMemberRepoDto> memberships) {
+		log.debug(format("Adding %d memberships and updating the data model in database", memberships.size()));
+
+		try {
+			return dbRoundTripMetrics.measure(DbRoundTripMetrics.ADD_MEMBERS,
+					() -> executeAddMembersOperation(memberships));
+		} catch (DuplicateKeyException e) {
+			throw new DatabaseAccessException(HttpStatus.CONFLICT, "One of the members is already a member of its group");
+		}
+	}
+
 	@Override
 	public Set<String> addMember(Deque<Operation> executedCommands, EntityNode groupEntityNode,
 			AddMemberRepoDto addMemberRepoDto) {
@@ -78,6 +107,7 @@ public class AddMemberRepoJdbc implements AddMemberRepo {
 	}
 
 	private Set<String> executeAddMemberOperation(EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto) {
+		changeEventOutbox.onMemberAdded(groupEntityNode, addMemberRepoDto.getMemberNode());
 		if (addMemberRepoDto.getMemberNode().isGroup()) {
 			addGroupAsChild(groupEntityNode, addMemberRepoDto);
 			return jdbcTemplateRunner.getAffectedMembersForGroup(addMemberRepoDto.getMemberNode());
@@ -87,23 +117,52 @@ public class AddMemberRepoJdbc implements AddMemberRepo {
 		}
 	}
 
-	private void addMemberInGroup(EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto) {
-		Optional<MemberInfoEntity> memberInfoEntity = memberRepository.findByEmail(addMemberRepoDto.getMemberNode().getNodeId())
-				.stream()
-				.findFirst();
-
-		Long memberId = memberInfoEntity.isPresent() ?
-				memberInfoEntity.get().getId():
-				jdbcTemplateRunner.saveMemberInfoEntity(
-						MemberInfoEntity.fromEntityNode(
-								addMemberRepoDto.getMemberNode(),
-								addMemberRepoDto.getRole()));
+	private Set<String> executeAddMembersOperation(List<BatchAddMemberRepoDto> memberships) {
+		changeEventOutbox.onMembersAdded(memberships);
+		Set<String> impactedUsers = new HashSet<>();
+		List<BatchAddMemberRepoDto> userMemberships = new ArrayList<>();
+		for (BatchAddMemberRepoDto membership : memberships) {
+			EntityNode memberNode = membership.getAddMemberRepoDto().getMemberNode();
+			if (memberNode.isGroup()) {
+				addGroupAsChild(membership.getGroupNode(), membership.getAddMemberRepoDto());
+				impactedUsers.addAll(jdbcTemplateRunner.getAffectedMembersForGroup(memberNode));
+			} else {
+				userMemberships.add(membership);
+				impactedUsers.add(memberNode.getNodeId());
+			}
+		}
+		if (userMemberships.isEmpty()) {
+			return impactedUsers;
+		}
 
-		GroupInfoEntity groupInfoEntity = groupRepository.findByEmail(groupEntityNode.getNodeId()).stream()
-				.findFirst()
-				.orElseThrow(() -> DatabaseAccessException.createNotFound(groupEntityNode.getNodeId()));
+		jdbcTemplateRunner.saveMemberInfoEntities(userMemberships.stream()
+				.map(membership -> MemberInfoEntity.fromEntityNode(
+						membership.getAddMemberRepoDto().getMemberNode(),
+						membership.getAddMemberRepoDto().getRole()))
+				.toList());
+		int[] insertedRows = jdbcTemplateRunner.addMembersToGroupsByEmail(userMemberships);
+		for (int i = 0; i < insertedRows.length; i++) {
+			if (insertedRows[i] == 0) {
+				throw DatabaseAccessException.createNotFound(userMemberships.get(i).getGroupNode().getNodeId());
+			}
+		}
+		groupMemberCountService.onUsersAdded(userMemberships);
+		return impactedUsers;
+	}
 
-		groupRepository.addMemberById(groupInfoEntity.getId(), memberId, addMemberRepoDto.getRole().getValue());
+	/**
+	 * Creates the member if needed and adds it into the group with a single statement. The edge is retried on its own
+	 * only when a concurrent transaction created the same member in the meantime.
+	 */
+	private void addMemberInGroup(EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto) {
+		if (jdbcTemplateRunner.upsertMemberAndAddToGroupByEmail(
+				groupEntityNode.getNodeId(), addMemberRepoDto.getMemberNode(), addMemberRepoDto.getRole()) == 0) {
+			if (jdbcTemplateRunner.addMemberToGroupByEmail(groupEntityNode.getNodeId(),
+					addMemberRepoDto.getMemberNode().getNodeId(), addMemberRepoDto.getRole()) == 0) {
+				throw DatabaseAccessException.createNotFound(groupEntityNode.getNodeId());
+			}
+		}
+		groupMemberCountService.onUserAdded(groupEntityNode.getNodeId(), addMemberRepoDto.getRole());
 	}
 
 	private void addGroupAsChild(EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto) {
@@ -117,5 +176,7 @@ public class AddMemberRepoJdbc implements AddMemberRepo {
 				.orElseThrow(() -> DatabaseAccessException.createNotFound(groupEntityNode.getNodeId()));
 
 		groupRepository.addChildGroupById(groupInfoEntity.getId(), childInfoEntity.getId());
+		closureTableService.onEdgeAdded(groupInfoEntity.getId(), childInfoEntity.getId());
+		groupMemberCountService.onChildGroupAdded(groupInfoEntity.getId());
 	}
 }
@@ -27,6 +27,8 @@ import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.MemberRepository;
@@ -39,6 +41,7 @@ import org.opengroup.osdu.entitlements.v2.spi.creategroup.CreateGroupRepo;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -49,8 +52,11 @@ public class CreateGroupRepoJdbc implements CreateGroupRepo {
 	private final MemberRepository memberRepository;
 	private final JdbcTemplateRunner jdbcTemplateRunner;
 	private final GroupCacheService groupCacheService;
+	private final ClosureTableService closureTableService;
+	private final GroupMemberCountService groupMemberCountService;
 
 	@Override
+	@Transactional
 	public Set<String> createGroup(EntityNode groupNode, CreateGroupRepoDto createGroupRepoDto) {
 		log.debug(String.format("Creating group %s and updating data model in postgres",
 			groupNode.getName()));
@@ -76,6 +82,8 @@ public class CreateGroupRepoJdbc implements CreateGroupRepo {
 
 	private void executeCreateGroupOperation(EntityNode groupNode, CreateGroupRepoDto createGroupRepoDto){
 		GroupInfoEntity createdGroup = groupRepository.save(GroupInfoEntity.fromEntityNode(groupNode));
+		closureTableService.onGroupCreated(createdGroup.getId());
+		groupMemberCountService.onGroupCreated(createdGroup.getId());
 		addRequesterAsOwnerMemberToGroup(createdGroup, createGroupRepoDto);
 
 		if (createGroupRepoDto.isAddDataRootGroup()) {
@@ -99,6 +107,8 @@ public class CreateGroupRepoJdbc implements CreateGroupRepo {
 				createGroupRepoDto.getDataRootGroupNode());
 
 		groupRepository.addChildGroupById(createdGroup.getId(), dataRootGroup.getId());
+		closureTableService.onEdgeAdded(createdGroup.getId(), dataRootGroup.getId());
+		groupMemberCountService.onChildGroupAdded(createdGroup.getId());
 
 		groupCacheService.refreshListGroupCache(dataRootGroupMembers,
 				createGroupRepoDto.getPartitionId());
@@ -116,6 +126,7 @@ public class CreateGroupRepoJdbc implements CreateGroupRepo {
 						Role.OWNER
 				));
 		groupRepository.addMemberById(createdGroup.getId(), requesterId, Role.OWNER.getValue());
+		groupMemberCountService.onUserAdded(createdGroup.getId(), Role.OWNER);
 	}
 
 }
\ No newline at end of file
@@ -20,15 +20,20 @@ package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.deletegroup;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ChangeEventOutbox;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.spi.Operation;
 import org.opengroup.osdu.entitlements.v2.spi.deletegroup.DeleteGroupRepo;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
 import java.util.Set;
 
 @Repository
@@ -37,11 +42,16 @@ public class DeleteGroupRepoJdbc implements DeleteGroupRepo {
 
     private final GroupRepository groupRepository;
     private final JdbcTemplateRunner jdbcTemplateRunner;
+    private final ClosureTableService closureTableService;
+    private final GroupMemberCountService groupMemberCountService;
+    private final ChangeEventOutbox changeEventOutbox;
 
     @Override
+    @Transactional
     public Set<String> deleteGroup(final EntityNode groupNode) {
         Set<String> affectedMembers = jdbcTemplateRunner.getAffectedMembersForGroup(groupNode);
         executeDeleteGroupOperation(groupNode);
+        changeEventOutbox.onGroupDeleted(groupNode);
         return affectedMembers;
     }
 
@@ -54,6 +64,9 @@ public class DeleteGroupRepoJdbc implements DeleteGroupRepo {
         GroupInfoEntity groupInfoEntity = groupRepository.findByEmail(groupNode.getNodeId()).stream()
                 .findFirst()
                 .orElseThrow(() -> DatabaseAccessException.createNotFound(groupNode.getNodeId()));
+        List<Long> ancestorIds = closureTableService.beforeGroupDeleted(groupInfoEntity.getId());
+        groupMemberCountService.beforeGroupDeleted(groupInfoEntity.getId());
         groupRepository.delete(groupInfoEntity);
+        closureTableService.afterGroupDeleted(ancestorIds);
     }
 }
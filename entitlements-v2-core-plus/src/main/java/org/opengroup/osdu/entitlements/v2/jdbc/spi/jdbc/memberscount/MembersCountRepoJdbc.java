@@ -18,6 +18,7 @@
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.memberscount;
 
 import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
@@ -26,7 +27,11 @@ import org.opengroup.osdu.entitlements.v2.spi.memberscount.MembersCountRepo;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.isNull;
 
@@ -37,20 +42,39 @@ public class MembersCountRepoJdbc implements MembersCountRepo {
 
   public static final int ZERO_AS_GROUP_ALWAYS_A_MEMBER = 0;
   private final GroupRepository groupRepository;
+  private final GroupMemberCountService groupMemberCountService;
 
   @Override
   public MembersCountResponseDto getMembersCount(MembersCountServiceDto dto) {
+    int membersCount = groupMemberCountService.findMembersCount(dto.getGroupId(), dto.getRole())
+        .orElseGet(() -> countMembers(dto));
 
+    return MembersCountResponseDto.builder()
+        .membersCount(membersCount)
+        .groupEmail(dto.getGroupId())
+        .build();
+  }
+
+  /**
+   * Reads the counters of all the groups at once, the groups without counters are counted one by
+   * one.
+   */
+  @Override
+  public Map<String, Integer> getMembersCounts(String partitionId, Collection<String> groupIds) {
+    Map<String, Integer> membersCounts = new HashMap<>(
+        groupMemberCountService.findMembersCounts(groupIds).orElseGet(Collections::emptyMap));
+    groupIds.forEach(groupId -> membersCounts.computeIfAbsent(groupId,
+        id -> countMembers(MembersCountServiceDto.builder().groupId(id).partitionId(partitionId).build())));
+    return membersCounts;
+  }
+
+  private int countMembers(MembersCountServiceDto dto) {
     int usersCount = groupRepository.countUsers(dto.getPartitionId(), dto.getGroupId(),
         getSearchRoles(dto.getRole()));
     int subGroupsCount = isOwner(dto.getRole())
         ? ZERO_AS_GROUP_ALWAYS_A_MEMBER
         : groupRepository.countSubGroups(dto.getPartitionId(), dto.getGroupId());
-
-    return MembersCountResponseDto.builder()
-        .membersCount(usersCount + subGroupsCount)
-        .groupEmail(dto.getGroupId())
-        .build();
+    return usersCount + subGroupsCount;
   }
 
   private static boolean isOwner(Role role) {
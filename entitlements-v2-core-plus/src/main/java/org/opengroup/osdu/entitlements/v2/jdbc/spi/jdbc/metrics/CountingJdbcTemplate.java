@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Counts the statements of the operations measured by {@link DbRoundTripMetrics}. Every query,
+ * update and batch of the template, and of the repositories built on it, prepares one statement,
+ * which is sent in one round trip.
+ */
+public class CountingJdbcTemplate extends JdbcTemplate {
+
+  public CountingJdbcTemplate(DataSource dataSource) {
+    super(dataSource);
+  }
+
+  @Override
+  protected void applyStatementSettings(Statement stmt) throws SQLException {
+    DbRoundTripMetrics.countStatement();
+    super.applyStatementSettings(stmt);
+  }
+}
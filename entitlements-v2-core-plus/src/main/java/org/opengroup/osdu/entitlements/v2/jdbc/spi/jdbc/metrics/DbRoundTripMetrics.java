@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how many statements a membership write sent to the database. The statements are
+ * counted by {@link CountingJdbcTemplate} while the write runs, so the closure table, member
+ * counter, outbox and impacted users statements of the operation are included.
+ */
+@Component
+@RequiredArgsConstructor
+public class DbRoundTripMetrics {
+
+  public static final String ADD_MEMBER = "addMember";
+  public static final String ADD_MEMBERS = "addMembers";
+  public static final String REMOVE_MEMBER = "removeMember";
+  public static final String REMOVE_MEMBER_FROM_ALL_GROUPS = "removeMemberFromAllGroups";
+
+  private static final String DB_ROUND_TRIPS_METRIC = "entitlements.db.round.trips";
+
+  private static final ThreadLocal<int[]> statementCount = new ThreadLocal<>();
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  /**
+   * Runs the operation and records the statements it sent once it succeeds. An operation run
+   * within another one is counted in the outer one.
+   */
+  public <T> T measure(String operation, Supplier<T> action) {
+    if (Objects.nonNull(statementCount.get())) {
+      return action.get();
+    }
+    int[] count = new int[1];
+    statementCount.set(count);
+    try {
+      T result = action.get();
+      record(operation, count[0]);
+      return result;
+    } finally {
+      statementCount.remove();
+    }
+  }
+
+  static void countStatement() {
+    int[] count = statementCount.get();
+    if (Objects.nonNull(count)) {
+      count[0]++;
+    }
+  }
+
+  private void record(String operation, int roundTrips) {
+    meterRegistry.ifAvailable(registry -> DistributionSummary.builder(DB_ROUND_TRIPS_METRIC)
+        .tag("operation", operation)
+        .register(registry)
+        .record(roundTrips));
+  }
+}
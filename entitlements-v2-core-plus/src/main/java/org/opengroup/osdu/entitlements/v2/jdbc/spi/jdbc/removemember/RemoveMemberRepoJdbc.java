@@ -25,6 +25,10 @@ import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ChangeEventOutbox;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics.DbRoundTripMetrics;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.MemberRepository;
@@ -42,14 +46,47 @@ public class RemoveMemberRepoJdbc implements RemoveMemberRepo {
     private final GroupRepository groupRepository;
 
     private final JdbcTemplateRunner jdbcTemplateRunner;
+    private final ClosureTableService closureTableService;
+    private final GroupMemberCountService groupMemberCountService;
+    private final DbRoundTripMetrics dbRoundTripMetrics;
+    private final ChangeEventOutbox changeEventOutbox;
 
     @Override
     @Transactional
     public Set<String> removeMember(EntityNode groupNode, EntityNode memberNode, RemoveMemberServiceDto removeMemberServiceDto) {
-        return executeRemoveMemberOperation(groupNode, memberNode);
+        return dbRoundTripMetrics.measure(DbRoundTripMetrics.REMOVE_MEMBER,
+                () -> executeRemoveMemberOperation(groupNode, memberNode, removeMemberServiceDto));
     }
 
-    private Set<String> executeRemoveMemberOperation(EntityNode groupNode, EntityNode memberNode) {
+    /**
+     * Removes the member from all the given groups with one statement instead of one per group.
+     */
+    @Override
+    @Transactional
+    public Set<String> removeMemberFromAllGroups(EntityNode memberNode, List<EntityNode> groupNodes,
+            RemoveMemberServiceDto removeMemberServiceDto) {
+        return dbRoundTripMetrics.measure(DbRoundTripMetrics.REMOVE_MEMBER_FROM_ALL_GROUPS,
+                () -> executeRemoveMemberFromAllGroupsOperation(memberNode, groupNodes, removeMemberServiceDto));
+    }
+
+    private Set<String> executeRemoveMemberFromAllGroupsOperation(EntityNode memberNode, List<EntityNode> groupNodes,
+            RemoveMemberServiceDto removeMemberServiceDto) {
+        List<String> groupEmails = groupNodes.stream().map(EntityNode::getNodeId).toList();
+        changeEventOutbox.onMemberRemoved(groupEmails, removeMemberServiceDto.getMemberEmail(),
+                memberNode.getDataPartitionId(), removeMemberServiceDto.getRequesterId());
+        if (memberNode.isGroup()) {
+            executeRemoveChildGroupFromParentsOperation(memberNode, groupEmails);
+            return jdbcTemplateRunner.getAffectedMembersForGroup(memberNode);
+        } else {
+            executeRemoveMemberFromGroupsOperation(memberNode, groupEmails);
+            return ImmutableSet.of(memberNode.getNodeId());
+        }
+    }
+
+    private Set<String> executeRemoveMemberOperation(EntityNode groupNode, EntityNode memberNode,
+            RemoveMemberServiceDto removeMemberServiceDto) {
+        changeEventOutbox.onMemberRemoved(List.of(groupNode.getNodeId()), removeMemberServiceDto.getMemberEmail(),
+                groupNode.getDataPartitionId(), removeMemberServiceDto.getRequesterId());
         if (memberNode.isGroup()){
             executeRemoveChildGroupOperation(groupNode, memberNode);
             return jdbcTemplateRunner.getAffectedMembersForGroup(memberNode);
@@ -59,16 +96,23 @@ public class RemoveMemberRepoJdbc implements RemoveMemberRepo {
         }
     }
 
-    private void executeRemoveMemberFromGroupOperation(EntityNode groupNode,
-            EntityNode memberNode) {
+    /**
+     * Removes the membership and the member left without any group with a single statement.
+     */
+    private void executeRemoveMemberFromGroupOperation(EntityNode groupNode, EntityNode memberNode) {
+        groupMemberCountService.beforeUserRemoved(memberNode.getNodeId(), List.of(groupNode.getNodeId()));
+        if (jdbcTemplateRunner.removeMemberFromGroupByEmail(groupNode.getNodeId(), memberNode.getNodeId()) == 0) {
+            throw DatabaseAccessException.createNotFound(groupNode.getNodeId());
+        }
+    }
+
+    private void executeRemoveMemberFromGroupsOperation(EntityNode memberNode, List<String> groupEmails) {
         MemberInfoEntity memberInfoEntity = memberRepository.findByEmail(memberNode.getNodeId()).stream()
                 .findFirst()
-                .orElseThrow(() -> DatabaseAccessException.createNotFound(groupNode.getNodeId()));
-        GroupInfoEntity groupInfoEntity = groupRepository.findByEmail(groupNode.getNodeId()).stream()
-                .findFirst()
-                .orElseThrow(() -> DatabaseAccessException.createNotFound(groupNode.getNodeId()));
+                .orElseThrow(() -> DatabaseAccessException.createNotFound(memberNode.getNodeId()));
 
-        groupRepository.removeMemberById(groupInfoEntity.getId(), memberInfoEntity.getId());
+        groupMemberCountService.beforeUserRemoved(memberNode.getNodeId(), groupEmails);
+        groupRepository.removeMemberFromGroups(memberInfoEntity.getId(), groupEmails);
 
         List<GroupInfoEntity> remainingGroups = groupRepository.findDirectGroups(
                 Collections.singletonList(memberInfoEntity.getId()));
@@ -78,6 +122,17 @@ public class RemoveMemberRepoJdbc implements RemoveMemberRepo {
         }
     }
 
+    private void executeRemoveChildGroupFromParentsOperation(EntityNode memberNode, List<String> parentEmails) {
+        GroupInfoEntity childInfoEntity = groupRepository.findByEmail(memberNode.getNodeId()).stream()
+                .findFirst()
+                .orElseThrow(() -> DatabaseAccessException.createNotFound(memberNode.getNodeId()));
+
+        List<Long> ancestorIds = closureTableService.beforeGroupDeleted(childInfoEntity.getId());
+        groupMemberCountService.beforeChildGroupRemoved(childInfoEntity.getId(), parentEmails);
+        groupRepository.removeChildFromParents(childInfoEntity.getId(), parentEmails);
+        closureTableService.afterGroupDeleted(ancestorIds);
+    }
+
     private void executeRemoveChildGroupOperation(EntityNode groupNode, EntityNode memberNode) {
         GroupInfoEntity childInfoEntity = groupRepository.findByEmail(memberNode.getNodeId()).stream()
                 .findFirst()
@@ -86,6 +141,8 @@ public class RemoveMemberRepoJdbc implements RemoveMemberRepo {
                 .findFirst()
                 .orElseThrow(() -> DatabaseAccessException.createNotFound(groupNode.getNodeId()));
 
+        groupMemberCountService.beforeChildGroupRemoved(childInfoEntity.getId(), List.of(groupNode.getNodeId()));
         groupRepository.removeChildById(parentInfoEntity.getId(), childInfoEntity.getId());
+        closureTableService.onEdgeRemoved(parentInfoEntity.getId());
     }
 }
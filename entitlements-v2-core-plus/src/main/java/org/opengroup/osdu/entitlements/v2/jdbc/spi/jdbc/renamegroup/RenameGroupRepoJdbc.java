@@ -22,12 +22,14 @@ import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ChangeEventOutbox;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.spi.renamegroup.RenameGroupRepo;
 import org.opengroup.osdu.entitlements.v2.util.GroupCreationUtil;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -35,8 +37,10 @@ public class RenameGroupRepoJdbc implements RenameGroupRepo {
 
 	private final GroupRepository groupRepository;
 	private final JdbcTemplateRunner jdbcTemplateRunner;
+	private final ChangeEventOutbox changeEventOutbox;
 
 	@Override
+	@Transactional
 	public Set<String> run(EntityNode groupNode, String newGroupName) {
 		Set<String> affectedMembersForGroup = jdbcTemplateRunner.getAffectedMembersForGroup(groupNode);
 		executeRenameGroupOperation(groupNode, newGroupName);
@@ -52,5 +56,6 @@ public class RenameGroupRepoJdbc implements RenameGroupRepo {
 		String newNodeId = GroupCreationUtil.createGroupEmail(newGroupName, partitionGroupId);
 
 		groupRepository.update(groupInfoEntity.getId(), newGroupName.toLowerCase(), newNodeId);
+		changeEventOutbox.onGroupRenamed(groupNode, newNodeId);
 	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.jdbc.model.ChangeEventOutboxEntity;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the change events in the change_event_outbox table until they are relayed. The inserts
+ * join the transaction of the membership change that the events describe.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeEventOutboxRunner {
+
+  private static final String QUERY_INSERT = """
+      INSERT INTO change_event_outbox (partition_id, payload)
+      VALUES (:partition_id, :payload)""";
+
+  // Rows claimed by another pod are skipped instead of waited for
+  private static final String QUERY_CLAIM = """
+      SELECT id, partition_id, payload, created_at
+      FROM change_event_outbox
+      ORDER BY id
+      LIMIT :limit
+      FOR UPDATE SKIP LOCKED""";
+
+  private static final String QUERY_DELETE = """
+      DELETE FROM change_event_outbox WHERE id IN (:ids)""";
+
+  private static final String QUERY_OLDEST_CREATED_AT = """
+      SELECT MIN(created_at) FROM change_event_outbox""";
+
+  private static final String PARAMETER_PARTITION_ID = "partition_id";
+  private static final String PARAMETER_PAYLOAD = "payload";
+  private static final String PARAMETER_LIMIT = "limit";
+  private static final String PARAMETER_IDS = "ids";
+
+  private static final RowMapper<ChangeEventOutboxEntity> ROW_MAPPER = (rs, rowNum) ->
+      ChangeEventOutboxEntity.builder()
+          .id(rs.getLong("id"))
+          .partitionId(rs.getString("partition_id"))
+          .payload(rs.getString("payload"))
+          .createdAt(rs.getTimestamp("created_at").toInstant())
+          .build();
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  public void insert(String partitionId, List<String> payloads) {
+    SqlParameterSource[] batch = payloads.stream()
+        .map(payload -> new MapSqlParameterSource()
+            .addValue(PARAMETER_PARTITION_ID, partitionId)
+            .addValue(PARAMETER_PAYLOAD, payload))
+        .toArray(SqlParameterSource[]::new);
+    namedParameterJdbcTemplate.batchUpdate(QUERY_INSERT, batch);
+  }
+
+  /**
+   * Locks up to limit of the oldest events, hands them to the relay and deletes them once it
+   * returns. When the relay fails the transaction is rolled back and the events are kept for the
+   * next attempt.
+   *
+   * @return the number of relayed events
+   */
+  @Transactional
+  public int relay(int limit, Consumer<List<ChangeEventOutboxEntity>> relay) {
+    List<ChangeEventOutboxEntity> events = namedParameterJdbcTemplate.query(QUERY_CLAIM,
+        new MapSqlParameterSource(PARAMETER_LIMIT, limit), ROW_MAPPER);
+    if (events.isEmpty()) {
+      return 0;
+    }
+    relay.accept(events);
+    namedParameterJdbcTemplate.update(QUERY_DELETE, new MapSqlParameterSource(PARAMETER_IDS,
+        events.stream().map(ChangeEventOutboxEntity::getId).toList()));
+    return events.size();
+  }
+
+  public Optional<Instant> findOldestCreatedAt() {
+    return Optional.ofNullable(namedParameterJdbcTemplate.getJdbcTemplate()
+            .queryForObject(QUERY_OLDEST_CREATED_AT, Timestamp.class))
+        .map(Timestamp::toInstant);
+  }
+}
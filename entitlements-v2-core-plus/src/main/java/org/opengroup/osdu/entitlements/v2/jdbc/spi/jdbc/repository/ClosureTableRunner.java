@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021-2024 Google LLC
+ * Copyright 2021-2024 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the group_closure table, which holds one row per (ancestor, descendant) pair of
+ * the embedded_group hierarchy, including a depth 0 row for each group itself.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClosureTableRunner {
+
+  private static final int CLOSURE_LOCK_CLASS_ID = 734_900_201;
+
+  private static final String QUERY_INSERT_SELF = """
+      INSERT INTO group_closure (ancestor_id, descendant_id, depth)
+      VALUES (:group_id, :group_id, 0)
+      ON CONFLICT (ancestor_id, descendant_id) DO NOTHING""";
+
+  private static final String QUERY_INSERT_EDGE = """
+      INSERT INTO group_closure (ancestor_id, descendant_id, depth)
+      SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+      FROM group_closure AS a
+      JOIN group_closure AS d ON d.ancestor_id = :child_id
+      WHERE a.descendant_id = :parent_id
+      ON CONFLICT (ancestor_id, descendant_id)
+      DO UPDATE SET depth = LEAST(group_closure.depth, EXCLUDED.depth)""";
+
+  private static final String QUERY_ANCESTOR_IDS = """
+      SELECT ancestor_id
+      FROM group_closure
+      WHERE descendant_id = :group_id""";
+
+  private static final String QUERY_DELETE_PATHS_OF_ANCESTORS = """
+      DELETE FROM group_closure
+      WHERE ancestor_id IN (:ancestor_ids) AND depth > 0""";
+
+  private static final String QUERY_RECOMPUTE_PATHS_OF_ANCESTORS = """
+      INSERT INTO group_closure (ancestor_id, descendant_id, depth)
+      WITH RECURSIVE walk (ancestor_id, descendant_id, depth) AS (
+        SELECT eg.parent_id, eg.child_id, 1
+        FROM embedded_group AS eg
+        WHERE eg.parent_id IN (:ancestor_ids)
+
+        UNION
+
+        SELECT w.ancestor_id, eg.child_id, w.depth + 1
+        FROM walk AS w
+        JOIN embedded_group AS eg ON eg.parent_id = w.descendant_id
+      )
+      SELECT ancestor_id, descendant_id, MIN(depth)
+      FROM walk
+      GROUP BY ancestor_id, descendant_id
+      ON CONFLICT (ancestor_id, descendant_id) DO NOTHING""";
+
+  private static final String QUERY_EXPECTED_CLOSURE = """
+      WITH RECURSIVE walk (ancestor_id, descendant_id, depth) AS (
+        SELECT g.id, g.id, 0
+        FROM "group" AS g
+
+        UNION
+
+        SELECT w.ancestor_id, eg.child_id, w.depth + 1
+        FROM walk AS w
+        JOIN embedded_group AS eg ON eg.parent_id = w.descendant_id
+      ),
+      expected AS (
+        SELECT ancestor_id, descendant_id, MIN(depth) AS depth
+        FROM walk
+        GROUP BY ancestor_id, descendant_id
+      )
+      """;
+
+  private static final String QUERY_REBUILD = """
+      INSERT INTO group_closure (ancestor_id, descendant_id, depth)
+      """ + QUERY_EXPECTED_CLOSURE + """
+      SELECT ancestor_id, descendant_id, depth
+      FROM expected
+      ON CONFLICT (ancestor_id, descendant_id) DO NOTHING""";
+
+  private static final String QUERY_COUNT_MISSING = QUERY_EXPECTED_CLOSURE + """
+      SELECT COUNT(*)
+      FROM (
+        SELECT ancestor_id, descendant_id, depth FROM expected
+        EXCEPT
+        SELECT ancestor_id, descendant_id, depth FROM group_closure
+      ) AS missing""";
+
+  private static final String QUERY_COUNT_STALE = QUERY_EXPECTED_CLOSURE + """
+      SELECT COUNT(*)
+      FROM (
+        SELECT ancestor_id, descendant_id, depth FROM group_closure
+        EXCEPT
+        SELECT ancestor_id, descendant_id, depth FROM expected
+      ) AS stale""";
+
+  private static final String QUERY_IS_POPULATED = """
+      SELECT (SELECT COUNT(*) FROM "group")
+        = (SELECT COUNT(*) FROM group_closure WHERE depth = 0)""";
+
+  private static final String PARAMETER_GROUP_ID = "group_id";
+  private static final String PARAMETER_PARENT_ID = "parent_id";
+  private static final String PARAMETER_CHILD_ID = "child_id";
+  private static final String PARAMETER_ANCESTOR_IDS = "ancestor_ids";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Serializes the changes of the paths with each other and with the rebuild until the end of
+   * the transaction: an edge added concurrently with another one on the same path would not see
+   * its uncommitted rows. The lock is keyed by the schema, so the tenants do not wait for each
+   * other.
+   */
+  public void lockPaths() {
+    namedParameterJdbcTemplate.getJdbcTemplate()
+        .execute("SELECT pg_advisory_xact_lock(" + CLOSURE_LOCK_CLASS_ID
+            + ", hashtext(current_schema()))");
+  }
+
+  public void addGroup(Long groupId) {
+    namedParameterJdbcTemplate.update(QUERY_INSERT_SELF,
+        new MapSqlParameterSource(PARAMETER_GROUP_ID, groupId));
+  }
+
+  /**
+   * Links every ancestor of the parent (including the parent itself) with every descendant of
+   * the child (including the child itself). Must be called after the embedded_group row exists.
+   */
+  public void addEdge(Long parentId, Long childId) {
+    MapSqlParameterSource parameters = new MapSqlParameterSource();
+    parameters.addValue(PARAMETER_PARENT_ID, parentId);
+    parameters.addValue(PARAMETER_CHILD_ID, childId);
+    namedParameterJdbcTemplate.update(QUERY_INSERT_EDGE, parameters);
+  }
+
+  public List<Long> findAncestorIds(Long groupId) {
+    return namedParameterJdbcTemplate.queryForList(QUERY_ANCESTOR_IDS,
+        new MapSqlParameterSource(PARAMETER_GROUP_ID, groupId), Long.class);
+  }
+
+  /**
+   * A removed edge can only invalidate paths that start at one of the parent's ancestors, so only
+   * their rows are dropped and re-derived from embedded_group. Must be called after the
+   * embedded_group change has been applied.
+   */
+  public void recomputeAncestors(Collection<Long> ancestorIds) {
+    if (ancestorIds.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource(PARAMETER_ANCESTOR_IDS, ancestorIds);
+    namedParameterJdbcTemplate.update(QUERY_DELETE_PATHS_OF_ANCESTORS, parameters);
+    namedParameterJdbcTemplate.update(QUERY_RECOMPUTE_PATHS_OF_ANCESTORS, parameters);
+  }
+
+  public boolean isPopulated() {
+    return Boolean.TRUE.equals(namedParameterJdbcTemplate.getJdbcTemplate()
+        .queryForObject(QUERY_IS_POPULATED, Boolean.class));
+  }
+
+  /**
+   * Backfills the whole table from embedded_group. Concurrent rebuilds from other pods and the
+   * incremental changes are serialized with the same transaction-scoped advisory lock.
+   */
+  @Transactional
+  public void rebuild() {
+    lockPaths();
+    namedParameterJdbcTemplate.getJdbcTemplate().update("DELETE FROM group_closure");
+    namedParameterJdbcTemplate.getJdbcTemplate().update(QUERY_REBUILD);
+  }
+
+  /**
+   * Returns the number of closure rows which the recursive walk over embedded_group produces
+   * but the table lacks.
+   */
+  public long countMissingRows() {
+    Long count = namedParameterJdbcTemplate.getJdbcTemplate()
+        .queryForObject(QUERY_COUNT_MISSING, Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Returns the number of closure rows which the table holds but the recursive walk over
+   * embedded_group does not produce.
+   */
+  public long countStaleRows() {
+    Long count = namedParameterJdbcTemplate.getJdbcTemplate()
+        .queryForObject(QUERY_COUNT_STALE, Long.class);
+    return count == null ? 0 : count;
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the group_member_count table, which holds one row per group with the number of its
+ * direct OWNER users, MEMBER users and child groups. The removals have to be applied before the
+ * membership rows are deleted, as the counters are decremented by joining them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GroupMemberCountRunner {
+
+  private static final long COUNT_LOCK_ID = 7_349_002_016L;
+
+  private static final String QUERY_INSERT_GROUP = """
+      INSERT INTO group_member_count (group_id, owner_users, member_users, child_groups)
+      VALUES (:group_id, 0, 0, 0)
+      ON CONFLICT (group_id) DO NOTHING""";
+
+  private static final String QUERY_ADD_USER_BY_ID = """
+      UPDATE group_member_count
+      SET owner_users = owner_users + :owner_users,
+        member_users = member_users + :member_users
+      WHERE group_id = :group_id""";
+
+  private static final String QUERY_ADD_USER_BY_EMAIL = """
+      UPDATE group_member_count AS c
+      SET owner_users = c.owner_users + :owner_users,
+        member_users = c.member_users + :member_users
+      FROM "group" AS g
+      WHERE c.group_id = g.id AND g.email = :group_email""";
+
+  private static final String QUERY_ADD_CHILD_GROUP = """
+      UPDATE group_member_count
+      SET child_groups = child_groups + 1
+      WHERE group_id = :group_id""";
+
+  private static final String QUERY_REMOVE_USER_FROM_GROUPS = """
+      UPDATE group_member_count AS c
+      SET owner_users = c.owner_users - CASE WHEN mg.role = 'OWNER' THEN 1 ELSE 0 END,
+        member_users = c.member_users - CASE WHEN mg.role = 'MEMBER' THEN 1 ELSE 0 END
+      FROM member_to_group AS mg
+      JOIN "group" AS g ON g.id = mg.group_id
+      JOIN member AS m ON m.id = mg.member_id
+      WHERE c.group_id = mg.group_id
+        AND m.email = :member_email
+        AND g.email IN (:group_emails)""";
+
+  private static final String QUERY_REMOVE_CHILD_FROM_PARENTS = """
+      UPDATE group_member_count AS c
+      SET child_groups = c.child_groups - 1
+      FROM embedded_group AS eg
+      JOIN "group" AS g ON g.id = eg.parent_id
+      WHERE c.group_id = eg.parent_id
+        AND eg.child_id = :child_id
+        AND g.email IN (:parent_emails)""";
+
+  private static final String QUERY_REMOVE_CHILD_FROM_ALL_PARENTS = """
+      UPDATE group_member_count AS c
+      SET child_groups = c.child_groups - 1
+      FROM embedded_group AS eg
+      WHERE c.group_id = eg.parent_id AND eg.child_id = :child_id""";
+
+  private static final String QUERY_FIND_COUNTS = """
+      SELECT c.owner_users, c.member_users, c.child_groups
+      FROM group_member_count AS c
+      JOIN "group" AS g ON g.id = c.group_id
+      WHERE g.email = :group_email""";
+
+  private static final String QUERY_FIND_COUNTS_OF_GROUPS = """
+      SELECT g.email, c.owner_users, c.member_users, c.child_groups
+      FROM group_member_count AS c
+      JOIN "group" AS g ON g.id = c.group_id
+      WHERE g.email IN (:group_emails)""";
+
+  private static final String QUERY_EXPECTED_COUNTS = """
+      SELECT g.id AS group_id,
+        (SELECT COUNT(*) FROM member_to_group AS mg
+          WHERE mg.group_id = g.id AND mg.role = 'OWNER') AS owner_users,
+        (SELECT COUNT(*) FROM member_to_group AS mg
+          WHERE mg.group_id = g.id AND mg.role = 'MEMBER') AS member_users,
+        (SELECT COUNT(*) FROM embedded_group AS eg
+          WHERE eg.parent_id = g.id) AS child_groups
+      FROM "group" AS g
+      """;
+
+  private static final String QUERY_REBUILD = """
+      INSERT INTO group_member_count (group_id, owner_users, member_users, child_groups)
+      """ + QUERY_EXPECTED_COUNTS + """
+      ON CONFLICT (group_id) DO UPDATE
+      SET owner_users = EXCLUDED.owner_users,
+        member_users = EXCLUDED.member_users,
+        child_groups = EXCLUDED.child_groups""";
+
+  private static final String QUERY_COUNT_STALE = """
+      SELECT COUNT(*)
+      FROM (
+      """ + QUERY_EXPECTED_COUNTS + """
+        EXCEPT
+        SELECT group_id, owner_users, member_users, child_groups FROM group_member_count
+      ) AS stale""";
+
+  private static final String QUERY_IS_POPULATED = """
+      SELECT (SELECT COUNT(*) FROM "group")
+        = (SELECT COUNT(*) FROM group_member_count)""";
+
+  private static final String PARAMETER_GROUP_ID = "group_id";
+  private static final String PARAMETER_GROUP_EMAIL = "group_email";
+  private static final String PARAMETER_GROUP_EMAILS = "group_emails";
+  private static final String PARAMETER_MEMBER_EMAIL = "member_email";
+  private static final String PARAMETER_CHILD_ID = "child_id";
+  private static final String PARAMETER_PARENT_EMAILS = "parent_emails";
+  private static final String PARAMETER_OWNER_USERS = "owner_users";
+  private static final String PARAMETER_MEMBER_USERS = "member_users";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Lets the writers update the counters concurrently until the end of their transaction, the
+   * increments and decrements being applied to the current row values, while the rebuild waits
+   * for them.
+   */
+  public void lockCounters() {
+    namedParameterJdbcTemplate.getJdbcTemplate()
+        .execute("SELECT pg_advisory_xact_lock_shared(" + COUNT_LOCK_ID + ")");
+  }
+
+  public void addGroup(Long groupId) {
+    namedParameterJdbcTemplate.update(QUERY_INSERT_GROUP,
+        new MapSqlParameterSource(PARAMETER_GROUP_ID, groupId));
+  }
+
+  public void addUser(Long groupId, Role role) {
+    namedParameterJdbcTemplate.update(QUERY_ADD_USER_BY_ID,
+        userDelta(role).addValue(PARAMETER_GROUP_ID, groupId));
+  }
+
+  public void addUser(String groupEmail, Role role) {
+    namedParameterJdbcTemplate.update(QUERY_ADD_USER_BY_EMAIL,
+        userDelta(role).addValue(PARAMETER_GROUP_EMAIL, groupEmail));
+  }
+
+  public void addUsers(List<BatchAddMemberRepoDto> memberships) {
+    SqlParameterSource[] batch = memberships.stream()
+        .map(membership -> userDelta(membership.getAddMemberRepoDto().getRole())
+            .addValue(PARAMETER_GROUP_EMAIL, membership.getGroupNode().getNodeId()))
+        .toArray(SqlParameterSource[]::new);
+    namedParameterJdbcTemplate.batchUpdate(QUERY_ADD_USER_BY_EMAIL, batch);
+  }
+
+  public void addChildGroup(Long parentId) {
+    namedParameterJdbcTemplate.update(QUERY_ADD_CHILD_GROUP,
+        new MapSqlParameterSource(PARAMETER_GROUP_ID, parentId));
+  }
+
+  /**
+   * Must be called before the memberships are deleted.
+   */
+  public void removeUserFromGroups(String memberEmail, List<String> groupEmails) {
+    MapSqlParameterSource parameters = new MapSqlParameterSource();
+    parameters.addValue(PARAMETER_MEMBER_EMAIL, memberEmail);
+    parameters.addValue(PARAMETER_GROUP_EMAILS, groupEmails);
+    namedParameterJdbcTemplate.update(QUERY_REMOVE_USER_FROM_GROUPS, parameters);
+  }
+
+  /**
+   * Must be called before the embedded_group rows are deleted.
+   */
+  public void removeChildGroupFromParents(Long childId, List<String> parentEmails) {
+    MapSqlParameterSource parameters = new MapSqlParameterSource();
+    parameters.addValue(PARAMETER_CHILD_ID, childId);
+    parameters.addValue(PARAMETER_PARENT_EMAILS, parentEmails);
+    namedParameterJdbcTemplate.update(QUERY_REMOVE_CHILD_FROM_PARENTS, parameters);
+  }
+
+  /**
+   * Must be called before the group is deleted, its own row is removed along with it.
+   */
+  public void removeChildGroupFromAllParents(Long childId) {
+    namedParameterJdbcTemplate.update(QUERY_REMOVE_CHILD_FROM_ALL_PARENTS,
+        new MapSqlParameterSource(PARAMETER_CHILD_ID, childId));
+  }
+
+  /**
+   * Returns the number of direct members of the group with the given role, all of them if the
+   * role is null. Groups are always MEMBER of their parents.
+   */
+  public Optional<Integer> findMembersCount(String groupEmail, Role role) {
+    return namedParameterJdbcTemplate.query(QUERY_FIND_COUNTS,
+            new MapSqlParameterSource(PARAMETER_GROUP_EMAIL, groupEmail),
+            (rs, rowNum) -> toMembersCount(rs, role))
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Returns the number of direct members of every given group, of all roles, by group email. The
+   * groups without counters are left out.
+   */
+  public Map<String, Integer> findMembersCounts(Collection<String> groupEmails) {
+    Map<String, Integer> membersCounts = new HashMap<>();
+    if (groupEmails.isEmpty()) {
+      return membersCounts;
+    }
+    namedParameterJdbcTemplate.query(QUERY_FIND_COUNTS_OF_GROUPS,
+        new MapSqlParameterSource(PARAMETER_GROUP_EMAILS, groupEmails),
+        (RowCallbackHandler) rs -> membersCounts.put(rs.getString("email"), toMembersCount(rs, null)));
+    return membersCounts;
+  }
+
+  public boolean isPopulated() {
+    return Boolean.TRUE.equals(namedParameterJdbcTemplate.getJdbcTemplate()
+        .queryForObject(QUERY_IS_POPULATED, Boolean.class));
+  }
+
+  /**
+   * Recounts every group from member_to_group and embedded_group. The exclusive advisory lock
+   * waits for the writers holding {@link #lockCounters()} and serializes the rebuilds of other
+   * pods. The rows are overwritten in place, the rows of deleted groups go with them.
+   */
+  @Transactional
+  public void rebuild() {
+    namedParameterJdbcTemplate.getJdbcTemplate()
+        .execute("SELECT pg_advisory_xact_lock(" + COUNT_LOCK_ID + ")");
+    namedParameterJdbcTemplate.getJdbcTemplate().update(QUERY_REBUILD);
+  }
+
+  /**
+   * Returns the number of groups whose counters differ from their actual memberships.
+   */
+  public long countStaleRows() {
+    Long count = namedParameterJdbcTemplate.getJdbcTemplate()
+        .queryForObject(QUERY_COUNT_STALE, Long.class);
+    return count == null ? 0 : count;
+  }
+
+  private static MapSqlParameterSource userDelta(Role role) {
+    MapSqlParameterSource parameters = new MapSqlParameterSource();
+    parameters.addValue(PARAMETER_OWNER_USERS, Role.OWNER.equals(role) ? 1 : 0);
+    parameters.addValue(PARAMETER_MEMBER_USERS, Role.OWNER.equals(role) ? 0 : 1);
+    return parameters;
+  }
+
+  private static int toMembersCount(ResultSet rs, Role role) throws SQLException {
+    int ownerUsers = rs.getInt("owner_users");
+    int memberUsers = rs.getInt("member_users");
+    int childGroups = rs.getInt("child_groups");
+    if (role == null) {
+      return ownerUsers + memberUsers + childGroups;
+    }
+    return Role.OWNER.equals(role) ? ownerUsers : memberUsers + childGroups;
+  }
+}
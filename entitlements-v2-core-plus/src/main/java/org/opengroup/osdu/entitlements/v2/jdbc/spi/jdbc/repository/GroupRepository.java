@@ -17,6 +17,7 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.springframework.data.jdbc.repository.query.Modifying;
@@ -31,6 +32,9 @@ public interface GroupRepository extends CrudRepository<GroupInfoEntity, Long> {
 	@Query("SELECT *  FROM \"group\" AS g WHERE g.email = :email")
 	List<GroupInfoEntity> findByEmail(@Param("email") String email);
 
+	@Query("SELECT * FROM \"group\" AS g WHERE g.email IN (:emails)")
+	List<GroupInfoEntity> findByEmails(@Param("emails") Collection<String> emails);
+
 	@Query("SELECT g.* FROM embedded_group as gg LEFT JOIN \"group\" as g ON gg.child_id = g.id WHERE gg.parent_id = :parentId AND g.email = :childEmail")
 	List<GroupInfoEntity> findChildByEmail(@Param("parentId") Long parentId, @Param("childEmail") String childEmail);
 
@@ -76,6 +80,14 @@ public interface GroupRepository extends CrudRepository<GroupInfoEntity, Long> {
 	@Query("DELETE FROM member_to_group WHERE member_id = :memberId AND group_id = :groupId")
 	boolean removeMemberById(@Param("groupId") Long groupId, @Param("memberId") Long memberId);
 
+	@Modifying
+	@Query("DELETE FROM member_to_group WHERE member_id = :memberId AND group_id IN (SELECT id FROM \"group\" WHERE email IN (:groupEmails))")
+	int removeMemberFromGroups(@Param("memberId") Long memberId, @Param("groupEmails") List<String> groupEmails);
+
+	@Modifying
+	@Query("DELETE FROM embedded_group WHERE child_id = :childId AND parent_id IN (SELECT id FROM \"group\" WHERE email IN (:parentEmails))")
+	int removeChildFromParents(@Param("childId") Long childId, @Param("parentEmails") List<String> parentEmails);
+
 	@Modifying
 	@Query("DELETE FROM embedded_group WHERE parent_id = :id OR child_id = :id")
 	boolean deleteRelationsById(@Param("id") Long id);
@@ -19,18 +19,26 @@ package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
-import org.opengroup.osdu.entitlements.v2.jdbc.mapper.GroupInfoEntityListMapper;
-import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntityList;
+import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.GroupType;
+import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -69,16 +77,135 @@ public class JdbcTemplateRunner {
         WHERE "group".EMAIL = :group_email
       ) as ref_group ON ref_group.ID = "member_to_group".group_id""";
 
+  private static final String QUERY_CLOSURE_AFFECTED_MEMBERS_FOR_GROUP = """
+      SELECT DISTINCT "member".email
+      FROM "group" AS g
+      JOIN group_closure AS gc ON gc.ancestor_id = g.id
+      JOIN "group" AS d ON d.id = gc.descendant_id
+      JOIN member_to_group AS mg ON mg.group_id = d.id
+      JOIN "member" ON "member".id = mg.member_id
+      WHERE g.email = :group_email
+        AND (d.partition_id = :partition OR gc.depth = 0)""";
+
+  private static final String INSERT_MEMBER_IF_ABSENT = """
+      INSERT INTO member(email, partition_id)
+      VALUES (:member_email, :partition)
+      ON CONFLICT DO NOTHING""";
+
+  private static final String INSERT_MEMBER_TO_GROUP_BY_EMAIL = """
+      INSERT INTO member_to_group(group_id, member_id, role)
+      SELECT g.id, m.id, :role
+      FROM "group" AS g, member AS m
+      WHERE g.email = :group_email AND m.email = :member_email""";
+
+  // The member is only created when the group exists, the edge then takes whichever id is visible
+  private static final String UPSERT_MEMBER_AND_ADD_TO_GROUP_BY_EMAIL = """
+      WITH inserted_member AS (
+        INSERT INTO member(email, partition_id)
+        SELECT :member_email, :partition
+        WHERE EXISTS (SELECT 1 FROM "group" WHERE email = :group_email)
+        ON CONFLICT DO NOTHING
+        RETURNING id
+      ), target_member AS (
+        SELECT id FROM inserted_member
+        UNION ALL
+        SELECT id FROM member WHERE email = :member_email
+      )
+      INSERT INTO member_to_group(group_id, member_id, role)
+      SELECT g.id, m.id, :role
+      FROM "group" AS g, target_member AS m
+      WHERE g.email = :group_email""";
+
+  // Both deletes see the same snapshot, so the removed edge is excluded explicitly from the orphan check
+  private static final String REMOVE_MEMBER_FROM_GROUP_BY_EMAIL = """
+      WITH removed_edge AS (
+        DELETE FROM member_to_group AS mg
+        USING "group" AS g, member AS m
+        WHERE mg.group_id = g.id AND mg.member_id = m.id
+          AND g.email = :group_email AND m.email = :member_email
+        RETURNING mg.group_id, mg.member_id
+      ), removed_member AS (
+        DELETE FROM member AS m
+        USING removed_edge AS r
+        WHERE m.id = r.member_id
+          AND NOT EXISTS (
+            SELECT 1 FROM member_to_group AS mg
+            WHERE mg.member_id = m.id AND mg.group_id <> r.group_id)
+        RETURNING m.id
+      )
+      SELECT COUNT(*) FROM removed_edge""";
+
+  private static final String QUERY_DIRECT_PARENTS = """
+      SELECT g.id, g.name, g.description, g.email, g.partition_id
+      FROM member AS m
+      JOIN member_to_group AS mg ON mg.member_id = m.id
+      JOIN "group" AS g ON g.id = mg.group_id
+      WHERE m.email = ANY(:member_emails)
+      UNION ALL
+      SELECT g.id, g.name, g.description, g.email, g.partition_id
+      FROM "group" AS child
+      JOIN embedded_group AS eg ON eg.child_id = child.id
+      JOIN "group" AS g ON g.id = eg.parent_id
+      WHERE child.email = ANY(:group_emails)""";
+
+  private static final String QUERY_DIRECT_CHILDREN = """
+      SELECT child.email, child.partition_id, 'GROUP' AS node_type, 'MEMBER' AS role
+      FROM "group" AS parent
+      JOIN embedded_group AS eg ON eg.parent_id = parent.id
+      JOIN "group" AS child ON child.id = eg.child_id
+      WHERE parent.email = ANY(:group_emails)
+      UNION ALL
+      SELECT m.email, m.partition_id, 'USER' AS node_type, mg.role
+      FROM "group" AS parent
+      JOIN member_to_group AS mg ON mg.group_id = parent.id
+      JOIN member AS m ON m.id = mg.member_id
+      WHERE parent.email = ANY(:group_emails)""";
 
   private static final String PARAMETER_PARTITION = "partition";
   private static final String PARAMETER_NAME_PREFIX = "name_prefix";
   private static final String PARAMETER_LIMIT = "limit";
   private static final String PARAMETER_FROM_ROW = "from_row";
+  private static final String PARAMETER_LAST_NAME = "last_name";
+  private static final String PARAMETER_LAST_ID = "last_id";
   private static final String PARAMETER_GROUP_EMAIL = "group_email";
+  private static final String PARAMETER_MEMBER_EMAIL = "member_email";
+  private static final String PARAMETER_ROLE = "role";
+  private static final String PARAMETER_MEMBER_EMAILS = "member_emails";
+  private static final String PARAMETER_GROUP_EMAILS = "group_emails";
+
+  private static final String QUERY_GROUPS_IN_PARTITION = """
+      SELECT id, name, description, email, partition_id
+      FROM "group"
+      WHERE partition_id = :partition""";
+
+  private static final String QUERY_COUNT_GROUPS_IN_PARTITION = """
+      SELECT COUNT(*)
+      FROM "group"
+      WHERE partition_id = :partition""";
+
+  private static final String GROUP_NAME_FILTER = " AND name LIKE :name_prefix";
+
+  // The name is kept as stored, since keyset cursors compare against it
+  private static final RowMapper<GroupInfoEntity> GROUP_ROW_MAPPER = (rs, rowNum) ->
+      GroupInfoEntity.builder()
+          .id(rs.getLong("id"))
+          .name(rs.getString("name"))
+          .description(rs.getString("description"))
+          .email(rs.getString("email"))
+          .partitionId(rs.getString("partition_id"))
+          .build();
+
+  private static final RowMapper<ChildrenReference> CHILD_ROW_MAPPER = (rs, rowNum) ->
+      ChildrenReference.builder()
+          .id(rs.getString("email").toLowerCase())
+          .dataPartitionId(rs.getString("partition_id"))
+          .type(NodeType.valueOf(rs.getString("node_type")))
+          .role(Role.valueOf(rs.getString("role")))
+          .build();
 
-  private final GroupInfoEntityListMapper groupInfoEntityListMapper;
   private final JdbcTemplate jdbcTemplate;
   private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final ClosureTableService closureTableService;
 
   public Long saveMemberInfoEntity(MemberInfoEntity memberInfoEntity) {
     KeyHolder keyHolder = new GeneratedKeyHolder();
@@ -95,46 +222,165 @@ public class JdbcTemplateRunner {
     return (long) keyHolder.getKey();
   }
 
+  /**
+   * Inserts the members that are not stored yet, in a single batch.
+   */
+  public void saveMemberInfoEntities(Collection<MemberInfoEntity> memberInfoEntities) {
+    SqlParameterSource[] batch = memberInfoEntities.stream()
+        .map(memberInfoEntity -> new MapSqlParameterSource()
+            .addValue(PARAMETER_MEMBER_EMAIL, memberInfoEntity.getEmail())
+            .addValue(PARAMETER_PARTITION, memberInfoEntity.getPartitionId()))
+        .toArray(SqlParameterSource[]::new);
+    namedParameterJdbcTemplate.batchUpdate(INSERT_MEMBER_IF_ABSENT, batch);
+  }
+
+  /**
+   * Adds the members into the groups in a single batch, resolving both ids by email on the
+   * database side.
+   *
+   * @return the number of inserted rows per membership, 0 if the group or the member does not
+   * exist.
+   */
+  public int[] addMembersToGroupsByEmail(List<BatchAddMemberRepoDto> memberships) {
+    SqlParameterSource[] batch = memberships.stream()
+        .map(membership -> new MapSqlParameterSource()
+            .addValue(PARAMETER_GROUP_EMAIL, membership.getGroupNode().getNodeId())
+            .addValue(PARAMETER_MEMBER_EMAIL,
+                membership.getAddMemberRepoDto().getMemberNode().getNodeId())
+            .addValue(PARAMETER_ROLE, membership.getAddMemberRepoDto().getRole().getValue()))
+        .toArray(SqlParameterSource[]::new);
+    return namedParameterJdbcTemplate.batchUpdate(INSERT_MEMBER_TO_GROUP_BY_EMAIL, batch);
+  }
+
+  /**
+   * Creates the member if it is not stored yet and adds it into the group with one statement.
+   *
+   * @return 1 if the member was added, 0 if the group does not exist or the member was created
+   * concurrently by another transaction and is not visible to this statement yet.
+   */
+  public int upsertMemberAndAddToGroupByEmail(String groupEmail, EntityNode memberNode,
+      Role role) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource()
+        .addValue(PARAMETER_GROUP_EMAIL, groupEmail)
+        .addValue(PARAMETER_MEMBER_EMAIL, memberNode.getNodeId())
+        .addValue(PARAMETER_PARTITION, memberNode.getDataPartitionId())
+        .addValue(PARAMETER_ROLE, role.getValue());
+    return namedParameterJdbcTemplate.update(UPSERT_MEMBER_AND_ADD_TO_GROUP_BY_EMAIL,
+        mapSqlParameterSource);
+  }
+
+  /**
+   * Adds an existing member into the group, resolving both ids by email on the database side.
+   *
+   * @return the number of inserted rows, 0 if the group or the member does not exist.
+   */
+  public int addMemberToGroupByEmail(String groupEmail, String memberEmail, Role role) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource()
+        .addValue(PARAMETER_GROUP_EMAIL, groupEmail)
+        .addValue(PARAMETER_MEMBER_EMAIL, memberEmail)
+        .addValue(PARAMETER_ROLE, role.getValue());
+    return namedParameterJdbcTemplate.update(INSERT_MEMBER_TO_GROUP_BY_EMAIL,
+        mapSqlParameterSource);
+  }
+
+  /**
+   * Removes the member from the group and deletes the member once it has no group left, with one
+   * statement.
+   *
+   * @return the number of removed memberships, 0 if the member was not in the group.
+   */
+  public long removeMemberFromGroupByEmail(String groupEmail, String memberEmail) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource()
+        .addValue(PARAMETER_GROUP_EMAIL, groupEmail)
+        .addValue(PARAMETER_MEMBER_EMAIL, memberEmail);
+    Long removed = namedParameterJdbcTemplate.queryForObject(REMOVE_MEMBER_FROM_GROUP_BY_EMAIL,
+        mapSqlParameterSource, Long.class);
+    return removed == null ? 0 : removed;
+  }
 
-  public GroupInfoEntityList getGroupsInPartition(String dataPartitionId, GroupType groupType,
+  /**
+   * Returns a page of the groups of the partition ordered by id, addressed by its offset.
+   */
+  public List<GroupInfoEntity> getGroupsInPartition(String dataPartitionId, GroupType groupType,
       Integer offset, Integer limit) {
-    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
-    mapSqlParameterSource.addValue(PARAMETER_PARTITION, dataPartitionId);
-    mapSqlParameterSource.addValue(PARAMETER_NAME_PREFIX, groupType.toString().toLowerCase() + "%");
+    MapSqlParameterSource mapSqlParameterSource = getGroupsInPartitionParameters(dataPartitionId,
+        groupType);
     mapSqlParameterSource.addValue(PARAMETER_LIMIT, limit);
     mapSqlParameterSource.addValue(PARAMETER_FROM_ROW, offset);
-    return namedParameterJdbcTemplate.queryForObject(getAllGroupsInPartitionRequest(groupType),
-        mapSqlParameterSource, groupInfoEntityListMapper);
+    String sqlRequest = QUERY_GROUPS_IN_PARTITION + getGroupNameFilter(groupType)
+        + " ORDER BY id ASC LIMIT :limit OFFSET :from_row";
+    return namedParameterJdbcTemplate.query(sqlRequest, mapSqlParameterSource, GROUP_ROW_MAPPER);
+  }
+
+  /**
+   * Returns a page of the groups of the partition ordered by name and id, starting right after
+   * the given group, or from the first group when lastName is null. The page is read from the
+   * (partition_id, name, id) index whatever its depth.
+   */
+  public List<GroupInfoEntity> getGroupsInPartitionAfter(String dataPartitionId,
+      GroupType groupType, String lastName, Long lastId, Integer limit) {
+    MapSqlParameterSource mapSqlParameterSource = getGroupsInPartitionParameters(dataPartitionId,
+        groupType);
+    mapSqlParameterSource.addValue(PARAMETER_LIMIT, limit);
+    mapSqlParameterSource.addValue(PARAMETER_LAST_NAME, lastName);
+    mapSqlParameterSource.addValue(PARAMETER_LAST_ID, lastId);
+    String afterFilter = Objects.nonNull(lastName) ? " AND (name, id) > (:last_name, :last_id)" : "";
+    String sqlRequest = QUERY_GROUPS_IN_PARTITION + getGroupNameFilter(groupType) + afterFilter
+        + " ORDER BY name ASC, id ASC LIMIT :limit";
+    return namedParameterJdbcTemplate.query(sqlRequest, mapSqlParameterSource, GROUP_ROW_MAPPER);
+  }
+
+  public long countGroupsInPartition(String dataPartitionId, GroupType groupType) {
+    String sqlRequest = QUERY_COUNT_GROUPS_IN_PARTITION + getGroupNameFilter(groupType);
+    Long count = namedParameterJdbcTemplate.queryForObject(sqlRequest,
+        getGroupsInPartitionParameters(dataPartitionId, groupType), Long.class);
+    return Objects.isNull(count) ? 0 : count;
+  }
+
+  /**
+   * Returns the groups the members belong to directly, followed by the direct parents of the
+   * groups, in a single round trip. A group is returned once per child it is a parent of.
+   */
+  public List<GroupInfoEntity> getDirectParents(Collection<String> memberEmails,
+      Collection<String> groupEmails) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
+    mapSqlParameterSource.addValue(PARAMETER_MEMBER_EMAILS, memberEmails.toArray(String[]::new));
+    mapSqlParameterSource.addValue(PARAMETER_GROUP_EMAILS, groupEmails.toArray(String[]::new));
+    return namedParameterJdbcTemplate.query(QUERY_DIRECT_PARENTS, mapSqlParameterSource,
+        GROUP_ROW_MAPPER);
+  }
+
+  /**
+   * Returns the direct child groups and members of the groups in a single round trip.
+   */
+  public List<ChildrenReference> getDirectChildren(Collection<String> groupEmails) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
+    mapSqlParameterSource.addValue(PARAMETER_GROUP_EMAILS, groupEmails.toArray(String[]::new));
+    return namedParameterJdbcTemplate.query(QUERY_DIRECT_CHILDREN, mapSqlParameterSource,
+        CHILD_ROW_MAPPER);
   }
 
   public Set<String> getAffectedMembersForGroup(EntityNode entityNode) {
     MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
     mapSqlParameterSource.addValue(PARAMETER_PARTITION, entityNode.getDataPartitionId());
     mapSqlParameterSource.addValue(PARAMETER_GROUP_EMAIL, entityNode.getNodeId());
+    String sqlRequest = closureTableService.isReady()
+        ? QUERY_CLOSURE_AFFECTED_MEMBERS_FOR_GROUP
+        : QUERY_AFFECTED_MEMBERS_FOR_GROUP;
     return new HashSet<>(
-        namedParameterJdbcTemplate.queryForList(QUERY_AFFECTED_MEMBERS_FOR_GROUP,
-            mapSqlParameterSource, String.class));
+        namedParameterJdbcTemplate.queryForList(sqlRequest, mapSqlParameterSource, String.class));
   }
 
-  private String getAllGroupsInPartitionRequest(GroupType groupType) {
-    String groupNameFilter =
-        !Objects.equals(groupType, GroupType.NONE) ? " AND name LIKE :name_prefix " : "";
-    return """
-        SELECT (
-          SELECT COUNT(*) FROM "group"
-          WHERE partition_id = :partition""" + groupNameFilter + """
-        ) as totalCount,
-        (
-          SELECT json_agg(t.*)
-          FROM (
-            SELECT *
-            FROM "group"
-            WHERE partition_id = :partition""" + groupNameFilter + """
-            ORDER BY id ASC
-            LIMIT :limit
-            OFFSET :from_row
-          ) AS t
-        ) AS groupInfoEntities""";
+  private MapSqlParameterSource getGroupsInPartitionParameters(String dataPartitionId,
+      GroupType groupType) {
+    MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
+    mapSqlParameterSource.addValue(PARAMETER_PARTITION, dataPartitionId);
+    mapSqlParameterSource.addValue(PARAMETER_NAME_PREFIX, groupType.toString().toLowerCase() + "%");
+    return mapSqlParameterSource;
+  }
+
+  private String getGroupNameFilter(GroupType groupType) {
+    return !Objects.equals(groupType, GroupType.NONE) ? GROUP_NAME_FILTER : "";
   }
 
 }
@@ -17,9 +17,14 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.retrievegroup;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +33,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
@@ -36,8 +40,7 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.jdbc.JdbcAppProperties;
 import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
-import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntityList;
-import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.MemberRepository;
@@ -48,9 +51,11 @@ import org.opengroup.osdu.entitlements.v2.model.GroupType;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.ParentTreeDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.opengroup.osdu.entitlements.v2.util.GroupEmailUtil;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -114,9 +119,162 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
       ) AS member_roles ON member_roles.group_id = g.id
       WHERE g.partition_id = :partition""";
 
+  public static final String QUERY_CLOSURE_GROUP_SEARCH_FOR_GROUP = """
+      SELECT g.id, g.name, g.description, g.email, g.partition_id, 'MEMBER' AS role
+      FROM "group" AS child
+      JOIN group_closure AS gc ON gc.descendant_id = child.id
+      JOIN "group" AS g ON g.id = gc.ancestor_id
+      WHERE child.email = :group_email AND g.partition_id = :partition""";
+
+  public static final String QUERY_CLOSURE_GROUP_SEARCH_FOR_MEMBER = """
+      SELECT g.id, g.name, g.description, g.email, g.partition_id,
+        CASE WHEN member_roles.role IS NULL THEN 'MEMBER' ELSE member_roles.role END AS role
+      FROM (
+        SELECT DISTINCT gc.ancestor_id AS id
+        FROM member
+        JOIN member_to_group AS mg ON mg.member_id = member.id
+        JOIN group_closure AS gc ON gc.descendant_id = mg.group_id
+        WHERE member.email = :member_email
+      ) AS sch
+      JOIN "group" AS g ON sch.id = g.id
+      LEFT JOIN (
+        SELECT mg.group_id, mg.role
+        FROM member_to_group AS mg
+        JOIN member ON member.id = mg.member_id
+        WHERE member.email = :member_email
+      ) AS member_roles ON member_roles.group_id = g.id
+      WHERE g.partition_id = :partition""";
+
+  // The recursive queries do not walk above the ancestor once they reach it, the other paths
+  // are still walked up to their roots
+  public static final String QUERY_IS_ANCESTOR_OF_GROUP = """
+      WITH RECURSIVE target (id) AS (
+        SELECT g.id
+        FROM "group" AS g
+        WHERE g.email = :ancestor_email
+      ), ancestors (id) AS (
+        SELECT eg.parent_id
+        FROM "group" AS child
+        JOIN embedded_group AS eg ON eg.child_id = child.id
+        WHERE child.email = :group_email
+
+        UNION
+
+        SELECT eg.parent_id
+        FROM ancestors AS a
+        CROSS JOIN target AS t
+        JOIN embedded_group AS eg ON eg.child_id = a.id
+        WHERE a.id <> t.id
+      )
+      SELECT EXISTS (
+        SELECT 1
+        FROM ancestors AS a
+        JOIN target AS t ON t.id = a.id
+      )""";
+
+  public static final String QUERY_IS_ANCESTOR_OF_MEMBER = """
+      WITH RECURSIVE target (id) AS (
+        SELECT g.id
+        FROM "group" AS g
+        WHERE g.email = :ancestor_email
+      ), ancestors (id) AS (
+        SELECT mg.group_id
+        FROM member AS m
+        JOIN member_to_group AS mg ON mg.member_id = m.id
+        WHERE m.email = :member_email
+
+        UNION
+
+        SELECT eg.parent_id
+        FROM ancestors AS a
+        CROSS JOIN target AS t
+        JOIN embedded_group AS eg ON eg.child_id = a.id
+        WHERE a.id <> t.id
+      )
+      SELECT EXISTS (
+        SELECT 1
+        FROM ancestors AS a
+        JOIN target AS t ON t.id = a.id
+      )""";
+
+  public static final String QUERY_CLOSURE_IS_ANCESTOR_OF_GROUP = """
+      SELECT EXISTS (
+        SELECT 1
+        FROM "group" AS child
+        JOIN group_closure AS gc ON gc.descendant_id = child.id
+        JOIN "group" AS g ON g.id = gc.ancestor_id
+        WHERE child.email = :group_email AND g.email = :ancestor_email
+      )""";
+
+  public static final String QUERY_CLOSURE_IS_ANCESTOR_OF_MEMBER = """
+      SELECT EXISTS (
+        SELECT 1
+        FROM member AS m
+        JOIN member_to_group AS mg ON mg.member_id = m.id
+        JOIN group_closure AS gc ON gc.descendant_id = mg.group_id
+        JOIN "group" AS g ON g.id = gc.ancestor_id
+        WHERE m.email = :member_email AND g.email = :ancestor_email
+      )""";
+
+  // The queries of several nodes return the email of the node along with each of its parents
+  public static final String QUERY_GROUP_SEARCH_FOR_GROUPS = """
+      WITH RECURSIVE search_parents (node_email, id) AS (
+        SELECT child.email, child.id
+        FROM "group" AS child
+        WHERE child.email IN (:node_emails)
+
+        UNION
+
+        SELECT sp.node_email, eg.parent_id
+        FROM search_parents AS sp
+        JOIN embedded_group AS eg ON eg.child_id = sp.id
+      )
+      SELECT sp.node_email, g.id, g.name, g.description, g.email, g.partition_id
+      FROM search_parents AS sp
+      JOIN "group" AS g ON sp.id = g.id
+      WHERE g.partition_id = :partition""";
+
+  public static final String QUERY_GROUP_SEARCH_FOR_MEMBERS = """
+      WITH RECURSIVE search_parents (node_email, id) AS (
+        SELECT m.email, mg.group_id
+        FROM member AS m
+        JOIN member_to_group AS mg ON mg.member_id = m.id
+        WHERE m.email IN (:node_emails)
+
+        UNION
+
+        SELECT sp.node_email, eg.parent_id
+        FROM search_parents AS sp
+        JOIN embedded_group AS eg ON eg.child_id = sp.id
+      )
+      SELECT sp.node_email, g.id, g.name, g.description, g.email, g.partition_id
+      FROM search_parents AS sp
+      JOIN "group" AS g ON sp.id = g.id
+      WHERE g.partition_id = :partition""";
+
+  public static final String QUERY_CLOSURE_GROUP_SEARCH_FOR_GROUPS = """
+      SELECT child.email AS node_email, g.id, g.name, g.description, g.email, g.partition_id
+      FROM "group" AS child
+      JOIN group_closure AS gc ON gc.descendant_id = child.id
+      JOIN "group" AS g ON g.id = gc.ancestor_id
+      WHERE child.email IN (:node_emails) AND g.partition_id = :partition""";
+
+  public static final String QUERY_CLOSURE_GROUP_SEARCH_FOR_MEMBERS = """
+      SELECT DISTINCT m.email AS node_email, g.id, g.name, g.description, g.email, g.partition_id
+      FROM member AS m
+      JOIN member_to_group AS mg ON mg.member_id = m.id
+      JOIN group_closure AS gc ON gc.descendant_id = mg.group_id
+      JOIN "group" AS g ON g.id = gc.ancestor_id
+      WHERE m.email IN (:node_emails) AND g.partition_id = :partition""";
+
   private static final String PARAMETER_PARTITION = "partition";
   private static final String PARAMETER_GROUP_EMAIL = "group_email";
   private static final String PARAMETER_MEMBER_EMAIL = "member_email";
+  private static final String PARAMETER_ANCESTOR_EMAIL = "ancestor_email";
+  private static final String PARAMETER_NODE_EMAILS = "node_emails";
+  private static final String COLUMN_NODE_EMAIL = "node_email";
+  private static final String KEYSET_CURSOR_VERSION = "k1";
+  private static final String MALFORMED_KEYSET_CURSOR = "Malformed cursor, must be a cursor returned by a previous keyset page";
 
   private final GroupRepository groupRepository;
   private final MemberRepository memberRepository;
@@ -124,6 +282,7 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
   private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
   private final JaxRsDpsLog log;
   private final JdbcAppProperties config;
+  private final ClosureTableService closureTableService;
 
   @Override
   public EntityNode groupExistenceValidation(String groupId, String partitionId) {
@@ -163,6 +322,16 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
     return Collections.emptySet();
   }
 
+  @Override
+  public Map<String, EntityNode> getGroupNodes(String partitionId, Collection<String> groupEmails) {
+    if (groupEmails.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return groupRepository.findByEmails(groupEmails).stream()
+        .collect(Collectors.toMap(GroupInfoEntity::getEmail, GroupInfoEntity::toEntityNode,
+            (first, second) -> first));
+  }
+
   //Left without implementation as not necessary for provider
   @Override
   public Map<String, Set<String>> getUserPartitionAssociations(Set<String> userIds) {
@@ -188,38 +357,14 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
 
   @Override
   public List<ParentReference> loadDirectParents(String partitionId, String... nodeIds) {
-      List<ParentReference> parentRefs = new ArrayList<>();
-      for (String nodeId : nodeIds) {
-          List<Long> nodeMemberIds = memberRepository.findByEmail(nodeId).stream()
-              .map(MemberInfoEntity::getId)
-              .toList();
-
-          Stream<GroupInfoEntity> parentGroupInfo = Stream.<GroupInfoEntity>empty();
-
-          // It's a member - query member table for parent groups
-          if (!nodeMemberIds.isEmpty()) {
-              parentGroupInfo = groupRepository.findDirectGroups(nodeMemberIds).stream();
-          }
-
-          // Check if it's a group email (ends with @partition.domain)
-          if (GroupEmailUtil.isGroupEmail(nodeId, partitionId, config.getDomain())) {
-              // It matches the pattern for a group, so query group table for parent groups
-              List<Long> groupChildrenIds = groupRepository.findByEmail(nodeId).stream()
-                  .map(GroupInfoEntity::getId)
-                  .toList();
-              
-              if (!groupChildrenIds.isEmpty()) {
-                  parentGroupInfo = Stream.concat(parentGroupInfo,
-                      groupRepository.findDirectParents(groupChildrenIds).stream());
-              }
-          }
-
-          // Collect all of the parent references
-          parentGroupInfo.map(GroupInfoEntity::toParentReference)
-                  .forEach(parentRefs::add);
-      }
-
-      return parentRefs;
+    List<String> memberEmails = Arrays.asList(nodeIds);
+    // Only the ids matching the group email pattern of the partition are looked up as groups
+    List<String> groupEmails = memberEmails.stream()
+        .filter(nodeId -> GroupEmailUtil.isGroupEmail(nodeId, partitionId, config.getDomain()))
+        .toList();
+    return jdbcTemplateRunner.getDirectParents(memberEmails, groupEmails).stream()
+        .map(GroupInfoEntity::toParentReference)
+        .collect(Collectors.toCollection(ArrayList::new));
   }
 
   @Override
@@ -234,9 +379,9 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
     mapParameter.addValue(PARAMETER_GROUP_EMAIL, memberNode.getNodeId());
     mapParameter.addValue(PARAMETER_PARTITION, memberNode.getDataPartitionId());
 
-    String sqlRequest = memberNode.isGroup()
-        ? QUERY_GROUP_SEARCH_FOR_GROUP
-        : QUERY_GROUP_SEARCH_FOR_MEMBER;
+    String sqlRequest = closureTableService.isReady()
+        ? getClosureSearchRequest(memberNode)
+        : getRecursiveSearchRequest(memberNode);
 
     List<ParentReference> parents = namedParameterJdbcTemplate
         .query(sqlRequest, mapParameter, new ParentReferenceMapper(roleRequired));
@@ -245,25 +390,73 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
         .build();
   }
 
+  /**
+   * Loads the parents of the groups and of the members of each partition with one query each.
+   */
   @Override
-  public List<ChildrenReference> loadDirectChildren(String partitionId, String... nodeId) {
-    //The method is not used in JDBC module and does not provide a solution
-    // to identify the type of the node.
-    //Should be reworked later
-    List<Long> parentIds = groupRepository.findByEmail(nodeId[0]).stream()
-        .map(GroupInfoEntity::getId)
-        .toList();
+  public Map<String, Set<ParentReference>> loadAllParentsOfNodes(Collection<EntityNode> nodes) {
+    Map<String, Set<ParentReference>> parents = new HashMap<>();
+    nodes.forEach(node -> parents.put(node.getNodeId().toLowerCase(), new HashSet<>()));
+    Map<String, Map<Boolean, Set<String>>> nodeEmailsByPartition = nodes.stream()
+        .collect(Collectors.groupingBy(EntityNode::getDataPartitionId,
+            Collectors.partitioningBy(EntityNode::isGroup,
+                Collectors.mapping(EntityNode::getNodeId, Collectors.toSet()))));
+    nodeEmailsByPartition.forEach((partitionId, nodeEmails) -> {
+      loadAllParentsOfNodes(partitionId, nodeEmails.get(true), closureTableService.isReady()
+          ? QUERY_CLOSURE_GROUP_SEARCH_FOR_GROUPS
+          : QUERY_GROUP_SEARCH_FOR_GROUPS, parents);
+      loadAllParentsOfNodes(partitionId, nodeEmails.get(false), closureTableService.isReady()
+          ? QUERY_CLOSURE_GROUP_SEARCH_FOR_MEMBERS
+          : QUERY_GROUP_SEARCH_FOR_MEMBERS, parents);
+    });
+    return parents;
+  }
 
-    List<ChildrenReference> children = groupRepository.findDirectChildren(parentIds).stream()
-        .map(GroupInfoEntity::toChildrenReference)
-        .toList();
-    List<ChildrenReference> members = parentIds.stream()
-        .flatMap(id -> memberRepository.findMembersByGroup(id).stream())
-        .map(MemberInfoEntity::toChildrenReference)
-        .toList();
+  @Override
+  public boolean isReachable(EntityNode from, EntityNode to) {
+    if (from.getNodeId().equalsIgnoreCase(to.getNodeId())) {
+      return true;
+    }
+    MapSqlParameterSource mapParameter = new MapSqlParameterSource();
+    mapParameter.addValue(PARAMETER_MEMBER_EMAIL, from.getNodeId());
+    mapParameter.addValue(PARAMETER_GROUP_EMAIL, from.getNodeId());
+    mapParameter.addValue(PARAMETER_ANCESTOR_EMAIL, to.getNodeId());
+
+    String sqlRequest;
+    if (closureTableService.isReady()) {
+      sqlRequest = from.isGroup()
+          ? QUERY_CLOSURE_IS_ANCESTOR_OF_GROUP
+          : QUERY_CLOSURE_IS_ANCESTOR_OF_MEMBER;
+    } else {
+      sqlRequest = from.isGroup()
+          ? QUERY_IS_ANCESTOR_OF_GROUP
+          : QUERY_IS_ANCESTOR_OF_MEMBER;
+    }
+    return Boolean.TRUE.equals(
+        namedParameterJdbcTemplate.queryForObject(sqlRequest, mapParameter, Boolean.class));
+  }
+
+  /**
+   * Counts the rows of the parents query on the database side instead of transferring them.
+   */
+  @Override
+  public long countAncestors(EntityNode node, String partitionId) {
+    MapSqlParameterSource mapParameter = new MapSqlParameterSource();
+    mapParameter.addValue(PARAMETER_MEMBER_EMAIL, node.getNodeId());
+    mapParameter.addValue(PARAMETER_GROUP_EMAIL, node.getNodeId());
+    mapParameter.addValue(PARAMETER_PARTITION, partitionId);
+
+    String sqlRequest = closureTableService.isReady()
+        ? getClosureSearchRequest(node)
+        : getRecursiveSearchRequest(node);
+    Long count = namedParameterJdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM (" + sqlRequest + ") AS parents", mapParameter, Long.class);
+    return count == null ? 0 : count;
+  }
 
-    children.addAll(members);
-    return children;
+  @Override
+  public List<ChildrenReference> loadDirectChildren(String partitionId, String... nodeId) {
+    return jdbcTemplateRunner.getDirectChildren(Arrays.asList(nodeId));
   }
 
   @Override
@@ -300,6 +493,20 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
   @Override
   public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType,
       String cursor, Integer limit) {
+    return getGroupsInPartition(dataPartitionId, groupType, cursor, limit, PaginationMode.OFFSET,
+        true);
+  }
+
+  @Override
+  public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType,
+      String cursor, Integer limit, PaginationMode paginationMode, boolean includeTotalCount) {
+    return paginationMode == PaginationMode.KEYSET
+        ? getGroupsInPartitionByKeyset(dataPartitionId, groupType, cursor, limit, includeTotalCount)
+        : getGroupsInPartitionByOffset(dataPartitionId, groupType, cursor, limit, includeTotalCount);
+  }
+
+  private ListGroupsOfPartitionDto getGroupsInPartitionByOffset(String dataPartitionId,
+      GroupType groupType, String cursor, Integer limit, boolean includeTotalCount) {
     int offsetValue = 0;
     if (Objects.nonNull(cursor) && !cursor.isEmpty()) {
       try {
@@ -309,20 +516,76 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
             HttpStatus.BAD_REQUEST.getReasonPhrase(), "Malformed cursor, must be integer value");
       }
     }
-    GroupInfoEntityList groupsByPartition = jdbcTemplateRunner.getGroupsInPartition(dataPartitionId,
-        groupType, offsetValue, limit);
-    List<GroupInfoEntity> groupInfoEntities = groupsByPartition.getGroupInfoEntities();
-    List<ParentReference> parentReferences = groupInfoEntities.stream()
-        .map(GroupInfoEntity::toParentReference)
-        .toList();
+    List<GroupInfoEntity> groupInfoEntities = jdbcTemplateRunner.getGroupsInPartition(
+        dataPartitionId, groupType, offsetValue, limit);
+    Long totalCount = includeTotalCount
+        ? jdbcTemplateRunner.countGroupsInPartition(dataPartitionId, groupType)
+        : null;
 
     return ListGroupsOfPartitionDto.builder()
-        .groups(parentReferences)
-        .totalCount(groupsByPartition.getTotalCount())
+        .groups(groupInfoEntities.stream().map(GroupInfoEntity::toParentReference).toList())
+        .totalCount(totalCount)
         .cursor(String.valueOf(offsetValue + limit))
         .build();
   }
 
+  /**
+   * The total count is computed once, on the first page, and carried by the cursor to the next
+   * pages. The returned cursor is null after the last page.
+   */
+  private ListGroupsOfPartitionDto getGroupsInPartitionByKeyset(String dataPartitionId,
+      GroupType groupType, String cursor, Integer limit, boolean includeTotalCount) {
+    KeysetCursor keysetCursor = Objects.nonNull(cursor) && !cursor.isEmpty()
+        ? KeysetCursor.decode(cursor)
+        : new KeysetCursor(null, null, null);
+    List<GroupInfoEntity> groupInfoEntities = jdbcTemplateRunner.getGroupsInPartitionAfter(
+        dataPartitionId, groupType, keysetCursor.lastName(), keysetCursor.lastId(), limit);
+    Long totalCount = null;
+    if (includeTotalCount) {
+      totalCount = Objects.nonNull(keysetCursor.totalCount())
+          ? keysetCursor.totalCount()
+          : jdbcTemplateRunner.countGroupsInPartition(dataPartitionId, groupType);
+    }
+
+    String nextCursor = null;
+    if (groupInfoEntities.size() == limit) {
+      GroupInfoEntity last = groupInfoEntities.get(groupInfoEntities.size() - 1);
+      nextCursor = new KeysetCursor(last.getName(), last.getId(), totalCount).encode();
+    }
+    return ListGroupsOfPartitionDto.builder()
+        .groups(groupInfoEntities.stream().map(GroupInfoEntity::toParentReference).toList())
+        .totalCount(totalCount)
+        .cursor(nextCursor)
+        .build();
+  }
+
+  private void loadAllParentsOfNodes(String partitionId, Set<String> nodeEmails, String sqlRequest,
+      Map<String, Set<ParentReference>> parents) {
+    if (nodeEmails.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource mapParameter = new MapSqlParameterSource();
+    mapParameter.addValue(PARAMETER_NODE_EMAILS, nodeEmails);
+    mapParameter.addValue(PARAMETER_PARTITION, partitionId);
+    ParentReferenceMapper mapper = new ParentReferenceMapper(false);
+    RowCallbackHandler handler = rs -> parents
+        .computeIfAbsent(rs.getString(COLUMN_NODE_EMAIL).toLowerCase(), nodeId -> new HashSet<>())
+        .add(mapper.mapRow(rs, rs.getRow()));
+    namedParameterJdbcTemplate.query(sqlRequest, mapParameter, handler);
+  }
+
+  private String getRecursiveSearchRequest(EntityNode memberNode) {
+    return memberNode.isGroup()
+        ? QUERY_GROUP_SEARCH_FOR_GROUP
+        : QUERY_GROUP_SEARCH_FOR_MEMBER;
+  }
+
+  private String getClosureSearchRequest(EntityNode memberNode) {
+    return memberNode.isGroup()
+        ? QUERY_CLOSURE_GROUP_SEARCH_FOR_GROUP
+        : QUERY_CLOSURE_GROUP_SEARCH_FOR_MEMBER;
+  }
+
   private boolean hasMemberInGroup(GroupInfoEntity parent, ChildrenReference childrenReference) {
     return !memberRepository.findMemberByEmailInGroup(parent.getId(), childrenReference.getId())
         .isEmpty();
@@ -355,4 +618,33 @@ public class RetrieveGroupRepoJdbc implements RetrieveGroupRepo {
           .build();
     }
   }
+
+  /**
+   * Position after the last group of a keyset page, as an opaque url-safe token.
+   */
+  record KeysetCursor(String lastName, Long lastId, Long totalCount) {
+
+    String encode() {
+      String value = String.join(":", KEYSET_CURSOR_VERSION, String.valueOf(lastId),
+          Objects.isNull(totalCount) ? "" : String.valueOf(totalCount), lastName);
+      return Base64.getUrlEncoder().withoutPadding()
+          .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+      try {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        // the name goes last as it may contain the separator
+        String[] parts = value.split(":", 4);
+        if (parts.length != 4 || !KEYSET_CURSOR_VERSION.equals(parts[0])) {
+          throw new IllegalArgumentException(MALFORMED_KEYSET_CURSOR);
+        }
+        Long totalCount = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+        return new KeysetCursor(parts[3], Long.valueOf(parts[1]), totalCount);
+      } catch (IllegalArgumentException e) {
+        throw new AppException(HttpStatus.BAD_REQUEST.value(),
+            HttpStatus.BAD_REQUEST.getReasonPhrase(), MALFORMED_KEYSET_CURSOR);
+      }
+    }
+  }
 }
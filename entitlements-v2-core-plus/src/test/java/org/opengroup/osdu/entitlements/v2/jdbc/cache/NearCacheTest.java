@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheTest {
+
+  private static final String KEY = "member@domain.com-dp-false";
+
+  @Mock
+  private ICache<String, ParentReferences> sharedCache;
+  @Mock
+  private RedisInvalidationChannel invalidationChannel;
+
+  private NearCache<ParentReferences> nearCache;
+
+  @BeforeEach
+  void setUp() {
+    nearCache = new NearCache<>(sharedCache, invalidationChannel, 10, 60);
+  }
+
+  @Test
+  void shouldServeRepeatedReadsFromLocalCache() {
+    ParentReferences parentReferences = new ParentReferences();
+    when(sharedCache.get(KEY)).thenReturn(parentReferences);
+
+    assertSame(parentReferences, nearCache.get(KEY));
+    assertSame(parentReferences, nearCache.get(KEY));
+
+    verify(sharedCache, times(1)).get(KEY);
+    assertEquals(1, nearCache.getStats().hitCount());
+    assertEquals(1, nearCache.getStats().missCount());
+  }
+
+  @Test
+  void shouldInvalidateLocallyAndBroadcastOnDelete() {
+    ParentReferences parentReferences = new ParentReferences();
+    nearCache.put(KEY, parentReferences);
+
+    nearCache.delete(KEY);
+
+    assertNull(nearCache.get(KEY));
+    verify(sharedCache).put(KEY, parentReferences);
+    verify(sharedCache).delete(KEY);
+    verify(invalidationChannel).publish(KEY);
+  }
+
+  @Test
+  void shouldDropLocalEntryWhenInvalidationReceived() {
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+    verify(invalidationChannel).subscribe(listener.capture(), any());
+    nearCache.put(KEY, new ParentReferences());
+
+    listener.getValue().accept(KEY);
+
+    assertNull(nearCache.get(KEY));
+    verify(sharedCache).get(any());
+  }
+
+  @Test
+  void shouldDropLocalEntriesWhenResubscribed() {
+    ArgumentCaptor<Runnable> resubscriptionListener = ArgumentCaptor.forClass(Runnable.class);
+    verify(invalidationChannel).subscribe(any(), resubscriptionListener.capture());
+    Runnable listener = mock(Runnable.class);
+    nearCache.addResubscriptionListener(listener);
+    nearCache.put(KEY, new ParentReferences());
+
+    resubscriptionListener.getValue().run();
+
+    assertNull(nearCache.get(KEY));
+    verify(listener).run();
+  }
+}
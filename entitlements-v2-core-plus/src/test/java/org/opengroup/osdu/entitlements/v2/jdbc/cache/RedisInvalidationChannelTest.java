@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnectionImpl;
+import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RedisInvalidationChannelTest {
+
+  private static final String CHANNEL = "user-groups-invalidation";
+
+  @Mock
+  private RedisClient redisClient;
+  @Mock
+  private StatefulRedisPubSubConnectionImpl<String, String> connection;
+  @Mock
+  private RedisPubSubCommands<String, String> commands;
+  @Mock
+  private Consumer<String> listener;
+  @Mock
+  private Runnable resubscriptionListener;
+
+  private RedisInvalidationChannel invalidationChannel;
+
+  @BeforeEach
+  void setUp() {
+    invalidationChannel = new RedisInvalidationChannel(redisClient, CHANNEL);
+  }
+
+  @AfterEach
+  void tearDown() {
+    invalidationChannel.close();
+  }
+
+  @Test
+  void shouldRetryFailedSubscription() {
+    when(redisClient.connectPubSub())
+        .thenThrow(new RedisConnectionException("refused"))
+        .thenReturn(connection);
+    when(connection.sync()).thenReturn(commands);
+
+    invalidationChannel.subscribe(listener, resubscriptionListener);
+
+    verify(commands, timeout(2000)).subscribe(CHANNEL);
+    verify(resubscriptionListener, timeout(2000)).run();
+  }
+
+  @Test
+  void shouldResubscribeWhenSubscriptionDrops() {
+    when(redisClient.connectPubSub()).thenReturn(connection);
+    when(connection.sync()).thenReturn(commands);
+    invalidationChannel.subscribe(listener, resubscriptionListener);
+    ArgumentCaptor<RedisConnectionStateListener> stateListener =
+        ArgumentCaptor.forClass(RedisConnectionStateListener.class);
+    verify(redisClient).addListener(stateListener.capture());
+    verify(resubscriptionListener, never()).run();
+
+    stateListener.getValue().onRedisDisconnected(connection);
+
+    verify(redisClient, timeout(2000).times(2)).connectPubSub();
+    verify(commands, timeout(2000).times(2)).subscribe(CHANNEL);
+    verify(connection, timeout(2000)).closeAsync();
+    verify(resubscriptionListener, timeout(2000)).run();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private static final String KEY = "member@domain.com-dp-false";
+  private static final int FOLLOWERS = 5;
+
+  private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+  @Test
+  void shouldShareLeaderResultWithConcurrentCallers() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch releaseLeader = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    try {
+      Future<String> leader = executor.submit(() -> singleFlight.execute(KEY, () -> {
+        loads.incrementAndGet();
+        leaderStarted.countDown();
+        await(releaseLeader);
+        return "parents";
+      }));
+      leaderStarted.await(5, TimeUnit.SECONDS);
+
+      List<Future<String>> followers = new ArrayList<>();
+      for (int i = 0; i < FOLLOWERS; i++) {
+        followers.add(executor.submit(() -> singleFlight.execute(KEY, () -> {
+          loads.incrementAndGet();
+          return "other";
+        })));
+      }
+      while (singleFlight.getCoalescedLoads() < FOLLOWERS) {
+        Thread.sleep(10);
+      }
+      releaseLeader.countDown();
+
+      assertEquals("parents", leader.get(5, TimeUnit.SECONDS));
+      for (Future<String> follower : followers) {
+        assertEquals("parents", follower.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+      assertEquals(1, singleFlight.getLeaderLoads());
+      assertEquals(FOLLOWERS, singleFlight.getCoalescedLoads());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldLoadAgainAfterLeaderFailed() {
+    assertThrows(IllegalStateException.class, () -> singleFlight.execute(KEY, () -> {
+      throw new IllegalStateException("database is not available");
+    }));
+
+    assertEquals("parents", singleFlight.execute(KEY, () -> "parents"));
+    assertEquals(2, singleFlight.getLeaderLoads());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -26,15 +26,18 @@ import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTest
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.NOT_VALID_TENANT;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TENANT_2_SA;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TENANT_2_SCHEMA;
+import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TENANT_3_MAXIMUM_POOL_SIZE;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TENANT_3_SA;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TENANT_3_SCHEMA;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TEST_SYSTEM_TENANT_1;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TEST_TENANT_2;
 import static org.opengroup.osdu.entitlements.v2.jdbc.config.MultiTenantJdbcTestConfig.TEST_TENANT_3;
 
+import com.zaxxer.hikari.HikariDataSource;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -185,6 +188,76 @@ public class MultiTenantJdbcTemplateTest {
     assertNull(dataSources.get(NOT_VALID_TENANT));
   }
 
+  @Test
+  public void testPartitionPoolSettings() {
+    new TenantConnectionTester(TEST_TENANT_3, new ConcurrentHashMap<>()).run();
+
+    HikariDataSource tenant3DataSource = (HikariDataSource) this.multiTenantRoutingDatasource
+        .getResolvedDataSources().get(TEST_TENANT_3);
+    assertEquals(Integer.parseInt(TENANT_3_MAXIMUM_POOL_SIZE), tenant3DataSource.getMaximumPoolSize());
+    assertEquals("entitlements-" + TEST_TENANT_3, tenant3DataSource.getPoolName());
+  }
+
+  @Test
+  public void testIdleDataSourceEviction() {
+    new TenantConnectionTester(TEST_SYSTEM_TENANT_1, new ConcurrentHashMap<>()).run();
+    new TenantConnectionTester(TEST_TENANT_2, new ConcurrentHashMap<>()).run();
+    HikariDataSource tenant2DataSource = (HikariDataSource) this.multiTenantRoutingDatasource
+        .getResolvedDataSources().get(TEST_TENANT_2);
+
+    multiTenantRoutingDatasource.evictIdleDataSources(Duration.ZERO);
+
+    Map<Object, DataSource> dataSources = this.multiTenantRoutingDatasource.getResolvedDataSources();
+    assertNull(dataSources.get(TEST_TENANT_2));
+    assertTrue(tenant2DataSource.isClosed());
+    assertFalse(((HikariDataSource) dataSources.get(TEST_SYSTEM_TENANT_1)).isClosed());
+
+    ConcurrentHashMap<String, Integer> tenant2Collector = new ConcurrentHashMap<>();
+    new TenantConnectionTester(TEST_TENANT_2, tenant2Collector).run();
+    assertEquals(Integer.valueOf(1), tenant2Collector.get(TENANT_2_SA));
+  }
+
+  @Test
+  public void testDataSourceWithConnectionInUseIsNotEvicted() throws SQLException {
+    new TenantConnectionTester(TEST_TENANT_2, new ConcurrentHashMap<>()).run();
+    HikariDataSource tenant2DataSource = (HikariDataSource) this.multiTenantRoutingDatasource
+        .getResolvedDataSources().get(TEST_TENANT_2);
+
+    try (var connection = tenant2DataSource.getConnection()) {
+      multiTenantRoutingDatasource.evictIdleDataSources(Duration.ZERO);
+
+      assertEquals(tenant2DataSource,
+          multiTenantRoutingDatasource.getResolvedDataSources().get(TEST_TENANT_2));
+      assertFalse(tenant2DataSource.isClosed());
+      assertTrue(connection.isValid(10));
+    }
+
+    ThreadLocalTenantStorage.setTenantName(TEST_TENANT_2);
+    try {
+      assertEquals(tenant2DataSource, multiTenantRoutingDatasource.determineTargetDataSource());
+    } finally {
+      ThreadLocalTenantStorage.clear();
+      multiTenantRoutingDatasource.evictIdleDataSources(Duration.ZERO);
+    }
+  }
+
+  @Test
+  public void testReadOnlyRequestFallsBackToPrimaryWhenReplicaLagIsUnknown() throws SQLException {
+    ThreadLocalTenantStorage.setTenantName(TEST_TENANT_2);
+    ThreadLocalTenantStorage.setReadOnly(true);
+    try {
+      DataSource target = multiTenantRoutingDatasource.determineTargetDataSource();
+
+      assertEquals(multiTenantRoutingDatasource.getResolvedDataSources().get(TEST_TENANT_2), target);
+      try (var connection = target.getConnection()) {
+        assertEquals(TENANT_2_SA, connection.getMetaData().getUserName());
+      }
+    } finally {
+      ThreadLocalTenantStorage.clear();
+      multiTenantRoutingDatasource.evictIdleDataSources(Duration.ZERO);
+    }
+  }
+
   class TenantConnectionTester implements Runnable {
 
     private final String tenant;
@@ -36,6 +36,8 @@ public class MultiTenantJdbcTestConfig {
   public static final String PROPERTY_USER = "test.datasource.username";
   public static final String PROPERTY_PASS = "test.datasource.password";
   public static final String PROPERTY_SCHEMA = "test.datasource.schema";
+  public static final String PROPERTY_MAXIMUM_POOL_SIZE = "test.datasource.maximumPoolSize";
+  public static final String PROPERTY_REPLICA_URL = "test.datasource.replica.url";
 
   public static final String H2_CONNECTION = "jdbc:h2:mem:db;DB_CLOSE_DELAY=-1";
   public static final String DEFAULT_SA = "SA";
@@ -48,6 +50,8 @@ public class MultiTenantJdbcTestConfig {
   public static final String TENANT_3_SCHEMA = "TENANT_3";
   public static final String NOT_EXISTING_SCHEMA = "NOT_EXIST";
 
+  public static final String TENANT_3_MAXIMUM_POOL_SIZE = "4";
+
   @Bean
   @Primary
   public IPropertyResolver propertyResolver() {
@@ -62,11 +66,14 @@ public class MultiTenantJdbcTestConfig {
     when(propertyResolver.getPropertyValue(PROPERTY_USER, TEST_TENANT_2)).thenReturn(TENANT_2_SA);
     when(propertyResolver.getPropertyValue(PROPERTY_PASS, TEST_TENANT_2)).thenReturn(TENANT_2_SA);
     when(propertyResolver.getPropertyValue(PROPERTY_SCHEMA, TEST_TENANT_2)).thenReturn(TENANT_2_SCHEMA);
+    when(propertyResolver.getPropertyValue(PROPERTY_REPLICA_URL, TEST_TENANT_2)).thenReturn(H2_CONNECTION);
 
     when(propertyResolver.getPropertyValue(PROPERTY_URL, TEST_TENANT_3)).thenReturn(H2_CONNECTION);
     when(propertyResolver.getPropertyValue(PROPERTY_USER, TEST_TENANT_3)).thenReturn(TENANT_3_SA);
     when(propertyResolver.getPropertyValue(PROPERTY_PASS, TEST_TENANT_3)).thenReturn(TENANT_3_SA);
     when(propertyResolver.getPropertyValue(PROPERTY_SCHEMA, TEST_TENANT_3)).thenReturn(TENANT_3_SCHEMA);
+    when(propertyResolver.getPropertyValue(PROPERTY_MAXIMUM_POOL_SIZE, TEST_TENANT_3)).thenReturn(
+        TENANT_3_MAXIMUM_POOL_SIZE);
 
     when(propertyResolver.getPropertyValue(PROPERTY_URL, NOT_VALID_TENANT)).thenReturn(H2_CONNECTION);
     when(propertyResolver.getPropertyValue(PROPERTY_USER, NOT_VALID_TENANT)).thenReturn(DEFAULT_SA);
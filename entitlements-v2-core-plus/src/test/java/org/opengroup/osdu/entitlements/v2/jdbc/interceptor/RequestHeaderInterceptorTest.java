@@ -17,12 +17,16 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.interceptor;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,6 +35,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
 import org.opengroup.osdu.entitlements.v2.jdbc.interceptor.authenticator.IAuthenticator;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -61,6 +66,11 @@ public class RequestHeaderInterceptorTest {
         requestHeaderInterceptor = new RequestHeaderInterceptor(log, authenticator);
     }
 
+    @After
+    public void cleanup() {
+        ThreadLocalTenantStorage.clear();
+    }
+
     @Test
     public void should_returnTrue_when_requestIsSwagger() throws IOException {
         when(request.getMethod()).thenReturn("GET");
@@ -90,4 +100,47 @@ public class RequestHeaderInterceptorTest {
 
         boolean result = requestHeaderInterceptor.preHandle(request, response, handler);
     }
+
+    @Test
+    public void should_setTenant_when_requestIsAuthenticated() {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader(DpsHeaders.DATA_PARTITION_ID)).thenReturn("dp");
+        when(authenticator.requestIsAuthenticated(request)).thenReturn(true);
+
+        requestHeaderInterceptor.preHandle(request, response, handler);
+
+        assertEquals("dp", ThreadLocalTenantStorage.getTenantName());
+        assertTrue(ThreadLocalTenantStorage.isReadOnly());
+    }
+
+    @Test
+    public void should_notMarkReadOnly_when_requestWrites() {
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getHeader(DpsHeaders.DATA_PARTITION_ID)).thenReturn("dp");
+        when(authenticator.requestIsAuthenticated(request)).thenReturn(true);
+
+        requestHeaderInterceptor.preHandle(request, response, handler);
+
+        assertFalse(ThreadLocalTenantStorage.isReadOnly());
+    }
+
+    @Test
+    public void should_clearTenant_when_handlerFailed() throws Exception {
+        ThreadLocalTenantStorage.setTenantName("dp");
+
+        requestHeaderInterceptor.afterCompletion(request, response, handler, new RuntimeException());
+
+        assertNull(ThreadLocalTenantStorage.getTenantName());
+    }
+
+    @Test
+    public void should_notKeepPreviousTenant_when_requestIsNotAuthenticated() {
+        ThreadLocalTenantStorage.setTenantName("previous");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/info");
+
+        requestHeaderInterceptor.preHandle(request, response, handler);
+
+        assertNull(ThreadLocalTenantStorage.getTenantName());
+    }
 }
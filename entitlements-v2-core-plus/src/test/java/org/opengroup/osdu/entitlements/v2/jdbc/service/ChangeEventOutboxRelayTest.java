@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.status.Message;
+import org.opengroup.osdu.core.common.status.IEventPublisher;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.model.ChangeEventOutboxEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ChangeEventOutboxRunner;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventOutboxRelayTest {
+
+  private static final String PARTITION_ID = "dp";
+  private static final String GROUP_EMAIL = "data.x@dp.group.com";
+
+  @Mock
+  private ChangeEventOutboxRunner outboxRunner;
+  @Mock
+  private ObjectProvider<IEventPublisher> eventPublishers;
+  @Mock
+  private ObjectProvider<MeterRegistry> meterRegistry;
+  @Mock
+  private IEventPublisher broker;
+
+  private EntConfigProperties properties;
+
+  private ChangeEventOutboxRelay outboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setSystemTenant("system");
+    properties.setEventOutboxPublishBatchSize(2);
+    outboxRelay = new ChangeEventOutboxRelay(properties, outboxRunner, eventPublishers,
+        meterRegistry);
+  }
+
+  @Test
+  void shouldKeepLastOfIdenticalEventsInOrderOfLastOccurrence() {
+    List<EntitlementsChangeEvent> coalesced = ChangeEventOutboxRelay.coalesce(List.of(
+        changed("user1@xxx.com", EntitlementsChangeAction.add, 1),
+        changed("user1@xxx.com", EntitlementsChangeAction.remove, 2),
+        changed("user1@xxx.com", EntitlementsChangeAction.add, 3)));
+
+    assertEquals(2, coalesced.size());
+    assertEquals(EntitlementsChangeAction.remove, coalesced.get(0).getAction());
+    assertEquals(3, coalesced.get(1).getModifiedOn());
+  }
+
+  @Test
+  void shouldDropChangesOfDeletedGroup() {
+    EntitlementsChangeEvent deleted = EntitlementsChangeEvent.builder()
+        .kind(EntitlementsChangeType.groupDeleted)
+        .group(GROUP_EMAIL)
+        .modifiedOn(2)
+        .build();
+
+    List<EntitlementsChangeEvent> coalesced = ChangeEventOutboxRelay.coalesce(List.of(
+        changed("user1@xxx.com", EntitlementsChangeAction.add, 1), deleted));
+
+    assertEquals(List.of(deleted), coalesced);
+  }
+
+  @Test
+  void shouldPublishCoalescedEventsByPublishBatchSize() throws JsonProcessingException {
+    List<ChangeEventOutboxEntity> outboxEvents = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      outboxEvents.add(toOutboxEvent(i, changed("user" + i + "@xxx.com",
+          EntitlementsChangeAction.add, i)));
+    }
+    outboxEvents.add(toOutboxEvent(3, changed("user0@xxx.com", EntitlementsChangeAction.add, 3)));
+
+    outboxRelay.send(broker, outboxEvents);
+
+    ArgumentCaptor<Message[]> batches = ArgumentCaptor.forClass(Message[].class);
+    verify(broker, times(2)).publish(batches.capture(),
+        eq(Map.of(DpsHeaders.DATA_PARTITION_ID, PARTITION_ID)));
+    assertEquals(2, batches.getAllValues().get(0).length);
+    assertEquals(1, batches.getAllValues().get(1).length);
+  }
+
+  @Test
+  void shouldKeepEventsWithoutBrokerPublisher() {
+    when(eventPublishers.stream()).thenReturn(Stream.empty());
+
+    outboxRelay.relayAll();
+
+    verifyNoInteractions(outboxRunner);
+  }
+
+  @Test
+  void shouldFailStartupWithoutBrokerPublisher() {
+    properties.setEventOutboxEnabled(true);
+    when(eventPublishers.stream()).thenReturn(Stream.of(new ChangeEventOutboxPublisher()));
+
+    assertThrows(IllegalStateException.class, () -> outboxRelay.onApplicationEvent(null));
+  }
+
+  @Test
+  void shouldNotRelayToItself() {
+    ChangeEventOutboxPublisher outboxPublisher = new ChangeEventOutboxPublisher();
+    when(eventPublishers.stream()).thenReturn(Stream.of(outboxPublisher, broker));
+    when(outboxRunner.relay(anyInt(), any())).thenReturn(0);
+    outboxRelay.register("dp");
+
+    outboxRelay.relayAll();
+
+    verify(outboxRunner).relay(anyInt(), any());
+  }
+
+  private static EntitlementsChangeEvent changed(String user, EntitlementsChangeAction action,
+      long modifiedOn) {
+    return EntitlementsChangeEvent.builder()
+        .kind(EntitlementsChangeType.groupChanged)
+        .group(GROUP_EMAIL)
+        .user(user)
+        .action(action)
+        .modifiedBy("requester@xxx.com")
+        .modifiedOn(modifiedOn)
+        .build();
+  }
+
+  private static ChangeEventOutboxEntity toOutboxEvent(long id, EntitlementsChangeEvent event)
+      throws JsonProcessingException {
+    return ChangeEventOutboxEntity.builder()
+        .id(id)
+        .partitionId(PARTITION_ID)
+        .payload(ChangeEventOutbox.OBJECT_MAPPER.writeValueAsString(event))
+        .createdAt(Instant.now())
+        .build();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ChangeEventOutboxRunner;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventOutboxTest {
+
+  private static final String PARTITION_ID = "dp";
+  private static final String GROUP_EMAIL = "data.x@dp.group.com";
+  private static final String REQUESTER_ID = "requester@xxx.com";
+
+  @Mock
+  private ChangeEventOutboxRunner outboxRunner;
+  @Mock
+  private ChangeEventOutboxRelay outboxRelay;
+  @Mock
+  private RequestInfo requestInfo;
+
+  private EntConfigProperties properties;
+
+  private ChangeEventOutbox changeEventOutbox;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setSystemTenant("system");
+    properties.setEventOutboxEnabled(true);
+    changeEventOutbox = new ChangeEventOutbox(properties, outboxRunner, outboxRelay, requestInfo);
+    ReflectionTestUtils.setField(changeEventOutbox, "eventPublishingEnabled", true);
+  }
+
+  @Test
+  void shouldStoreMemberAddedEventOfRequester() throws JsonProcessingException {
+    DpsHeaders headers = new DpsHeaders();
+    headers.put(DpsHeaders.USER_ID, REQUESTER_ID);
+    when(requestInfo.getHeaders()).thenReturn(headers);
+
+    changeEventOutbox.onMemberAdded(EntityNode.createNodeFromGroupEmail(GROUP_EMAIL),
+        EntityNode.createMemberNodeForNewUser("member@xxx.com", PARTITION_ID));
+
+    ArgumentCaptor<List<String>> payloads = ArgumentCaptor.forClass(List.class);
+    verify(outboxRunner).insert(eq(PARTITION_ID), payloads.capture());
+    verify(outboxRelay).register("system");
+    EntitlementsChangeEvent event = ChangeEventOutbox.OBJECT_MAPPER.readValue(
+        payloads.getValue().get(0), EntitlementsChangeEvent.class);
+    assertEquals(EntitlementsChangeType.groupChanged, event.getKind());
+    assertEquals(GROUP_EMAIL, event.getGroup());
+    assertEquals("member@xxx.com", event.getUser());
+    assertEquals(EntitlementsChangeAction.add, event.getAction());
+    assertEquals(REQUESTER_ID, event.getModifiedBy());
+  }
+
+  @Test
+  void shouldStoreOneEventPerGroupTheMemberIsRemovedFrom() {
+    changeEventOutbox.onMemberRemoved(List.of(GROUP_EMAIL, "data.y@dp.group.com"),
+        "member@xxx.com", PARTITION_ID, REQUESTER_ID);
+
+    ArgumentCaptor<List<String>> payloads = ArgumentCaptor.forClass(List.class);
+    verify(outboxRunner).insert(eq(PARTITION_ID), payloads.capture());
+    assertEquals(2, payloads.getValue().size());
+  }
+
+  @Test
+  void shouldNotStoreEventsWhenPublishingIsDisabled() {
+    ReflectionTestUtils.setField(changeEventOutbox, "eventPublishingEnabled", false);
+
+    changeEventOutbox.onGroupDeleted(EntityNode.createNodeFromGroupEmail(GROUP_EMAIL));
+
+    verifyNoInteractions(outboxRunner, outboxRelay, requestInfo);
+  }
+}
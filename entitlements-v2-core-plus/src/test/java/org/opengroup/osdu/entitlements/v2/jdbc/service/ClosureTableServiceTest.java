@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.ClosureTableRunner;
+
+@ExtendWith(MockitoExtension.class)
+class ClosureTableServiceTest {
+
+  @Mock
+  private ClosureTableRunner closureTableRunner;
+
+  private EntConfigProperties properties;
+
+  private ClosureTableService closureTableService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setSystemTenant("system");
+    properties.setClosureTableEnabled(true);
+    closureTableService = new ClosureTableService(properties, closureTableRunner);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ThreadLocalTenantStorage.clear();
+  }
+
+  @Test
+  void shouldNotTouchClosureTableWhenDisabled() {
+    properties.setClosureTableEnabled(false);
+
+    assertFalse(closureTableService.isEnabled());
+    assertFalse(closureTableService.isReady());
+    closureTableService.onEdgeAdded(1L, 2L);
+    closureTableService.onEdgeRemoved(1L);
+    assertTrue(closureTableService.beforeGroupDeleted(1L).isEmpty());
+
+    verifyNoInteractions(closureTableRunner);
+  }
+
+  @Test
+  void shouldRebuildUnpopulatedTablesOfPinnedTenantsOnStartup() {
+    properties.setDatasourcePrewarmPartitions(List.of("dp1"));
+    when(closureTableRunner.isPopulated()).thenReturn(false);
+
+    closureTableService.onApplicationEvent(null);
+
+    verify(closureTableRunner, times(2)).rebuild();
+    ThreadLocalTenantStorage.setTenantName("dp1");
+    assertTrue(closureTableService.isReady());
+  }
+
+  @Test
+  void shouldVerifyPopulatedTableOnStartup() {
+    properties.setClosureTableVerifyOnStartup(true);
+    when(closureTableRunner.isPopulated()).thenReturn(true);
+    when(closureTableRunner.countMissingRows()).thenReturn(0L);
+    when(closureTableRunner.countStaleRows()).thenReturn(0L);
+
+    closureTableService.onApplicationEvent(null);
+
+    verify(closureTableRunner, never()).rebuild();
+    assertTrue(closureTableService.isReady());
+  }
+
+  @Test
+  void shouldNotBeReadyWhileRebuildingInBackground() {
+    when(closureTableRunner.isPopulated()).thenReturn(false);
+    ThreadLocalTenantStorage.setTenantName("dp2");
+
+    assertFalse(closureTableService.isReady());
+
+    verify(closureTableRunner, timeout(1000)).rebuild();
+  }
+
+  @Test
+  void shouldMaintainTableOfTenantThatIsNotReady() {
+    ThreadLocalTenantStorage.setTenantName("dp2");
+
+    closureTableService.onGroupCreated(3L);
+
+    verify(closureTableRunner).addGroup(3L);
+    verify(closureTableRunner, never()).isPopulated();
+  }
+
+  @Test
+  void shouldRecomputeAncestorsOfParentWhenEdgeRemoved() {
+    List<Long> ancestorIds = Arrays.asList(1L, 5L);
+    when(closureTableRunner.findAncestorIds(1L)).thenReturn(ancestorIds);
+
+    closureTableService.onEdgeRemoved(1L);
+
+    InOrder inOrder = inOrder(closureTableRunner);
+    inOrder.verify(closureTableRunner).lockPaths();
+    inOrder.verify(closureTableRunner).findAncestorIds(1L);
+    inOrder.verify(closureTableRunner).recomputeAncestors(ancestorIds);
+    verify(closureTableRunner, never()).rebuild();
+  }
+
+  @Test
+  void shouldLockPathsBeforeAddingEdge() {
+    closureTableService.onEdgeAdded(1L, 2L);
+
+    InOrder inOrder = inOrder(closureTableRunner);
+    inOrder.verify(closureTableRunner).lockPaths();
+    inOrder.verify(closureTableRunner).addEdge(1L, 2L);
+  }
+
+  @Test
+  void shouldLockPathsBeforeCreatingGroup() {
+    closureTableService.onGroupCreated(3L);
+
+    InOrder inOrder = inOrder(closureTableRunner);
+    inOrder.verify(closureTableRunner).lockPaths();
+    inOrder.verify(closureTableRunner).addGroup(3L);
+  }
+
+  @Test
+  void shouldExcludeDeletedGroupFromAncestorsToRecompute() {
+    when(closureTableRunner.findAncestorIds(3L)).thenReturn(Arrays.asList(3L, 1L, 2L));
+
+    List<Long> ancestorIds = closureTableService.beforeGroupDeleted(3L);
+    closureTableService.afterGroupDeleted(ancestorIds);
+
+    assertEquals(Arrays.asList(1L, 2L), ancestorIds);
+    verify(closureTableRunner).recomputeAncestors(ancestorIds);
+  }
+
+  @Test
+  void shouldRebuildInconsistentTable() {
+    when(closureTableRunner.countMissingRows()).thenReturn(2L);
+    when(closureTableRunner.countStaleRows()).thenReturn(0L);
+
+    assertFalse(closureTableService.verifyAndRepair());
+
+    verify(closureTableRunner).rebuild();
+  }
+
+  @Test
+  void shouldKeepConsistentTable() {
+    when(closureTableRunner.countMissingRows()).thenReturn(0L);
+    when(closureTableRunner.countStaleRows()).thenReturn(0L);
+
+    assertTrue(closureTableService.verifyAndRepair());
+
+    verify(closureTableRunner, never()).rebuild();
+  }
+}
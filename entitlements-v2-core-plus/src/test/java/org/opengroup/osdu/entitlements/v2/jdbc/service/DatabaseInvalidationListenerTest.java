@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.core.common.partition.IPropertyResolver;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseInvalidationListenerTest {
+
+  private static final String SCHEMA = "entitlements_1";
+  private static final String PARTITION_ID = "dp";
+  private static final String GROUP_EMAIL = "data.x@dp.group.com";
+  private static final String MEMBER_EMAIL = "member@xxx.com";
+
+  @Mock
+  private IPropertyResolver propertyResolver;
+  @Mock
+  private DataSource dataSource;
+  @Mock
+  private GroupCacheServiceJdbc groupCacheService;
+  @Mock
+  private JdbcTemplateRunner jdbcTemplateRunner;
+
+  private EntConfigProperties properties;
+
+  private DatabaseInvalidationListener listener;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setSystemTenant("system");
+    listener = new DatabaseInvalidationListener(properties, propertyResolver, dataSource,
+        groupCacheService, jdbcTemplateRunner);
+  }
+
+  @Test
+  void shouldNotListenWhenDisabled() {
+    listener.onApplicationEvent(null);
+
+    verifyNoInteractions(dataSource, propertyResolver);
+  }
+
+  @Test
+  void shouldEvictChangedMemberOnce() {
+    listener.applyPayloads(SCHEMA, List.of(
+        SCHEMA + ":m:" + PARTITION_ID + ":" + MEMBER_EMAIL,
+        SCHEMA + ":m:" + PARTITION_ID + ":" + MEMBER_EMAIL));
+
+    verify(groupCacheService, times(1)).evictListGroupCacheForUser(MEMBER_EMAIL, PARTITION_ID);
+    verifyNoInteractions(jdbcTemplateRunner);
+  }
+
+  @Test
+  void shouldEvictChangedGroupAndItsMembers() {
+    when(jdbcTemplateRunner.getAffectedMembersForGroup(any(EntityNode.class)))
+        .thenReturn(Set.of(MEMBER_EMAIL));
+
+    listener.applyPayloads(SCHEMA, List.of(
+        SCHEMA + ":g:" + PARTITION_ID + ":" + GROUP_EMAIL,
+        SCHEMA + ":m:" + PARTITION_ID + ":" + MEMBER_EMAIL));
+
+    verify(groupCacheService).evictListGroupCacheForUser(GROUP_EMAIL, PARTITION_ID);
+    verify(groupCacheService, times(1)).evictListGroupCacheForUser(MEMBER_EMAIL, PARTITION_ID);
+    verifyNoMoreInteractions(groupCacheService);
+  }
+
+  @Test
+  void shouldIgnoreOtherSchemasAndMalformedPayloads() {
+    listener.applyPayloads(SCHEMA, List.of(
+        "entitlements_2:m:" + PARTITION_ID + ":" + MEMBER_EMAIL,
+        "unexpected"));
+
+    verifyNoInteractions(groupCacheService, jdbcTemplateRunner);
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the membership triggers of the database script, the listener side is covered by
+ * {@link DatabaseInvalidationListenerTest}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DatabaseInvalidationTriggersTest {
+
+  private static final String SCHEMA = "entitlements_1";
+  private static final String PARTITION_ID = "dp";
+  private static final String GROUP_EMAIL = "data.x@dp.group.com";
+  private static final String CHILD_GROUP_EMAIL = "data.y@dp.group.com";
+  private static final String MEMBER_EMAIL = "member@xxx.com";
+  private static final int RECEIVE_TIMEOUT_MILLIS = 500;
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:15-alpine").withUsername("postgres");
+
+  private Connection listenerConnection;
+  private SingleConnectionDataSource writerDataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void createSchema() throws Exception {
+    String script = Files.readString(Path.of("cloudbuild/create-db-script.sql"))
+        .replace("entitlements_<version>", SCHEMA);
+    try (Connection connection = openConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE SCHEMA " + SCHEMA);
+      statement.execute("SET search_path TO " + SCHEMA);
+      statement.execute(script);
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    listenerConnection = openConnection();
+    try (Statement statement = listenerConnection.createStatement()) {
+      statement.execute("LISTEN " + DatabaseInvalidationListener.CHANNEL);
+    }
+    writerDataSource = new SingleConnectionDataSource(openConnection(), true);
+    jdbcTemplate = new JdbcTemplate(writerDataSource);
+    jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+    jdbcTemplate.execute("DELETE FROM member_to_group");
+    jdbcTemplate.execute("DELETE FROM embedded_group");
+    jdbcTemplate.execute("DELETE FROM member");
+    jdbcTemplate.execute("DELETE FROM \"group\"");
+    insertGroup(GROUP_EMAIL);
+    insertGroup(CHILD_GROUP_EMAIL);
+    jdbcTemplate.update("INSERT INTO member(email, partition_id) VALUES (?, ?)",
+        MEMBER_EMAIL, PARTITION_ID);
+    jdbcTemplate.update("""
+        INSERT INTO member_to_group(group_id, member_id, role)
+        SELECT g.id, m.id, 'MEMBER' FROM "group" AS g, member AS m
+        WHERE g.email = ? AND m.email = ?""", GROUP_EMAIL, MEMBER_EMAIL);
+    jdbcTemplate.update("""
+        INSERT INTO embedded_group(parent_id, child_id)
+        SELECT parent.id, child.id FROM "group" AS parent, "group" AS child
+        WHERE parent.email = ? AND child.email = ?""", GROUP_EMAIL, CHILD_GROUP_EMAIL);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    writerDataSource.destroy();
+    listenerConnection.close();
+  }
+
+  @Test
+  void shouldNotNotifyWhenSettingIsOff() throws SQLException {
+    newRunner().removeMemberFromGroupByEmail(GROUP_EMAIL, MEMBER_EMAIL);
+
+    assertTrue(receivePayloads().isEmpty());
+  }
+
+  @Test
+  void shouldNotifyRemovalOfLastMembership() throws SQLException {
+    enableNotifications();
+
+    assertEquals(1, newRunner().removeMemberFromGroupByEmail(GROUP_EMAIL, MEMBER_EMAIL));
+
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM member", Long.class));
+    assertEquals(Set.of(payload("m", MEMBER_EMAIL)), receivePayloads());
+  }
+
+  @Test
+  void shouldNotifyMemberDeletedWithItsMemberships() throws SQLException {
+    enableNotifications();
+
+    jdbcTemplate.update("DELETE FROM member WHERE email = ?", MEMBER_EMAIL);
+
+    assertEquals(Set.of(payload("m", MEMBER_EMAIL)), receivePayloads());
+  }
+
+  @Test
+  void shouldNotifyChildrenOfDeletedGroup() throws SQLException {
+    jdbcTemplate.execute("DELETE FROM member_to_group");
+    enableNotifications();
+
+    jdbcTemplate.update("DELETE FROM \"group\" WHERE email = ?", GROUP_EMAIL);
+
+    assertEquals(Set.of(payload("g", GROUP_EMAIL), payload("g", CHILD_GROUP_EMAIL)),
+        receivePayloads());
+  }
+
+  private void insertGroup(String email) {
+    jdbcTemplate.update("INSERT INTO \"group\"(name, description, email, partition_id) "
+        + "VALUES (?, '', ?, ?)", email.substring(0, email.indexOf('@')), email, PARTITION_ID);
+  }
+
+  private void enableNotifications() {
+    jdbcTemplate.execute("SET entitlements.notify = 'on'");
+  }
+
+  private JdbcTemplateRunner newRunner() {
+    return new JdbcTemplateRunner(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+        mock(ClosureTableService.class));
+  }
+
+  private Set<String> receivePayloads() throws SQLException {
+    Set<String> payloads = new HashSet<>();
+    PGConnection connection = listenerConnection.unwrap(PGConnection.class);
+    PGNotification[] notifications;
+    while ((notifications = connection.getNotifications(RECEIVE_TIMEOUT_MILLIS)) != null
+        && notifications.length > 0) {
+      for (PGNotification notification : notifications) {
+        payloads.add(notification.getParameter());
+      }
+    }
+    return payloads;
+  }
+
+  private static String payload(String kind, String email) {
+    return SCHEMA + ":" + kind + ":" + PARTITION_ID + ":" + email;
+  }
+
+  private static Connection openConnection() throws SQLException {
+    return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+        POSTGRES.getPassword());
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.entitlements.v2.jdbc.JdbcAppProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.RedisLease;
+import org.opengroup.osdu.entitlements.v2.jdbc.cache.SingleFlight;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferencesDelta;
+import org.opengroup.osdu.entitlements.v2.model.ParentTreeDto;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
+import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCacheServiceJdbcTest {
+
+  private static final String PARTITION_ID = "dp";
+  private static final String MEMBER_EMAIL = "member@xxx.com";
+  private static final String KEY_WITHOUT_ROLES = MEMBER_EMAIL + "-" + PARTITION_ID + "-false";
+  private static final String KEY_WITH_ROLES = MEMBER_EMAIL + "-" + PARTITION_ID + "-true";
+  private static final String LEASE_KEY_PREFIX = "lease-";
+  private static final String LEASE_TOKEN = "token";
+
+  @Mock
+  private JdbcAppProperties config;
+  @Mock
+  private ICache<String, ParentReferences> entityGroupsCache;
+  @Mock
+  private RetrieveGroupRepo retrieveGroupRepo;
+  @Mock
+  private ObjectProvider<RedisLease> rebuildLease;
+  @Mock
+  private ListGroupResponseCache listGroupResponseCache;
+
+  private EntConfigProperties properties;
+
+  private GroupCacheServiceJdbc groupCacheService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setRedisUserGroupsDeltaApplyEnabled(true);
+    groupCacheService = new GroupCacheServiceJdbc(config, properties, entityGroupsCache,
+        retrieveGroupRepo, new SingleFlight<>(), rebuildLease, listGroupResponseCache);
+  }
+
+  @Test
+  void shouldDeleteEntriesWhenDeltaApplyIsDisabled() {
+    properties.setRedisUserGroupsDeltaApplyEnabled(false);
+    Supplier<Set<ParentReference>> inheritedParents = mock(Supplier.class);
+    ParentReferencesDelta delta = buildDelta(Role.MEMBER);
+    delta.setInheritedParents(inheritedParents);
+
+    groupCacheService.applyParentReferencesDelta(Collections.singleton(MEMBER_EMAIL), PARTITION_ID,
+        delta);
+
+    verify(entityGroupsCache).delete(KEY_WITHOUT_ROLES);
+    verify(entityGroupsCache).delete(KEY_WITH_ROLES);
+    verify(entityGroupsCache, never()).get(anyString());
+    verifyNoInteractions(inheritedParents);
+  }
+
+  @Test
+  void shouldDropRenderedResponsesWhenFlushingUser() {
+    groupCacheService.flushListGroupCacheForUser(MEMBER_EMAIL, PARTITION_ID);
+
+    verify(entityGroupsCache).delete(KEY_WITHOUT_ROLES);
+    verify(entityGroupsCache).delete(KEY_WITH_ROLES);
+    verify(listGroupResponseCache).invalidate(MEMBER_EMAIL + "-" + PARTITION_ID);
+  }
+
+  @Test
+  void shouldPatchCachedEntriesWithGainedParents() {
+    RedisLease lease = givenLeaseAcquired();
+    when(entityGroupsCache.get(KEY_WITHOUT_ROLES))
+        .thenReturn(parentReferencesOf(groupRef("data.a", null)));
+    when(entityGroupsCache.get(KEY_WITH_ROLES))
+        .thenReturn(parentReferencesOf(groupRef("data.a", "MEMBER"), groupRef("data.y", "OWNER")));
+
+    groupCacheService.applyParentReferencesDelta(Collections.singleton(MEMBER_EMAIL), PARTITION_ID,
+        buildDelta(Role.OWNER));
+
+    ArgumentCaptor<ParentReferences> withoutRoles = ArgumentCaptor.forClass(ParentReferences.class);
+    verify(entityGroupsCache).put(eq(KEY_WITHOUT_ROLES), withoutRoles.capture());
+    assertEquals(new HashSet<>(Arrays.asList(groupRef("data.a", null), groupRef("data.x", null),
+        groupRef("data.y", null))), withoutRoles.getValue().getParentReferencesOfUser());
+
+    ArgumentCaptor<ParentReferences> withRoles = ArgumentCaptor.forClass(ParentReferences.class);
+    verify(entityGroupsCache).put(eq(KEY_WITH_ROLES), withRoles.capture());
+    assertEquals(new HashSet<>(Arrays.asList(groupRef("data.a", "MEMBER"), groupRef("data.x", "OWNER"),
+        groupRef("data.y", "OWNER"))), withRoles.getValue().getParentReferencesOfUser());
+    verify(entityGroupsCache, never()).delete(anyString());
+    verify(lease).release(LEASE_KEY_PREFIX + KEY_WITHOUT_ROLES, LEASE_TOKEN);
+    verify(lease).release(LEASE_KEY_PREFIX + KEY_WITH_ROLES, LEASE_TOKEN);
+  }
+
+  @Test
+  void shouldLeaveMissingEntriesToTheNextRead() {
+    givenLeaseAcquired();
+
+    groupCacheService.applyParentReferencesDelta(Collections.singleton(MEMBER_EMAIL), PARTITION_ID,
+        buildDelta(Role.MEMBER));
+
+    verify(entityGroupsCache, never()).put(anyString(), any());
+    verify(entityGroupsCache, never()).delete(anyString());
+  }
+
+  @Test
+  void shouldDeleteEntryWhenItsLeaseIsHeldElsewhere() {
+    RedisLease lease = mock(RedisLease.class);
+    when(rebuildLease.getIfAvailable()).thenReturn(lease);
+    when(lease.tryAcquire(anyString())).thenReturn(null);
+
+    groupCacheService.applyParentReferencesDelta(Collections.singleton(MEMBER_EMAIL), PARTITION_ID,
+        buildDelta(Role.MEMBER));
+
+    verify(entityGroupsCache).delete(KEY_WITHOUT_ROLES);
+    verify(entityGroupsCache).delete(KEY_WITH_ROLES);
+    verify(entityGroupsCache, never()).put(anyString(), any());
+  }
+
+  @Test
+  void shouldDeleteEntriesWithoutRebuildLease() {
+    groupCacheService.applyParentReferencesDelta(Collections.singleton(MEMBER_EMAIL), PARTITION_ID,
+        buildDelta(Role.MEMBER));
+
+    verify(entityGroupsCache).delete(KEY_WITHOUT_ROLES);
+    verify(entityGroupsCache).delete(KEY_WITH_ROLES);
+    verify(entityGroupsCache, never()).get(anyString());
+    verify(entityGroupsCache, never()).put(anyString(), any());
+  }
+
+  @Test
+  void shouldRebuildEntryFromPrimaryForReadOnlyRequest() {
+    ThreadLocalTenantStorage.setReadOnly(true);
+    try {
+      when(retrieveGroupRepo.loadAllParents(any(EntityNode.class), eq(false))).thenAnswer(invocation -> {
+        assertTrue(ThreadLocalTenantStorage.isPrimaryRead());
+        return ParentTreeDto.builder().parentReferences(Collections.emptySet()).build();
+      });
+
+      groupCacheService.getFromPartitionCache(MEMBER_EMAIL, PARTITION_ID);
+
+      verify(entityGroupsCache).put(eq(KEY_WITHOUT_ROLES), any(ParentReferences.class));
+      assertFalse(ThreadLocalTenantStorage.isPrimaryRead());
+    } finally {
+      ThreadLocalTenantStorage.clear();
+    }
+  }
+
+  private RedisLease givenLeaseAcquired() {
+    RedisLease lease = mock(RedisLease.class);
+    when(rebuildLease.getIfAvailable()).thenReturn(lease);
+    when(lease.tryAcquire(anyString())).thenReturn(LEASE_TOKEN);
+    return lease;
+  }
+
+  private static ParentReferencesDelta buildDelta(Role role) {
+    return ParentReferencesDelta.builder()
+        .memberNode(EntityNode.createMemberNodeForNewUser(MEMBER_EMAIL, PARTITION_ID))
+        .role(role)
+        .directParent(groupRef("data.x", null))
+        .inheritedParents(() -> Collections.singleton(groupRef("data.y", "MEMBER")))
+        .build();
+  }
+
+  private static ParentReferences parentReferencesOf(ParentReference... refs) {
+    ParentReferences parentReferences = new ParentReferences();
+    parentReferences.setParentReferencesOfUser(new HashSet<>(Arrays.asList(refs)));
+    return parentReferences;
+  }
+
+  private static ParentReference groupRef(String name, String role) {
+    return ParentReference.builder()
+        .id(name + "@" + PARTITION_ID + ".contoso.com")
+        .name(name)
+        .dataPartitionId(PARTITION_ID)
+        .role(role)
+        .build();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.ThreadLocalTenantStorage;
+import org.opengroup.osdu.entitlements.v2.jdbc.config.properties.EntConfigProperties;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupMemberCountRunner;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+
+@ExtendWith(MockitoExtension.class)
+class GroupMemberCountServiceTest {
+
+  private static final String GROUP_EMAIL = "data.x@dp.group.com";
+
+  @Mock
+  private GroupMemberCountRunner groupMemberCountRunner;
+
+  private EntConfigProperties properties;
+
+  private GroupMemberCountService groupMemberCountService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EntConfigProperties();
+    properties.setSystemTenant("system");
+    properties.setGroupMemberCountEnabled(true);
+    groupMemberCountService = new GroupMemberCountService(properties, groupMemberCountRunner);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ThreadLocalTenantStorage.clear();
+  }
+
+  @Test
+  void shouldNotTouchCountersWhenDisabled() {
+    properties.setGroupMemberCountEnabled(false);
+
+    assertFalse(groupMemberCountService.isEnabled());
+    groupMemberCountService.onUserAdded(GROUP_EMAIL, Role.MEMBER);
+    groupMemberCountService.onChildGroupAdded(1L);
+    groupMemberCountService.beforeUserRemoved("member@xxx.com", List.of(GROUP_EMAIL));
+    groupMemberCountService.beforeGroupDeleted(1L);
+    assertEquals(Optional.empty(), groupMemberCountService.findMembersCount(GROUP_EMAIL, null));
+
+    verifyNoInteractions(groupMemberCountRunner);
+  }
+
+  @Test
+  void shouldRebuildUnpopulatedCountersOfPinnedTenantsOnStartup() {
+    properties.setDatasourcePrewarmPartitions(List.of("dp1"));
+    when(groupMemberCountRunner.isPopulated()).thenReturn(false);
+
+    groupMemberCountService.onApplicationEvent(null);
+
+    verify(groupMemberCountRunner, times(2)).rebuild();
+    when(groupMemberCountRunner.findMembersCount(GROUP_EMAIL, null)).thenReturn(Optional.of(3));
+    ThreadLocalTenantStorage.setTenantName("dp1");
+    assertEquals(Optional.of(3), groupMemberCountService.findMembersCount(GROUP_EMAIL, null));
+  }
+
+  @Test
+  void shouldCountWithoutCountersWhileRebuildingInBackground() {
+    when(groupMemberCountRunner.isPopulated()).thenReturn(false);
+    ThreadLocalTenantStorage.setTenantName("dp2");
+
+    assertEquals(Optional.empty(), groupMemberCountService.findMembersCount(GROUP_EMAIL, null));
+
+    verify(groupMemberCountRunner, timeout(1000)).rebuild();
+    verify(groupMemberCountRunner, never()).findMembersCount(GROUP_EMAIL, null);
+  }
+
+  @Test
+  void shouldShareLockBeforeUpdatingCounters() {
+    groupMemberCountService.onUserAdded(GROUP_EMAIL, Role.OWNER);
+
+    InOrder inOrder = inOrder(groupMemberCountRunner);
+    inOrder.verify(groupMemberCountRunner).lockCounters();
+    inOrder.verify(groupMemberCountRunner).addUser(GROUP_EMAIL, Role.OWNER);
+    verify(groupMemberCountRunner, never()).isPopulated();
+  }
+
+  @Test
+  void shouldReadMembersCountFromCounters() {
+    when(groupMemberCountRunner.isPopulated()).thenReturn(true);
+    when(groupMemberCountRunner.findMembersCount(GROUP_EMAIL, Role.OWNER)).thenReturn(Optional.of(2));
+
+    assertEquals(Optional.of(2), groupMemberCountService.findMembersCount(GROUP_EMAIL, Role.OWNER));
+    verify(groupMemberCountRunner, never()).rebuild();
+  }
+
+  @Test
+  void shouldSkipRemovalWithoutGroups() {
+    groupMemberCountService.beforeUserRemoved("member@xxx.com", Collections.emptyList());
+    groupMemberCountService.beforeChildGroupRemoved(1L, Collections.emptyList());
+
+    verifyNoInteractions(groupMemberCountRunner);
+  }
+
+  @Test
+  void shouldRebuildStaleCounters() {
+    when(groupMemberCountRunner.countStaleRows()).thenReturn(3L);
+
+    assertFalse(groupMemberCountService.verifyAndRepair());
+
+    verify(groupMemberCountRunner).rebuild();
+  }
+
+  @Test
+  void shouldKeepConsistentCounters() {
+    when(groupMemberCountRunner.countStaleRows()).thenReturn(0L);
+
+    assertTrue(groupMemberCountService.verifyAndRepair());
+
+    verify(groupMemberCountRunner, never()).rebuild();
+  }
+}
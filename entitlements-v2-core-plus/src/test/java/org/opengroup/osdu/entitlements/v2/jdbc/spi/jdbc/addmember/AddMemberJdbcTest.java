@@ -16,6 +16,7 @@ package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.addmember;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.DATA_PARTITION_ID;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getDataViewersGroupNode;
@@ -25,10 +26,14 @@ import static org.powermock.api.mockito.PowerMockito.when;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
@@ -37,6 +42,7 @@ import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.NodeType;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -55,6 +61,10 @@ public class AddMemberJdbcTest{
 	private GroupRepository groupRepository;
 	@MockBean
 	private JdbcTemplateRunner jdbcTemplateRunner;
+	@MockBean
+	private ClosureTableService closureTableService;
+	@MockBean
+	private GroupMemberCountService groupMemberCountService;
 
 	@Test
 	public void should_createAndSetMemberReference_whenInsertAUser_andAddedMemberNodeDoesNotExist() {
@@ -72,7 +82,7 @@ public class AddMemberJdbcTest{
 		GroupInfoEntity group = GroupInfoEntity.fromEntityNode(groupNode);
 
 		when(memberRepository.findMemberByEmailInGroup(any(), any())).thenReturn(expected);
-		when(groupRepository.findByEmail(any())).thenReturn(Collections.singletonList(GroupInfoEntity.fromEntityNode(groupNode)));
+		when(jdbcTemplateRunner.upsertMemberAndAddToGroupByEmail(groupNode.getNodeId(), memberNode, Role.MEMBER)).thenReturn(1);
 
 		//when
 		sut.addMember(groupNode, addMemberRepoDto);
@@ -86,6 +96,41 @@ public class AddMemberJdbcTest{
 
 		assertEquals(memberNode.getNodeId(), actualMember.getEmail());
 		assertEquals(addMemberRepoDto.getRole().getValue(), actualMember.getRole());
+		verify(jdbcTemplateRunner, never()).addMemberToGroupByEmail(any(), any(), any());
+	}
+
+	@Test
+	public void should_addEdgeAgain_whenMemberWasCreatedConcurrently() {
+		EntityNode memberNode = getMemberNode("member");
+		EntityNode groupNode = getDataViewersGroupNode("x");
+		AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder()
+				.memberNode(memberNode)
+				.role(Role.MEMBER)
+				.existingParents(new HashSet<>())
+				.partitionId(DATA_PARTITION_ID)
+				.build();
+		when(jdbcTemplateRunner.upsertMemberAndAddToGroupByEmail(groupNode.getNodeId(), memberNode, Role.MEMBER)).thenReturn(0);
+		when(jdbcTemplateRunner.addMemberToGroupByEmail(groupNode.getNodeId(), memberNode.getNodeId(), Role.MEMBER)).thenReturn(1);
+
+		//when
+		Set<String> impactedUsers = sut.addMember(groupNode, addMemberRepoDto);
+
+		//then
+		assertEquals(Collections.singleton(memberNode.getNodeId()), impactedUsers);
+		verify(jdbcTemplateRunner).addMemberToGroupByEmail(groupNode.getNodeId(), memberNode.getNodeId(), Role.MEMBER);
+		verify(groupMemberCountService).onUserAdded(groupNode.getNodeId(), Role.MEMBER);
+	}
+
+	@Test(expected = DatabaseAccessException.class)
+	public void should_throwNotFound_whenAddMember_andGroupDoesNotExist() {
+		AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder()
+				.memberNode(getMemberNode("member"))
+				.role(Role.MEMBER)
+				.existingParents(new HashSet<>())
+				.partitionId(DATA_PARTITION_ID)
+				.build();
+
+		sut.addMember(getDataViewersGroupNode("x"), addMemberRepoDto);
 	}
 
 	@Test
@@ -121,7 +166,7 @@ public class AddMemberJdbcTest{
 		GroupInfoEntity secondGroup = GroupInfoEntity.fromEntityNode(secondGroupNode);
 
 		when(memberRepository.findMemberByEmailInGroup(any(), any())).thenReturn(expected);
-		when(groupRepository.findByEmail(any())).thenReturn(Collections.singletonList(secondGroup));
+		when(jdbcTemplateRunner.upsertMemberAndAddToGroupByEmail(secondGroupNode.getNodeId(), memberNode, Role.OWNER)).thenReturn(1);
 
 		//when
 		sut.addMember(secondGroupNode, addMemberRepoDto);
@@ -178,4 +223,38 @@ public class AddMemberJdbcTest{
 
 		assertEquals(secondGroupNode.getNodeId(), actualMember.getEmail());
 	}
+
+	@Test
+	public void should_insertUsersInBatch_andReturnImpactedUsers_whenAddMembers() {
+		EntityNode memberNode = getMemberNode("member");
+		EntityNode groupNode = getDataViewersGroupNode("x");
+		AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder()
+				.memberNode(memberNode)
+				.role(Role.MEMBER)
+				.partitionId(DATA_PARTITION_ID)
+				.build();
+		when(jdbcTemplateRunner.addMembersToGroupsByEmail(any())).thenReturn(new int[]{1});
+
+		//when
+		Set<String> impactedUsers = sut.addMembers(Collections.singletonList(
+				BatchAddMemberRepoDto.builder().groupNode(groupNode).addMemberRepoDto(addMemberRepoDto).build()));
+
+		//then
+		assertEquals(Collections.singleton(memberNode.getNodeId()), impactedUsers);
+		verify(jdbcTemplateRunner).saveMemberInfoEntities(
+				Collections.singletonList(MemberInfoEntity.fromEntityNode(memberNode, Role.MEMBER)));
+	}
+
+	@Test(expected = DatabaseAccessException.class)
+	public void should_throwNotFound_whenAddMembers_andGroupDoesNotExist() {
+		AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder()
+				.memberNode(getMemberNode("member"))
+				.role(Role.MEMBER)
+				.partitionId(DATA_PARTITION_ID)
+				.build();
+		when(jdbcTemplateRunner.addMembersToGroupsByEmail(any())).thenReturn(new int[]{0});
+
+		sut.addMembers(Collections.singletonList(BatchAddMemberRepoDto.builder()
+				.groupNode(getDataViewersGroupNode("x")).addMemberRepoDto(addMemberRepoDto).build()));
+	}
 }
@@ -30,6 +30,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
@@ -57,6 +59,10 @@ public class CreateGroupJdbcTest {
     @MockBean
     private JdbcTemplateRunner jdbcTemplateRunner;
     @MockBean
+    private ClosureTableService closureTableService;
+    @MockBean
+    private GroupMemberCountService groupMemberCountService;
+    @MockBean
     private GroupCacheService groupCacheService;
 
     @Test
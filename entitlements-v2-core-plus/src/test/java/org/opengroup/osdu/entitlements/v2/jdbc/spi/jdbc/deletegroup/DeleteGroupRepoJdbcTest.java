@@ -18,6 +18,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
@@ -52,6 +54,10 @@ public class DeleteGroupRepoJdbcTest {
     private MemberRepository memberRepository;
     @MockBean
     private JdbcTemplateRunner jdbcTemplateRunner;
+    @MockBean
+    private ClosureTableService closureTableService;
+    @MockBean
+    private GroupMemberCountService groupMemberCountService;
 
     @Test
     public void shouldDeleteGroupAndPreserveParents() {
@@ -18,16 +18,23 @@
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.memberscount;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.model.Role;
@@ -51,6 +58,8 @@ class MembersCountRepoJdbcTest {
 
   @MockBean
   private GroupRepository groupRepository;
+  @MockBean
+  private GroupMemberCountService groupMemberCountService;
   @Autowired
   private MembersCountRepoJdbc service;
 
@@ -73,6 +82,39 @@ class MembersCountRepoJdbcTest {
     assertEquals(expectedCount, membersCountResponseDto.getMembersCount());
   }
 
+  @Test
+  void readMembersCountFromCountersWhenEnabled() {
+    MembersCountServiceDto dto = MembersCountServiceDto.builder()
+        .partitionId(PARTITION_ID)
+        .groupId(GROUP_EMAIL)
+        .role(Role.MEMBER)
+        .build();
+    when(groupMemberCountService.findMembersCount(GROUP_EMAIL, Role.MEMBER))
+        .thenReturn(Optional.of(TOTAL_MEMBERS_COUNT));
+
+    MembersCountResponseDto membersCountResponseDto = service.getMembersCount(dto);
+
+    assertEquals(TOTAL_MEMBERS_COUNT, membersCountResponseDto.getMembersCount());
+    verify(groupRepository, never()).countUsers(any(), any(), any());
+    verify(groupRepository, never()).countSubGroups(any(), any());
+  }
+
+  @Test
+  void readMembersCountsFromCountersAndCountGroupsWithoutCounters() {
+    String otherGroupEmail = "second_group@domen.com";
+    when(groupMemberCountService.findMembersCounts(List.of(GROUP_EMAIL, otherGroupEmail)))
+        .thenReturn(Optional.of(Map.of(GROUP_EMAIL, TOTAL_MEMBERS_COUNT)));
+    when(groupRepository.countUsers(eq(PARTITION_ID), eq(otherGroupEmail), any()))
+        .thenReturn(USERS_COUNT);
+
+    Map<String, Integer> membersCounts = service.getMembersCounts(PARTITION_ID,
+        List.of(GROUP_EMAIL, otherGroupEmail));
+
+    assertEquals(Map.of(GROUP_EMAIL, TOTAL_MEMBERS_COUNT, otherGroupEmail, USERS_COUNT),
+        membersCounts);
+    verify(groupRepository, never()).countUsers(any(), eq(GROUP_EMAIL), any());
+  }
+
   private static Stream<Arguments> countMembers() {
     return Stream.of(
         Arguments.of(
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2020-2024 Google LLC
+ *  Copyright 2020-2024 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DbRoundTripMetricsTest {
+
+  private static final String DB_ROUND_TRIPS_METRIC = "entitlements.db.round.trips";
+
+  @Mock
+  private DataSource dataSource;
+  @Mock
+  private Connection connection;
+  @Mock
+  private Statement statement;
+
+  private MeterRegistry registry;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private DbRoundTripMetrics dbRoundTripMetrics;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    registry = new SimpleMeterRegistry();
+    jdbcTemplate = new CountingJdbcTemplate(dataSource);
+    dbRoundTripMetrics = new DbRoundTripMetrics(
+        new StaticListableBeanFactory(Map.of("meterRegistry", registry))
+            .getBeanProvider(MeterRegistry.class));
+  }
+
+  @Test
+  void shouldRecordStatementsSentByOperation() {
+    jdbcTemplate.execute("SELECT 1");
+
+    String result = dbRoundTripMetrics.measure(DbRoundTripMetrics.ADD_MEMBER, () -> {
+      jdbcTemplate.execute("SELECT 2");
+      jdbcTemplate.execute("SELECT 3");
+      return "done";
+    });
+
+    assertEquals("done", result);
+    DistributionSummary summary = registry.get(DB_ROUND_TRIPS_METRIC)
+        .tag("operation", DbRoundTripMetrics.ADD_MEMBER)
+        .summary();
+    assertEquals(1, summary.count());
+    assertEquals(2.0, summary.totalAmount());
+  }
+
+  @Test
+  void shouldNotRecordFailedOperation() {
+    assertThrows(IllegalStateException.class,
+        () -> dbRoundTripMetrics.measure(DbRoundTripMetrics.REMOVE_MEMBER, () -> {
+          jdbcTemplate.execute("SELECT 1");
+          throw new IllegalStateException("failed");
+        }));
+
+    assertTrue(registry.find(DB_ROUND_TRIPS_METRIC).summaries().isEmpty());
+  }
+}
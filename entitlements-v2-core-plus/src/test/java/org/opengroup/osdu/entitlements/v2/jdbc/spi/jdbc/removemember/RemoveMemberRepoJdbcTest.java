@@ -14,8 +14,10 @@
 
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.removemember;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.DATA_PARTITION_ID;
@@ -24,11 +26,17 @@ import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestData
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getRequesterNode;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getUsersGroupNode;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.opengroup.osdu.entitlements.v2.jdbc.exception.DatabaseAccessException;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.GroupMemberCountService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.addmember.AddMemberRepoJdbc;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
@@ -55,6 +63,10 @@ public class RemoveMemberRepoJdbcTest {
     private MemberRepository memberRepository;
     @MockBean
     private JdbcTemplateRunner jdbcTemplateRunner;
+    @MockBean
+    private ClosureTableService closureTableService;
+    @MockBean
+    private GroupMemberCountService groupMemberCountService;
     @Autowired
     private AddMemberRepoJdbc addMemberRepoJdbc;
 
@@ -72,8 +84,7 @@ public class RemoveMemberRepoJdbcTest {
                 .childrenReference(ChildrenReference.createChildrenReference(memberNode, Role.MEMBER))
                 .build();
 
-        when(groupRepository.findByEmail(any())).thenReturn(Collections.singletonList(savedGroup));
-        when(memberRepository.findByEmail(any())).thenReturn(Collections.singletonList(MemberInfoEntity.fromEntityNode(memberNode, Role.MEMBER)));
+        when(jdbcTemplateRunner.removeMemberFromGroupByEmail(groupNode.getNodeId(), memberNode.getNodeId())).thenReturn(1L);
 
         //when
         sut.removeMember(groupNode, memberNode, removeMemberServiceDto);
@@ -83,6 +94,21 @@ public class RemoveMemberRepoJdbcTest {
         //then
         assertTrue(memberRepository.findMembersByGroup(savedGroup.getId()).isEmpty());
         assertTrue(memberRepository.findByEmail(memberNode.getNodeId()).isEmpty());
+        verify(groupRepository, never()).removeMemberById(any(), any());
+        verify(memberRepository, never()).deleteById(any());
+        verify(groupMemberCountService).beforeUserRemoved(memberNode.getNodeId(), List.of(groupNode.getNodeId()));
+    }
+
+    @Test(expected = DatabaseAccessException.class)
+    public void should_throwNotFound_whenRemoveAUser_andMembershipDoesNotExist() {
+        EntityNode memberNode = getMemberNode("member");
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .requesterId(getRequesterNode().getNodeId())
+                .partitionId(DATA_PARTITION_ID)
+                .childrenReference(ChildrenReference.createChildrenReference(memberNode, Role.MEMBER))
+                .build();
+
+        sut.removeMember(getDataViewersGroupNode("x"), memberNode, removeMemberServiceDto);
     }
 
     @Test
@@ -112,4 +138,58 @@ public class RemoveMemberRepoJdbcTest {
         assertTrue(groupRepository.findChildByEmail(savedGroup.getId(), groupToRemoveNode.getNodeId()).isEmpty());
         assertTrue(groupRepository.findDirectParents(Collections.singletonList(savedGroupToRemove.getId())).isEmpty());
     }
+
+    @Test
+    public void should_removeUserFromAllGroups_withSingleStatement() {
+        EntityNode requesterNode = getRequesterNode();
+        EntityNode memberNode = getMemberNode("member");
+        List<EntityNode> groupNodes = Arrays.asList(getDataViewersGroupNode("x"), getUsersGroupNode("y"));
+        MemberInfoEntity savedMember = MemberInfoEntity.fromEntityNode(memberNode, Role.MEMBER);
+
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .requesterId(requesterNode.getNodeId())
+                .partitionId(DATA_PARTITION_ID)
+                .build();
+
+        when(memberRepository.findByEmail(memberNode.getNodeId())).thenReturn(Collections.singletonList(savedMember));
+        when(groupRepository.findDirectGroups(any())).thenReturn(Collections.emptyList());
+
+        //when
+        Set<String> impactedUsers = sut.removeMemberFromAllGroups(memberNode, groupNodes, removeMemberServiceDto);
+
+        //then
+        assertEquals(Collections.singleton(memberNode.getNodeId()), impactedUsers);
+        verify(groupRepository).removeMemberFromGroups(savedMember.getId(),
+                Arrays.asList(groupNodes.get(0).getNodeId(), groupNodes.get(1).getNodeId()));
+        verify(groupRepository, never()).removeMemberById(any(), any());
+        verify(memberRepository).deleteById(savedMember.getId());
+    }
+
+    @Test
+    public void should_detachGroupFromAllParents_withSingleStatement() {
+        EntityNode requesterNode = getRequesterNode();
+        EntityNode groupToRemoveNode = getUsersGroupNode("y");
+        List<EntityNode> parentNodes = Arrays.asList(getUsersGroupNode("x"), getDataViewersGroupNode("z"));
+        GroupInfoEntity savedGroupToRemove = GroupInfoEntity.fromEntityNode(groupToRemoveNode);
+        List<Long> ancestorIds = Arrays.asList(1L, 2L);
+
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .requesterId(requesterNode.getNodeId())
+                .partitionId(DATA_PARTITION_ID)
+                .build();
+
+        when(groupRepository.findByEmail(groupToRemoveNode.getNodeId())).thenReturn(Collections.singletonList(savedGroupToRemove));
+        when(closureTableService.beforeGroupDeleted(savedGroupToRemove.getId())).thenReturn(ancestorIds);
+        when(jdbcTemplateRunner.getAffectedMembersForGroup(groupToRemoveNode)).thenReturn(Collections.singleton("member@xxx.com"));
+
+        //when
+        Set<String> impactedUsers = sut.removeMemberFromAllGroups(groupToRemoveNode, parentNodes, removeMemberServiceDto);
+
+        //then
+        assertEquals(Collections.singleton("member@xxx.com"), impactedUsers);
+        verify(groupRepository).removeChildFromParents(savedGroupToRemove.getId(),
+                Arrays.asList(parentNodes.get(0).getNodeId(), parentNodes.get(1).getNodeId()));
+        verify(groupRepository, never()).removeChildById(any(), any());
+        verify(closureTableService).afterGroupDeleted(ancestorIds);
+    }
 }
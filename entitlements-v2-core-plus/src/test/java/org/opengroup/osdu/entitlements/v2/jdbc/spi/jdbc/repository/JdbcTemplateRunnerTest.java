@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Google LLC
+ * Copyright 2024 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
+import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
+import org.opengroup.osdu.entitlements.v2.model.GroupType;
+import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@SpringBootTest(classes = SpiJdbcTestConfig.class)
+@AutoConfigureTestDatabase
+@Sql(value = {"/sql/schema.sql", "/sql/retrieveGroupRepoJdbcTestData.sql"},
+    executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/drop_schema.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+class JdbcTemplateRunnerTest {
+
+  private static final String PARTITION_ID = "dp";
+  private static final long GROUPS_IN_PARTITION = 4;
+  private static final String USER_EMAIL = "user1@xxx.com";
+  private static final String TOP_GROUP_EMAIL = "group1@dp.group.com";
+  private static final String BOTTOM_GROUP_EMAIL = "group4@dp.group.com";
+
+  @MockBean
+  private ClosureTableService closureTableService;
+
+  @Autowired
+  private JdbcTemplateRunner jdbcTemplateRunner;
+
+  @Test
+  void shouldPageGroupsByOffsetInIdOrder() {
+    List<GroupInfoEntity> page = jdbcTemplateRunner.getGroupsInPartition(PARTITION_ID,
+        GroupType.NONE, 1, 2);
+
+    assertEquals(List.of(2L, 3L), page.stream().map(GroupInfoEntity::getId).toList());
+  }
+
+  @Test
+  void shouldPageGroupsByKeysetInNameOrder() {
+    List<GroupInfoEntity> firstPage = jdbcTemplateRunner.getGroupsInPartitionAfter(PARTITION_ID,
+        GroupType.NONE, null, null, 3);
+    GroupInfoEntity last = firstPage.get(firstPage.size() - 1);
+    List<GroupInfoEntity> lastPage = jdbcTemplateRunner.getGroupsInPartitionAfter(PARTITION_ID,
+        GroupType.NONE, last.getName(), last.getId(), 3);
+
+    assertEquals(List.of(1L, 4L, 2L), firstPage.stream().map(GroupInfoEntity::getId).toList());
+    assertEquals(List.of(3L), lastPage.stream().map(GroupInfoEntity::getId).toList());
+  }
+
+  @Test
+  void shouldCountGroupsInPartition() {
+    assertEquals(GROUPS_IN_PARTITION,
+        jdbcTemplateRunner.countGroupsInPartition(PARTITION_ID, GroupType.NONE));
+    assertEquals(0, jdbcTemplateRunner.countGroupsInPartition(PARTITION_ID, GroupType.DATA));
+  }
+
+  @Test
+  void shouldLoadDirectParentsOfMembersAndGroupsAtOnce() {
+    List<GroupInfoEntity> parents = jdbcTemplateRunner.getDirectParents(
+        List.of(USER_EMAIL, BOTTOM_GROUP_EMAIL), List.of(BOTTOM_GROUP_EMAIL));
+
+    assertEquals(Set.of(1L, 2L, 4L),
+        parents.stream().map(GroupInfoEntity::getId).collect(Collectors.toSet()));
+    assertEquals(3, parents.size());
+  }
+
+  @Test
+  void shouldLoadDirectChildGroupsAndMembersAtOnce() {
+    List<ChildrenReference> children = jdbcTemplateRunner.getDirectChildren(
+        List.of(TOP_GROUP_EMAIL, BOTTOM_GROUP_EMAIL));
+
+    assertEquals(4, children.size());
+    assertEquals(Set.of("group2@dp.group.com", "group3@dp.group.com"), children.stream()
+        .filter(child -> child.getType() == NodeType.GROUP)
+        .map(ChildrenReference::getId)
+        .collect(Collectors.toSet()));
+    assertEquals(Set.of(Role.OWNER, Role.MEMBER), children.stream()
+        .filter(child -> child.getType() == NodeType.USER)
+        .map(ChildrenReference::getRole)
+        .collect(Collectors.toSet()));
+  }
+}
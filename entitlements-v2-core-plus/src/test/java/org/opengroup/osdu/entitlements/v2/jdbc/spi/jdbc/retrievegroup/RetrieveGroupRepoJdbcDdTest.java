@@ -17,11 +17,14 @@
 package org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.retrievegroup;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.DATA_PARTITION_ID;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getCommonGroup;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getMemberNode;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -150,6 +153,41 @@ class RetrieveGroupRepoJdbcDdTest {
 
 
 
+  @Test
+  void shouldFindAncestorOfGroupAndMember() {
+    EntityNode commonGroup = getCommonGroup(GROUP_EXISTS_NAME);
+    EntityNode topGroup = getCommonGroup("group1");
+    EntityNode middleGroup = getCommonGroup("group2");
+
+    assertTrue(sut.isReachable(commonGroup, topGroup));
+    assertTrue(sut.isReachable(commonGroup, commonGroup));
+    assertTrue(sut.isReachable(getMemberNode(USER_EXISTS_NAME), middleGroup));
+    assertFalse(sut.isReachable(topGroup, commonGroup));
+    assertFalse(sut.isReachable(getMemberNode(USER_ABSENT_NAME), topGroup));
+  }
+
+  @Test
+  void shouldCountAllParentsInPartition() {
+    assertEquals(FOUND_GROUPS_COUNT, sut.countAncestors(getMemberNode(USER_EXISTS_NAME), DATA_PARTITION_ID));
+    assertEquals(FOUND_GROUPS_COUNT, sut.countAncestors(getCommonGroup(GROUP_EXISTS_NAME), DATA_PARTITION_ID));
+    assertEquals(0, sut.countAncestors(getMemberNode(USER_EXISTS_NAME), "other"));
+  }
+
+  @Test
+  void shouldLoadAllParentsOfSeveralNodesAtOnce() {
+    EntityNode member = getMemberNode(USER_EXISTS_NAME);
+    EntityNode commonGroup = getCommonGroup(GROUP_EXISTS_NAME);
+    EntityNode absentMember = getMemberNode(USER_ABSENT_NAME);
+
+    Map<String, Set<ParentReference>> res = sut.loadAllParentsOfNodes(
+        List.of(member, commonGroup, absentMember));
+
+    assertEquals(sut.loadAllParents(member).getParentReferences(), res.get(member.getNodeId()));
+    assertEquals(sut.loadAllParents(commonGroup).getParentReferences(),
+        res.get(commonGroup.getNodeId()));
+    assertTrue(res.get(absentMember.getNodeId()).isEmpty());
+  }
+
   @Test
   void shouldReturnEmptySetIfNoParentsWhenLoadAllParents() {
     EntityNode member = getMemberNode(USER_ABSENT_NAME);
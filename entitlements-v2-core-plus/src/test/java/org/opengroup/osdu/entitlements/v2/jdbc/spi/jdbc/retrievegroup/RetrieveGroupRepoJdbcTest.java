@@ -23,6 +23,7 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.jdbc.JdbcAppProperties;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.GroupInfoEntity;
 import org.opengroup.osdu.entitlements.v2.jdbc.model.MemberInfoEntity;
+import org.opengroup.osdu.entitlements.v2.jdbc.service.ClosureTableService;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.SpiJdbcTestConfig;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.GroupRepository;
 import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.JdbcTemplateRunner;
@@ -30,8 +31,11 @@ import org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.repository.MemberReposit
 import org.opengroup.osdu.entitlements.v2.logging.AuditLogger;
 import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.GroupType;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -40,13 +44,19 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.*;
 import static org.opengroup.osdu.entitlements.v2.jdbc.spi.jdbc.util.JdbcTestDataProvider.getUsersGroupNode;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -67,6 +77,8 @@ class RetrieveGroupRepoJdbcTest {
   @MockBean
   private JdbcTemplateRunner jdbcTemplateRunner;
   @MockBean
+  private ClosureTableService closureTableService;
+  @MockBean
   private JdbcAppProperties config;
 
   @Test
@@ -81,6 +93,22 @@ class RetrieveGroupRepoJdbcTest {
     }
   }
 
+  @Test
+  void shouldLoadGroupNodesByEmailAtOnce() {
+    EntityNode group1 = getUsersGroupNode("x");
+    EntityNode group2 = getUsersGroupNode("y");
+    List<String> groupEmails = Arrays.asList(group1.getNodeId(), group2.getNodeId(), "users.z@group.com");
+    when(groupRepository.findByEmails(groupEmails)).thenReturn(Arrays.asList(
+        GroupInfoEntity.fromEntityNode(group1), GroupInfoEntity.fromEntityNode(group2)));
+
+    Map<String, EntityNode> groupNodes = sut.getGroupNodes(DATA_PARTITION_ID, groupEmails);
+
+    assertEquals(2, groupNodes.size());
+    assertEquals(group1.getNodeId(), groupNodes.get(group1.getNodeId()).getNodeId());
+    assertEquals(group2.getNodeId(), groupNodes.get(group2.getNodeId()).getNodeId());
+    verify(groupRepository, never()).findByEmail(anyString());
+  }
+
   @Test
   void shouldReturnEmptyListIfNotParentsWhenLoadDirectParents() {
     EntityNode member = getMemberNode("member");
@@ -100,12 +128,9 @@ class RetrieveGroupRepoJdbcTest {
     EntityNode group3 = getUsersGroupNode("z");
 
     GroupInfoEntity savedGroup1 = GroupInfoEntity.fromEntityNode(group1);
-    GroupInfoEntity savedGroup2 = GroupInfoEntity.fromEntityNode(group2);
     GroupInfoEntity savedGroup3 = GroupInfoEntity.fromEntityNode(group3);
 
-    when(memberRepository.findByEmail(any())).thenReturn(
-        Collections.singletonList(MemberInfoEntity.fromEntityNode(member, Role.MEMBER)));
-    when(groupRepository.findDirectGroups(anyList())).thenReturn(
+    when(jdbcTemplateRunner.getDirectParents(anyList(), anyList())).thenReturn(
         Arrays.asList(savedGroup1, savedGroup3));
 
     List<String> parentIds = sut.loadDirectParents(DATA_PARTITION_ID, member.getNodeId()).stream()
@@ -141,13 +166,8 @@ class RetrieveGroupRepoJdbcTest {
     EntityNode parentGroup1 = getUsersGroupNode("parent1");
     EntityNode parentGroup2 = getUsersGroupNode("parent2");
 
-    MemberInfoEntity memberEntity = MemberInfoEntity.builder()
-        .id(1L)
-        .email(userEmail)
-        .build();
-
-    when(memberRepository.findByEmail(userEmail)).thenReturn(Collections.singletonList(memberEntity));
-    when(groupRepository.findDirectGroups(Collections.singletonList(1L))).thenReturn(
+    when(config.getDomain()).thenReturn("group.com");
+    when(jdbcTemplateRunner.getDirectParents(List.of(userEmail), List.of())).thenReturn(
         Arrays.asList(
             GroupInfoEntity.fromEntityNode(parentGroup1),
             GroupInfoEntity.fromEntityNode(parentGroup2)
@@ -165,13 +185,9 @@ class RetrieveGroupRepoJdbcTest {
     EntityNode childGroup = getUsersGroupNode("child");
     EntityNode parentGroup = getUsersGroupNode("parent");
 
-    GroupInfoEntity childGroupEntity = GroupInfoEntity.fromEntityNode(childGroup);
-    childGroupEntity.setId(10L);
-
-    when(memberRepository.findByEmail(childGroup.getNodeId())).thenReturn(Collections.emptyList());
     when(config.getDomain()).thenReturn("group.com");
-    when(groupRepository.findByEmail(childGroup.getNodeId())).thenReturn(Collections.singletonList(childGroupEntity));
-    when(groupRepository.findDirectParents(Collections.singletonList(10L))).thenReturn(
+    when(jdbcTemplateRunner.getDirectParents(List.of(childGroup.getNodeId()),
+        List.of(childGroup.getNodeId()))).thenReturn(
         Collections.singletonList(GroupInfoEntity.fromEntityNode(parentGroup)));
 
     List<ParentReference> parents = sut.loadDirectParents(DATA_PARTITION_ID, childGroup.getNodeId());
@@ -179,4 +195,100 @@ class RetrieveGroupRepoJdbcTest {
     assertEquals(1, parents.size());
     assertEquals(parentGroup.getNodeId(), parents.get(0).getId());
   }
+
+  @Test
+  void shouldLoadDirectParentsForManyNodesInOneQuery() {
+    String userEmail = "user@example.com";
+    EntityNode childGroup = getUsersGroupNode("child");
+
+    when(config.getDomain()).thenReturn("group.com");
+
+    sut.loadDirectParents(DATA_PARTITION_ID, userEmail, childGroup.getNodeId());
+
+    verify(jdbcTemplateRunner).getDirectParents(List.of(userEmail, childGroup.getNodeId()),
+        List.of(childGroup.getNodeId()));
+  }
+
+  @Test
+  void shouldLoadDirectChildrenOfAllGroups() {
+    EntityNode group1 = getUsersGroupNode("x");
+    EntityNode group2 = getUsersGroupNode("y");
+    ChildrenReference child = getUserChildrenReference("member@email.com", DATA_PARTITION_ID);
+    when(jdbcTemplateRunner.getDirectChildren(List.of(group1.getNodeId(), group2.getNodeId())))
+        .thenReturn(List.of(child));
+
+    List<ChildrenReference> children = sut.loadDirectChildren(DATA_PARTITION_ID,
+        group1.getNodeId(), group2.getNodeId());
+
+    assertEquals(List.of(child), children);
+  }
+
+  @Test
+  void shouldKeepIntegerCursorInOffsetMode() {
+    when(jdbcTemplateRunner.getGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE, 2, 2))
+        .thenReturn(List.of(getGroupInfoEntity(3L, "users.c"), getGroupInfoEntity(4L, "users.d")));
+    when(jdbcTemplateRunner.countGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE))
+        .thenReturn(5L);
+
+    ListGroupsOfPartitionDto page = sut.getGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE,
+        "2", 2);
+
+    assertEquals(2, page.getGroups().size());
+    assertEquals("4", page.getCursor());
+    assertEquals(5L, page.getTotalCount());
+  }
+
+  @Test
+  void shouldSkipCountInOffsetModeWhenNotRequested() {
+    when(jdbcTemplateRunner.getGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE, 0, 2))
+        .thenReturn(List.of(getGroupInfoEntity(1L, "users.a")));
+
+    ListGroupsOfPartitionDto page = sut.getGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE,
+        null, 2, PaginationMode.OFFSET, false);
+
+    assertNull(page.getTotalCount());
+    verify(jdbcTemplateRunner, never()).countGroupsInPartition(anyString(), any());
+  }
+
+  @Test
+  void shouldCarryTotalCountThroughKeysetCursor() {
+    when(jdbcTemplateRunner.getGroupsInPartitionAfter(DATA_PARTITION_ID, GroupType.USER, null,
+        null, 2))
+        .thenReturn(List.of(getGroupInfoEntity(7L, "users.a"), getGroupInfoEntity(3L, "users.b:x")));
+    when(jdbcTemplateRunner.countGroupsInPartition(DATA_PARTITION_ID, GroupType.USER))
+        .thenReturn(3L);
+    when(jdbcTemplateRunner.getGroupsInPartitionAfter(DATA_PARTITION_ID, GroupType.USER,
+        "users.b:x", 3L, 2))
+        .thenReturn(List.of(getGroupInfoEntity(5L, "users.c")));
+
+    ListGroupsOfPartitionDto firstPage = sut.getGroupsInPartition(DATA_PARTITION_ID,
+        GroupType.USER, null, 2, PaginationMode.KEYSET, true);
+    ListGroupsOfPartitionDto lastPage = sut.getGroupsInPartition(DATA_PARTITION_ID,
+        GroupType.USER, firstPage.getCursor(), 2, PaginationMode.KEYSET, true);
+
+    assertEquals(2, firstPage.getGroups().size());
+    assertEquals(3L, firstPage.getTotalCount());
+    assertEquals(1, lastPage.getGroups().size());
+    assertEquals(3L, lastPage.getTotalCount());
+    assertNull(lastPage.getCursor());
+    verify(jdbcTemplateRunner).countGroupsInPartition(DATA_PARTITION_ID, GroupType.USER);
+  }
+
+  @Test
+  void shouldThrow400OnMalformedKeysetCursor() {
+    AppException exception = assertThrows(AppException.class,
+        () -> sut.getGroupsInPartition(DATA_PARTITION_ID, GroupType.NONE, "100", 2,
+            PaginationMode.KEYSET, true));
+
+    assertEquals(400, exception.getError().getCode());
+  }
+
+  private GroupInfoEntity getGroupInfoEntity(Long id, String name) {
+    return GroupInfoEntity.builder()
+        .id(id)
+        .name(name)
+        .email(name + "@" + DATA_PARTITION_ID + ".group.com")
+        .partitionId(DATA_PARTITION_ID)
+        .build();
+  }
 }
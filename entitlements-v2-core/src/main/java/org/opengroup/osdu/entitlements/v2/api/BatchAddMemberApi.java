@@ -0,0 +1,103 @@
+package org.opengroup.osdu.entitlements.v2.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.AppError;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.entitlements.v2.AppProperties;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberServiceDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberToGroupsDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMembersDto;
+import org.opengroup.osdu.entitlements.v2.service.BatchAddMemberService;
+import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
+import org.opengroup.osdu.entitlements.v2.validation.ApiInputValidation;
+import org.opengroup.osdu.entitlements.v2.validation.PartitionHeaderValidationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "add-member-api", description = "Add Member API")
+public class BatchAddMemberApi {
+    private final BatchAddMemberService batchAddMemberService;
+    private final RequestInfo requestInfo;
+    private final RequestInfoUtilService requestInfoUtilService;
+    private final PartitionHeaderValidationService partitionHeaderValidationService;
+
+    @Operation(summary = "${batchAddMemberApi.addMembersToGroup.summary}", description = "${batchAddMemberApi.addMembersToGroup.description}",
+            security = {@SecurityRequirement(name = "Authorization")}, tags = { "add-member-api" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = { @Content(schema = @Schema(implementation = BatchAddMemberResponseDto.class)) }),
+            @ApiResponse(responseCode = "400", description = "Bad Request",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "403", description = "User not authorized to perform the action.",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "404", description = "Not Found",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "502", description = "Bad Gateway",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable",  content = {@Content(schema = @Schema(implementation = AppError.class ))})
+    })
+    @PostMapping("/groups/{group_email}/members/batch")
+    @PreAuthorize("@authorizationFilter.hasAnyPermission('" + AppProperties.OPS + "','" + AppProperties.ADMIN + "','" + AppProperties.USERS + "')")
+    public ResponseEntity<BatchAddMemberResponseDto> addMembersToGroup(@Valid @RequestBody BatchAddMembersDto batchAddMembersDto,
+                                                                       @Parameter(description = "Group Email")
+                                                                       @PathVariable("group_email") String groupEmail) {
+        batchAddMembersDto.getMembers().forEach(member -> member.setEmail(member.getEmail().toLowerCase()));
+        String partitionId = requestInfo.getHeaders().getPartitionId();
+        partitionHeaderValidationService.validateSinglePartitionProvided(partitionId);
+        ApiInputValidation.validateEmailAndBelongsToPartition(groupEmail, requestInfoUtilService.getDomain(partitionId));
+        AddMemberServiceDto addMemberServiceDto = AddMemberServiceDto.builder()
+                .groupEmail(groupEmail.toLowerCase())
+                .requesterId(requestInfoUtilService.getUserId(requestInfo.getHeaders()))
+                .partitionId(partitionId)
+                .build();
+        BatchAddMemberResponseDto response = batchAddMemberService.addMembersToGroup(batchAddMembersDto.getMembers(), addMemberServiceDto);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "${batchAddMemberApi.addMemberToGroups.summary}", description = "${batchAddMemberApi.addMemberToGroups.description}",
+            security = {@SecurityRequirement(name = "Authorization")}, tags = { "add-member-api" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = { @Content(schema = @Schema(implementation = BatchAddMemberResponseDto.class)) }),
+            @ApiResponse(responseCode = "400", description = "Bad Request",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "403", description = "User not authorized to perform the action.",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "404", description = "Not Found",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "502", description = "Bad Gateway",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable",  content = {@Content(schema = @Schema(implementation = AppError.class ))})
+    })
+    @PostMapping("/members/{member_email}/groups/batch")
+    @PreAuthorize("@authorizationFilter.hasAnyPermission('" + AppProperties.OPS + "','" + AppProperties.ADMIN + "','" + AppProperties.USERS + "')")
+    public ResponseEntity<BatchAddMemberResponseDto> addMemberToGroups(@Valid @RequestBody BatchAddMemberToGroupsDto batchAddMemberToGroupsDto,
+                                                                       @Parameter(description = "Member Email")
+                                                                       @PathVariable("member_email") String memberEmail) {
+        batchAddMemberToGroupsDto.setGroupEmails(batchAddMemberToGroupsDto.getGroupEmails().stream()
+                .map(String::toLowerCase).collect(Collectors.toList()));
+        String partitionId = requestInfo.getHeaders().getPartitionId();
+        partitionHeaderValidationService.validateSinglePartitionProvided(partitionId);
+        ApiInputValidation.validateEmail(memberEmail);
+        AddMemberServiceDto addMemberServiceDto = AddMemberServiceDto.builder()
+                .requesterId(requestInfoUtilService.getUserId(requestInfo.getHeaders()))
+                .partitionId(partitionId)
+                .build();
+        BatchAddMemberResponseDto response = batchAddMemberService.addMemberToGroups(memberEmail.toLowerCase(), batchAddMemberToGroupsDto, addMemberServiceDto);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,71 @@
+package org.opengroup.osdu.entitlements.v2.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.model.http.AppError;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.entitlements.v2.AppProperties;
+import org.opengroup.osdu.entitlements.v2.auth.AuthorizationFilter;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipDto;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipResponseDto;
+import org.opengroup.osdu.entitlements.v2.service.CheckMembershipService;
+import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
+import org.opengroup.osdu.entitlements.v2.validation.PartitionHeaderValidationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "list-group-api", description = "List Group API")
+public class CheckMembershipApi {
+
+    private final RequestInfo requestInfo;
+    private final CheckMembershipService checkMembershipService;
+    private final RequestInfoUtilService requestInfoUtilService;
+    private final PartitionHeaderValidationService partitionHeaderValidationService;
+    private final AuthorizationFilter authorizationFilter;
+
+    @Operation(summary = "${checkMembershipApi.checkMembership.summary}", description = "${checkMembershipApi.checkMembership.description}",
+            security = {@SecurityRequirement(name = "Authorization")}, tags = { "list-group-api" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = { @Content(schema = @Schema(implementation = CheckMembershipResponseDto.class)) }),
+            @ApiResponse(responseCode = "400", description = "Bad Request",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "403", description = "User not authorized to perform the action.",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "404", description = "Not Found",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "502", description = "Bad Gateway",  content = {@Content(schema = @Schema(implementation = AppError.class ))}),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable",  content = {@Content(schema = @Schema(implementation = AppError.class ))})
+    })
+    @PostMapping("/groups/check")
+    @PreAuthorize("@authorizationFilter.hasAnyPermission('" + AppProperties.OPS + "', '" + AppProperties.ADMIN + "', '" + AppProperties.USERS + "')")
+    public ResponseEntity<CheckMembershipResponseDto> checkMembership(@Valid @RequestBody CheckMembershipDto checkMembershipDto) {
+        DpsHeaders dpsHeaders = requestInfo.getHeaders();
+        String partitionId = dpsHeaders.getPartitionId();
+        partitionHeaderValidationService.validateSinglePartitionProvided(partitionId);
+        String requesterId = requestInfoUtilService.getUserId(dpsHeaders).toLowerCase();
+        String memberEmail = checkMembershipDto.getMemberEmail() == null
+                ? requesterId : checkMembershipDto.getMemberEmail().toLowerCase();
+        if (!memberEmail.equals(requesterId)
+                && !authorizationFilter.hasAnyPermission(AppProperties.OPS, AppProperties.ADMIN)) {
+            throw AppException.createForbidden("Only operators and admins can check the memberships of another member");
+        }
+        CheckMembershipResponseDto response = checkMembershipService.check(memberEmail, checkMembershipDto, partitionId,
+                requestInfoUtilService.getAppId(dpsHeaders));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
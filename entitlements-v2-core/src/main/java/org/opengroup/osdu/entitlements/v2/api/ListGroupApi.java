@@ -15,10 +15,12 @@ import org.opengroup.osdu.core.common.model.http.RequestInfo;
 import org.opengroup.osdu.entitlements.v2.AppProperties;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupServiceDto;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
 import org.opengroup.osdu.entitlements.v2.service.ListGroupService;
+import org.opengroup.osdu.entitlements.v2.util.ETagUtil;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.opengroup.osdu.entitlements.v2.validation.PartitionHeaderValidationService;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
@@ -38,6 +41,7 @@ public class ListGroupApi {
     private final ListGroupService listGroupService;
     private final RequestInfoUtilService requestInfoUtilService;
     private final PartitionHeaderValidationService partitionHeaderValidationService;
+    private final ListGroupResponseCache listGroupResponseCache;
 
     @Operation(summary = "${listGroupApi.listGroups.summary}", description = "${listGroupApi.listGroups.description}",
             security = {@SecurityRequirement(name = "Authorization")}, tags = { "list-group-api" })
@@ -53,7 +57,7 @@ public class ListGroupApi {
     })
     @GetMapping("/groups")
     @PreAuthorize("@authorizationFilter.hasAnyPermission('" + AppProperties.OPS + "', '" + AppProperties.ADMIN + "', '" + AppProperties.USERS + "')")
-    public ResponseEntity<ListGroupResponseDto> listGroups(@RequestParam(name="roleRequired",required = false, defaultValue = "false") Boolean roleRequired) {
+    public ResponseEntity<?> listGroups(@RequestParam(name="roleRequired",required = false, defaultValue = "false") Boolean roleRequired) {
         DpsHeaders dpsHeaders = requestInfo.getHeaders();
         List<String> partitionIdList = requestInfoUtilService.getPartitionIdList(dpsHeaders);
         partitionHeaderValidationService.validateIfSpecialListGroupPartitionIsProvided(partitionIdList);
@@ -64,13 +68,11 @@ public class ListGroupApi {
                 .partitionIds(partitionIdList)
                 .roleRequired(roleRequired)
                 .build();
-        ListGroupResponseDto body = ListGroupResponseDto.builder()
+        return respond(listGroupServiceDto, () -> ListGroupResponseDto.builder()
                 .groups(new ArrayList<>(listGroupService.getGroups(listGroupServiceDto)))
                 .desId(userId)
                 .memberEmail(userId)
-                .build();
-        log.debug(String.format("ListGroupResponseDto#create done timestamp: %d", System.currentTimeMillis()));
-        return new ResponseEntity<>(body, HttpStatus.OK);
+                .build());
     }
 
     @Operation(summary = "${listGroupApi.listGroups.summary}", description = "${listGroupApi.listGroups.description}",
@@ -90,7 +92,7 @@ public class ListGroupApi {
             + "and @authorizationFilter.requesterHasImpersonationPermission('" + AppProperties.IMPERSONATOR + "') "
             + "and @authorizationFilter.targetCanBeImpersonated('" + AppProperties.IMPERSONATED_USER + "')")
     @GetMapping(value = "/groups", headers = DpsHeaders.ON_BEHALF_OF)
-    public ResponseEntity<ListGroupResponseDto> listGroupsOnBehalf(){
+    public ResponseEntity<?> listGroupsOnBehalf(){
         DpsHeaders dpsHeaders = requestInfo.getHeaders();
         List<String> partitionIdList = requestInfoUtilService.getPartitionIdList(dpsHeaders);
         partitionHeaderValidationService.validateIfSpecialListGroupPartitionIsProvided(partitionIdList);
@@ -102,13 +104,37 @@ public class ListGroupApi {
             .partitionIds(partitionIdList)
             .build();
 
-        ListGroupResponseDto body = ListGroupResponseDto.builder()
+        return respond(listGroupServiceDto, () -> ListGroupResponseDto.builder()
             .groups(new ArrayList<>(listGroupService.getGroups(listGroupServiceDto)))
             .desId(impersonationTarget)
             .memberEmail(impersonationTarget)
-            .build();
-        log.debug(String.format("ListGroupResponseDto#create done timestamp: %d", System.currentTimeMillis()));
-        return new ResponseEntity<>(body, HttpStatus.OK);
+            .build());
     }
 
+    /**
+     * Answers with the cached rendered body when the response cache holds it, the body is then
+     * written as is. A request whose If-None-Match holds the ETag of the response gets a 304
+     * without the body being serialized.
+     */
+    private ResponseEntity<?> respond(ListGroupServiceDto listGroupServiceDto, Supplier<ListGroupResponseDto> bodySupplier) {
+        if (!listGroupResponseCache.isCacheable(listGroupServiceDto.getPartitionIds())) {
+            ListGroupResponseDto body = bodySupplier.get();
+            log.debug(String.format("ListGroupResponseDto#create done timestamp: %d", System.currentTimeMillis()));
+            return ResponseEntity.ok().eTag(ETagUtil.of(body)).body(body);
+        }
+        ListGroupResponseCache.Key key = new ListGroupResponseCache.Key(listGroupServiceDto.getRequesterId(),
+                listGroupServiceDto.getPartitionIds().get(0), Boolean.TRUE.equals(listGroupServiceDto.getRoleRequired()),
+                listGroupServiceDto.getAppId());
+        ListGroupResponseCache.RenderedResponse rendered = listGroupResponseCache.get(key).orElse(null);
+        if (rendered == null) {
+            long version = listGroupResponseCache.getVersion(key);
+            ListGroupResponseDto body = bodySupplier.get();
+            log.debug(String.format("ListGroupResponseDto#create done timestamp: %d", System.currentTimeMillis()));
+            rendered = listGroupResponseCache.put(key, version, body);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(rendered.eTag())
+                .body(rendered.body());
+    }
 }
@@ -17,7 +17,9 @@ import org.opengroup.osdu.entitlements.v2.model.GroupType;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupOnBehalfOfServiceDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.service.ListGroupOnBehalfOfService;
+import org.opengroup.osdu.entitlements.v2.util.ETagUtil;
 import org.opengroup.osdu.entitlements.v2.validation.PartitionHeaderValidationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,6 +39,7 @@ import jakarta.validation.constraints.Min;
 public class ListGroupOnBehalfOfApi {
 
     private static final String INVALID_FILTER_ERROR_MESSAGE = "Invalid filter";
+    private static final String INVALID_PAGINATION_ERROR_MESSAGE = "Invalid pagination, must be one of OFFSET, KEYSET";
     private final RequestInfo requestInfo;
     private final ListGroupOnBehalfOfService listGroupOnBehalfOfService;
     private final PartitionHeaderValidationService partitionHeaderValidationService;
@@ -72,7 +75,7 @@ public class ListGroupOnBehalfOfApi {
                 .build();
 
         ListGroupResponseDto responseDto = listGroupOnBehalfOfService.getGroupsOnBehalfOfMember(listGroupOnBehalfOfServiceDto);
-        return new ResponseEntity<>(responseDto, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETagUtil.of(responseDto)).body(responseDto);
     }
 
     @Operation(summary = "${listGroupOnBehalfOfApi.listAllPartitionGroups.summary}", description = "${listGroupOnBehalfOfApi.listAllPartitionGroups.description}",
@@ -94,10 +97,15 @@ public class ListGroupOnBehalfOfApi {
         @RequestParam(name = "type") String type,
         @Parameter(description = "cursor") @RequestParam(name = "cursor", required = false) String cursor,
         @Parameter(description = "limit", example = "100")
-        @RequestParam(name = "limit", required = false, defaultValue = "100") @Min(1) Integer limit
+        @RequestParam(name = "limit", required = false, defaultValue = "100") @Min(1) Integer limit,
+        @Parameter(description = "Cursor kind. Allowable Values = \"OFFSET,KEYSET\"", example = "KEYSET")
+        @RequestParam(name = "pagination", required = false, defaultValue = "OFFSET") String pagination,
+        @Parameter(description = "Whether to compute the total count of groups")
+        @RequestParam(name = "includeTotalCount", required = false, defaultValue = "true") Boolean includeTotalCount
     ) {
         String partitionId = requestInfo.getHeaders().getPartitionId();
-        ListGroupsOfPartitionDto groupsInPartition = listGroupOnBehalfOfService.getGroupsInPartition(partitionId, getTypeParameterCaseInsensitive(type), cursor, limit);
+        ListGroupsOfPartitionDto groupsInPartition = listGroupOnBehalfOfService.getGroupsInPartition(partitionId,
+            getTypeParameterCaseInsensitive(type), cursor, limit, getPaginationParameterCaseInsensitive(pagination), includeTotalCount);
         return new ResponseEntity<>(groupsInPartition, HttpStatus.OK);
     }
 
@@ -112,5 +120,13 @@ public class ListGroupOnBehalfOfApi {
             }
         }
     }
+
+    private PaginationMode getPaginationParameterCaseInsensitive(String pagination) {
+        try {
+            return PaginationMode.valueOf(pagination.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), INVALID_PAGINATION_ERROR_MESSAGE);
+        }
+    }
 }
 
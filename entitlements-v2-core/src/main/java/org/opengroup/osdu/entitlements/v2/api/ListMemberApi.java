@@ -18,10 +18,10 @@ import org.opengroup.osdu.entitlements.v2.model.listmember.ListMemberRequestArgs
 import org.opengroup.osdu.entitlements.v2.model.listmember.ListMemberResponseDto;
 import org.opengroup.osdu.entitlements.v2.model.listmember.ListMemberServiceDto;
 import org.opengroup.osdu.entitlements.v2.service.ListMemberService;
+import org.opengroup.osdu.entitlements.v2.util.ETagUtil;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.opengroup.osdu.entitlements.v2.validation.ApiInputValidation;
 import org.opengroup.osdu.entitlements.v2.validation.PartitionHeaderValidationService;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -69,7 +69,7 @@ public class ListMemberApi {
         List<ChildrenReference> members = listMemberService.run(listMemberServiceDto);
         ListMemberRequestArgs args = ListMemberRequestArgs.builder().role(role).includeType(includeType).build();
         ListMemberResponseDto listMemberResponseDto = ListMemberResponseDto.create(members, args);
-        return new ResponseEntity<>(listMemberResponseDto, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETagUtil.of(listMemberResponseDto)).body(listMemberResponseDto);
     }
 
     private void performValidation(String groupEmail, String partitionId, String partitionDomain) {
@@ -17,16 +17,12 @@ package org.opengroup.osdu.entitlements.v2.auth;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
-import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.service.GroupsProvider;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class AuthorizationServiceEntitlements implements AuthorizationService {
@@ -43,7 +39,7 @@ public class AuthorizationServiceEntitlements implements AuthorizationService {
     public boolean isCurrentUserAuthorized(DpsHeaders headers, String... roles) {
         log.debug(String.format("authorizeAny timestamp: %d", System.currentTimeMillis()));
         String requesterId = requestInfoUtilService.getUserId(headers);
-        List<String> groupNames = getUserGroupNames(requesterId, headers.getPartitionId());
+        Set<String> groupNames = groupsProvider.getGroupNamesInContext(requesterId, headers.getPartitionId());
         if (!isValidGroups(groupNames, roles)) {
             throw AppException.createUnauthorized(UNAUTHORIZED_ERROR_MESSAGE);
         }
@@ -52,32 +48,31 @@ public class AuthorizationServiceEntitlements implements AuthorizationService {
 
     @Override
     public boolean isGivenUserAuthorized(String userId, String partitionId, String... roles) {
-        List<String> groupNames = getUserGroupNames(userId, partitionId);
+        Set<String> groupNames = groupsProvider.getGroupNamesInContext(userId, partitionId);
         return isValidGroups(groupNames, roles);
     }
 
     @Override
     public String getAuthorizedGroupName(DpsHeaders headers, String... roles) {
         String requesterId = requestInfoUtilService.getUserId(headers);
-        List<String> groupNamesOriginalCaller = getUserGroupNames(requesterId, headers.getPartitionId());
-
-        return Arrays.stream(roles)
-                .filter(groupNamesOriginalCaller::contains)
-                .findFirst()
-                .orElse(null);
-    }
-
-    private List<String> getUserGroupNames(String userId, String partitionId) {
-        return groupsProvider.getGroupsInContext(userId, partitionId)
-                .stream()
-                .map(ParentReference::getName)
-                .collect(Collectors.toList());
+        Set<String> groupNamesOriginalCaller = groupsProvider.getGroupNamesInContext(requesterId, headers.getPartitionId());
+        for (String role : roles) {
+            if (groupNamesOriginalCaller.contains(role)) {
+                return role;
+            }
+        }
+        return null;
     }
 
-    private boolean isValidGroups(List<String> groupNames, String... roles) {
+    private boolean isValidGroups(Set<String> groupNames, String... roles) {
         if (!groupNames.contains("users")) {
             return false;
         }
-        return !Collections.disjoint(groupNames, Arrays.asList(roles));
+        for (String role : roles) {
+            if (groupNames.contains(role)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,209 @@
+//  Copyright © Microsoft Corporation
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+
+package org.opengroup.osdu.entitlements.v2.logging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.logging.ILogger;
+import org.opengroup.osdu.core.common.logging.audit.AuditPayload;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the audit events on a dedicated thread instead of the request thread, when
+ * audit.async.enabled is set. The events wait in a bounded queue and are written in batches of up
+ * to audit.async.batch-size. When the queue is full the overflow policy either blocks the request,
+ * drops the event, or appends it as a JSON line to the spill file, which then has to be collected
+ * along with the logs. The remaining events are written on shutdown.
+ */
+@Slf4j
+@Component
+public class AsyncAuditSink {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP, SPILL
+    }
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    @Value("${audit.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${audit.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.async.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${audit.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${audit.async.flush-interval-millis:200}")
+    private long flushIntervalMillis;
+
+    @Value("${audit.async.spill-file:${java.io.tmpdir}/entitlements-audit-spill.log}")
+    private String spillFile;
+
+    @Value("${LOG_PREFIX:entitlements}")
+    private String logPrefix;
+
+    @Autowired
+    private ObjectProvider<ILogger> logger;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong spilledEvents = new AtomicLong();
+    private final Object spillLock = new Object();
+
+    private BlockingQueue<PendingAudit> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param labels the request headers, captured on the request thread as the flusher thread
+     *               cannot reach the request-scoped beans
+     */
+    public void submit(AuditPayload payload, Map<String, String> labels) {
+        PendingAudit event = new PendingAudit(payload, labels);
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    write(event);
+                }
+            }
+            case SPILL -> spill(event);
+            default -> droppedEvents.incrementAndGet();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getSpilledEvents() {
+        return spilledEvents.get();
+    }
+
+    private void flushLoop() {
+        List<PendingAudit> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAudit first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(this::write);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(PendingAudit event) {
+        try {
+            logger.getObject().audit(logPrefix + ".audit", event.payload(), event.labels());
+        } catch (RuntimeException e) {
+            droppedEvents.incrementAndGet();
+            log.warn("Unable to write an audit event", e);
+        }
+    }
+
+    /**
+     * Only the payload is spilled, the request headers hold credentials.
+     */
+    private void spill(PendingAudit event) {
+        Path path = Paths.get(spillFile);
+        synchronized (spillLock) {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(event.payload()));
+                writer.write(System.lineSeparator());
+                spilledEvents.incrementAndGet();
+            } catch (JsonProcessingException e) {
+                droppedEvents.incrementAndGet();
+                log.warn("Unable to serialize a spilled audit event", e);
+            } catch (IOException e) {
+                droppedEvents.incrementAndGet();
+                log.warn("Unable to spill an audit event to {}", path, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingAudit(AuditPayload payload, Map<String, String> labels) {
+    }
+}
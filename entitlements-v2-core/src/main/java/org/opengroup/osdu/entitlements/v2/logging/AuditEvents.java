@@ -15,6 +15,7 @@
 package org.opengroup.osdu.entitlements.v2.logging;
 
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.util.JsonConverter;
 import org.opengroup.osdu.core.common.logging.audit.AuditAction;
@@ -22,6 +23,7 @@ import org.opengroup.osdu.core.common.logging.audit.AuditPayload;
 import org.opengroup.osdu.core.common.logging.audit.AuditPayload.AuditPayloadBuilder;
 import org.opengroup.osdu.core.common.logging.audit.AuditStatus;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -53,6 +55,7 @@ class AuditEvents {
     private static final String REDIS_ADD_MEMBER_TRANSACTION_MESSAGE = "Add entity %s to group %s as %s";
     private static final String REDIS_REMOVE_MEMBER_TRANSACTION_ACTION_ID = "ET214";
     private static final String REDIS_REMOVE_MEMBER_TRANSACTION_MESSAGE = "Remove entity %s to group %s as requested by %s";
+    private static final String REDIS_REMOVE_MEMBER_FROM_GROUPS_TRANSACTION_MESSAGE = "Remove entity %s from groups %s as requested by %s";
     private static final String REDIS_LIST_MEMBER_TRANSACTION_ACTION_ID = "ET215";
     private static final String REDIS_LIST_MEMBER_TRANSACTION_MESSAGE = "Return all direct members of group %s";
     private static final String REDIS_UPDATE_APP_IDS_TRANSACTION_ACTION_ID = "ET216";
@@ -61,6 +64,8 @@ class AuditEvents {
     private static final String REDIS_UPDATE_GROUP_TRANSACTION_MESSAGE = "Update group %s";
     private static final String REDIS_UPDATE_GROUPS_IN_CACHE_FOR_KEYS_ACTION_ID = "ET219";
     private static final String REDIS_UPDATE_GROUPS_IN_CACHE_FOR_KEYS_MESSAGE = "Update groups in cache for given keys";
+    private static final String GROUP_COUNT_PREFIX = "groupCount:";
+    private static final String GROUP_HASH_PREFIX = "groupsSha256:";
 
     private final String user;
     private final String dataPartitionId;
@@ -225,23 +230,62 @@ class AuditEvents {
                 .build();
     }
 
+    AuditPayload getRemoveMemberFromGroupsSuccessEvent(List<String> groupIds, String memberId, String requesterId,
+            List<String> requiredGroupsForAction) {
+        return buildRemoveMemberFromGroupsEvent(AuditStatus.SUCCESS, groupIds, memberId, requesterId, requiredGroupsForAction);
+    }
+
+    AuditPayload getRemoveMemberFromGroupsFailureEvent(List<String> groupIds, String memberId, String requesterId,
+            List<String> requiredGroupsForAction) {
+        return buildRemoveMemberFromGroupsEvent(AuditStatus.FAILURE, groupIds, memberId, requesterId, requiredGroupsForAction);
+    }
+
+    private AuditPayload buildRemoveMemberFromGroupsEvent(AuditStatus auditStatus, List<String> groupIds, String memberId,
+            String requesterId, List<String> requiredGroupsForAction) {
+        return createAuditPayloadBuilder(requiredGroupsForAction, auditStatus, REDIS_REMOVE_MEMBER_TRANSACTION_ACTION_ID)
+                .action(AuditAction.DELETE)
+                .message(String.format(REDIS_REMOVE_MEMBER_FROM_GROUPS_TRANSACTION_MESSAGE, memberId, groupIds, requesterId))
+                .resources(Stream.concat(Stream.of(dataPartitionId, memberId, requesterId), groupIds.stream()).collect(Collectors.toList()))
+                .build();
+    }
+
     // Read operations - Success/Failure paired methods
     AuditPayload getListGroupSuccessEvent(List<String> groupIds, List<String> requiredGroupsForAction) {
-        return buildListGroupEvent(AuditStatus.SUCCESS, groupIds, requiredGroupsForAction);
+        return getListGroupSuccessEvent(groupIds, false, requiredGroupsForAction);
     }
 
     AuditPayload getListGroupFailureEvent(List<String> groupIds, List<String> requiredGroupsForAction) {
-        return buildListGroupEvent(AuditStatus.FAILURE, groupIds, requiredGroupsForAction);
+        return getListGroupFailureEvent(groupIds, false, requiredGroupsForAction);
+    }
+
+    AuditPayload getListGroupSuccessEvent(List<String> groupIds, boolean compact, List<String> requiredGroupsForAction) {
+        return buildListGroupEvent(AuditStatus.SUCCESS, groupIds, compact, requiredGroupsForAction);
+    }
+
+    AuditPayload getListGroupFailureEvent(List<String> groupIds, boolean compact, List<String> requiredGroupsForAction) {
+        return buildListGroupEvent(AuditStatus.FAILURE, groupIds, compact, requiredGroupsForAction);
     }
 
-    private AuditPayload buildListGroupEvent(AuditStatus auditStatus, List<String> groupIds, List<String> requiredGroupsForAction) {
+    private AuditPayload buildListGroupEvent(AuditStatus auditStatus, List<String> groupIds, boolean compact, List<String> requiredGroupsForAction) {
+        List<String> resources = compact
+                ? Arrays.asList(dataPartitionId, GROUP_COUNT_PREFIX + groupIds.size(), GROUP_HASH_PREFIX + hashGroupIds(groupIds))
+                : Stream.concat(Collections.singletonList(dataPartitionId).stream(), groupIds.stream()).collect(Collectors.toList());
         return createAuditPayloadBuilder(requiredGroupsForAction, auditStatus, REDIS_LIST_GROUP_TRANSACTION_ACTION_ID)
                 .action(AuditAction.READ)
                 .message(REDIS_LIST_GROUP_TRANSACTION_MESSAGE)
-                .resources(Stream.concat(Collections.singletonList(dataPartitionId).stream(), groupIds.stream()).collect(Collectors.toList()))
+                .resources(resources)
                 .build();
     }
 
+    /**
+     * Order independent, so that the same groups always give the same hash.
+     */
+    private static String hashGroupIds(List<String> groupIds) {
+        return Hashing.sha256()
+                .hashString(groupIds.stream().sorted().collect(Collectors.joining(",")), StandardCharsets.UTF_8)
+                .toString();
+    }
+
     AuditPayload getListMemberSuccessEvent(String groupId, List<String> requiredGroupsForAction) {
         return buildListMemberEvent(AuditStatus.SUCCESS, groupId, requiredGroupsForAction);
     }
@@ -23,9 +23,11 @@ import org.opengroup.osdu.core.common.util.IpAddressUtil;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 
@@ -50,6 +52,12 @@ public class AuditLogger {
     @Autowired
     private HttpServletRequest httpServletRequest;
 
+    @Autowired
+    private AsyncAuditSink auditSink;
+
+    @Value("${audit.compact-read-events:false}")
+    private boolean compactReadEvents;
+
     private AuditEvents events = null;
 
     private AuditEvents getEvents() {
@@ -130,14 +138,31 @@ public class AuditLogger {
         this.writeLog(this.getEvents().getRemoveMemberFailureEvent(groupId, memberId, requesterId, operation.getRequiredGroups()));
     }
 
+    /**
+     * Log the successful removal of a member from several groups as a single record.
+     */
+    public void removeMemberFromGroupsSuccess(List<String> groupIds, String memberId, String requesterId, AuditOperation operation) {
+        this.writeLog(this.getEvents().getRemoveMemberFromGroupsSuccessEvent(groupIds, memberId, requesterId, operation.getRequiredGroups()));
+    }
+
+    /**
+     * Log the failed removal of a member from several groups as a single record.
+     */
+    public void removeMemberFromGroupsFailure(List<String> groupIds, String memberId, String requesterId, AuditOperation operation) {
+        this.writeLog(this.getEvents().getRemoveMemberFromGroupsFailureEvent(groupIds, memberId, requesterId, operation.getRequiredGroups()));
+    }
+
     // ==================== Read Operations ====================
 
+    /**
+     * With audit.compact-read-events the record holds the number and a hash of the group ids instead of the ids.
+     */
     public void listGroupSuccess(List<String> groupIds) {
-        this.writeLog(this.getEvents().getListGroupSuccessEvent(groupIds, AuditOperation.LIST_GROUP.getRequiredGroups()));
+        this.writeLog(this.getEvents().getListGroupSuccessEvent(groupIds, compactReadEvents, AuditOperation.LIST_GROUP.getRequiredGroups()));
     }
 
     public void listGroupFailure(List<String> groupIds) {
-        this.writeLog(this.getEvents().getListGroupFailureEvent(groupIds, AuditOperation.LIST_GROUP.getRequiredGroups()));
+        this.writeLog(this.getEvents().getListGroupFailureEvent(groupIds, compactReadEvents, AuditOperation.LIST_GROUP.getRequiredGroups()));
     }
 
     public void listMemberSuccess(String groupId) {
@@ -195,6 +220,10 @@ public class AuditLogger {
     }
 
     private void writeLog(AuditPayload log) {
-        this.logger.audit(log);
+        if (this.auditSink.isEnabled()) {
+            this.auditSink.submit(log, new HashMap<>(this.requestInfo.getHeaders().getHeaders()));
+        } else {
+            this.logger.audit(log);
+        }
     }
 }
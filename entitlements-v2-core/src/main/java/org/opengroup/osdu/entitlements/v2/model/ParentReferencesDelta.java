@@ -0,0 +1,23 @@
+package org.opengroup.osdu.entitlements.v2.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Parent references gained by the users below a member once the member is added to a group:
+ * the group itself and all the parents of the group. The parents of the group are only loaded by
+ * the providers which patch the cached groups with them.
+ */
+@Data
+@Generated
+@Builder
+public class ParentReferencesDelta {
+    private EntityNode memberNode;
+    private Role role;
+    private ParentReference directParent;
+    private Supplier<Set<ParentReference>> inheritedParents;
+}
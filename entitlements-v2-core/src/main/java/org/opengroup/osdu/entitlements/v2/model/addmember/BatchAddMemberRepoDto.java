@@ -0,0 +1,14 @@
+package org.opengroup.osdu.entitlements.v2.model.addmember;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+
+@Data
+@Generated
+@Builder
+public class BatchAddMemberRepoDto {
+    private EntityNode groupNode;
+    private AddMemberRepoDto addMemberRepoDto;
+}
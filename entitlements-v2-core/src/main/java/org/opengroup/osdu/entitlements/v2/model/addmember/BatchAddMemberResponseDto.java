@@ -0,0 +1,21 @@
+package org.opengroup.osdu.entitlements.v2.model.addmember;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents the outcome of a batch add member request")
+public class BatchAddMemberResponseDto {
+    @Schema(description = "Outcome of every requested membership, in request order")
+    private List<BatchAddMemberResultDto> results;
+}
@@ -0,0 +1,28 @@
+package org.opengroup.osdu.entitlements.v2.model.addmember;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents the outcome of a single membership of a batch request")
+public class BatchAddMemberResultDto {
+    @Schema(description = "Email of the group")
+    private String groupEmail;
+    @Schema(description = "Email Id of the member")
+    private String email;
+    @Schema(description = "Role of the member")
+    private Role role;
+    @Schema(description = "HTTP status code the membership would have been answered with by the single add member API")
+    private int code;
+    @Schema(description = "Error message, empty when the member was added")
+    private String message;
+}
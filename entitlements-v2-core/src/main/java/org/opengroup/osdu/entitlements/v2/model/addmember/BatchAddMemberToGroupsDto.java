@@ -0,0 +1,31 @@
+package org.opengroup.osdu.entitlements.v2.model.addmember;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+
+import java.util.List;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents a model to add a member into several groups")
+public class BatchAddMemberToGroupsDto {
+    @Schema(description = "Role of the member in every group")
+    @NotNull
+    private Role role;
+    @Schema(description = "Emails of the groups")
+    @NotEmpty
+    @Size(max = BatchAddMembersDto.MAX_BATCH_SIZE)
+    private List<@NotBlank String> groupEmails;
+}
@@ -0,0 +1,29 @@
+package org.opengroup.osdu.entitlements.v2.model.addmember;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents a model to add several members into a group")
+public class BatchAddMembersDto {
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @Schema(description = "Members to add")
+    @NotEmpty
+    @Size(max = MAX_BATCH_SIZE)
+    @Valid
+    private List<AddMemberDto> members;
+}
@@ -0,0 +1,33 @@
+package org.opengroup.osdu.entitlements.v2.model.checkmembership;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents a model to check whether a member belongs to several groups")
+public class CheckMembershipDto {
+    public static final int MAX_GROUPS = 500;
+
+    @Schema(description = "Email Id of the member, the requester when not provided")
+    private String memberEmail;
+    @Schema(description = "Emails of the groups to check")
+    @NotEmpty
+    @Size(max = MAX_GROUPS)
+    private List<@NotBlank String> groupEmails;
+    @Schema(description = "Whether to return the role of the member in the groups it belongs to")
+    @Builder.Default
+    private boolean roleRequired = false;
+}
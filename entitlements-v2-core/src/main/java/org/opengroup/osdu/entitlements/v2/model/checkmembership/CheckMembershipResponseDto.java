@@ -0,0 +1,23 @@
+package org.opengroup.osdu.entitlements.v2.model.checkmembership;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Represents the outcome of a membership check")
+public class CheckMembershipResponseDto {
+    @Schema(description = "Email Id of the checked member")
+    private String memberEmail;
+    @Schema(description = "Membership of every requested group, in request order")
+    private List<CheckMembershipResultDto> results;
+}
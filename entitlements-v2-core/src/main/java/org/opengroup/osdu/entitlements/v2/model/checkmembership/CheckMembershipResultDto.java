@@ -0,0 +1,25 @@
+package org.opengroup.osdu.entitlements.v2.model.checkmembership;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Generated;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Represents whether the member belongs to a single group of a membership check")
+public class CheckMembershipResultDto {
+    @Schema(description = "Email of the group")
+    private String groupEmail;
+    @Schema(description = "Whether the member belongs to the group, directly or through a child group")
+    private boolean member;
+    @Schema(description = "Role of the member in the group, only returned when requested and the member belongs to the group")
+    private String role;
+}
@@ -0,0 +1,16 @@
+package org.opengroup.osdu.entitlements.v2.model.listgroup;
+
+/**
+ * How the cursor of a partition groups listing addresses the next page.
+ */
+public enum PaginationMode {
+    /**
+     * The cursor is the integer offset of the next page.
+     */
+    OFFSET,
+    /**
+     * The cursor is an opaque token positioned after the last returned group, so that every page costs the same
+     * whatever its depth. Providers without keyset support fall back to offsets.
+     */
+    KEYSET
+}
@@ -26,6 +26,7 @@ import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberServiceDto;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferencesDelta;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
 import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
@@ -41,7 +42,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -86,28 +86,34 @@ public class AddMemberService {
             throw new AppException(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(), String.format("%s is already a member of group %s", addMemberDto.getEmail(), addMemberServiceDto.getGroupEmail()));
         }
 
-        int groupSize = memberCacheService.getFromPartitionCache(addMemberServiceDto.getGroupEmail(), addMemberServiceDto.getPartitionId()).size();
-        if (groupSizeLimitEnabled(addMemberServiceDto.getPartitionId()) && groupSize >= maxGroupSize) {
-            log.error(String.format("Group %s already has %d members", addMemberServiceDto.getGroupEmail(), groupSize));
-            throw new AppException(HttpStatus.PRECONDITION_FAILED.value(), HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), String.format("Identity %s cannot be added to the group %s, the group has reached its size quota of %d members", addMemberDto.getEmail(), addMemberServiceDto.getGroupEmail(), maxGroupSize));
+        if (groupSizeLimitEnabled(addMemberServiceDto.getPartitionId())) {
+            int groupSize = memberCacheService.getGroupSize(addMemberServiceDto.getGroupEmail(), addMemberServiceDto.getPartitionId());
+            if (groupSize >= maxGroupSize) {
+                log.error(String.format("Group %s already has %d members", addMemberServiceDto.getGroupEmail(), groupSize));
+                throw new AppException(HttpStatus.PRECONDITION_FAILED.value(), HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), String.format("Identity %s cannot be added to the group %s, the group has reached its size quota of %d members", addMemberDto.getEmail(), addMemberServiceDto.getGroupEmail(), maxGroupSize));
+            }
         }
 
-        Set<ParentReference> allExistingParents = retrieveGroupRepo.loadAllParents(memberNode).getParentReferences();
-        Set<ParentReference> allExistingParentsFilteredByPartition =
-                allExistingParents.stream().filter(ref -> ref.getDataPartitionId().equalsIgnoreCase(addMemberServiceDto.getPartitionId())).collect(Collectors.toSet());
-        if (allExistingParentsFilteredByPartition.size() >= EntityNode.MAX_PARENTS) {
-            log.error(String.format("Identity %s already belong to %d groups", addMemberDto.getEmail(), allExistingParents.size()));
+        long parentsInPartition = retrieveGroupRepo.countAncestors(memberNode, addMemberServiceDto.getPartitionId());
+        if (parentsInPartition >= EntityNode.MAX_PARENTS) {
+            log.error(String.format("Identity %s already belong to %d groups", addMemberDto.getEmail(), parentsInPartition));
             throw new AppException(HttpStatus.PRECONDITION_FAILED.value(), HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), String.format("Identity %s cannot be added to the group %s, as it has reached its group quota of %d groups", addMemberDto.getEmail(), addMemberServiceDto.getGroupEmail(), EntityNode.MAX_PARENTS));
         }
-        Set<ParentReference> allParentsOfGroup = retrieveGroupRepo.loadAllParents(existingGroupEntityNode).getParentReferences();
-        Set<String> allParentsOfGroupEmails = allParentsOfGroup.stream().map(ref -> ref.getId()).collect(Collectors.toSet());
-        if (allParentsOfGroupEmails.contains(addMemberDto.getEmail()) || existingGroupEntityNode.getNodeId().equalsIgnoreCase(addMemberDto.getEmail())) {            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Cyclic membership is not allowed");
+        if (existingGroupEntityNode.getNodeId().equalsIgnoreCase(addMemberDto.getEmail())
+                || (memberNode.isGroup() && retrieveGroupRepo.isReachable(existingGroupEntityNode, memberNode))) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Cyclic membership is not allowed");
         }
         AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder().memberNode(memberNode).role(addMemberDto.getRole()).
-                partitionId(addMemberServiceDto.getPartitionId()).existingParents(allExistingParents).build();
+                partitionId(addMemberServiceDto.getPartitionId()).build();
         try {
             Set<String> impactedUsers = addMemberRepo.addMember(existingGroupEntityNode, addMemberRepoDto);
-            groupCacheService.refreshListGroupCache(impactedUsers, addMemberServiceDto.getPartitionId());
+            groupCacheService.applyParentReferencesDelta(impactedUsers, addMemberServiceDto.getPartitionId(),
+                    ParentReferencesDelta.builder()
+                            .memberNode(memberNode)
+                            .role(addMemberDto.getRole())
+                            .directParent(ParentReference.createParentReference(existingGroupEntityNode))
+                            .inheritedParents(() -> retrieveGroupRepo.loadAllParents(existingGroupEntityNode).getParentReferences())
+                            .build());
             memberCacheService.flushListMemberCacheForGroup(addMemberServiceDto.getGroupEmail(), addMemberServiceDto.getPartitionId());
             auditLogger.addMemberSuccess(addMemberServiceDto.getGroupEmail(), addMemberDto.getEmail(),
                     addMemberDto.getRole());
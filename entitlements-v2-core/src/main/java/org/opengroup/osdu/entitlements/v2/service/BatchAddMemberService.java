@@ -0,0 +1,365 @@
+//  Copyright © Microsoft Corporation
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+
+package org.opengroup.osdu.entitlements.v2.service;
+
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.core.common.status.IEventPublisher;
+import org.opengroup.osdu.entitlements.v2.AppProperties;
+import org.opengroup.osdu.entitlements.v2.logging.AuditLogger;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberServiceDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberResultDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberToGroupsDto;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
+import org.opengroup.osdu.entitlements.v2.service.featureflag.FeatureFlag;
+import org.opengroup.osdu.entitlements.v2.service.featureflag.PartitionFeatureFlagService;
+import org.opengroup.osdu.entitlements.v2.spi.addmember.AddMemberRepo;
+import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
+import org.opengroup.osdu.entitlements.v2.util.GroupEmailUtil;
+import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
+import org.opengroup.osdu.entitlements.v2.validation.ApiInputValidation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Batch flavour of {@link AddMemberService}. The data needed by the checks (group nodes, permissions,
+ * existing members, ancestors, group sizes) is loaded with one call per kind for the whole request,
+ * every membership is then validated against it and the accepted ones are written at once.
+ * A membership failing a check does not fail the request, it is reported in its result.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchAddMemberService {
+
+    private final RetrieveGroupRepo retrieveGroupRepo;
+    private final AddMemberRepo addMemberRepo;
+    private final AppProperties config;
+    private final JaxRsDpsLog log;
+    private final PermissionService permissionService;
+    private final GroupCacheService groupCacheService;
+    private final MemberCacheService memberCacheService;
+    private final PartitionFeatureFlagService partitionFeatureFlagService;
+    private final RequestInfo requestInfo;
+    private final RequestInfoUtilService requestInfoUtilService;
+    private final AuditLogger auditLogger;
+    @Autowired(required = false)
+    private IEventPublisher eventPublisher;
+    @Value("${event-publishing.enabled:false}")
+    private Boolean eventPublishingEnabled;
+    @Value("${group.size.max:20000}")
+    private int maxGroupSize;
+
+    public BatchAddMemberResponseDto addMembersToGroup(List<AddMemberDto> members, AddMemberServiceDto addMemberServiceDto) {
+        log.debug(String.format("requested by %s", addMemberServiceDto.getRequesterId()));
+        String groupEmail = addMemberServiceDto.getGroupEmail();
+        String partitionId = addMemberServiceDto.getPartitionId();
+        EntityNode groupNode = retrieveGroupRepo.groupExistenceValidation(groupEmail, partitionId);
+        EntityNode requesterNode = EntityNode.createMemberNodeForRequester(addMemberServiceDto.getRequesterId(), partitionId);
+        permissionService.verifyCanManageMembers(requesterNode, groupNode);
+
+        Set<String> existingMembers = retrieveGroupRepo.loadDirectChildren(partitionId, groupEmail).stream()
+                .map(ChildrenReference::getId).map(String::toLowerCase).collect(Collectors.toSet());
+        Set<String> memberGroupEmails = members.stream().map(AddMemberDto::getEmail)
+                .filter(memberEmail -> GroupEmailUtil.isGroupEmail(memberEmail, partitionId, config.getDomain()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, EntityNode> memberNodes = new LinkedHashMap<>(retrieveGroupRepo.getGroupNodes(partitionId, memberGroupEmails));
+        members.stream().map(AddMemberDto::getEmail).filter(memberEmail -> !memberGroupEmails.contains(memberEmail))
+                .forEach(memberEmail -> memberNodes.putIfAbsent(memberEmail, EntityNode.createMemberNodeForNewUser(memberEmail, partitionId)));
+        List<EntityNode> nodesToLoadParents = new ArrayList<>(memberNodes.values());
+        nodesToLoadParents.add(groupNode);
+        Map<String, Set<ParentReference>> parents = retrieveGroupRepo.loadAllParentsOfNodes(nodesToLoadParents);
+        Set<String> groupAncestors = getParentIds(getParents(parents, groupNode));
+        boolean groupSizeLimitEnabled = groupSizeLimitEnabled(partitionId);
+        int groupSize = groupSizeLimitEnabled ? memberCacheService.getGroupSize(groupEmail, partitionId) : 0;
+
+        PendingMemberships pending = new PendingMemberships();
+        Set<String> requestedMembers = new HashSet<>();
+        for (AddMemberDto member : members) {
+            String memberEmail = member.getEmail();
+            BatchAddMemberResultDto result = pending.newResult(groupEmail, memberEmail, member.getRole());
+            try {
+                if (!requestedMembers.add(memberEmail)) {
+                    throw duplicateInRequest(memberEmail);
+                }
+                EntityNode memberNode = memberNodes.get(memberEmail);
+                if (memberNode == null) {
+                    throw memberGroupNotFound(memberEmail);
+                }
+                validateRole(memberNode, member.getRole());
+                if (existingMembers.contains(memberEmail)) {
+                    throw alreadyMember(memberEmail, groupEmail);
+                }
+                if (groupAncestors.contains(memberEmail) || groupEmail.equalsIgnoreCase(memberEmail)) {
+                    throw cyclicMembership();
+                }
+                if (groupSizeLimitEnabled && groupSize + pending.size() >= maxGroupSize) {
+                    log.error(String.format("Group %s already has %d members", groupEmail, groupSize + pending.size()));
+                    throw groupSizeQuotaReached(memberEmail, groupEmail);
+                }
+                Set<ParentReference> existingParents = getParents(parents, memberNode);
+                validateGroupQuota(memberEmail, groupEmail, countParentsInPartition(existingParents, partitionId));
+                pending.accept(result, groupNode, AddMemberRepoDto.builder().memberNode(memberNode).role(member.getRole())
+                        .partitionId(partitionId).existingParents(existingParents).build());
+            } catch (AppException e) {
+                reject(result, e);
+            }
+        }
+        persist(pending, addMemberServiceDto);
+        return BatchAddMemberResponseDto.builder().results(pending.results).build();
+    }
+
+    public BatchAddMemberResponseDto addMemberToGroups(String memberEmail, BatchAddMemberToGroupsDto batchAddMemberToGroupsDto,
+                                                       AddMemberServiceDto addMemberServiceDto) {
+        log.debug(String.format("requested by %s", addMemberServiceDto.getRequesterId()));
+        String partitionId = addMemberServiceDto.getPartitionId();
+        Role role = batchAddMemberToGroupsDto.getRole();
+        EntityNode memberNode = retrieveGroupRepo.getEntityNode(memberEmail, partitionId).orElseGet(
+                () -> createNewMemberNode(memberEmail, partitionId));
+        validateRole(memberNode, role);
+        EntityNode requesterNode = EntityNode.createMemberNodeForRequester(addMemberServiceDto.getRequesterId(), partitionId);
+        String partitionDomain = requestInfoUtilService.getDomain(partitionId);
+
+        Set<String> validGroupEmails = new LinkedHashSet<>();
+        for (String groupEmail : batchAddMemberToGroupsDto.getGroupEmails()) {
+            if (isEmailOfPartition(groupEmail, partitionDomain)) {
+                validGroupEmails.add(groupEmail);
+            }
+        }
+        Map<String, EntityNode> groupNodes = retrieveGroupRepo.getGroupNodes(partitionId, validGroupEmails);
+        Set<String> notManageableGroups = permissionService.getGroupsNotManageableBy(requesterNode, groupNodes.values());
+        Set<String> directParents = getParentIds(retrieveGroupRepo.loadDirectParents(partitionId, memberEmail));
+        List<EntityNode> nodesToLoadParents = new ArrayList<>(List.of(memberNode));
+        nodesToLoadParents.addAll(groupNodes.values());
+        Map<String, Set<ParentReference>> parents = retrieveGroupRepo.loadAllParentsOfNodes(nodesToLoadParents);
+        Set<ParentReference> existingParents = getParents(parents, memberNode);
+        boolean groupSizeLimitEnabled = groupSizeLimitEnabled(partitionId);
+        Map<String, Integer> groupSizes = groupSizeLimitEnabled
+                ? memberCacheService.getGroupSizes(groupNodes.keySet(), partitionId) : Collections.emptyMap();
+        // The parents the member will have in the partition, growing with the groups accepted so far and their ancestors
+        Set<String> parentsInPartition = getParentIdsInPartition(existingParents, partitionId);
+
+        PendingMemberships pending = new PendingMemberships();
+        Set<String> requestedGroups = new HashSet<>();
+        for (String groupEmail : batchAddMemberToGroupsDto.getGroupEmails()) {
+            BatchAddMemberResultDto result = pending.newResult(groupEmail, memberEmail, role);
+            try {
+                if (!requestedGroups.add(groupEmail)) {
+                    throw duplicateInRequest(groupEmail);
+                }
+                ApiInputValidation.validateEmailAndBelongsToPartition(groupEmail, partitionDomain);
+                EntityNode groupNode = groupNodes.get(groupEmail);
+                if (groupNode == null) {
+                    throw groupNotFound(groupEmail);
+                }
+                if (notManageableGroups.contains(groupNode.getNodeId())) {
+                    throw notAuthorizedToManageMembers();
+                }
+                if (directParents.contains(groupEmail)) {
+                    throw alreadyMember(memberEmail, groupEmail);
+                }
+                Set<ParentReference> groupAncestors = getParents(parents, groupNode);
+                if (memberNode.isGroup() && (groupEmail.equalsIgnoreCase(memberEmail)
+                        || getParentIds(groupAncestors).contains(memberEmail))) {
+                    throw cyclicMembership();
+                }
+                if (groupSizeLimitEnabled) {
+                    int groupSize = groupSizes.getOrDefault(groupEmail, 0);
+                    if (groupSize >= maxGroupSize) {
+                        log.error(String.format("Group %s already has %d members", groupEmail, groupSize));
+                        throw groupSizeQuotaReached(memberEmail, groupEmail);
+                    }
+                }
+                validateGroupQuota(memberEmail, groupEmail, parentsInPartition.size());
+                parentsInPartition.add(groupEmail);
+                parentsInPartition.addAll(getParentIdsInPartition(groupAncestors, partitionId));
+                pending.accept(result, groupNode, AddMemberRepoDto.builder().memberNode(memberNode).role(role)
+                        .partitionId(partitionId).existingParents(existingParents).build());
+            } catch (AppException e) {
+                reject(result, e);
+            }
+        }
+        persist(pending, addMemberServiceDto);
+        return BatchAddMemberResponseDto.builder().results(pending.results).build();
+    }
+
+    private void persist(PendingMemberships pending, AddMemberServiceDto addMemberServiceDto) {
+        if (pending.size() == 0) {
+            return;
+        }
+        String partitionId = addMemberServiceDto.getPartitionId();
+        try {
+            Set<String> impactedUsers = addMemberRepo.addMembers(pending.memberships);
+            groupCacheService.refreshListGroupCache(impactedUsers, partitionId);
+            pending.acceptedResults.stream().map(BatchAddMemberResultDto::getGroupEmail).distinct()
+                    .forEach(groupEmail -> memberCacheService.flushListMemberCacheForGroup(groupEmail, partitionId));
+            pending.acceptedResults.forEach(result ->
+                    auditLogger.addMemberSuccess(result.getGroupEmail(), result.getEmail(), result.getRole()));
+        } catch (Exception e) {
+            pending.acceptedResults.forEach(result ->
+                    auditLogger.addMemberFailure(result.getGroupEmail(), result.getEmail(), result.getRole()));
+            throw e;
+        }
+        publishAddMemberEntitlementsChangeEvents(pending.acceptedResults, addMemberServiceDto.getRequesterId());
+    }
+
+    private void publishAddMemberEntitlementsChangeEvents(List<BatchAddMemberResultDto> results, String requesterId) {
+        if (eventPublishingEnabled) {
+            long modifiedOn = System.currentTimeMillis();
+            EntitlementsChangeEvent[] events = results.stream()
+                    .map(result -> EntitlementsChangeEvent.builder()
+                            .kind(EntitlementsChangeType.groupChanged)
+                            .group(result.getGroupEmail())
+                            .user(result.getEmail())
+                            .action(EntitlementsChangeAction.add)
+                            .modifiedBy(requesterId)
+                            .modifiedOn(modifiedOn).build())
+                    .toArray(EntitlementsChangeEvent[]::new);
+
+            eventPublisher.publish(events, requestInfo.getHeaders().getHeaders());
+        }
+    }
+
+    private EntityNode createNewMemberNode(String memberEmail, String partitionId) {
+        if (!GroupEmailUtil.isGroupEmail(memberEmail, partitionId, config.getDomain())) {
+            return EntityNode.createMemberNodeForNewUser(memberEmail, partitionId);
+        } else {
+            throw memberGroupNotFound(memberEmail);
+        }
+    }
+
+    private static boolean isEmailOfPartition(String email, String partitionDomain) {
+        try {
+            ApiInputValidation.validateEmailAndBelongsToPartition(email, partitionDomain);
+            return true;
+        } catch (AppException e) {
+            return false;
+        }
+    }
+
+    private void validateRole(EntityNode memberNode, Role role) {
+        if (memberNode.isGroup() && Role.OWNER.equals(role)) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Group can only be MEMBER of another group");
+        }
+    }
+
+    private void validateGroupQuota(String memberEmail, String groupEmail, long parentsInPartition) {
+        if (parentsInPartition >= EntityNode.MAX_PARENTS) {
+            log.error(String.format("Identity %s already belong to %d groups", memberEmail, parentsInPartition));
+            throw new AppException(HttpStatus.PRECONDITION_FAILED.value(), HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), String.format("Identity %s cannot be added to the group %s, as it has reached its group quota of %d groups", memberEmail, groupEmail, EntityNode.MAX_PARENTS));
+        }
+    }
+
+    private AppException memberGroupNotFound(String memberEmail) {
+        return new AppException(HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND.getReasonPhrase(), String.format("Member group %s not found", memberEmail));
+    }
+
+    private AppException groupNotFound(String groupEmail) {
+        return new AppException(HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND.getReasonPhrase(), String.format("Group %s is not found", groupEmail));
+    }
+
+    private AppException notAuthorizedToManageMembers() {
+        return new AppException(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase(), "Not authorized to manage members");
+    }
+
+    private AppException duplicateInRequest(String email) {
+        return new AppException(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(), String.format("%s is requested more than once", email));
+    }
+
+    private AppException alreadyMember(String memberEmail, String groupEmail) {
+        return new AppException(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(), String.format("%s is already a member of group %s", memberEmail, groupEmail));
+    }
+
+    private AppException cyclicMembership() {
+        return new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Cyclic membership is not allowed");
+    }
+
+    private AppException groupSizeQuotaReached(String memberEmail, String groupEmail) {
+        return new AppException(HttpStatus.PRECONDITION_FAILED.value(), HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), String.format("Identity %s cannot be added to the group %s, the group has reached its size quota of %d members", memberEmail, groupEmail, maxGroupSize));
+    }
+
+    private static void reject(BatchAddMemberResultDto result, AppException e) {
+        result.setCode(e.getError().getCode());
+        result.setMessage(e.getError().getMessage());
+    }
+
+    private static Set<String> getParentIds(Iterable<ParentReference> parentReferences) {
+        Set<String> parentIds = new LinkedHashSet<>();
+        parentReferences.forEach(ref -> parentIds.add(ref.getId().toLowerCase()));
+        return parentIds;
+    }
+
+    private static long countParentsInPartition(Set<ParentReference> parentReferences, String partitionId) {
+        return parentReferences.stream().filter(ref -> ref.getDataPartitionId().equalsIgnoreCase(partitionId)).count();
+    }
+
+    private static Set<String> getParentIdsInPartition(Set<ParentReference> parentReferences, String partitionId) {
+        return getParentIds(parentReferences.stream()
+                .filter(ref -> ref.getDataPartitionId().equalsIgnoreCase(partitionId)).toList());
+    }
+
+    private static Set<ParentReference> getParents(Map<String, Set<ParentReference>> parents, EntityNode node) {
+        return parents.getOrDefault(node.getNodeId().toLowerCase(), Collections.emptySet());
+    }
+
+    private boolean groupSizeLimitEnabled(String partitionId) {
+        return partitionFeatureFlagService.getFeature(FeatureFlag.GROUP_SIZE_LIMIT_ENABLED.label, partitionId);
+    }
+
+    private static class PendingMemberships {
+        private final List<BatchAddMemberResultDto> results = new ArrayList<>();
+        private final List<BatchAddMemberResultDto> acceptedResults = new ArrayList<>();
+        private final List<BatchAddMemberRepoDto> memberships = new ArrayList<>();
+
+        private BatchAddMemberResultDto newResult(String groupEmail, String memberEmail, Role role) {
+            BatchAddMemberResultDto result = BatchAddMemberResultDto.builder()
+                    .groupEmail(groupEmail).email(memberEmail).role(role).code(HttpStatus.OK.value()).build();
+            results.add(result);
+            return result;
+        }
+
+        private void accept(BatchAddMemberResultDto result, EntityNode groupNode, AddMemberRepoDto addMemberRepoDto) {
+            acceptedResults.add(result);
+            memberships.add(BatchAddMemberRepoDto.builder().groupNode(groupNode).addMemberRepoDto(addMemberRepoDto).build());
+        }
+
+        private int size() {
+            return memberships.size();
+        }
+    }
+}
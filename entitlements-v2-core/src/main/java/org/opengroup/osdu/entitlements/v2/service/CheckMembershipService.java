@@ -0,0 +1,73 @@
+package org.opengroup.osdu.entitlements.v2.service;
+
+import com.google.common.base.Strings;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipDto;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipResultDto;
+import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CheckMembershipService {
+    private final JaxRsDpsLog log;
+    private final RequestInfo requestInfo;
+    private final RetrieveGroupRepo retrieveGroupRepo;
+    private final GroupsProvider groupsProvider;
+
+    /**
+     * Answers for the requested groups only, as the list groups API would for the same app id: the
+     * groups of the member are looked up by email and only the matching ones are filtered by app id.
+     */
+    public CheckMembershipResponseDto check(String memberEmail, CheckMembershipDto checkMembershipDto,
+                                            String partitionId, String appId) {
+        log.debug(String.format("CheckMembershipService#check timestamp: %d", System.currentTimeMillis()));
+        boolean roleRequired = checkMembershipDto.isRoleRequired();
+        Map<String, ParentReference> groupsByEmail =
+                groupsProvider.getGroupsByEmailInContext(memberEmail, partitionId, roleRequired);
+        Map<String, ParentReference> matchedGroups = new HashMap<>();
+        for (String groupEmail : checkMembershipDto.getGroupEmails()) {
+            ParentReference group = groupsByEmail.get(groupEmail.toLowerCase());
+            if (group != null) {
+                matchedGroups.put(groupEmail.toLowerCase(), group);
+            }
+        }
+        Set<String> accessibleGroups = filterGroupsByAppId(memberEmail, matchedGroups, partitionId, appId);
+        List<CheckMembershipResultDto> results = checkMembershipDto.getGroupEmails().stream()
+                .map(groupEmail -> {
+                    ParentReference group = matchedGroups.get(groupEmail.toLowerCase());
+                    boolean member = group != null && accessibleGroups.contains(groupEmail.toLowerCase());
+                    return CheckMembershipResultDto.builder()
+                            .groupEmail(groupEmail)
+                            .member(member)
+                            .role(member && roleRequired ? group.getRole() : null)
+                            .build();
+                })
+                .collect(Collectors.toList());
+        return CheckMembershipResponseDto.builder()
+                .memberEmail(memberEmail)
+                .results(results)
+                .build();
+    }
+
+    private Set<String> filterGroupsByAppId(String memberEmail, Map<String, ParentReference> matchedGroups,
+                                            String partitionId, String appId) {
+        String serviceAccount = requestInfo.getTenantInfo().getServiceAccount();
+        if (matchedGroups.isEmpty() || serviceAccount.equalsIgnoreCase(memberEmail) || Strings.isNullOrEmpty(appId)) {
+            return matchedGroups.keySet();
+        }
+        return retrieveGroupRepo.filterParentsByAppId(new HashSet<>(matchedGroups.values()), partitionId, appId).stream()
+                .map(group -> group.getId().toLowerCase())
+                .collect(Collectors.toSet());
+    }
+}
@@ -1,6 +1,7 @@
 package org.opengroup.osdu.entitlements.v2.service;
 
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferencesDelta;
 
 import java.util.Set;
 
@@ -14,5 +15,13 @@ public interface GroupCacheService {
 
     void refreshListGroupCache(final Set<String> userIds, String partitionId);
 
+    /**
+     * Brings the cached groups of the impacted users up to date after a member was added to a group.
+     * Providers that cannot patch their entries in place fall back to refreshing them.
+     */
+    default void applyParentReferencesDelta(final Set<String> userIds, String partitionId, ParentReferencesDelta delta) {
+        refreshListGroupCache(userIds, partitionId);
+    }
+
     void flushListGroupCacheForUser(String userId, String partitionId);
 }
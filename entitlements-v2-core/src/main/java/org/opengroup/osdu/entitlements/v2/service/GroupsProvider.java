@@ -18,7 +18,10 @@
 package org.opengroup.osdu.entitlements.v2.service;
 
 
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 
 public interface GroupsProvider {
@@ -29,4 +32,24 @@ public interface GroupsProvider {
     return getGroupsInContext(requesterId, partitionId);
   }
 
+  /**
+   * Names of the groups of the requester, as a set for constant time membership checks.
+   */
+  default Set<String> getGroupNamesInContext(String requesterId, String partitionId) {
+    return getGroupsInContext(requesterId, partitionId).stream()
+        .map(ParentReference::getName)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Groups of the requester indexed by their lower case email, for constant time membership
+   * checks of given groups.
+   */
+  default Map<String, ParentReference> getGroupsByEmailInContext(String requesterId, String partitionId,
+      Boolean roleRequired) {
+    return getGroupsInContext(requesterId, partitionId, roleRequired).stream()
+        .collect(Collectors.toMap(group -> group.getId().toLowerCase(), Function.identity(),
+            (first, second) -> first));
+  }
+
 }
@@ -12,6 +12,7 @@ import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupOnBehalfOfSer
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupServiceDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.stereotype.Service;
 
@@ -40,9 +41,11 @@ public class ListGroupOnBehalfOfService {
         return listGroupResponse;
     }
 
-    public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor, Integer limit) {
-        log.info(String.format("requesting groups for partition: %s with type: %s cursor: %s and limit: %s", dataPartitionId, groupType, cursor, limit));
-        return retrieveGroupRepo.getGroupsInPartition(dataPartitionId, groupType, cursor, limit);
+    public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor, Integer limit,
+                                                         PaginationMode paginationMode, boolean includeTotalCount) {
+        log.info(String.format("requesting groups for partition: %s with type: %s cursor: %s limit: %s and pagination: %s",
+                dataPartitionId, groupType, cursor, limit, paginationMode));
+        return retrieveGroupRepo.getGroupsInPartition(dataPartitionId, groupType, cursor, limit, paginationMode, includeTotalCount);
     }
 
     private ListGroupResponseDto filterGroups(Set<ParentReference> parents, GroupType groupType, String memberId) {
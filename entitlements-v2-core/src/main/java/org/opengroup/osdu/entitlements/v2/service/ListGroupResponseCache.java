@@ -0,0 +1,175 @@
+//  Copyright © Microsoft Corporation
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+
+package org.opengroup.osdu.entitlements.v2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
+import org.opengroup.osdu.entitlements.v2.util.ETagUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the rendered JSON body of the list groups responses, along with their ETag, so that the
+ * repeated requests of a member are answered without loading and serializing its parent
+ * references again. Enabled with list-group.response-cache.enabled, only for the requests on a
+ * single partition.
+ *
+ * <p>The entries are held by each pod and grouped by member and partition: flushing the cached
+ * groups of a member drops all of its responses. An entry rendered while the member is flushed is
+ * not kept. The other pods only drop theirs when the provider broadcasts the flush, otherwise the
+ * entries expire after list-group.response-cache.expiration-seconds.
+ */
+@Component
+public class ListGroupResponseCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    @Value("${list-group.response-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${list-group.response-cache.maximum-bytes:67108864}")
+    private long maximumBytes;
+
+    @Value("${list-group.response-cache.expiration-seconds:5}")
+    private long expirationSeconds;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private Cache<String, Map<Variant, RenderedResponse>> responses;
+
+    @PostConstruct
+    void init() {
+        responses = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String memberKey, Map<Variant, RenderedResponse> variants) -> (int) Math.min(
+                        Integer.MAX_VALUE, variants.values().stream().mapToLong(r -> r.body().length).sum()))
+                .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public boolean isCacheable(List<String> partitionIds) {
+        return enabled && partitionIds.size() == 1;
+    }
+
+    public Optional<RenderedResponse> get(Key key) {
+        Map<Variant, RenderedResponse> variants = responses.getIfPresent(key.memberKey());
+        return variants == null ? Optional.empty() : Optional.ofNullable(variants.get(key.variant()));
+    }
+
+    /**
+     * @return the version to give back to {@link #put(Key, long, ListGroupResponseDto)}, taken
+     * before the groups of the member are loaded
+     */
+    public long getVersion(Key key) {
+        return versions.get(stripe(key.memberKey()));
+    }
+
+    /**
+     * Renders the body and keeps it, unless the member was flushed since the version was taken.
+     */
+    public RenderedResponse put(Key key, long version, ListGroupResponseDto body) {
+        RenderedResponse rendered = render(body);
+        String memberKey = key.memberKey();
+        responses.asMap().compute(memberKey, (k, variants) -> withVariant(variants, key.variant(), rendered));
+        if (versions.get(stripe(memberKey)) != version) {
+            responses.asMap().computeIfPresent(memberKey, (k, variants) -> withoutVariant(variants, key.variant()));
+        }
+        return rendered;
+    }
+
+    public void invalidate(String memberId, String partitionId) {
+        invalidate(memberKey(memberId, partitionId));
+    }
+
+    /**
+     * @param memberKey the unique identifier of the member node, as used in the provider cache keys
+     */
+    public void invalidate(String memberKey) {
+        versions.incrementAndGet(stripe(memberKey));
+        responses.invalidate(memberKey);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        responses.invalidateAll();
+    }
+
+    private RenderedResponse render(ListGroupResponseDto body) {
+        try {
+            return new RenderedResponse(objectMapper.writeValueAsBytes(body), ETagUtil.of(body));
+        } catch (JsonProcessingException e) {
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(),
+                    "Unable to render the list groups response", e);
+        }
+    }
+
+    private static Map<Variant, RenderedResponse> withVariant(Map<Variant, RenderedResponse> variants, Variant variant,
+                                                              RenderedResponse rendered) {
+        Map<Variant, RenderedResponse> updated = variants == null ? new HashMap<>() : new HashMap<>(variants);
+        updated.put(variant, rendered);
+        return updated;
+    }
+
+    private static Map<Variant, RenderedResponse> withoutVariant(Map<Variant, RenderedResponse> variants, Variant variant) {
+        Map<Variant, RenderedResponse> updated = new HashMap<>(variants);
+        updated.remove(variant);
+        return updated.isEmpty() ? null : updated;
+    }
+
+    private static int stripe(String memberKey) {
+        return Math.floorMod(memberKey.hashCode(), VERSION_STRIPES);
+    }
+
+    private static String memberKey(String memberId, String partitionId) {
+        return String.format("%s-%s", memberId.toLowerCase(), partitionId);
+    }
+
+    public record Key(String memberId, String partitionId, boolean roleRequired, String appId) {
+
+        String memberKey() {
+            return ListGroupResponseCache.memberKey(memberId, partitionId);
+        }
+
+        Variant variant() {
+            return new Variant(roleRequired, Objects.toString(appId, ""));
+        }
+    }
+
+    public record RenderedResponse(byte[] body, String eTag) {
+    }
+
+    private record Variant(boolean roleRequired, String appId) {
+    }
+}
@@ -15,7 +15,10 @@
 package org.opengroup.osdu.entitlements.v2.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 
@@ -25,6 +28,23 @@ public interface MemberCacheService {
         return new ArrayList<ChildrenReference>();
     }
 
+    /**
+     * Returns the number of direct members of the group, users and groups, used for the group size quota.
+     * Implementations should answer from a count instead of loading the members.
+     */
+    default int getGroupSize(String groupId, String partitionId) {
+        return getFromPartitionCache(groupId, partitionId).size();
+    }
+
+    /**
+     * Returns the size of every given group, as {@link #getGroupSize(String, String)} does.
+     */
+    default Map<String, Integer> getGroupSizes(Collection<String> groupIds, String partitionId) {
+        Map<String, Integer> groupSizes = new HashMap<>();
+        groupIds.forEach(groupId -> groupSizes.put(groupId, getGroupSize(groupId, partitionId)));
+        return groupSizes;
+    }
+
     default void flushListMemberCacheForGroup(String groupId, String partitionId){
     }
 }
\ No newline at end of file
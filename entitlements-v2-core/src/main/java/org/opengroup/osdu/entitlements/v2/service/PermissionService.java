@@ -14,6 +14,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 @Service
 public class PermissionService {
 
@@ -38,6 +43,45 @@ public class PermissionService {
         }
     }
 
+    /**
+     * Verifies the requester can manage members of every group. The requester's service account and
+     * ops permissions are resolved once for all the groups.
+     */
+    public void verifyCanManageMembers(final EntityNode requestNode, final Collection<EntityNode> groups) {
+        if (requestNode.getNodeId().equalsIgnoreCase(requestInfo.getTenantInfo().getServiceAccount()) || isCallerHasOpsPermissions()) {
+            return;
+        }
+        final String rootGroupId = String.format(EntityNode.ROOT_DATA_GROUP_EMAIL_FORMAT,
+                requestInfoUtilService.getDomain(requestNode.getDataPartitionId()));
+        for (EntityNode group : groups) {
+            if (!hasOwnerPermissionOf(requestNode, group, rootGroupId)) {
+                throw new AppException(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase(), "Not authorized to manage members");
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the groups whose members the requester cannot manage, for the callers reporting them
+     * one by one. The requester's service account, ops and data root permissions are resolved once for all the
+     * groups.
+     */
+    public Set<String> getGroupsNotManageableBy(final EntityNode requestNode, final Collection<EntityNode> groups) {
+        if (requestNode.getNodeId().equalsIgnoreCase(requestInfo.getTenantInfo().getServiceAccount()) || isCallerHasOpsPermissions()) {
+            return Collections.emptySet();
+        }
+        final boolean dataRoot = groups.stream().anyMatch(group -> group.isDataGroup() || group.isUserGroup())
+                && isCallerHasDataRootPermissions();
+        Set<String> notManageable = new HashSet<>();
+        for (EntityNode group : groups) {
+            boolean manageable = (dataRoot && (group.isDataGroup() || group.isUserGroup()))
+                    || Boolean.TRUE.equals(retrieveGroupRepo.hasDirectChild(group, ChildrenReference.createChildrenReference(requestNode, Role.OWNER)));
+            if (!manageable) {
+                notManageable.add(group.getNodeId());
+            }
+        }
+        return notManageable;
+    }
+
     /**
      * Returns true if requestNode id is same as internalService account
      * Returns true if requestNode has owner permissions of group
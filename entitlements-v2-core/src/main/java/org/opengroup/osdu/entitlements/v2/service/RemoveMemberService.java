@@ -38,7 +38,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -108,7 +112,58 @@ public class RemoveMemberService {
         }
     }
 
+    /**
+     * Remove a member from all its direct parent groups of the data partition with a single repository call.
+     * Every membership is checked before anything is removed, and the removal is audited and published as one batch.
+     * The elementary data partition users group rule does not apply as the member leaves all the groups at once.
+     * @return a set of ids of impacted users
+     */
+    public Set<String> removeMemberFromAllGroups(RemoveMemberServiceDto removeMemberServiceDto, AuditOperation auditOperation) {
+        log.debug(String.format("requested by %s", removeMemberServiceDto.getRequesterId()));
+        String memberEmail = removeMemberServiceDto.getMemberEmail();
+        String partitionId = removeMemberServiceDto.getPartitionId();
+        Map<String, EntityNode> groupNodesById = new LinkedHashMap<>();
+        retrieveGroupRepo.loadDirectParents(partitionId, memberEmail)
+                .forEach(ref -> groupNodesById.putIfAbsent(ref.getId(), EntityNode.createNodeFromParentReference(ref)));
+        if (groupNodesById.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<EntityNode> groupNodes = new ArrayList<>(groupNodesById.values());
+        List<String> groupEmails = new ArrayList<>(groupNodesById.keySet());
+
+        EntityNode requesterNode = EntityNode.createMemberNodeForRequester(removeMemberServiceDto.getRequesterId(), partitionId);
+        permissionService.verifyCanManageMembers(requesterNode, groupNodes);
+        EntityNode memberNode = retrieveGroupRepo.getMemberNodeForRemovalFromGroup(memberEmail, partitionId);
+        groupNodes.forEach(groupNode -> checkIfMemberIsProtected(groupNode.getNodeId(), memberEmail, groupNode, memberNode));
+
+        try {
+            Set<String> impactedUsers = removeMemberRepo.removeMemberFromAllGroups(memberNode, groupNodes, removeMemberServiceDto);
+            groupCacheService.refreshListGroupCache(impactedUsers, partitionId);
+            groupEmails.forEach(groupEmail -> memberCacheService.flushListMemberCacheForGroup(groupEmail, partitionId));
+            auditLogger.removeMemberFromGroupsSuccess(groupEmails, memberEmail, removeMemberServiceDto.getRequesterId(), auditOperation);
+            publishRemoveMemberEntitlementsChangeEvents(groupEmails, removeMemberServiceDto);
+            return impactedUsers;
+        } catch (Exception e) {
+            auditLogger.removeMemberFromGroupsFailure(groupEmails, memberEmail, removeMemberServiceDto.getRequesterId(), auditOperation);
+            throw e;
+        }
+    }
+
     private void checkIfMemberCanBeRemoved(String groupEmail, String memberEmail, EntityNode existingGroupEntityNode, EntityNode memberNode) {
+        checkIfMemberIsProtected(groupEmail, memberEmail, existingGroupEntityNode, memberNode);
+
+        //Removing a user from elementary data partition is not allowed unless it's the last group to be deleted
+        //ADR: https://community.opengroup.org/osdu/platform/security-and-compliance/entitlements/-/issues/162
+        if((groupEmail.equals(
+                bootstrapGroupsConfigurationService.getElementaryDataPartitionUsersGroup(memberNode.getDataPartitionId()))
+                && getDirectParentsEmails(memberNode.getDataPartitionId(), memberEmail).size() > 1)){
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    String.format("Member %s cannot be removed from elementary data partition group %s, since the user is still provisioned inside other groups. Please use Delete Member API to remove the user from all the groups.",
+                            memberEmail, groupEmail));
+        }
+    }
+
+    private void checkIfMemberIsProtected(String groupEmail, String memberEmail, EntityNode existingGroupEntityNode, EntityNode memberNode) {
         if (serviceAccountsConfigurationService.isMemberProtectedServiceAccount(memberNode, existingGroupEntityNode)) {
             throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(),
                     String.format("Key service accounts hierarchy is enforced, %s cannot be removed from group %s", memberEmail, groupEmail));
@@ -124,16 +179,6 @@ public class RemoveMemberService {
                     String.format("Bootstrap group hierarchy is enforced, member %s cannot be removed from group %s",
                             memberNode.getName(), existingGroupEntityNode.getName()));
         }
-
-        //Removing a user from elementary data partition is not allowed unless it's the last group to be deleted
-        //ADR: https://community.opengroup.org/osdu/platform/security-and-compliance/entitlements/-/issues/162
-        if((groupEmail.equals(
-                bootstrapGroupsConfigurationService.getElementaryDataPartitionUsersGroup(memberNode.getDataPartitionId()))
-                && getDirectParentsEmails(memberNode.getDataPartitionId(), memberEmail).size() > 1)){
-            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(),
-                    String.format("Member %s cannot be removed from elementary data partition group %s, since the user is still provisioned inside other groups. Please use Delete Member API to remove the user from all the groups.",
-                            memberEmail, groupEmail));
-        }
     }
 
     private void publishRemoveMemberEntitlementsChangeEvent(RemoveMemberServiceDto removeMemberServiceDto) {
@@ -149,6 +194,22 @@ public class RemoveMemberService {
         }
     }
 
+    private void publishRemoveMemberEntitlementsChangeEvents(List<String> groupEmails, RemoveMemberServiceDto removeMemberServiceDto) {
+        if (eventPublishingEnabled) {
+            long modifiedOn = System.currentTimeMillis();
+            EntitlementsChangeEvent[] events = groupEmails.stream()
+                    .map(groupEmail -> EntitlementsChangeEvent.builder()
+                            .kind(EntitlementsChangeType.groupChanged)
+                            .group(groupEmail)
+                            .user(removeMemberServiceDto.getMemberEmail())
+                            .action(EntitlementsChangeAction.remove)
+                            .modifiedBy(removeMemberServiceDto.getRequesterId())
+                            .modifiedOn(modifiedOn).build())
+                    .toArray(EntitlementsChangeEvent[]::new);
+            eventPublisher.publish(events, requestInfo.getHeaders().getHeaders());
+        }
+    }
+
     private boolean violateDataRootGroupHierarchy(EntityNode memberNode, EntityNode existingGroupEntityNode, String dataPartitionId) {
         return !this.partitionFeatureFlagService.getFeature(FeatureFlag.DISABLE_DATA_ROOT_GROUP_HIERARCHY.label, dataPartitionId)
             && memberNode.isUsersDataRootGroup() && existingGroupEntityNode.isDataGroup();
@@ -17,19 +17,25 @@
 
 package org.opengroup.osdu.entitlements.v2.service;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
+/**
+ * Memoizes the groups of the requester for the duration of a request. The maps are concurrent so
+ * that the bean stays safe when a request fans its work out to other threads.
+ */
 @Component
 @RequestScope
 @RequiredArgsConstructor
 public class RequestScopeGroupsProviderImpl implements GroupsProvider {
-  private final Map<String, Set<ParentReference>> groupMap = new HashMap<>();
+  private final Map<String, Set<ParentReference>> groupMap = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> groupNameMap = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, ParentReference>> groupByEmailMap = new ConcurrentHashMap<>();
   private final GroupCacheService groupCacheService;
 
   @Override
@@ -43,8 +49,41 @@ public class RequestScopeGroupsProviderImpl implements GroupsProvider {
     Set<ParentReference> groups = groupMap.get(mapKey);
     if (groups == null || groups.isEmpty()) {
       groups = groupCacheService.getFromPartitionCache(requesterId, partitionId, roleRequired);
-      groupMap.put(mapKey, groups);
+      if (groups != null) {
+        groupMap.put(mapKey, groups);
+      }
     }
     return groups;
   }
+
+  /**
+   * Indexes the group names once per request, so that the authorization checks of the request do not
+   * scan the groups of the requester again.
+   */
+  @Override
+  public Set<String> getGroupNamesInContext(String requesterId, String partitionId) {
+    String mapKey = requesterId + "-" + partitionId;
+    Set<String> groupNames = groupNameMap.get(mapKey);
+    if (groupNames == null) {
+      groupNames = GroupsProvider.super.getGroupNamesInContext(requesterId, partitionId);
+      if (!groupNames.isEmpty()) {
+        groupNameMap.put(mapKey, groupNames);
+      }
+    }
+    return groupNames;
+  }
+
+  @Override
+  public Map<String, ParentReference> getGroupsByEmailInContext(String requesterId, String partitionId,
+      Boolean roleRequired) {
+    String mapKey = Boolean.TRUE==roleRequired ? requesterId + "-" + partitionId + "-role" : requesterId + "-" + partitionId;
+    Map<String, ParentReference> groupsByEmail = groupByEmailMap.get(mapKey);
+    if (groupsByEmail == null) {
+      groupsByEmail = GroupsProvider.super.getGroupsByEmailInContext(requesterId, partitionId, roleRequired);
+      if (!groupsByEmail.isEmpty()) {
+        groupByEmailMap.put(mapKey, groupsByEmail);
+      }
+    }
+    return groupsByEmail;
+  }
 }
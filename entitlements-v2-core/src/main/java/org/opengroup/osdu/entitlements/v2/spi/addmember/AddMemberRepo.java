@@ -1,10 +1,13 @@
 package org.opengroup.osdu.entitlements.v2.spi.addmember;
 
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.spi.Operation;
 
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public interface AddMemberRepo {
@@ -23,4 +26,21 @@ public interface AddMemberRepo {
      * For null-safe, never returns null, instead of it returns an empty set.
      */
     Set<String> addMember(Deque<Operation> executedCommandsDeque, EntityNode groupEntityNode, AddMemberRepoDto addMemberRepoDto);
+
+    /**
+     * Adds several memberships at once. The memberships are expected to be validated by the caller.
+     * <p>
+     * Returns the union of impacted users, they should be explicitly processed to refresh the cache.
+     * For null-safe, never returns null, instead of it returns an empty set.
+     * <p>
+     * The default implementation adds the memberships one by one, providers should override it
+     * with a set-based write that reverts all changes made in case of unexpected error.
+     */
+    default Set<String> addMembers(List<BatchAddMemberRepoDto> memberships) {
+        Set<String> impactedUsers = new HashSet<>();
+        for (BatchAddMemberRepoDto membership : memberships) {
+            impactedUsers.addAll(addMember(membership.getGroupNode(), membership.getAddMemberRepoDto()));
+        }
+        return impactedUsers;
+    }
 }
@@ -3,6 +3,22 @@ package org.opengroup.osdu.entitlements.v2.spi.memberscount;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountServiceDto;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface MembersCountRepo {
     MembersCountResponseDto getMembersCount(MembersCountServiceDto membersCountServiceDto);
+
+    /**
+     * Returns the number of members of every given group, of all roles, by group email.
+     */
+    default Map<String, Integer> getMembersCounts(String partitionId, Collection<String> groupIds) {
+        Map<String, Integer> membersCounts = new HashMap<>();
+        groupIds.forEach(groupId -> membersCounts.put(groupId, getMembersCount(MembersCountServiceDto.builder()
+                .groupId(groupId)
+                .partitionId(partitionId)
+                .build()).getMembersCount()));
+        return membersCounts;
+    }
 }
@@ -3,6 +3,8 @@ package org.opengroup.osdu.entitlements.v2.spi.removemember;
 import org.opengroup.osdu.entitlements.v2.model.removemember.RemoveMemberServiceDto;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public interface RemoveMemberRepo {
@@ -12,4 +14,29 @@ public interface RemoveMemberRepo {
      * For null-safe, never returns null, instead of it returns an empty set.
      */
     Set<String> removeMember(EntityNode groupNode, EntityNode memberNode, RemoveMemberServiceDto removeMemberServiceDto);
+
+    /**
+     * Removes the member from all its direct parent groups of the data partition, the given group nodes.
+     * The memberships are expected to be validated by the caller.
+     * <p>
+     * Returns the union of impacted users, they should be explicitly processed to refresh the cache.
+     * For null-safe, never returns null, instead of it returns an empty set.
+     * <p>
+     * The default implementation removes the memberships one by one, providers should override it
+     * with a single write.
+     */
+    default Set<String> removeMemberFromAllGroups(EntityNode memberNode, List<EntityNode> groupNodes,
+                                                  RemoveMemberServiceDto removeMemberServiceDto) {
+        Set<String> impactedUsers = new HashSet<>();
+        for (EntityNode groupNode : groupNodes) {
+            RemoveMemberServiceDto groupRemoveMemberServiceDto = RemoveMemberServiceDto.builder()
+                    .groupEmail(groupNode.getNodeId())
+                    .memberEmail(removeMemberServiceDto.getMemberEmail())
+                    .requesterId(removeMemberServiceDto.getRequesterId())
+                    .partitionId(removeMemberServiceDto.getPartitionId())
+                    .build();
+            impactedUsers.addAll(removeMember(groupNode, memberNode, groupRemoveMemberServiceDto));
+        }
+        return impactedUsers;
+    }
 }
@@ -3,8 +3,11 @@ package org.opengroup.osdu.entitlements.v2.spi.retrievegroup;
 import org.apache.commons.lang3.NotImplementedException;
 import org.opengroup.osdu.entitlements.v2.model.*;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +22,16 @@ public interface RetrieveGroupRepo {
 
     Set<EntityNode> getEntityNodes(String partitionId, List<String> nodeIds);
 
+    /**
+     * Returns the existing groups among the given emails, by email. Implementations should load them at once.
+     */
+    default Map<String, EntityNode> getGroupNodes(String partitionId, Collection<String> groupEmails) {
+        Map<String, EntityNode> groupNodes = new HashMap<>();
+        groupEmails.forEach(groupEmail -> getEntityNode(groupEmail, partitionId)
+                .ifPresent(groupNode -> groupNodes.put(groupEmail, groupNode)));
+        return groupNodes;
+    }
+
     Map<String, Set<String>> getUserPartitionAssociations(Set<String> userIds);
 
     Set<EntityNode> getAllGroupNodes(String partitionId, String partitionDomain);
@@ -39,6 +52,36 @@ public interface RetrieveGroupRepo {
         return loadAllParents(memberNode);
     }
 
+    /**
+     * Returns the parents of every given node by lower-cased node id, as {@link #loadAllParents(EntityNode)} does.
+     * Implementations should load them at once.
+     */
+    default Map<String, Set<ParentReference>> loadAllParentsOfNodes(Collection<EntityNode> nodes) {
+        Map<String, Set<ParentReference>> parents = new HashMap<>();
+        nodes.forEach(node -> parents.computeIfAbsent(node.getNodeId().toLowerCase(),
+                nodeId -> loadAllParents(node).getParentReferences()));
+        return parents;
+    }
+
+    /**
+     * Returns true if the target node is the source node itself or one of its parents, direct or inherited.
+     * Implementations should stop as soon as the target is found instead of loading all the parents.
+     */
+    default boolean isReachable(EntityNode from, EntityNode to) {
+        return from.getNodeId().equalsIgnoreCase(to.getNodeId()) || loadAllParents(from).getParentReferences().stream()
+                .anyMatch(ref -> ref.getId().equalsIgnoreCase(to.getNodeId()));
+    }
+
+    /**
+     * Returns the number of parents of given node, direct or inherited, belonging to the given data partition,
+     * counted the same way as {@link #loadAllParents(EntityNode)}.
+     */
+    default long countAncestors(EntityNode node, String partitionId) {
+        return loadAllParents(node).getParentReferences().stream()
+                .filter(ref -> ref.getDataPartitionId().equalsIgnoreCase(partitionId))
+                .count();
+    }
+
     List<ChildrenReference> loadDirectChildren(String partitionId, String... nodeId);
 
     ChildrenTreeDto loadAllChildrenUsers(EntityNode node);
@@ -53,6 +96,16 @@ public interface RetrieveGroupRepo {
 
     ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor, Integer limit);
 
+    /**
+     * @param includeTotalCount false when the caller does not need the total count, so that it does not have to be
+     *                          computed
+     */
+    default ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor,
+                                                          Integer limit, PaginationMode paginationMode,
+                                                          boolean includeTotalCount) {
+        return getGroupsInPartition(dataPartitionId, groupType, cursor, limit);
+    }
+
     default MembersCountResponseDto getMembersCount(String partitionId, String groupId, Role role) {
         throw new NotImplementedException();
     }
@@ -0,0 +1,64 @@
+package org.opengroup.osdu.entitlements.v2.util;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.listmember.ListMemberResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.listmember.MemberDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Computes the ETag of the listing responses from their serialized fields. The listed groups and
+ * members come from sets, so the hash does not depend on their order: the same content gives the
+ * same ETag on every pod and after every cache rebuild. The ETags are weak as the bodies may list
+ * them in a different order.
+ */
+public final class ETagUtil {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final char SEPARATOR = '\u0000';
+
+    private ETagUtil() {
+    }
+
+    public static String of(ListGroupResponseDto response) {
+        List<HashCode> groups = new ArrayList<>();
+        if (response.getGroups() != null) {
+            for (ParentReference group : response.getGroups()) {
+                groups.add(hash(group.getId(), group.getName(), group.getDescription(), group.getRole()));
+            }
+        }
+        return toETag(hash(response.getDesId(), response.getMemberEmail()), groups);
+    }
+
+    public static String of(ListMemberResponseDto response) {
+        List<HashCode> members = new ArrayList<>();
+        if (response.getMembers() != null) {
+            for (MemberDto member : response.getMembers()) {
+                members.add(hash(member.getEmail(), member.getRole(), member.getMemberType(), member.getDataPartitionId()));
+            }
+        }
+        return toETag(hash(), members);
+    }
+
+    private static HashCode hash(Object... fields) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (Object field : fields) {
+            hasher.putString(Objects.toString(field, ""), StandardCharsets.UTF_8).putChar(SEPARATOR);
+        }
+        return hasher.hash();
+    }
+
+    private static String toETag(HashCode header, List<HashCode> elements) {
+        HashCode content = elements.isEmpty() ? header
+                : Hashing.combineOrdered(List.of(header, Hashing.combineUnordered(elements)));
+        return "W/\"" + content + "\"";
+    }
+}
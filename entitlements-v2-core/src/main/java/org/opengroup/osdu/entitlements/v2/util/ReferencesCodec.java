@@ -0,0 +1,330 @@
+package org.opengroup.osdu.entitlements.v2.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReferences;
+import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary format of the cached references, much smaller than their JSON form for users with thousands of
+ * groups: every distinct string (group name, email domain, description, partition id, app id, role) is stored once
+ * in a dictionary and referenced by index, and all the numbers are varints.
+ * Emails are split at '@' so that the name and the partition domain of a group email are dictionary entries shared
+ * with the other references.
+ * <p>
+ * Layout: magic, version, kind, flags, [uncompressed body length if deflated], body. The body is the dictionary
+ * (count, then length and UTF-8 bytes of each string) followed by the references. Every string field is written as
+ * its dictionary index plus one, zero standing for null. Decoders must keep reading every version written so far.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ReferencesCodec {
+
+    public static final int NO_COMPRESSION = -1;
+
+    private static final byte MAGIC = (byte) 0xE7;
+    private static final byte VERSION_1 = 1;
+    private static final byte KIND_PARENTS = 1;
+    private static final byte KIND_CHILDREN = 2;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int HEADER_LENGTH = 4;
+
+    /**
+     * @return true if the bytes were written by this codec, any version
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    /**
+     * @param compressionThreshold body size from which the body is deflated, {@link #NO_COMPRESSION} to never deflate
+     */
+    public static byte[] encode(ParentReferences parentReferences, int compressionThreshold) {
+        Writer writer = new Writer();
+        Set<ParentReference> references = parentReferences.getParentReferencesOfUser();
+        writer.writeCount(references);
+        if (references != null) {
+            for (ParentReference reference : references) {
+                writer.writeString(reference.getName());
+                writer.writeEmail(reference.getId());
+                writer.writeString(reference.getDescription());
+                writer.writeString(reference.getDataPartitionId());
+                writer.writeString(reference.getRole());
+                writer.writeCount(reference.getAppIds());
+                if (reference.getAppIds() != null) {
+                    for (String appId : reference.getAppIds()) {
+                        writer.writeString(appId);
+                    }
+                }
+            }
+        }
+        return writer.toByteArray(KIND_PARENTS, compressionThreshold);
+    }
+
+    public static byte[] encode(ChildrenReferences childrenReferences, int compressionThreshold) {
+        Writer writer = new Writer();
+        List<ChildrenReference> references = childrenReferences.getChildReferencesOfGroup();
+        writer.writeCount(references);
+        if (references != null) {
+            for (ChildrenReference reference : references) {
+                writer.writeEmail(reference.getId());
+                writer.writeString(reference.getDataPartitionId());
+                writer.writeString(reference.getType() == null ? null : reference.getType().name());
+                writer.writeString(reference.getRole() == null ? null : reference.getRole().name());
+            }
+        }
+        return writer.toByteArray(KIND_CHILDREN, compressionThreshold);
+    }
+
+    public static ParentReferences decodeParentReferences(byte[] bytes) {
+        Reader reader = Reader.of(bytes, KIND_PARENTS);
+        ParentReferences parentReferences = new ParentReferences();
+        int count = reader.readCount();
+        if (count < 0) {
+            return parentReferences;
+        }
+        Set<ParentReference> references = new HashSet<>(Math.max(16, (int) (Math.min(count, bytes.length) / .75f) + 1));
+        for (int i = 0; i < count; i++) {
+            ParentReference reference = new ParentReference();
+            reference.setName(reader.readString());
+            reference.setId(reader.readEmail());
+            reference.setDescription(reader.readString());
+            reference.setDataPartitionId(reader.readString());
+            reference.setRole(reader.readString());
+            int appIdCount = reader.readCount();
+            Set<String> appIds = appIdCount < 0 ? null : new HashSet<>();
+            for (int j = 0; j < appIdCount; j++) {
+                appIds.add(reader.readString());
+            }
+            reference.setAppIds(appIds);
+            references.add(reference);
+        }
+        parentReferences.setParentReferencesOfUser(references);
+        return parentReferences;
+    }
+
+    public static ChildrenReferences decodeChildrenReferences(byte[] bytes) {
+        Reader reader = Reader.of(bytes, KIND_CHILDREN);
+        ChildrenReferences childrenReferences = new ChildrenReferences();
+        int count = reader.readCount();
+        if (count < 0) {
+            return childrenReferences;
+        }
+        List<ChildrenReference> references = new ArrayList<>(Math.min(count, bytes.length));
+        for (int i = 0; i < count; i++) {
+            ChildrenReference reference = new ChildrenReference();
+            reference.setId(reader.readEmail());
+            reference.setDataPartitionId(reader.readString());
+            String type = reader.readString();
+            reference.setType(type == null ? null : NodeType.valueOf(type));
+            String role = reader.readString();
+            reference.setRole(role == null ? null : Role.valueOf(role));
+            references.add(reference);
+        }
+        childrenReferences.setChildReferencesOfGroup(references);
+        return childrenReferences;
+    }
+
+    private static class Writer {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final VarintOutputStream references = new VarintOutputStream();
+
+        void writeCount(Collection<?> collection) {
+            references.writeVarint(collection == null ? 0 : collection.size() + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                references.writeVarint(0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                dictionary.put(value, index);
+            }
+            references.writeVarint(index + 1);
+        }
+
+        void writeEmail(String email) {
+            int at = email == null ? -1 : email.lastIndexOf('@');
+            if (at < 0) {
+                writeString(email);
+                writeString(null);
+            } else {
+                writeString(email.substring(0, at));
+                writeString(email.substring(at + 1));
+            }
+        }
+
+        byte[] toByteArray(byte kind, int compressionThreshold) {
+            VarintOutputStream body = new VarintOutputStream();
+            body.writeVarint(strings.size());
+            for (String value : strings) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                body.writeVarint(utf8.length);
+                body.write(utf8, 0, utf8.length);
+            }
+            references.writeTo(body);
+            byte[] bodyBytes = body.toByteArray();
+
+            boolean deflate = compressionThreshold != NO_COMPRESSION && bodyBytes.length >= compressionThreshold;
+            VarintOutputStream out = new VarintOutputStream();
+            out.write(MAGIC);
+            out.write(VERSION_1);
+            out.write(kind);
+            out.write(deflate ? FLAG_DEFLATED : 0);
+            if (deflate) {
+                out.writeVarint(bodyBytes.length);
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    deflater.setInput(bodyBytes);
+                    deflater.finish();
+                    byte[] buffer = new byte[4096];
+                    while (!deflater.finished()) {
+                        out.write(buffer, 0, deflater.deflate(buffer));
+                    }
+                } finally {
+                    deflater.end();
+                }
+            } else {
+                out.write(bodyBytes, 0, bodyBytes.length);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int position;
+        private String[] strings;
+
+        private Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        static Reader of(byte[] bytes, byte kind) {
+            if (!isEncoded(bytes)) {
+                throw new IllegalArgumentException("Not an encoded references value");
+            }
+            if (bytes[1] != VERSION_1) {
+                throw new IllegalArgumentException("Unsupported references encoding version " + bytes[1]);
+            }
+            if (bytes[2] != kind) {
+                throw new IllegalArgumentException("Unexpected references kind " + bytes[2]);
+            }
+            Reader reader = new Reader(bytes, HEADER_LENGTH);
+            if ((bytes[3] & FLAG_DEFLATED) != 0) {
+                reader = new Reader(inflate(bytes, reader.readVarint(), reader.position), 0);
+            }
+            reader.readDictionary();
+            return reader;
+        }
+
+        private static byte[] inflate(byte[] bytes, int length, int offset) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(bytes, offset, bytes.length - offset);
+                byte[] body = new byte[length];
+                int inflated = 0;
+                while (inflated < length && !inflater.finished()) {
+                    int read = inflater.inflate(body, inflated, length - inflated);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += read;
+                }
+                if (inflated != length) {
+                    throw new IllegalArgumentException("Truncated references value");
+                }
+                return body;
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Corrupted references value", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private void readDictionary() {
+            strings = new String[readVarint()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarint();
+                if (length > bytes.length - position) {
+                    throw new IllegalArgumentException("Truncated references value");
+                }
+                strings[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        /**
+         * @return the size of the collection, -1 if it was null
+         */
+        int readCount() {
+            return readVarint() - 1;
+        }
+
+        String readString() {
+            int index = readVarint();
+            if (index > strings.length) {
+                throw new IllegalArgumentException("Invalid dictionary index " + index);
+            }
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        String readEmail() {
+            String localPart = readString();
+            String domain = readString();
+            return domain == null ? localPart : localPart + "@" + domain;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IllegalArgumentException("Truncated references value");
+                }
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+
+    private static class VarintOutputStream extends ByteArrayOutputStream {
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeTo(VarintOutputStream other) {
+            other.write(buf, 0, count);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.opengroup.osdu.entitlements.v2.model.GroupType;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupOnBehalfOfServiceDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.service.ListGroupOnBehalfOfService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -268,6 +269,42 @@ public class ListGroupOnBehalfOfApiTest {
                 .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(expectedResult));
     }
 
+    @Test
+    public void should_listAllPartitionGroups_withOffsetPaginationAndTotalCountByDefault() throws Exception {
+        mockMvc.perform(get("/groups/all")
+                .header(DpsHeaders.AUTHORIZATION, "Bearer token")
+                .header(DpsHeaders.DATA_PARTITION_ID, "dp")
+                .queryParam("type", GroupType.NONE.toString())
+                .queryParam("cursor", "100"))
+                .andExpect(status().isOk());
+
+        verify(service).getGroupsInPartition("dp", GroupType.NONE, "100", 100, PaginationMode.OFFSET, true);
+    }
+
+    @Test
+    public void should_listAllPartitionGroups_withKeysetPagination() throws Exception {
+        mockMvc.perform(get("/groups/all")
+                .header(DpsHeaders.AUTHORIZATION, "Bearer token")
+                .header(DpsHeaders.DATA_PARTITION_ID, "dp")
+                .queryParam("type", GroupType.DATA.toString())
+                .queryParam("limit", "10")
+                .queryParam("pagination", "keyset")
+                .queryParam("includeTotalCount", "false"))
+                .andExpect(status().isOk());
+
+        verify(service).getGroupsInPartition("dp", GroupType.DATA, null, 10, PaginationMode.KEYSET, false);
+    }
+
+    @Test
+    public void should_return400_givenUnknownPagination() throws Exception {
+        mockMvc.perform(get("/groups/all")
+                .header(DpsHeaders.AUTHORIZATION, "Bearer token")
+                .header(DpsHeaders.DATA_PARTITION_ID, "dp")
+                .queryParam("type", GroupType.NONE.toString())
+                .queryParam("pagination", "page"))
+                .andExpect(status().isBadRequest());
+    }
+
     private ResultActions performListGroupRequest(String memberId, GroupType groupType) throws Exception {
         return mockMvc.perform(get("/members/{member_email}/groups", memberId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -84,6 +85,22 @@ public class ListGroupsApiTest {
                 .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(expectedResult));
     }
 
+    @Test
+    public void shouldAnswerNotModifiedWhenETagMatches() throws Exception {
+        String eTag = performListGroupRequest("dp").andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String result = mockMvc.perform(get("/groups")
+                        .header(DpsHeaders.AUTHORIZATION, "Bearer token")
+                        .header(DpsHeaders.USER_ID, "A@b.com")
+                        .header(DpsHeaders.DATA_PARTITION_ID, "dp")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(result).isEmpty();
+    }
+
     private ResultActions performListGroupRequest(String partitionId) throws Exception {
         return mockMvc.perform(get("/groups")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +43,7 @@ public class AuthorizationServiceEntitlementsTest {
     public void setup() {
         when(requestInfoUtilService.getUserId(any())).thenReturn("a@test.com");
         when(headers.getPartitionId()).thenReturn("dp");
+        when(groupsProvider.getGroupNamesInContext(any(), any())).thenCallRealMethod();
     }
 
     @Test
@@ -62,6 +64,16 @@ public class AuthorizationServiceEntitlementsTest {
         assertTrue(sut.isCurrentUserAuthorized(headers, "service.register.user", "service.register.editor"));
     }
 
+    @Test
+    public void shouldReturnFirstRoleTheUserHasAsAuthorizedGroupName() {
+        ParentReference userGroupNode = ParentReference.builder().id("users@dp.domain.com").name("users").dataPartitionId("dp").build();
+        ParentReference serviceGroupNode = ParentReference.builder().id("service.register.user@dp.domain.com").name("service.register.user").dataPartitionId("dp").build();
+        when(groupsProvider.getGroupsInContext("a@test.com", "dp")).thenReturn(new HashSet<>(Arrays.asList(userGroupNode, serviceGroupNode)));
+
+        assertEquals("service.register.user", sut.getAuthorizedGroupName(headers, "service.register.editor", "service.register.user", "users"));
+        assertNull(sut.getAuthorizedGroupName(headers, "service.register.editor"));
+    }
+
     @Test
     public void shouldThrow401WhenUserDoesNotBelongToRootUserGroup() {
         ParentReference serviceGroupNode = ParentReference.builder().id("service.register.user@dp.domain.com").name("service.register.user").dataPartitionId("dp").build();
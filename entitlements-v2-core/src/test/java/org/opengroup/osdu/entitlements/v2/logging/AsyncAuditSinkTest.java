@@ -0,0 +1,86 @@
+//  Copyright © Microsoft Corporation
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+
+package org.opengroup.osdu.entitlements.v2.logging;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.logging.ILogger;
+import org.opengroup.osdu.core.common.logging.audit.AuditPayload;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncAuditSinkTest {
+
+    private static final Map<String, String> LABELS = Collections.singletonMap("correlation-id", "1234567890");
+
+    @Mock
+    private ILogger logger;
+
+    @Mock
+    private ObjectProvider<ILogger> loggerProvider;
+
+    private AsyncAuditSink sink;
+
+    private final AuditEvents auditEvents = new AuditEvents("user", "partitionid", "127.0.0.1", "Test-Agent", "users@partitionid.example.com");
+
+    @Before
+    public void setup() {
+        sink = new AsyncAuditSink();
+        ReflectionTestUtils.setField(sink, "enabled", true);
+        ReflectionTestUtils.setField(sink, "queueCapacity", 10);
+        ReflectionTestUtils.setField(sink, "overflowPolicy", AsyncAuditSink.OverflowPolicy.DROP);
+        ReflectionTestUtils.setField(sink, "batchSize", 5);
+        ReflectionTestUtils.setField(sink, "flushIntervalMillis", 10L);
+        ReflectionTestUtils.setField(sink, "logPrefix", "entitlements");
+        ReflectionTestUtils.setField(sink, "logger", loggerProvider);
+    }
+
+    @Test
+    public void shouldWriteSubmittedEventsOnFlusherThread() {
+        when(loggerProvider.getObject()).thenReturn(logger);
+        AuditPayload payload = auditEvents.getCreateGroupSuccessEvent("groupid", AuditOperation.CREATE_GROUP.getRequiredGroups());
+
+        sink.start();
+        sink.submit(payload, LABELS);
+        sink.stop();
+
+        verify(logger).audit("entitlements.audit", payload, LABELS);
+        assertEquals(0, sink.getQueueDepth());
+    }
+
+    @Test
+    public void shouldDropAndCountEventsWhenQueueIsFull() {
+        ReflectionTestUtils.setField(sink, "queue", new ArrayBlockingQueue<>(1));
+        AuditPayload payload = auditEvents.getCreateGroupSuccessEvent("groupid", AuditOperation.CREATE_GROUP.getRequiredGroups());
+
+        sink.submit(payload, LABELS);
+        sink.submit(payload, LABELS);
+
+        assertEquals(1, sink.getQueueDepth());
+        assertEquals(1, sink.getDroppedEvents());
+    }
+}
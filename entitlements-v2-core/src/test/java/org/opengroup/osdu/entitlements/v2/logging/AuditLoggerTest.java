@@ -21,18 +21,26 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.logging.audit.AuditPayload;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.http.RequestInfo;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,6 +59,9 @@ public class AuditLoggerTest {
     @Mock
     private HttpServletRequest httpServletRequest;
 
+    @Mock
+    private AsyncAuditSink auditSink;
+
     @InjectMocks
     private AuditLogger auditLogger;
 
@@ -185,6 +196,20 @@ public class AuditLoggerTest {
         verify(log).audit(auditEvents.getRemoveMemberFailureEvent("groupid", "memberid", "requestid", AuditOperation.DELETE_MEMBER.getRequiredGroups()));
     }
 
+    @Test
+    public void shouldLogRemoveMemberFromGroupsSuccess() {
+        List<String> groupIds = Arrays.asList("groupid1", "groupid2");
+        auditLogger.removeMemberFromGroupsSuccess(groupIds, "memberid", "requestid", AuditOperation.DELETE_MEMBER);
+        verify(log).audit(auditEvents.getRemoveMemberFromGroupsSuccessEvent(groupIds, "memberid", "requestid", AuditOperation.DELETE_MEMBER.getRequiredGroups()));
+    }
+
+    @Test
+    public void shouldLogRemoveMemberFromGroupsFailure() {
+        List<String> groupIds = Arrays.asList("groupid1", "groupid2");
+        auditLogger.removeMemberFromGroupsFailure(groupIds, "memberid", "requestid", AuditOperation.DELETE_MEMBER);
+        verify(log).audit(auditEvents.getRemoveMemberFromGroupsFailureEvent(groupIds, "memberid", "requestid", AuditOperation.DELETE_MEMBER.getRequiredGroups()));
+    }
+
     // ==================== Read Operation Tests ====================
 
     @Test
@@ -199,6 +224,13 @@ public class AuditLoggerTest {
         verify(log).audit(auditEvents.getListGroupFailureEvent(new ArrayList<>(), AuditOperation.LIST_GROUP.getRequiredGroups()));
     }
 
+    @Test
+    public void shouldLogCompactListGroupSuccess() {
+        ReflectionTestUtils.setField(auditLogger, "compactReadEvents", true);
+        auditLogger.listGroupSuccess(Arrays.asList("group2@domain.com", "group1@domain.com"));
+        verify(log).audit(auditEvents.getListGroupSuccessEvent(Arrays.asList("group1@domain.com", "group2@domain.com"), true, AuditOperation.LIST_GROUP.getRequiredGroups()));
+    }
+
     @Test
     public void shouldLogListMemberSuccess() {
         auditLogger.listMemberSuccess("groupid");
@@ -211,6 +243,16 @@ public class AuditLoggerTest {
         verify(log).audit(auditEvents.getListMemberFailureEvent("groupid", AuditOperation.LIST_MEMBER.getRequiredGroups()));
     }
 
+    // ==================== Async Sink Tests ====================
+
+    @Test
+    public void shouldSubmitToAsyncSinkWhenEnabled() {
+        when(auditSink.isEnabled()).thenReturn(true);
+        auditLogger.createGroupSuccess("groupid");
+        verify(auditSink).submit(eq(auditEvents.getCreateGroupSuccessEvent("groupid", AuditOperation.CREATE_GROUP.getRequiredGroups())), anyMap());
+        verify(log, never()).audit(any(AuditPayload.class));
+    }
+
     // ==================== App ID Operation Tests ====================
 
     @Test
@@ -18,6 +18,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
@@ -31,6 +32,7 @@ import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.NodeType;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferencesDelta;
 import org.opengroup.osdu.entitlements.v2.model.ParentTreeDto;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberDto;
@@ -143,7 +145,8 @@ public class AddMemberServiceTests {
         verify(addMemberRepo).addMember(eq(groupNode), captor.capture());
         assertThat(captor.getValue().getRole()).isEqualTo(Role.MEMBER);
         assertThat(captor.getValue().getPartitionId()).isEqualTo("common");
-        verify(groupCacheService).refreshListGroupCache(allImpactUsers, "common");
+        verify(retrieveGroupRepo, never()).loadAllParents(groupNode);
+        verify(groupCacheService).applyParentReferencesDelta(eq(allImpactUsers), eq("common"), argThat(isParentReferencesDelta(memberNode, groupNode)));
         verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
         verify(publisher).publish(event, headersMap);
         verify(partitionFeatureFlagService).getFeature(eq(FeatureFlag.GROUP_SIZE_LIMIT_ENABLED.label), any());
@@ -191,7 +194,7 @@ public class AddMemberServiceTests {
         verify(addMemberRepo).addMember(eq(groupNode), captor.capture());
         assertThat(captor.getValue().getRole()).isEqualTo(Role.MEMBER);
         assertThat(captor.getValue().getPartitionId()).isEqualTo("common");
-        verify(groupCacheService).refreshListGroupCache(allImpactUsers, "common");
+        verify(groupCacheService).applyParentReferencesDelta(eq(allImpactUsers), eq("common"), argThat(isParentReferencesDelta(memberNode, groupNode)));
         verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
         verify(publisher).publish(event, headersMap);
     }
@@ -269,7 +272,7 @@ public class AddMemberServiceTests {
         assertThat(captor.getValue().getMemberNode()).isEqualTo(memberNode);
         assertThat(captor.getValue().getRole()).isEqualTo(Role.MEMBER);
         assertThat(captor.getValue().getPartitionId()).isEqualTo("common");
-        verify(groupCacheService).refreshListGroupCache(allImpactUsers, "common");
+        verify(groupCacheService).applyParentReferencesDelta(eq(allImpactUsers), eq("common"), argThat(isParentReferencesDelta(memberNode, groupNode)));
         verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
         verify(publisher).publish(event, headersMap);
     }
@@ -355,7 +358,7 @@ public class AddMemberServiceTests {
         when(retrieveGroupRepo.getEntityNode("requesterid", "common")).thenReturn(Optional.of(requesterNode));
         when(retrieveGroupRepo.groupExistenceValidation("users.x@common.contoso.com", "common")).thenReturn(groupNode);
         when(retrieveGroupRepo.hasDirectChild(groupNode, ChildrenReference.createChildrenReference(requesterNode, Role.OWNER))).thenReturn(Boolean.TRUE);
-        when(memberCacheService.getFromPartitionCache("data.x@common.contoso.com", "common")).thenReturn(List.of(new ChildrenReference()));
+        when(memberCacheService.getGroupSize("data.x@common.contoso.com", "common")).thenReturn(1);
 
         try {
             AddMemberDto addMemberDto = new AddMemberDto("memberid@xxx.com", Role.MEMBER);
@@ -393,8 +396,7 @@ public class AddMemberServiceTests {
         when(retrieveGroupRepo.getEntityNode("requesterid", "common")).thenReturn(Optional.of(requesterNode));
         when(retrieveGroupRepo.groupExistenceValidation("users.x@common.contoso.com", "common")).thenReturn(groupNode);
         when(retrieveGroupRepo.hasDirectChild(groupNode, ChildrenReference.createChildrenReference(requesterNode, Role.OWNER))).thenReturn(Boolean.TRUE);
-        ParentTreeDto parentTreeDto = ParentTreeDto.builder().parentReferences(parents).maxDepth(2).build();
-        when(retrieveGroupRepo.loadAllParents(memberNode)).thenReturn(parentTreeDto);
+        when(retrieveGroupRepo.countAncestors(memberNode, "common")).thenReturn((long) parents.size());
         try {
             AddMemberDto addMemberDto = new AddMemberDto("memberid@xxx.com", Role.MEMBER);
             AddMemberServiceDto addMemberServiceDto = AddMemberServiceDto.builder()
@@ -431,7 +433,7 @@ public class AddMemberServiceTests {
         when(retrieveGroupRepo.getEntityNode("requesterid", "common")).thenReturn(Optional.of(requesterNode));
         when(retrieveGroupRepo.groupExistenceValidation("users.x@common.contoso.com", "common")).thenReturn(groupNode);
         when(retrieveGroupRepo.hasDirectChild(groupNode, ChildrenReference.createChildrenReference(requesterNode, Role.OWNER))).thenReturn(Boolean.TRUE);
-        when(retrieveGroupRepo.loadAllParents(memberNode)).thenReturn(ParentTreeDto.builder().parentReferences(parents).maxDepth(2).build());
+        when(retrieveGroupRepo.countAncestors(memberNode, "common")).thenReturn((long) parents.size());
 
         try {
             AddMemberDto addMemberDto = new AddMemberDto("users.x@common.contoso.com", Role.MEMBER);
@@ -485,9 +487,6 @@ public class AddMemberServiceTests {
 
     @Test
     public void should_throw400_ifCyclicMembershipExists() {
-        HashSet<ParentReference> parents = new HashSet<>();
-        parents.add(ParentReference.builder().id("users.x@common.contoso.com").dataPartitionId("common").build());
-
         EntityNode memberNode = EntityNode.builder().nodeId("users.x@common.contoso.com").name("users.x")
                 .type(NodeType.GROUP).dataPartitionId("common").build();
         EntityNode groupNode = EntityNode.builder().nodeId("data.x@common.contoso.com").name("data.x")
@@ -499,8 +498,7 @@ public class AddMemberServiceTests {
         when(retrieveGroupRepo.getEntityNode("requesterid", "common")).thenReturn(Optional.of(requesterNode));
         when(retrieveGroupRepo.groupExistenceValidation("users.x@common.contoso.com", "common")).thenReturn(groupNode);
         when(retrieveGroupRepo.hasDirectChild(groupNode, ChildrenReference.createChildrenReference(requesterNode, Role.OWNER))).thenReturn(Boolean.TRUE);
-        when(retrieveGroupRepo.loadAllParents(memberNode)).thenReturn(ParentTreeDto.builder().parentReferences(Collections.emptySet()).maxDepth(2).build());
-        when(retrieveGroupRepo.loadAllParents(groupNode)).thenReturn(ParentTreeDto.builder().parentReferences(parents).maxDepth(2).build());
+        when(retrieveGroupRepo.isReachable(groupNode, memberNode)).thenReturn(true);
 
         AddMemberDto addMemberDto = new AddMemberDto("users.x@common.contoso.com", Role.MEMBER);
         AddMemberServiceDto addMemberServiceDto = AddMemberServiceDto.builder()
@@ -555,8 +553,15 @@ public class AddMemberServiceTests {
         verify(addMemberRepo).addMember(eq(groupNode), captor.capture());
         assertThat(captor.getValue().getRole()).isEqualTo(Role.MEMBER);
         assertThat(captor.getValue().getPartitionId()).isEqualTo("common");
-        verify(groupCacheService).refreshListGroupCache(allImpactUsers, "common");
+        verify(groupCacheService).applyParentReferencesDelta(eq(allImpactUsers), eq("common"), argThat(isParentReferencesDelta(memberNode, groupNode)));
         verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
         verifyNoInteractions(publisher);
     }
+
+    private static ArgumentMatcher<ParentReferencesDelta> isParentReferencesDelta(EntityNode memberNode, EntityNode groupNode) {
+        return delta -> memberNode.equals(delta.getMemberNode())
+                && Role.MEMBER == delta.getRole()
+                && ParentReference.createParentReference(groupNode).equals(delta.getDirectParent())
+                && delta.getInheritedParents().get().isEmpty();
+    }
 }
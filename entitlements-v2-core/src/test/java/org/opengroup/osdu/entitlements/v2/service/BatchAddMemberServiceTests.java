@@ -0,0 +1,299 @@
+//  Copyright © Microsoft Corporation
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+
+package org.opengroup.osdu.entitlements.v2.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.core.common.status.IEventPublisher;
+import org.opengroup.osdu.entitlements.v2.AppProperties;
+import org.opengroup.osdu.entitlements.v2.logging.AuditLogger;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
+import org.opengroup.osdu.entitlements.v2.model.EntityNode;
+import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberServiceDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberToGroupsDto;
+import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
+import org.opengroup.osdu.entitlements.v2.service.featureflag.FeatureFlag;
+import org.opengroup.osdu.entitlements.v2.service.featureflag.PartitionFeatureFlagService;
+import org.opengroup.osdu.entitlements.v2.service.util.ReflectionTestUtil;
+import org.opengroup.osdu.entitlements.v2.spi.addmember.AddMemberRepo;
+import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
+import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+public class BatchAddMemberServiceTests {
+
+    private static final String PARTITION_ID = "common";
+    private static final String GROUP_EMAIL = "data.x@common.contoso.com";
+    private static final String REQUESTER_ID = "requesterid";
+    private static final Map<String, String> headersMap = Collections.singletonMap("testKey", "testValue");
+
+    @Mock
+    private AppProperties config;
+    @Mock
+    private RetrieveGroupRepo retrieveGroupRepo;
+    @Mock
+    private GroupCacheService groupCacheService;
+    @Mock
+    private MemberCacheService memberCacheService;
+    @Mock
+    private AddMemberRepo addMemberRepo;
+    @Mock
+    private JaxRsDpsLog log;
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private RequestInfo requestInfo;
+    @Mock
+    private RequestInfoUtilService requestInfoUtilService;
+    @Mock
+    private DpsHeaders headers;
+    @Mock
+    private IEventPublisher publisher;
+    @Mock
+    private PartitionFeatureFlagService partitionFeatureFlagService;
+    @Mock
+    private AuditLogger auditLogger;
+    @InjectMocks
+    private BatchAddMemberService batchAddMemberService;
+
+    private final EntityNode groupNode = EntityNode.builder().nodeId(GROUP_EMAIL).name("data.x")
+            .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+
+    @Before
+    public void setup() {
+        when(config.getDomain()).thenReturn("contoso.com");
+        when(requestInfo.getHeaders()).thenReturn(headers);
+        when(headers.getHeaders()).thenReturn(headersMap);
+        when(requestInfoUtilService.getDomain(PARTITION_ID)).thenReturn("common.contoso.com");
+        when(partitionFeatureFlagService.getFeature(eq(FeatureFlag.GROUP_SIZE_LIMIT_ENABLED.label), any())).thenReturn(true);
+        ReflectionTestUtil.setFieldValueForClass(batchAddMemberService, "eventPublishingEnabled", true);
+        ReflectionTestUtil.setFieldValueForClass(batchAddMemberService, "eventPublisher", publisher);
+        ReflectionTestUtil.setFieldValueForClass(batchAddMemberService, "maxGroupSize", 20000);
+    }
+
+    @Test
+    public void should_addAcceptedMembersInSingleWrite_andReportRejectedOnes() {
+        when(retrieveGroupRepo.groupExistenceValidation(GROUP_EMAIL, PARTITION_ID)).thenReturn(groupNode);
+        when(retrieveGroupRepo.loadDirectChildren(PARTITION_ID, GROUP_EMAIL)).thenReturn(Collections.singletonList(
+                ChildrenReference.builder().id("existing@contoso.com").type(NodeType.USER).role(Role.MEMBER).build()));
+        Set<String> impactedUsers = new HashSet<>(Arrays.asList("first@contoso.com", "second@contoso.com"));
+        when(addMemberRepo.addMembers(anyList())).thenReturn(impactedUsers);
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMembersToGroup(Arrays.asList(
+                new AddMemberDto("first@contoso.com", Role.MEMBER),
+                new AddMemberDto("existing@contoso.com", Role.MEMBER),
+                new AddMemberDto("second@contoso.com", Role.OWNER),
+                new AddMemberDto("first@contoso.com", Role.OWNER),
+                new AddMemberDto("users.missing@common.contoso.com", Role.MEMBER)), getAddMemberServiceDto(GROUP_EMAIL));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(200, 409, 200, 409, 404);
+        ArgumentCaptor<List<BatchAddMemberRepoDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(addMemberRepo, times(1)).addMembers(captor.capture());
+        assertThat(captor.getValue()).extracting(membership -> membership.getAddMemberRepoDto().getMemberNode().getNodeId())
+                .containsExactly("first@contoso.com", "second@contoso.com");
+        verify(retrieveGroupRepo, times(1)).groupExistenceValidation(GROUP_EMAIL, PARTITION_ID);
+        verify(retrieveGroupRepo, times(1)).getGroupNodes(PARTITION_ID, Collections.singleton("users.missing@common.contoso.com"));
+        verify(retrieveGroupRepo, times(1)).loadAllParentsOfNodes(any());
+        verify(retrieveGroupRepo, never()).loadAllParents(any());
+        verify(permissionService, times(1)).verifyCanManageMembers(any(), eq(groupNode));
+        verify(groupCacheService, times(1)).refreshListGroupCache(impactedUsers, PARTITION_ID);
+        verify(memberCacheService, times(1)).flushListMemberCacheForGroup(GROUP_EMAIL, PARTITION_ID);
+        verify(auditLogger).addMemberSuccess(GROUP_EMAIL, "first@contoso.com", Role.MEMBER);
+        verify(auditLogger).addMemberSuccess(GROUP_EMAIL, "second@contoso.com", Role.OWNER);
+        ArgumentCaptor<EntitlementsChangeEvent[]> events = ArgumentCaptor.forClass(EntitlementsChangeEvent[].class);
+        verify(publisher, times(1)).publish(events.capture(), eq(headersMap));
+        assertThat(events.getValue()).hasSize(2);
+    }
+
+    @Test
+    public void should_rejectMembers_exceedingGroupSizeQuota() {
+        ReflectionTestUtil.setFieldValueForClass(batchAddMemberService, "maxGroupSize", 2);
+        when(retrieveGroupRepo.groupExistenceValidation(GROUP_EMAIL, PARTITION_ID)).thenReturn(groupNode);
+        when(memberCacheService.getGroupSize(GROUP_EMAIL, PARTITION_ID)).thenReturn(1);
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMembersToGroup(Arrays.asList(
+                new AddMemberDto("first@contoso.com", Role.MEMBER),
+                new AddMemberDto("second@contoso.com", Role.MEMBER)), getAddMemberServiceDto(GROUP_EMAIL));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(200, 412);
+    }
+
+    @Test
+    public void should_notWrite_whenAllMembersAreRejected() {
+        when(retrieveGroupRepo.groupExistenceValidation(GROUP_EMAIL, PARTITION_ID)).thenReturn(groupNode);
+        when(retrieveGroupRepo.getGroupNodes(PARTITION_ID, Collections.singleton(GROUP_EMAIL)))
+                .thenReturn(Collections.singletonMap(GROUP_EMAIL, groupNode));
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMembersToGroup(
+                Collections.singletonList(new AddMemberDto(GROUP_EMAIL, Role.MEMBER)), getAddMemberServiceDto(GROUP_EMAIL));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(400);
+        assertThat(response.getResults().get(0).getMessage()).isEqualTo("Cyclic membership is not allowed");
+        verify(addMemberRepo, never()).addMembers(anyList());
+        verify(publisher, never()).publish(any(), any());
+    }
+
+    @Test
+    public void should_addGroupIntoSeveralGroups_andRejectCyclicMembership() {
+        String memberEmail = "users.y@common.contoso.com";
+        String parentEmail = "users.parent@common.contoso.com";
+        EntityNode memberNode = EntityNode.builder().nodeId(memberEmail).name("users.y")
+                .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+        EntityNode parentNode = EntityNode.builder().nodeId(parentEmail).name("users.parent")
+                .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+        when(retrieveGroupRepo.getEntityNode(memberEmail, PARTITION_ID)).thenReturn(Optional.of(memberNode));
+        when(retrieveGroupRepo.loadDirectParents(PARTITION_ID, memberEmail)).thenReturn(Collections.emptyList());
+        when(retrieveGroupRepo.getGroupNodes(eq(PARTITION_ID), any())).thenReturn(Map.of(GROUP_EMAIL, groupNode, parentEmail, parentNode));
+        when(retrieveGroupRepo.loadAllParentsOfNodes(any())).thenReturn(Map.of(
+                parentEmail, Collections.singleton(ParentReference.builder().id(memberEmail).dataPartitionId(PARTITION_ID).build())));
+        when(addMemberRepo.addMembers(anyList())).thenReturn(Collections.emptySet());
+        BatchAddMemberToGroupsDto batchAddMemberToGroupsDto = BatchAddMemberToGroupsDto.builder()
+                .role(Role.MEMBER).groupEmails(Arrays.asList(GROUP_EMAIL, parentEmail, "data.y@other.contoso.com")).build();
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMemberToGroups(memberEmail, batchAddMemberToGroupsDto,
+                getAddMemberServiceDto(null));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(200, 400, 400);
+        verify(retrieveGroupRepo, times(1)).getGroupNodes(PARTITION_ID, new HashSet<>(Arrays.asList(GROUP_EMAIL, parentEmail)));
+        verify(retrieveGroupRepo, times(1)).loadAllParentsOfNodes(any());
+        verify(retrieveGroupRepo, never()).groupExistenceValidation(any(), any());
+        verify(memberCacheService, times(1)).getGroupSizes(any(), eq(PARTITION_ID));
+        verify(addMemberRepo, times(1)).addMembers(anyList());
+        verify(memberCacheService, times(1)).flushListMemberCacheForGroup(GROUP_EMAIL, PARTITION_ID);
+    }
+
+    @Test
+    public void should_reportMissingAndNotManageableGroups_inTheirResults() {
+        String memberEmail = "member@contoso.com";
+        String missingEmail = "data.missing@common.contoso.com";
+        String notOwnedEmail = "data.z@common.contoso.com";
+        EntityNode notOwnedNode = EntityNode.builder().nodeId(notOwnedEmail).name("data.z")
+                .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+        when(retrieveGroupRepo.getEntityNode(memberEmail, PARTITION_ID)).thenReturn(Optional.empty());
+        when(retrieveGroupRepo.getGroupNodes(eq(PARTITION_ID), any())).thenReturn(Map.of(GROUP_EMAIL, groupNode, notOwnedEmail, notOwnedNode));
+        when(permissionService.getGroupsNotManageableBy(any(), any())).thenReturn(Collections.singleton(notOwnedEmail));
+        when(addMemberRepo.addMembers(anyList())).thenReturn(Collections.emptySet());
+        BatchAddMemberToGroupsDto batchAddMemberToGroupsDto = BatchAddMemberToGroupsDto.builder()
+                .role(Role.MEMBER).groupEmails(Arrays.asList(GROUP_EMAIL, missingEmail, notOwnedEmail)).build();
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMemberToGroups(memberEmail, batchAddMemberToGroupsDto,
+                getAddMemberServiceDto(null));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(200, 404, 401);
+        verify(addMemberRepo, times(1)).addMembers(anyList());
+    }
+
+    @Test
+    public void should_countAncestorsOfGroupsAcceptedEarlier_againstGroupQuota() {
+        String memberEmail = "member@contoso.com";
+        String otherGroupEmail = "data.y@common.contoso.com";
+        EntityNode otherGroupNode = EntityNode.builder().nodeId(otherGroupEmail).name("data.y")
+                .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+        Set<ParentReference> memberParents = new HashSet<>();
+        for (int i = 0; i < EntityNode.MAX_PARENTS - 3; i++) {
+            memberParents.add(ParentReference.builder().id("data.p" + i + "@common.contoso.com").dataPartitionId(PARTITION_ID).build());
+        }
+        Set<ParentReference> groupAncestors = new HashSet<>(Arrays.asList(
+                ParentReference.builder().id("data.a1@common.contoso.com").dataPartitionId(PARTITION_ID).build(),
+                ParentReference.builder().id("data.a2@common.contoso.com").dataPartitionId(PARTITION_ID).build()));
+        when(retrieveGroupRepo.getEntityNode(memberEmail, PARTITION_ID)).thenReturn(Optional.empty());
+        when(retrieveGroupRepo.getGroupNodes(eq(PARTITION_ID), any())).thenReturn(Map.of(GROUP_EMAIL, groupNode, otherGroupEmail, otherGroupNode));
+        when(retrieveGroupRepo.loadAllParentsOfNodes(any())).thenReturn(Map.of(memberEmail, memberParents, GROUP_EMAIL, groupAncestors));
+        when(addMemberRepo.addMembers(anyList())).thenReturn(Collections.emptySet());
+        BatchAddMemberToGroupsDto batchAddMemberToGroupsDto = BatchAddMemberToGroupsDto.builder()
+                .role(Role.MEMBER).groupEmails(Arrays.asList(GROUP_EMAIL, otherGroupEmail)).build();
+
+        BatchAddMemberResponseDto response = batchAddMemberService.addMemberToGroups(memberEmail, batchAddMemberToGroupsDto,
+                getAddMemberServiceDto(null));
+
+        assertThat(response.getResults()).extracting("code").containsExactly(200, 412);
+    }
+
+    @Test
+    public void should_rejectWholeRequest_whenGroupIsAddedAsOwner() {
+        String memberEmail = "users.y@common.contoso.com";
+        EntityNode memberNode = EntityNode.builder().nodeId(memberEmail).name("users.y")
+                .type(NodeType.GROUP).dataPartitionId(PARTITION_ID).build();
+        when(retrieveGroupRepo.getEntityNode(memberEmail, PARTITION_ID)).thenReturn(Optional.of(memberNode));
+        BatchAddMemberToGroupsDto batchAddMemberToGroupsDto = BatchAddMemberToGroupsDto.builder()
+                .role(Role.OWNER).groupEmails(Collections.singletonList(GROUP_EMAIL)).build();
+
+        try {
+            batchAddMemberService.addMemberToGroups(memberEmail, batchAddMemberToGroupsDto, getAddMemberServiceDto(null));
+            fail("should throw exception");
+        } catch (AppException ex) {
+            assertThat(ex.getError().getCode()).isEqualTo(400);
+        }
+        verify(addMemberRepo, never()).addMembers(anyList());
+    }
+
+    @Test
+    public void should_auditFailures_andRethrow_whenWriteFails() {
+        when(retrieveGroupRepo.groupExistenceValidation(GROUP_EMAIL, PARTITION_ID)).thenReturn(groupNode);
+        when(addMemberRepo.addMembers(anyList())).thenThrow(new AppException(500, "Internal Server Error", "database is not available"));
+
+        try {
+            batchAddMemberService.addMembersToGroup(Collections.singletonList(new AddMemberDto("first@contoso.com", Role.MEMBER)),
+                    getAddMemberServiceDto(GROUP_EMAIL));
+            fail("should throw exception");
+        } catch (AppException ex) {
+            assertThat(ex.getError().getCode()).isEqualTo(500);
+        }
+        verify(auditLogger).addMemberFailure(GROUP_EMAIL, "first@contoso.com", Role.MEMBER);
+        verify(groupCacheService, never()).refreshListGroupCache(any(), any());
+        verify(publisher, never()).publish(any(), any());
+    }
+
+    private AddMemberServiceDto getAddMemberServiceDto(String groupEmail) {
+        return AddMemberServiceDto.builder()
+                .groupEmail(groupEmail)
+                .requesterId(REQUESTER_ID)
+                .partitionId(PARTITION_ID)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package org.opengroup.osdu.entitlements.v2.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.RequestInfo;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipDto;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.checkmembership.CheckMembershipResultDto;
+import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CheckMembershipServiceTest {
+
+    private static final String MEMBER = "member@xxx.com";
+    private static final ParentReference DATA_X = ParentReference.builder().id("data.x@dp.domain.com")
+            .name("data.x").dataPartitionId("dp").role("OWNER").build();
+    private static final ParentReference DATA_Y = ParentReference.builder().id("data.y@dp.domain.com")
+            .name("data.y").dataPartitionId("dp").role("MEMBER").build();
+
+    @Mock
+    private JaxRsDpsLog log;
+    @Mock
+    private RequestInfo requestInfo;
+    @Mock
+    private RetrieveGroupRepo retrieveGroupRepo;
+    @Mock
+    private GroupsProvider groupsProvider;
+
+    @InjectMocks
+    private CheckMembershipService checkMembershipService;
+
+    @Before
+    public void setup() {
+        TenantInfo tenantInfo = new TenantInfo();
+        tenantInfo.setServiceAccount("datafier@serviceaccount");
+        when(requestInfo.getTenantInfo()).thenReturn(tenantInfo);
+        Map<String, ParentReference> groupsByEmail = new HashMap<>();
+        groupsByEmail.put(DATA_X.getId(), DATA_X);
+        groupsByEmail.put(DATA_Y.getId(), DATA_Y);
+        when(groupsProvider.getGroupsByEmailInContext(MEMBER, "dp", true)).thenReturn(groupsByEmail);
+    }
+
+    @Test
+    public void shouldAnswerInRequestOrderWithRoles() {
+        CheckMembershipDto request = CheckMembershipDto.builder()
+                .groupEmails(Arrays.asList("Data.Y@dp.domain.com", "data.z@dp.domain.com", "data.x@dp.domain.com"))
+                .roleRequired(true)
+                .build();
+
+        CheckMembershipResponseDto response = checkMembershipService.check(MEMBER, request, "dp", null);
+
+        assertEquals(MEMBER, response.getMemberEmail());
+        assertEquals(Arrays.asList(
+                new CheckMembershipResultDto("Data.Y@dp.domain.com", true, "MEMBER"),
+                new CheckMembershipResultDto("data.z@dp.domain.com", false, null),
+                new CheckMembershipResultDto("data.x@dp.domain.com", true, "OWNER")), response.getResults());
+        verifyNoInteractions(retrieveGroupRepo);
+    }
+
+    @Test
+    public void shouldOnlyFilterMatchedGroupsByAppId() {
+        when(retrieveGroupRepo.filterParentsByAppId(new HashSet<>(Collections.singletonList(DATA_X)), "dp", "app"))
+                .thenReturn(Collections.emptySet());
+        CheckMembershipDto request = CheckMembershipDto.builder()
+                .groupEmails(Arrays.asList("data.x@dp.domain.com", "data.z@dp.domain.com"))
+                .roleRequired(true)
+                .build();
+
+        CheckMembershipResponseDto response = checkMembershipService.check(MEMBER, request, "dp", "app");
+
+        assertEquals(Arrays.asList(
+                new CheckMembershipResultDto("data.x@dp.domain.com", false, null),
+                new CheckMembershipResultDto("data.z@dp.domain.com", false, null)), response.getResults());
+    }
+}
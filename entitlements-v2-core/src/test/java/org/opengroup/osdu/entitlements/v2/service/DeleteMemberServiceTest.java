@@ -20,14 +20,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.logging.AuditOperation;
 import org.opengroup.osdu.entitlements.v2.model.deletemember.DeleteMemberDto;
 import org.opengroup.osdu.entitlements.v2.model.removemember.RemoveMemberServiceDto;
-import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
-import org.opengroup.osdu.entitlements.v2.validation.BootstrapGroupsConfigurationService;
-
-import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,31 +41,14 @@ public class DeleteMemberServiceTest {
     @Mock
     private JaxRsDpsLog log;
     @Mock
-    private RetrieveGroupRepo retrieveGroupRepo;
-    @Mock
     private RemoveMemberService removeMemberService;
     @Mock
     private GroupCacheService groupCacheService;
-    @Mock
-    private BootstrapGroupsConfigurationService bootstrapGroupsConfigurationService;
     @InjectMocks
     private DeleteMemberService deleteMemberService;
 
     @Test
-    public void shouldSuccessfullyRemoveExistingMember() {
-        String domain = "common.contoso.com";
-        String groupName1 = "data.x1";
-        String groupEmail1 = groupName1 + "@" + domain;
-        String groupName2 = "data.x2";
-        String groupEmail2 = groupName2 + "@" + domain;
-
-        Set<String> parentEmails = Set.of(
-                groupEmail1,
-                groupEmail2
-        );
-        when(removeMemberService.getDirectParentsEmails(DATA_PARTITION_ID, MEMBER_EMAIL)).thenReturn(parentEmails);
-        when(bootstrapGroupsConfigurationService.getElementaryDataPartitionUsersGroup(DATA_PARTITION_ID)).thenReturn(String.format("users@%s.%s", DATA_PARTITION_ID, domain));
-
+    public void shouldSuccessfullyRemoveExistingMemberFromAllGroupsAtOnce() {
         DeleteMemberDto deleteMemberDto = DeleteMemberDto.builder()
                 .memberEmail(MEMBER_EMAIL)
                 .partitionId(DATA_PARTITION_ID)
@@ -73,18 +57,48 @@ public class DeleteMemberServiceTest {
 
         deleteMemberService.deleteMember(deleteMemberDto);
 
-        verify(removeMemberService, times(1)).getDirectParentsEmails(DATA_PARTITION_ID, MEMBER_EMAIL);
-        verify(removeMemberService, times(1)).removeMember(buildRemoveMemberServiceDto(groupEmail1), AuditOperation.DELETE_MEMBER);
-        verify(removeMemberService, times(1)).removeMember(buildRemoveMemberServiceDto(groupEmail2), AuditOperation.DELETE_MEMBER);
+        verify(removeMemberService, times(1)).removeMemberFromAllGroups(buildRemoveMemberServiceDto(), AuditOperation.DELETE_MEMBER);
+        verify(removeMemberService, never()).removeMember(any(), any());
         verify(groupCacheService).flushListGroupCacheForUser(MEMBER_EMAIL, DATA_PARTITION_ID);
     }
 
-    private RemoveMemberServiceDto buildRemoveMemberServiceDto(String groupEmail) {
+    @Test
+    public void shouldRethrowAppExceptionFromRemoval() {
+        DeleteMemberDto deleteMemberDto = DeleteMemberDto.builder()
+                .memberEmail(MEMBER_EMAIL)
+                .partitionId(DATA_PARTITION_ID)
+                .requesterId(REQUEST_ID)
+                .build();
+        AppException badRequest = new AppException(400, "Bad Request", "Bootstrap group hierarchy is enforced");
+        when(removeMemberService.removeMemberFromAllGroups(buildRemoveMemberServiceDto(), AuditOperation.DELETE_MEMBER)).thenThrow(badRequest);
+
+        AppException exception = assertThrows(AppException.class, () -> deleteMemberService.deleteMember(deleteMemberDto));
+
+        assertEquals(400, exception.getError().getCode());
+        verify(groupCacheService, never()).flushListGroupCacheForUser(MEMBER_EMAIL, DATA_PARTITION_ID);
+    }
+
+    @Test
+    public void shouldWrapUnexpectedExceptionFromRemoval() {
+        DeleteMemberDto deleteMemberDto = DeleteMemberDto.builder()
+                .memberEmail(MEMBER_EMAIL)
+                .partitionId(DATA_PARTITION_ID)
+                .requesterId(REQUEST_ID)
+                .build();
+        when(removeMemberService.removeMemberFromAllGroups(buildRemoveMemberServiceDto(), AuditOperation.DELETE_MEMBER))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        AppException exception = assertThrows(AppException.class, () -> deleteMemberService.deleteMember(deleteMemberDto));
+
+        assertEquals(500, exception.getError().getCode());
+        assertEquals("Error while removing member", exception.getError().getMessage());
+    }
+
+    private RemoveMemberServiceDto buildRemoveMemberServiceDto() {
         return RemoveMemberServiceDto.builder()
-                .groupEmail(groupEmail)
                 .memberEmail(MEMBER_EMAIL)
                 .requesterId(REQUEST_ID)
                 .partitionId(DATA_PARTITION_ID)
                 .build();
     }
-}
\ No newline at end of file
+}
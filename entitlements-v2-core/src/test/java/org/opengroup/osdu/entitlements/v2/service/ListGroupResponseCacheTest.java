@@ -0,0 +1,84 @@
+package org.opengroup.osdu.entitlements.v2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ListGroupResponseCacheTest {
+
+    private static final ListGroupResponseCache.Key KEY =
+            new ListGroupResponseCache.Key("member@xxx.com", "dp", false, "app");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ListGroupResponseCache cache;
+
+    @Before
+    public void setup() {
+        cache = new ListGroupResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumBytes", 1024 * 1024L);
+        ReflectionTestUtils.setField(cache, "expirationSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "objectMapper", objectMapper);
+        cache.init();
+    }
+
+    @Test
+    public void shouldOnlyCacheSinglePartitionRequests() {
+        assertTrue(cache.isCacheable(Collections.singletonList("dp")));
+        assertFalse(cache.isCacheable(List.of("dp", "dp2")));
+    }
+
+    @Test
+    public void shouldReturnRenderedBodyWithItsETag() throws Exception {
+        ListGroupResponseDto body = buildBody("data.x");
+
+        ListGroupResponseCache.RenderedResponse rendered = cache.put(KEY, cache.getVersion(KEY), body);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(body), rendered.body());
+        assertEquals(rendered, cache.get(KEY).orElseThrow());
+        assertFalse(cache.get(new ListGroupResponseCache.Key("member@xxx.com", "dp", true, "app")).isPresent());
+        assertNotEquals(rendered.eTag(), cache.put(KEY, cache.getVersion(KEY), buildBody("data.y")).eTag());
+    }
+
+    @Test
+    public void shouldDropAllVariantsOfInvalidatedMember() {
+        ListGroupResponseCache.Key withRoles = new ListGroupResponseCache.Key("Member@xxx.com", "dp", true, null);
+        cache.put(KEY, cache.getVersion(KEY), buildBody("data.x"));
+        cache.put(withRoles, cache.getVersion(withRoles), buildBody("data.x"));
+
+        cache.invalidate("member@xxx.com-dp");
+
+        assertFalse(cache.get(KEY).isPresent());
+        assertFalse(cache.get(withRoles).isPresent());
+    }
+
+    @Test
+    public void shouldNotKeepResponseRenderedWhileMemberWasInvalidated() {
+        long version = cache.getVersion(KEY);
+        cache.invalidate("member@xxx.com", "dp");
+
+        cache.put(KEY, version, buildBody("data.x"));
+
+        assertFalse(cache.get(KEY).isPresent());
+    }
+
+    private static ListGroupResponseDto buildBody(String groupName) {
+        ParentReference group = ParentReference.builder().name(groupName).id(groupName + "@dp.domain.com")
+                .description("").dataPartitionId("dp").build();
+        return ListGroupResponseDto.builder().groups(Collections.singletonList(group))
+                .desId("member@xxx.com").memberEmail("member@xxx.com").build();
+    }
+}
@@ -19,6 +19,10 @@ import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.opengroup.osdu.entitlements.v2.util.RequestInfoUtilService;
 import org.springframework.http.HttpStatus;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
 @RunWith(MockitoJUnitRunner.class)
 public class PermissionServiceTest {
 
@@ -90,4 +94,20 @@ public class PermissionServiceTest {
             Assert.assertEquals("Not authorized to manage members", appException.getError().getMessage());
         }
     }
+
+    @Test
+    public void shouldReturnGroupsNotManageableByRequester() {
+        EntityNode ownedGroup = EntityNode.builder().nodeId("service.x@dp.domain.com").name("service.x").dataPartitionId("dp").type(NodeType.GROUP).build();
+        EntityNode otherGroup = EntityNode.builder().nodeId("service.y@dp.domain.com").name("service.y").dataPartitionId("dp").type(NodeType.GROUP).build();
+        EntityNode dataGroup = EntityNode.builder().nodeId("data.y@dp.domain.com").name("data.y").dataPartitionId("dp").type(NodeType.GROUP).build();
+        EntityNode requester = EntityNode.builder().nodeId("member@xxx.com").name("member@xxx.com").type(NodeType.USER).dataPartitionId("dp").build();
+        Mockito.when(authorizationService.isCurrentUserAuthorized(null, "users.data.root")).thenReturn(true);
+        Mockito.when(retrieveGroupRepo.hasDirectChild(Mockito.eq(ownedGroup), Mockito.any())).thenReturn(true);
+        Mockito.when(retrieveGroupRepo.hasDirectChild(Mockito.eq(otherGroup), Mockito.any())).thenReturn(false);
+
+        Set<String> notManageable = permissionService.getGroupsNotManageableBy(requester, Arrays.asList(ownedGroup, otherGroup, dataGroup));
+
+        Assert.assertEquals(Collections.singleton("service.y@dp.domain.com"), notManageable);
+        Mockito.verify(authorizationService, Mockito.times(1)).isCurrentUserAuthorized(null, "users.data.root");
+    }
 }
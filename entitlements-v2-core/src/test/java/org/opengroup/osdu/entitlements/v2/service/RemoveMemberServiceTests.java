@@ -27,6 +27,7 @@ import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.common.status.IEventPublisher;
 import org.opengroup.osdu.entitlements.v2.AppProperties;
 import org.opengroup.osdu.entitlements.v2.logging.AuditLogger;
+import org.opengroup.osdu.entitlements.v2.logging.AuditOperation;
 import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeAction;
 import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeEvent;
 import org.opengroup.osdu.entitlements.v2.model.events.EntitlementsChangeType;
@@ -37,6 +38,7 @@ import org.opengroup.osdu.entitlements.v2.validation.ServiceAccountsConfiguratio
 import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.removemember.RemoveMemberServiceDto;
 import org.opengroup.osdu.entitlements.v2.spi.removemember.RemoveMemberRepo;
@@ -46,9 +48,12 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -626,4 +631,108 @@ public class RemoveMemberServiceTests {
         verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
         verifyNoInteractions(publisher);
     }
+
+    @Test
+    public void shouldRemoveMemberFromAllGroupsWithSingleRepoCallAndAggregatedAuditAndEvents() {
+        EntityNode memberNode = EntityNode.builder()
+                .type(NodeType.USER)
+                .nodeId("member@xxx.com")
+                .name("member")
+                .dataPartitionId("common")
+                .build();
+        when(retrieveGroupRepo.getMemberNodeForRemovalFromGroup("member@xxx.com", "common")).thenReturn(memberNode);
+        ParentReference dataGroup = ParentReference.builder()
+                .id("data.x@common.contoso.com").name("data.x").dataPartitionId("common").build();
+        ParentReference usersGroup = ParentReference.builder()
+                .id("users@common.contoso.com").name("users").dataPartitionId("common").build();
+        when(retrieveGroupRepo.loadDirectParents("common", "member@xxx.com")).thenReturn(Arrays.asList(dataGroup, usersGroup));
+        when(bootstrapGroupsConfigurationService.getElementaryDataPartitionUsersGroup("common")).thenReturn("users@common.contoso.com");
+        List<EntityNode> groupNodes = Arrays.asList(
+                EntityNode.createNodeFromParentReference(dataGroup), EntityNode.createNodeFromParentReference(usersGroup));
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .memberEmail("member@xxx.com")
+                .requesterId("requesterid")
+                .partitionId("common")
+                .build();
+        when(removeMemberRepo.removeMemberFromAllGroups(memberNode, groupNodes, removeMemberServiceDto))
+                .thenReturn(Collections.singleton("member@xxx.com"));
+
+        Set<String> impactedUsers = removeMemberService.removeMemberFromAllGroups(removeMemberServiceDto, AuditOperation.DELETE_MEMBER);
+
+        assertEquals(Collections.singleton("member@xxx.com"), impactedUsers);
+        verify(permissionService).verifyCanManageMembers(
+                EntityNode.createMemberNodeForRequester("requesterid", "common"), groupNodes);
+        verify(removeMemberRepo).removeMemberFromAllGroups(memberNode, groupNodes, removeMemberServiceDto);
+        verify(removeMemberRepo, never()).removeMember(any(), any(), any());
+        verify(groupCacheService).refreshListGroupCache(Collections.singleton("member@xxx.com"), "common");
+        verify(memberCacheService).flushListMemberCacheForGroup("data.x@common.contoso.com", "common");
+        verify(memberCacheService).flushListMemberCacheForGroup("users@common.contoso.com", "common");
+        verify(auditLogger).removeMemberFromGroupsSuccess(Arrays.asList("data.x@common.contoso.com", "users@common.contoso.com"),
+                "member@xxx.com", "requesterid", AuditOperation.DELETE_MEMBER);
+        EntitlementsChangeEvent[] events = {
+                EntitlementsChangeEvent.builder()
+                        .kind(EntitlementsChangeType.groupChanged)
+                        .group("data.x@common.contoso.com")
+                        .user("member@xxx.com")
+                        .action(EntitlementsChangeAction.remove)
+                        .modifiedBy("requesterid")
+                        .modifiedOn(1291371330000L).build(),
+                EntitlementsChangeEvent.builder()
+                        .kind(EntitlementsChangeType.groupChanged)
+                        .group("users@common.contoso.com")
+                        .user("member@xxx.com")
+                        .action(EntitlementsChangeAction.remove)
+                        .modifiedBy("requesterid")
+                        .modifiedOn(1291371330000L).build()
+        };
+        verify(publisher).publish(events, headersMap);
+    }
+
+    @Test
+    public void shouldNotRemoveMemberFromAnyGroupIfOneMembershipIsProtected() {
+        EntityNode memberNode = EntityNode.builder()
+                .type(NodeType.GROUP)
+                .nodeId("users@common.contoso.com")
+                .name("users")
+                .dataPartitionId("common")
+                .build();
+        when(retrieveGroupRepo.getMemberNodeForRemovalFromGroup("users@common.contoso.com", "common")).thenReturn(memberNode);
+        ParentReference dataGroup = ParentReference.builder()
+                .id("data.x@common.contoso.com").name("data.x").dataPartitionId("common").build();
+        ParentReference ownersGroup = ParentReference.builder()
+                .id("data.default.owners@common.contoso.com").name("data.default.owners").dataPartitionId("common").build();
+        when(retrieveGroupRepo.loadDirectParents("common", "users@common.contoso.com")).thenReturn(Arrays.asList(dataGroup, ownersGroup));
+        when(bootstrapGroupsConfigurationService.isMemberProtectedFromRemoval(
+                memberNode, EntityNode.createNodeFromParentReference(ownersGroup))).thenReturn(true);
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .memberEmail("users@common.contoso.com")
+                .requesterId("requesterid")
+                .partitionId("common")
+                .build();
+
+        try {
+            removeMemberService.removeMemberFromAllGroups(removeMemberServiceDto, AuditOperation.DELETE_MEMBER);
+            fail("should throw exception");
+        } catch (AppException ex) {
+            assertThat(ex.getError().getCode()).isEqualTo(400);
+            assertEquals("Bootstrap group hierarchy is enforced, member users cannot be removed from group data.default.owners", ex.getError().getMessage());
+            verify(removeMemberRepo, never()).removeMemberFromAllGroups(any(), any(), any());
+            verifyNoInteractions(publisher);
+        }
+    }
+
+    @Test
+    public void shouldDoNothingIfMemberHasNoParents() {
+        when(retrieveGroupRepo.loadDirectParents("common", "member@xxx.com")).thenReturn(Collections.emptyList());
+        RemoveMemberServiceDto removeMemberServiceDto = RemoveMemberServiceDto.builder()
+                .memberEmail("member@xxx.com")
+                .requesterId("requesterid")
+                .partitionId("common")
+                .build();
+
+        Set<String> impactedUsers = removeMemberService.removeMemberFromAllGroups(removeMemberServiceDto, AuditOperation.DELETE_MEMBER);
+
+        assertThat(impactedUsers).isEmpty();
+        verifyNoInteractions(removeMemberRepo, auditLogger, publisher);
+    }
 }
@@ -0,0 +1,55 @@
+package org.opengroup.osdu.entitlements.v2.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestScopeGroupsProviderImplTest {
+    @Mock
+    private GroupCacheService groupCacheService;
+
+    @InjectMocks
+    private RequestScopeGroupsProviderImpl sut;
+
+    @Test
+    public void shouldIndexGroupNamesOncePerRequest() {
+        ParentReference userGroupNode = ParentReference.builder().id("users@dp.domain.com").name("users").dataPartitionId("dp").build();
+        ParentReference serviceGroupNode = ParentReference.builder().id("service.register.user@dp.domain.com").name("service.register.user").dataPartitionId("dp").build();
+        when(groupCacheService.getFromPartitionCache("a@test.com", "dp", false))
+                .thenReturn(new HashSet<>(Arrays.asList(userGroupNode, serviceGroupNode)));
+
+        Set<String> groupNames = sut.getGroupNamesInContext("a@test.com", "dp");
+
+        assertEquals(new HashSet<>(Arrays.asList("users", "service.register.user")), groupNames);
+        assertEquals(groupNames, sut.getGroupNamesInContext("a@test.com", "dp"));
+        assertEquals(2, sut.getGroupsInContext("a@test.com", "dp").size());
+        verify(groupCacheService, times(1)).getFromPartitionCache("a@test.com", "dp", false);
+    }
+
+    @Test
+    public void shouldIndexGroupsByEmailOncePerRequest() {
+        ParentReference dataGroupNode = ParentReference.builder().id("Data.X@dp.domain.com").name("data.x").dataPartitionId("dp").role("OWNER").build();
+        when(groupCacheService.getFromPartitionCache("a@test.com", "dp", true))
+                .thenReturn(new HashSet<>(Arrays.asList(dataGroupNode)));
+
+        Map<String, ParentReference> groupsByEmail = sut.getGroupsByEmailInContext("a@test.com", "dp", true);
+
+        assertEquals(dataGroupNode, groupsByEmail.get("data.x@dp.domain.com"));
+        assertEquals(groupsByEmail, sut.getGroupsByEmailInContext("a@test.com", "dp", true));
+        verify(groupCacheService, times(1)).getFromPartitionCache("a@test.com", "dp", true);
+    }
+}
@@ -0,0 +1,56 @@
+package org.opengroup.osdu.entitlements.v2.util;
+
+import org.junit.Test;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.listmember.ListMemberResponseDto;
+import org.opengroup.osdu.entitlements.v2.model.listmember.MemberDto;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ETagUtilTest {
+
+    private static final ParentReference VIEWERS = ParentReference.builder().name("viewers")
+            .id("viewers@dp.domain.com").description("").build();
+    private static final ParentReference DATA_X = ParentReference.builder().name("data.x")
+            .id("data.x@dp.domain.com").description("a data group").build();
+
+    @Test
+    public void shouldNotDependOnGroupsOrder() {
+        String eTag = ETagUtil.of(groupsResponse("a@b.com", VIEWERS, DATA_X));
+
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(eTag, ETagUtil.of(groupsResponse("a@b.com", DATA_X, VIEWERS)));
+    }
+
+    @Test
+    public void shouldChangeWithGroupsOrMember() {
+        String eTag = ETagUtil.of(groupsResponse("a@b.com", VIEWERS, DATA_X));
+
+        assertNotEquals(eTag, ETagUtil.of(groupsResponse("a@b.com", VIEWERS)));
+        assertNotEquals(eTag, ETagUtil.of(groupsResponse("c@d.com", VIEWERS, DATA_X)));
+        assertNotEquals(eTag, ETagUtil.of(groupsResponse("a@b.com", VIEWERS,
+                ParentReference.builder().name("data.x").id("data.x@dp.domain.com").description("a data group")
+                        .role(Role.OWNER.getValue()).build())));
+    }
+
+    @Test
+    public void shouldChangeWithMemberRole() {
+        MemberDto member = MemberDto.builder().email("a@b.com").role(Role.MEMBER).build();
+        MemberDto owner = MemberDto.builder().email("a@b.com").role(Role.OWNER).build();
+
+        assertNotEquals(ETagUtil.of(new ListMemberResponseDto(Collections.singletonList(member))),
+                ETagUtil.of(new ListMemberResponseDto(Collections.singletonList(owner))));
+    }
+
+    private static ListGroupResponseDto groupsResponse(String memberEmail, ParentReference... groups) {
+        return ListGroupResponseDto.builder().desId(memberEmail).memberEmail(memberEmail)
+                .groups(Arrays.asList(groups)).build();
+    }
+}
@@ -0,0 +1,94 @@
+package org.opengroup.osdu.entitlements.v2.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
+import org.opengroup.osdu.entitlements.v2.model.ChildrenReferences;
+import org.opengroup.osdu.entitlements.v2.model.NodeType;
+import org.opengroup.osdu.entitlements.v2.model.ParentReference;
+import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
+import org.opengroup.osdu.entitlements.v2.model.Role;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ReferencesCodecTest {
+
+    @Test
+    public void shouldEncodeAndDecodeParentReferences() throws Exception {
+        ParentReferences parentReferences = createParentReferences(50);
+
+        byte[] encoded = ReferencesCodec.encode(parentReferences, ReferencesCodec.NO_COMPRESSION);
+
+        Assert.assertTrue(ReferencesCodec.isEncoded(encoded));
+        Assert.assertEquals(parentReferences, ReferencesCodec.decodeParentReferences(encoded));
+        Assert.assertTrue(encoded.length < new ObjectMapper().writeValueAsBytes(parentReferences).length / 2);
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeDeflatedParentReferences() {
+        ParentReferences parentReferences = createParentReferences(500);
+
+        byte[] encoded = ReferencesCodec.encode(parentReferences, 0);
+
+        Assert.assertTrue(encoded.length < ReferencesCodec.encode(parentReferences, ReferencesCodec.NO_COMPRESSION).length);
+        Assert.assertEquals(parentReferences, ReferencesCodec.decodeParentReferences(encoded));
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeNullAndEmptyParentReferences() {
+        ParentReferences empty = new ParentReferences();
+        empty.setParentReferencesOfUser(new HashSet<>());
+
+        Assert.assertEquals(new ParentReferences(), ReferencesCodec.decodeParentReferences(
+                ReferencesCodec.encode(new ParentReferences(), ReferencesCodec.NO_COMPRESSION)));
+        Assert.assertEquals(empty, ReferencesCodec.decodeParentReferences(
+                ReferencesCodec.encode(empty, ReferencesCodec.NO_COMPRESSION)));
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeChildrenReferences() {
+        ChildrenReferences childrenReferences = new ChildrenReferences();
+        childrenReferences.setChildReferencesOfGroup(Arrays.asList(
+                ChildrenReference.builder().id("member@test.com").dataPartitionId("dp").type(NodeType.USER).role(Role.OWNER).build(),
+                ChildrenReference.builder().id("group@dp.domain.com").dataPartitionId("dp").type(NodeType.GROUP).role(Role.MEMBER).build(),
+                ChildrenReference.builder().id("service-principal").dataPartitionId("dp").type(NodeType.USER).build()));
+
+        byte[] encoded = ReferencesCodec.encode(childrenReferences, 0);
+
+        Assert.assertEquals(childrenReferences, ReferencesCodec.decodeChildrenReferences(encoded));
+    }
+
+    @Test
+    public void shouldRejectValuesOfUnknownFormat() {
+        byte[] json = "{\"parentReferencesOfUser\":[]}".getBytes(StandardCharsets.UTF_8);
+        byte[] children = ReferencesCodec.encode(new ChildrenReferences(), ReferencesCodec.NO_COMPRESSION);
+        byte[] futureVersion = ReferencesCodec.encode(new ParentReferences(), ReferencesCodec.NO_COMPRESSION);
+        futureVersion[1] = 2;
+
+        Assert.assertFalse(ReferencesCodec.isEncoded(json));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReferencesCodec.decodeParentReferences(json));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReferencesCodec.decodeParentReferences(children));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReferencesCodec.decodeParentReferences(futureVersion));
+    }
+
+    private ParentReferences createParentReferences(int size) {
+        Set<ParentReference> references = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            references.add(ParentReference.builder()
+                    .id(String.format("data.group-%d@dp.domain.com", i))
+                    .name(String.format("data.group-%d", i))
+                    .description("description")
+                    .dataPartitionId("dp")
+                    .appIds(new HashSet<>(i % 2 == 0 ? Arrays.asList("app1", "app2") : Arrays.asList()))
+                    .role(i == 0 ? "OWNER" : null)
+                    .build());
+        }
+        ParentReferences parentReferences = new ParentReferences();
+        parentReferences.setParentReferencesOfUser(references);
+        return parentReferences;
+    }
+}
@@ -1,6 +1,7 @@
 package org.opengroup.osdu.entitlements.v2.azure.service;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -10,11 +11,13 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.azure.model.NodeVertex;
 import org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.connection.GremlinConnector;
+import org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.constant.EdgePropertyNames;
 import org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.constant.VertexPropertyNames;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -24,7 +27,26 @@ public class GraphTraversalSourceUtilService {
 
     public void addEdge(AddEdgeDto addEdgeDto) {
         GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
-        GraphTraversal<Vertex, Edge> traversal = graphTraversalSource.V()
+        gremlinConnector.addEdge(appendAddEdge(graphTraversalSource.V(), addEdgeDto));
+    }
+
+    /**
+     * Adds all the edges with a single request to database, chaining the addE steps with mid-traversal V() steps.
+     */
+    public void addEdges(List<AddEdgeDto> addEdgeDtos) {
+        if (addEdgeDtos.isEmpty()) {
+            return;
+        }
+        GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
+        GraphTraversal<Vertex, Edge> traversal = null;
+        for (AddEdgeDto addEdgeDto : addEdgeDtos) {
+            traversal = appendAddEdge(traversal == null ? graphTraversalSource.V() : traversal.V(), addEdgeDto);
+        }
+        gremlinConnector.addEdge(traversal);
+    }
+
+    private GraphTraversal<Vertex, Edge> appendAddEdge(GraphTraversal<Vertex, Vertex> vertices, AddEdgeDto addEdgeDto) {
+        GraphTraversal<Vertex, Edge> traversal = vertices
                 .has(VertexPropertyNames.DATA_PARTITION_ID, addEdgeDto.getDpOfFromNodeId())
                 .has(VertexPropertyNames.NODE_ID, addEdgeDto.getFromNodeId())
                 .addE(addEdgeDto.getEdgeLabel());
@@ -33,9 +55,8 @@ public class GraphTraversalSourceUtilService {
                 traversal = traversal.property(entry.getKey(), entry.getValue());
             }
         }
-        traversal = traversal.to(__.V().has(VertexPropertyNames.NODE_ID, addEdgeDto.getToNodeId())
+        return traversal.to(__.V().has(VertexPropertyNames.NODE_ID, addEdgeDto.getToNodeId())
                 .has(VertexPropertyNames.DATA_PARTITION_ID, addEdgeDto.getDpOfToNodeId()));
-        gremlinConnector.addEdge(traversal);
     }
 
     public void removeEdge(RemoveEdgeDto removeEdgeDto) {
@@ -52,6 +73,20 @@ public class GraphTraversalSourceUtilService {
         gremlinConnector.removeEdge(traversal);
     }
 
+    /**
+     * Drops the parent and child edges between the member and all the given groups with a single request to database.
+     */
+    public void removeMemberEdges(EntityNode memberNode, List<String> groupNodeIds) {
+        GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
+        Traversal<Vertex, Edge> traversal = graphTraversalSource.V()
+                .has(VertexPropertyNames.NODE_ID, memberNode.getNodeId())
+                .has(VertexPropertyNames.DATA_PARTITION_ID, memberNode.getDataPartitionId())
+                .union(__.outE(EdgePropertyNames.PARENT_EDGE_LB), __.inE(EdgePropertyNames.CHILD_EDGE_LB))
+                .where(__.otherV().has(VertexPropertyNames.NODE_ID, P.within(groupNodeIds)))
+                .drop();
+        gremlinConnector.removeEdge(traversal);
+    }
+
     public NodeVertex createGroupVertexFromEntityNode(EntityNode entityNode) {
         final GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
         GraphTraversal<Vertex, Vertex> traversal = graphTraversalSource.addV(entityNode.getType().toString())
@@ -10,6 +10,7 @@ import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.model.ParentReferences;
 import org.opengroup.osdu.entitlements.v2.service.GroupCacheService;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.redisson.api.RLock;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,6 +29,7 @@ public class GroupCacheServiceAzure implements GroupCacheService {
     private final RedisAzureCache<String, ParentReferences> redisGroupCache;
     private final HitsNMissesMetricService metricService;
     private final Retry retry;
+    private final ListGroupResponseCache listGroupResponseCache;
     private static final String REDIS_KEY_FORMAT = "%s-%s";
 
     @Value("${redisson.lock.acquisition.timeout}")
@@ -85,6 +87,7 @@ public class GroupCacheServiceAzure implements GroupCacheService {
             long ttlOfKey = cacheFlushTtlBase + (long) (random.nextDouble() * cacheFlushTtlJitter);
             redisGroupCache.updateTtl(key, ttlOfKey);
         }
+        listGroupResponseCache.invalidate(userId, partitionId);
     }
 
     /**
@@ -70,6 +70,15 @@ public class MemberCacheServiceAzure implements MemberCacheService {
 
     }
 
+    /**
+     * Counts the direct members in the graph instead of rebuilding the cached member list, which every membership
+     * change flushes.
+     */
+    @Override
+    public int getGroupSize(String groupId, String partitionId) {
+        return retrieveGroupRepo.getMembersCount(partitionId, groupId, null).getMembersCount();
+    }
+
     /**
      * Invalidate the member cache for a group by setting TTL to 1ms.
      * This ensures the next read will fetch fresh data from the database,
@@ -29,15 +29,18 @@ import org.opengroup.osdu.entitlements.v2.model.ChildrenTreeDto;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.spi.Operation;
 import org.opengroup.osdu.entitlements.v2.spi.addmember.AddMemberRepo;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -67,6 +70,33 @@ public class AddMemberRepoGremlin implements AddMemberRepo {
      */
     @Override
     public Set<String> addMember(EntityNode groupNode, AddMemberRepoDto addMemberRepoDto) {
+        Set<String> impactedUsers = prepareMemberVertex(addMemberRepoDto);
+        graphTraversalSourceUtilService.addEdge(buildChildEdge(groupNode, addMemberRepoDto));
+        graphTraversalSourceUtilService.addEdge(buildParentEdge(groupNode, addMemberRepoDto));
+        return new HashSet<>(impactedUsers);
+    }
+
+    /**
+     * Adds the two edges of every membership in a single request to database.
+     */
+    @Override
+    public Set<String> addMembers(List<BatchAddMemberRepoDto> memberships) {
+        Set<String> impactedUsers = new HashSet<>();
+        Set<String> preparedMembers = new HashSet<>();
+        List<AddEdgeDto> edges = new ArrayList<>();
+        for (BatchAddMemberRepoDto membership : memberships) {
+            AddMemberRepoDto addMemberRepoDto = membership.getAddMemberRepoDto();
+            if (preparedMembers.add(addMemberRepoDto.getMemberNode().getNodeId())) {
+                impactedUsers.addAll(prepareMemberVertex(addMemberRepoDto));
+            }
+            edges.add(buildChildEdge(membership.getGroupNode(), addMemberRepoDto));
+            edges.add(buildParentEdge(membership.getGroupNode(), addMemberRepoDto));
+        }
+        graphTraversalSourceUtilService.addEdges(edges);
+        return impactedUsers;
+    }
+
+    private Set<String> prepareMemberVertex(AddMemberRepoDto addMemberRepoDto) {
         if (featureFlag.isFeatureEnabled("oid_validation") &&
                 !addMemberRepoDto.getMemberNode().isGroup()) {
             validateOIdInRequest(addMemberRepoDto.getMemberNode().getNodeId());
@@ -74,6 +104,10 @@ public class AddMemberRepoGremlin implements AddMemberRepo {
         ChildrenTreeDto childrenUserDto = retrieveGroupRepo.loadAllChildrenUsers(addMemberRepoDto.getMemberNode());
         Set<String> impactedUsers = new HashSet<>(childrenUserDto.getChildrenUserIds());
         graphTraversalSourceUtilService.createVertexFromEntityNodeIdempotent(addMemberRepoDto.getMemberNode());
+        return impactedUsers;
+    }
+
+    private AddEdgeDto buildChildEdge(EntityNode groupNode, AddMemberRepoDto addMemberRepoDto) {
         AddEdgeDto.AddEdgeDtoBuilder addChildEdgeRequestBuilder = AddEdgeDto.builder()
                 .fromNodeId(groupNode.getNodeId())
                 .dpOfFromNodeId(groupNode.getDataPartitionId())
@@ -87,17 +121,17 @@ public class AddMemberRepoGremlin implements AddMemberRepo {
         } else {
             throw new IllegalArgumentException("Role parameter is required to add a member");
         }
-        AddEdgeDto addParentEdgeRequestBuilder = AddEdgeDto.builder()
+        return addChildEdgeRequestBuilder.build();
+    }
+
+    private AddEdgeDto buildParentEdge(EntityNode groupNode, AddMemberRepoDto addMemberRepoDto) {
+        return AddEdgeDto.builder()
                 .fromNodeId(addMemberRepoDto.getMemberNode().getNodeId())
                 .dpOfFromNodeId(addMemberRepoDto.getMemberNode().getDataPartitionId())
                 .toNodeId(groupNode.getNodeId())
                 .dpOfToNodeId(groupNode.getDataPartitionId())
                 .edgeLabel(EdgePropertyNames.PARENT_EDGE_LB)
                 .build();
-
-        graphTraversalSourceUtilService.addEdge(addChildEdgeRequestBuilder.build());
-        graphTraversalSourceUtilService.addEdge(addParentEdgeRequestBuilder);
-        return new HashSet<>(impactedUsers);
     }
 
     @Override
@@ -108,6 +108,12 @@ public class ClusterGremlinConnector implements GremlinConnector {
         return vertexUtilService.getNodeEdgesFromResultList(submitTraversalAsQueryString(traversal));
     }
 
+    @Override
+    public long count(Traversal<Vertex, Long> traversal) {
+        List<Result> results = submitTraversalAsQueryString(traversal);
+        return results.isEmpty() ? 0 : results.get(0).getLong();
+    }
+
     private List<Result> submitTraversalAsQueryString(Traversal<?, ?> traversal) {
         // Obtain the bytecode from the traversal
         Bytecode bytecode = traversal.asAdmin().getBytecode();
@@ -35,4 +35,6 @@ public interface GremlinConnector {
     void updateVertex(Traversal<Vertex, Vertex> traversal);
 
     List<NodeEdge> getEdge(GraphTraversal<Vertex, List<Edge>> traversal);
+
+    long count(Traversal<Vertex, Long> traversal);
 }
@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Repository
 public class RemoveMemberRepoGremlin implements RemoveMemberRepo {
@@ -46,6 +47,17 @@ public class RemoveMemberRepoGremlin implements RemoveMemberRepo {
         return executeRemoveMemberOperation(groupNode, memberNode);
     }
 
+    /**
+     * Removes child edges and parent edges of all the groups with a single traversal
+     */
+    @Override
+    public Set<String> removeMemberFromAllGroups(EntityNode memberNode, List<EntityNode> groupNodes, RemoveMemberServiceDto removeMemberServiceDto) {
+        List<String> impactedUsers = retrieveGroupRepo.loadAllChildrenUsers(memberNode).getChildrenUserIds();
+        graphTraversalSourceUtilService.removeMemberEdges(memberNode,
+                groupNodes.stream().map(EntityNode::getNodeId).collect(Collectors.toList()));
+        return (impactedUsers == null) ? Collections.emptySet() : new HashSet<>(impactedUsers);
+    }
+
     private Set<String> executeRemoveMemberOperation(EntityNode groupNode, EntityNode memberNode) {
         List<String> impactedUsers = retrieveGroupRepo.loadAllChildrenUsers(memberNode).getChildrenUserIds();
         RemoveEdgeDto removeChildEdgeDto = RemoveEdgeDto.builder()
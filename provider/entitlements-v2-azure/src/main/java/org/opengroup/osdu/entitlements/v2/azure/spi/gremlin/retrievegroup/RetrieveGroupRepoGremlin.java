@@ -1,12 +1,15 @@
 package org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.retrievegroup;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.opengroup.osdu.core.common.cache.VmCache;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.entitlements.v2.azure.model.NodeEdge;
 import org.opengroup.osdu.entitlements.v2.azure.model.NodeVertex;
@@ -17,19 +20,28 @@ import org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.constant.StepLabel;
 import org.opengroup.osdu.entitlements.v2.azure.spi.gremlin.constant.VertexPropertyNames;
 import org.opengroup.osdu.entitlements.v2.model.*;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 public class RetrieveGroupRepoGremlin implements RetrieveGroupRepo {
+    private static final int GROUPS_COUNT_CACHE_SECONDS = 60;
+    private static final int GROUPS_COUNT_CACHE_SIZE = 1000;
+    private static final String CONTINUATION_TOKEN_VERSION = "n1:";
+    private static final String MALFORMED_CONTINUATION_TOKEN = "Malformed cursor, must be a cursor returned by a previous keyset page";
+
     private final GremlinConnector gremlinConnector;
     private final VertexUtilService vertexUtilService;
+    // Counting the groups scans the whole partition, so it is not paid on every page
+    private final VmCache<String, Long> groupsCountCache = new VmCache<>(GROUPS_COUNT_CACHE_SECONDS, GROUPS_COUNT_CACHE_SIZE);
 
     @Override
     public EntityNode groupExistenceValidation(String groupId, String partitionId) {
@@ -146,6 +158,34 @@ public class RetrieveGroupRepoGremlin implements RetrieveGroupRepo {
                 .build();
     }
 
+    @Override
+    public boolean isReachable(EntityNode from, EntityNode to) {
+        if (from.getNodeId().equalsIgnoreCase(to.getNodeId())) {
+            return true;
+        }
+        Traversal<Vertex, Vertex> traversal = gremlinConnector.getGraphTraversalSource().V()
+                .has(VertexPropertyNames.DATA_PARTITION_ID, from.getDataPartitionId())
+                .has(VertexPropertyNames.NODE_ID, from.getNodeId())
+                .repeat(__.outE(EdgePropertyNames.PARENT_EDGE_LB).inV())
+                .until(__.has(VertexPropertyNames.NODE_ID, to.getNodeId())
+                        .has(VertexPropertyNames.DATA_PARTITION_ID, to.getDataPartitionId()))
+                .limit(1);
+        return gremlinConnector.hasVertex(traversal);
+    }
+
+    @Override
+    public long countAncestors(EntityNode node, String partitionId) {
+        Traversal<Vertex, Long> traversal = gremlinConnector.getGraphTraversalSource().V()
+                .has(VertexPropertyNames.DATA_PARTITION_ID, node.getDataPartitionId())
+                .has(VertexPropertyNames.NODE_ID, node.getNodeId())
+                .emit(__.hasLabel(NodeType.GROUP.toString()))
+                .repeat(__.outE(EdgePropertyNames.PARENT_EDGE_LB).inV())
+                .has(VertexPropertyNames.DATA_PARTITION_ID, partitionId)
+                .dedup()
+                .count();
+        return gremlinConnector.count(traversal);
+    }
+
     @Override
     public List<ChildrenReference> loadDirectChildren(String partitionId, String... nodeIds) {
         final List<ChildrenReference> resultList = new ArrayList<>();
@@ -201,39 +241,42 @@ public class RetrieveGroupRepoGremlin implements RetrieveGroupRepo {
 
     @Override
     public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor, Integer limit) {
+        return getGroupsInPartition(dataPartitionId, groupType, cursor, limit, PaginationMode.OFFSET, true);
+    }
 
-        int offsetValue = 0;
-        if (Objects.nonNull(cursor) && !cursor.isEmpty()) {
-            try {
-                offsetValue = Integer.parseInt(cursor);
-            } catch (NumberFormatException e) {
-                throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Malformed cursor, must be integer value");
-            }
+    /**
+     * The type filter and the page window are evaluated by the traversal, which reads one group more than the limit
+     * to tell whether there is a next page. The total count comes from a separate count traversal cached for a minute.
+     */
+    @Override
+    public ListGroupsOfPartitionDto getGroupsInPartition(String dataPartitionId, GroupType groupType, String cursor,
+                                                         Integer limit, PaginationMode paginationMode, boolean includeTotalCount) {
+        boolean keyset = paginationMode == PaginationMode.KEYSET;
+        int offsetValue = keyset ? 0 : parseOffsetCursor(cursor);
+        GraphTraversal<Vertex, Vertex> traversal = getGroupsInPartitionTraversal(dataPartitionId, groupType);
+        if (keyset && Objects.nonNull(cursor) && !cursor.isEmpty()) {
+            traversal = traversal.has(VertexPropertyNames.NAME, P.gt(decodeContinuationToken(cursor)));
         }
+        traversal = traversal.order()
+                .by(VertexPropertyNames.NAME)
+                .range(offsetValue, offsetValue + limit + 1L);
 
-        Traversal<Vertex, Vertex> traversal = gremlinConnector.getGraphTraversalSource().V()
-                .has(VertexPropertyNames.DATA_PARTITION_ID, dataPartitionId)
-                .hasLabel(NodeType.GROUP.toString())
-                .order()
-                .by(VertexPropertyNames.NAME);
-        List<NodeVertex> vertices = gremlinConnector.getVertices(traversal);
-
-        List<ParentReference> parentReferencesByGroupType = vertices.stream()
+        List<ParentReference> parentReferences = gremlinConnector.getVertices(traversal).stream()
                 .map(vertexUtilService::createParentReference)
-                .filter(group -> groupType.equals(GroupType.NONE) || group.isMatchGroupType(groupType))
-                .toList();
-        List<ParentReference> parentReferencesByLimit = parentReferencesByGroupType.stream()
-                .skip(offsetValue)
-                .limit(limit)
                 .toList();
-
-        int totalCount = parentReferencesByGroupType.size();
-        int cursorValue = totalCount > (offsetValue + limit) ? (offsetValue + limit) : 0;
-
+        boolean hasNextPage = parentReferences.size() > limit;
+        List<ParentReference> page = hasNextPage ? parentReferences.subList(0, limit) : parentReferences;
+
+        String nextCursor;
+        if (keyset) {
+            nextCursor = hasNextPage ? encodeContinuationToken(page.get(page.size() - 1).getName()) : null;
+        } else {
+            nextCursor = String.valueOf(hasNextPage ? offsetValue + limit : 0);
+        }
         return ListGroupsOfPartitionDto.builder()
-                .groups(parentReferencesByLimit)
-                .cursor(String.valueOf(cursorValue))
-                .totalCount((long) totalCount)
+                .groups(page)
+                .cursor(nextCursor)
+                .totalCount(includeTotalCount ? countGroupsInPartition(dataPartitionId, groupType) : null)
                 .build();
     }
 
@@ -242,18 +285,17 @@ public class RetrieveGroupRepoGremlin implements RetrieveGroupRepo {
         GraphTraversal<Vertex, Edge> vertexEdgeGraphTraversal = gremlinConnector.getGraphTraversalSource().V()
                 .has(VertexPropertyNames.DATA_PARTITION_ID, partitionId)
                 .and(buildOrTraversalsByNodeIds(groupId))
-                .outE(EdgePropertyNames.CHILD_EDGE_LB)
-                .as(StepLabel.EDGE);
+                .outE(EdgePropertyNames.CHILD_EDGE_LB);
 
         if (role != null)
             vertexEdgeGraphTraversal = vertexEdgeGraphTraversal.has(EdgePropertyNames.ROLE, role.toString());
 
-        Traversal<Vertex, Map<String, Object>> traversal = vertexEdgeGraphTraversal.inV()
-                .as(StepLabel.VERTEX).select(StepLabel.EDGE, StepLabel.VERTEX);
+        // Counted by the server, the members themselves are not sent back
+        Traversal<Vertex, Long> traversal = vertexEdgeGraphTraversal.inV().count();
 
         return MembersCountResponseDto
                 .builder()
-                .membersCount(gremlinConnector.getVerticesAndEdges(traversal).size())
+                .membersCount((int) gremlinConnector.count(traversal))
                 .groupEmail(groupId)
                 .build();
     }
@@ -268,4 +310,62 @@ public class RetrieveGroupRepoGremlin implements RetrieveGroupRepo {
                 .map(id -> __.has(VertexPropertyNames.NODE_ID, id))
                 .toArray(Traversal[]::new);
     }
+
+    private long countGroupsInPartition(String dataPartitionId, GroupType groupType) {
+        String key = dataPartitionId + ":" + groupType;
+        Long count = groupsCountCache.get(key);
+        if (count == null) {
+            count = gremlinConnector.count(getGroupsInPartitionTraversal(dataPartitionId, groupType).count());
+            groupsCountCache.put(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * Mirrors {@link ParentReference#isMatchGroupType(GroupType)} on the stored names, which are lower case.
+     */
+    private GraphTraversal<Vertex, Vertex> getGroupsInPartitionTraversal(String dataPartitionId, GroupType groupType) {
+        GraphTraversal<Vertex, Vertex> traversal = gremlinConnector.getGraphTraversalSource().V()
+                .has(VertexPropertyNames.DATA_PARTITION_ID, dataPartitionId)
+                .hasLabel(NodeType.GROUP.toString());
+        return switch (groupType) {
+            case DATA -> traversal.has(VertexPropertyNames.NAME, TextP.startingWith("data."));
+            case SERVICE -> traversal.has(VertexPropertyNames.NAME, TextP.startingWith("service."));
+            case USER -> traversal
+                    .or(__.has(VertexPropertyNames.NAME, "users"),
+                            __.has(VertexPropertyNames.NAME, TextP.startingWith("users.")),
+                            __.has(VertexPropertyNames.NAME, TextP.startingWith("user.")))
+                    .has(VertexPropertyNames.NAME, TextP.notStartingWith("users.sharing_"));
+            case NONE -> traversal;
+        };
+    }
+
+    private int parseOffsetCursor(String cursor) {
+        if (Objects.isNull(cursor) || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), "Malformed cursor, must be integer value");
+        }
+    }
+
+    private String encodeContinuationToken(String lastName) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CONTINUATION_TOKEN_VERSION + lastName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeContinuationToken(String cursor) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), MALFORMED_CONTINUATION_TOKEN);
+        }
+        if (!value.startsWith(CONTINUATION_TOKEN_VERSION)) {
+            throw new AppException(HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), MALFORMED_CONTINUATION_TOKEN);
+        }
+        return value.substring(CONTINUATION_TOKEN_VERSION.length());
+    }
 }
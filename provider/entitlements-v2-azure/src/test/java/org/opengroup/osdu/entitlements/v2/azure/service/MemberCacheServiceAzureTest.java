@@ -15,6 +15,7 @@ import org.opengroup.osdu.entitlements.v2.model.ChildrenReference;
 import org.opengroup.osdu.entitlements.v2.model.ChildrenReferences;
 import org.opengroup.osdu.entitlements.v2.model.NodeType;
 import org.opengroup.osdu.entitlements.v2.model.Role;
+import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.redisson.api.RLock;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -169,6 +170,15 @@ class MemberCacheServiceAzureTest {
         verify(redisMemberCache, times(1)).updateTtl(CACHE_KEY, 1L);
     }
 
+    @Test
+    void getGroupSize_shouldCountMembersWithoutLoadingThem() {
+        when(retrieveGroupRepo.getMembersCount(PARTITION_ID, GROUP_ID, null)).thenReturn(
+                MembersCountResponseDto.builder().groupEmail(GROUP_ID).membersCount(2).build());
+
+        assertEquals(2, memberCacheService.getGroupSize(GROUP_ID, PARTITION_ID));
+        verify(redisMemberCache, never()).get(anyString());
+    }
+
     private ChildrenReferences createChildrenReferences() {
         ChildrenReferences references = new ChildrenReferences();
         references.setChildReferencesOfGroup(createChildrenReferenceList());
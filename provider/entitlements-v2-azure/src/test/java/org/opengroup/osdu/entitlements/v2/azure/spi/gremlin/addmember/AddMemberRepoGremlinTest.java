@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,6 +15,7 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.http.RequestInfo;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.entitlements.v2.azure.service.AddEdgeDto;
 import org.opengroup.osdu.entitlements.v2.azure.service.GraphTraversalSourceUtilService;
 import org.opengroup.osdu.entitlements.v2.logging.AuditLogger;
 import org.opengroup.osdu.entitlements.v2.model.ChildrenTreeDto;
@@ -21,9 +23,13 @@ import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.NodeType;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
+import org.opengroup.osdu.entitlements.v2.model.addmember.BatchAddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
@@ -264,4 +270,28 @@ class AddMemberRepoGremlinTest {
         verify(requestInfo, times(1)).getTenantInfo();
         verify(graphTraversalSourceUtilService, times(2)).addEdge(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addMembers_addsAllEdgesInSingleRequest_andPreparesEachMemberOnce() {
+        EntityNode firstGroup = EntityNode.builder().nodeId(GROUP_EMAIL).type(NodeType.GROUP).dataPartitionId(DATA_PARTITION).build();
+        EntityNode secondGroup = EntityNode.builder().nodeId("second-group-mail").type(NodeType.GROUP).dataPartitionId(DATA_PARTITION).build();
+        EntityNode memberNode = EntityNode.builder().nodeId("member group").type(NodeType.GROUP).dataPartitionId(DATA_PARTITION).build();
+        AddMemberRepoDto addMemberRepoDto = AddMemberRepoDto.builder().memberNode(memberNode).role(Role.MEMBER)
+                .partitionId(DATA_PARTITION).build();
+        when(retrieveGroupRepo.loadAllChildrenUsers(memberNode))
+                .thenReturn(ChildrenTreeDto.builder().childrenUserIds(List.of("user@xxx.com")).build());
+
+        Set<String> impactedUsers = sut.addMembers(List.of(
+                BatchAddMemberRepoDto.builder().groupNode(firstGroup).addMemberRepoDto(addMemberRepoDto).build(),
+                BatchAddMemberRepoDto.builder().groupNode(secondGroup).addMemberRepoDto(addMemberRepoDto).build()));
+
+        assertEquals(Set.of("user@xxx.com"), impactedUsers);
+        verify(retrieveGroupRepo, times(1)).loadAllChildrenUsers(memberNode);
+        verify(graphTraversalSourceUtilService, times(1)).createVertexFromEntityNodeIdempotent(memberNode);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AddEdgeDto>> edges = ArgumentCaptor.forClass(List.class);
+        verify(graphTraversalSourceUtilService, times(1)).addEdges(edges.capture());
+        verify(graphTraversalSourceUtilService, times(0)).addEdge(any());
+        assertEquals(4, edges.getValue().size());
+    }
+}
@@ -97,6 +97,11 @@ public class EmbeddedGremlinConnector implements GremlinConnector {
         return edgesList;
     }
 
+    @Override
+    public long count(Traversal<Vertex, Long> traversal) {
+        return traversal.next();
+    }
+
     public NodeVertex createNodeVertex(Vertex vertex) {
         Map<String, List<Map<String, String>>> properties = new HashMap<>();
         if (vertex.label().equalsIgnoreCase(String.valueOf(NodeType.USER))) {
@@ -24,6 +24,7 @@ import org.opengroup.osdu.entitlements.v2.model.ParentTreeDto;
 import org.opengroup.osdu.entitlements.v2.model.Role;
 import org.opengroup.osdu.entitlements.v2.model.addmember.AddMemberRepoDto;
 import org.opengroup.osdu.entitlements.v2.model.listgroup.ListGroupsOfPartitionDto;
+import org.opengroup.osdu.entitlements.v2.model.listgroup.PaginationMode;
 import org.opengroup.osdu.entitlements.v2.model.memberscount.MembersCountResponseDto;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +47,7 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -195,6 +197,33 @@ public class RetrieveGroupRepoGremlinTest {
 //        Assert.assertEquals(3, parents.getMaxDepth());
     }
 
+    @Test
+    public void shouldFindAncestorAndCountAncestorsWithoutLoadingParents() {
+        GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
+        for (String name : Arrays.asList("users.x", "data.x", "data.y")) {
+            graphTraversalSource.addV(NodeType.GROUP.toString())
+                    .property(VertexPropertyNames.NODE_ID, name + "@dp.domain.com")
+                    .property(VertexPropertyNames.NAME, name)
+                    .property(VertexPropertyNames.DESCRIPTION, "")
+                    .property(VertexPropertyNames.DATA_PARTITION_ID, "dp")
+                    .next();
+        }
+        addMember("users.x@dp.domain.com", NodeType.GROUP, "data.x@dp.domain.com", Role.MEMBER);
+        addMember("data.x@dp.domain.com", NodeType.GROUP, "data.y@dp.domain.com", Role.MEMBER);
+        addMember("member@xxx.com", NodeType.USER, "users.x@dp.domain.com", Role.MEMBER);
+
+        EntityNode memberNode = EntityNode.createMemberNodeForNewUser("member@xxx.com", "dp");
+        EntityNode usersNode = EntityNode.builder().nodeId("users.x@dp.domain.com").type(NodeType.GROUP).dataPartitionId("dp").build();
+        EntityNode topNode = EntityNode.builder().nodeId("data.y@dp.domain.com").type(NodeType.GROUP).dataPartitionId("dp").build();
+
+        assertTrue(retrieveGroupRepo.isReachable(memberNode, topNode));
+        assertTrue(retrieveGroupRepo.isReachable(usersNode, topNode));
+        assertFalse(retrieveGroupRepo.isReachable(topNode, usersNode));
+        Assert.assertEquals(3, retrieveGroupRepo.countAncestors(memberNode, "dp"));
+        Assert.assertEquals(3, retrieveGroupRepo.countAncestors(usersNode, "dp"));
+        Assert.assertEquals(0, retrieveGroupRepo.countAncestors(memberNode, "other"));
+    }
+
     @Test
     public void shouldReturnAllParentsAndMaxDepthWhenLoadAllParents2() {
         GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
@@ -937,6 +966,46 @@ users.x@dp.domain.com  users.y@dp.domain.com    member2@xxx.com -----------
                 "users.x@dp.domain.com", "users.y@dp.domain.com");
     }
 
+    @Test
+    public void shouldReturnAllGroupsForPartitionByContinuationToken() {
+        createGroupsForPartition("keyset");
+
+        ListGroupsOfPartitionDto firstPage = retrieveGroupRepo
+                .getGroupsInPartition("keyset", GroupType.NONE, null, 4, PaginationMode.KEYSET, true);
+        ListGroupsOfPartitionDto lastPage = retrieveGroupRepo
+                .getGroupsInPartition("keyset", GroupType.NONE, firstPage.getCursor(), 4, PaginationMode.KEYSET, true);
+
+        assertEquals(6, firstPage.getTotalCount());
+        assertParentReferencesEquals(firstPage.getGroups(), "data.x@dp.domain.com",
+                "data.y@dp.domain.com", "service.x@dp.domain.com", "service.y@dp.domain.com");
+        assertEquals(6, lastPage.getTotalCount());
+        assertNull(lastPage.getCursor());
+        assertParentReferencesEquals(lastPage.getGroups(), "users.x@dp.domain.com", "users.y@dp.domain.com");
+    }
+
+    @Test
+    public void shouldReturnUserGroupsByContinuationTokenWithoutTotalCount() {
+        createGroupsForPartition("keyset-users");
+
+        ListGroupsOfPartitionDto firstPage = retrieveGroupRepo
+                .getGroupsInPartition("keyset-users", GroupType.USER, "", 1, PaginationMode.KEYSET, false);
+        ListGroupsOfPartitionDto secondPage = retrieveGroupRepo
+                .getGroupsInPartition("keyset-users", GroupType.USER, firstPage.getCursor(), 1, PaginationMode.KEYSET, false);
+
+        assertNull(firstPage.getTotalCount());
+        assertParentReferencesEquals(firstPage.getGroups(), "users.x@dp.domain.com");
+        assertParentReferencesEquals(secondPage.getGroups(), "users.y@dp.domain.com");
+        assertNull(secondPage.getCursor());
+    }
+
+    @Test
+    public void shouldThrowAppExceptionWithBadRequest_whenContinuationTokenIsInvalid() {
+        AppException appException = assertThrows(AppException.class, () ->
+                retrieveGroupRepo.getGroupsInPartition("dp", GroupType.NONE, "2", 2, PaginationMode.KEYSET, true));
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), appException.getError().getCode());
+    }
+
     @Test
     public void shouldGetMemberCountSuccessfully_whenMemberRoleIsSpecified() {
         GraphTraversalSource graphTraversalSource = gremlinConnector.getGraphTraversalSource();
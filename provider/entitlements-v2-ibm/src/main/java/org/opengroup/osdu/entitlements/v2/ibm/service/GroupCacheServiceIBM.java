@@ -8,6 +8,7 @@ import java.util.Set;
 import org.opengroup.osdu.entitlements.v2.model.EntityNode;
 import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.opengroup.osdu.entitlements.v2.service.GroupCacheService;
+import org.opengroup.osdu.entitlements.v2.service.ListGroupResponseCache;
 import org.opengroup.osdu.entitlements.v2.spi.retrievegroup.RetrieveGroupRepo;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +20,7 @@ public class GroupCacheServiceIBM implements GroupCacheService {
 
     private final RetrieveGroupRepo retrieveGroupRepo;
     private final IBMGroupCache ibmGroupCache;
+    private final ListGroupResponseCache listGroupResponseCache;
 
     @Override
     public Set<ParentReference> getFromPartitionCache(String requesterId, String partitionId) {
@@ -32,15 +34,13 @@ public class GroupCacheServiceIBM implements GroupCacheService {
         return result;
     }
 
-	@Override
-	public void flushListGroupCacheForUser(String arg0, String arg1) {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public void refreshListGroupCache(Set<String> arg0, String arg1) {
-		// TODO Auto-generated method stub
-		
-	}
+    @Override
+    public void flushListGroupCacheForUser(String userId, String partitionId) {
+        listGroupResponseCache.invalidate(userId, partitionId);
+    }
+
+    @Override
+    public void refreshListGroupCache(Set<String> userIds, String partitionId) {
+        userIds.forEach(userId -> flushListGroupCacheForUser(userId, partitionId));
+    }
 }
@@ -7,7 +7,6 @@ import org.opengroup.osdu.entitlements.v2.model.ParentReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,7 +14,7 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequestScope
 @Component
 public class IBMGroupCache {
-    private Map<String, Set<ParentReference>> groupMap = new ConcurrentHashMap<>();
+    private final Map<String, Set<ParentReference>> groupMap = new ConcurrentHashMap<>();
 
     public Set<ParentReference> getGroupCache(String requesterId) {
         return this.groupMap.get(requesterId);
@@ -68,6 +68,26 @@ public class RemoveMemberRedisRepo extends BaseRepo implements RemoveMemberRepo
         return (impactedUsers == null) ? Collections.emptySet() : new HashSet<>(impactedUsers);
     }
 
+    /**
+     * Redis keeps the child references on the parent, so the reference of the member is resolved for every group
+     * before it is removed.
+     */
+    @Override
+    public Set<String> removeMemberFromAllGroups(EntityNode memberNode, List<EntityNode> groupNodes, RemoveMemberServiceDto removeMemberServiceDto) {
+        Set<String> impactedUsers = new HashSet<>();
+        for (EntityNode groupNode : groupNodes) {
+            RemoveMemberServiceDto groupRemoveMemberServiceDto = RemoveMemberServiceDto.builder()
+                    .groupEmail(groupNode.getNodeId())
+                    .memberEmail(removeMemberServiceDto.getMemberEmail())
+                    .requesterId(removeMemberServiceDto.getRequesterId())
+                    .partitionId(removeMemberServiceDto.getPartitionId())
+                    .childrenReference(memberNode.getDirectChildReference(retrieveGroupRepo, groupNode).orElse(null))
+                    .build();
+            impactedUsers.addAll(removeMember(groupNode, memberNode, groupRemoveMemberServiceDto));
+        }
+        return impactedUsers;
+    }
+
     private void executeParentUpdate(EntityNode groupEntityNode, ChildrenReference childrenReference) {
         Operation updateParentOperation = RemoveMemberParentUpdateOperationImpl.builder().redisConnector(redisConnector).retry(retry)
                 .log(log).config(config).groupNode(groupEntityNode).childrenReference(childrenReference).build();
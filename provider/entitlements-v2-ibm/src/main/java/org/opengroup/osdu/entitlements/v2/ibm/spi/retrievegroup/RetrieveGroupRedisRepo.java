@@ -307,6 +307,48 @@ public class RetrieveGroupRedisRepo implements RetrieveGroupRepo {
         return ParentTreeDto.builder().parentReferences(filteredAllParents).maxDepth(maxDepth).build();
     }
 
+    /**
+     * Bidirectional BFS: the parents of the source and the child groups of the target are expanded one level at a
+     * time, always on the smaller frontier, and the search stops as soon as both sides meet.
+     */
+    @Override
+    public boolean isReachable(EntityNode from, EntityNode to) {
+        if (from.getNodeId().equalsIgnoreCase(to.getNodeId())) {
+            return true;
+        }
+        String partitionId = from.getDataPartitionId();
+        Set<String> visitedUpwards = new HashSet<>(Collections.singleton(from.getNodeId()));
+        Set<String> visitedDownwards = new HashSet<>(Collections.singleton(to.getNodeId()));
+        Set<String> upwardsFrontier = new HashSet<>(visitedUpwards);
+        Set<String> downwardsFrontier = new HashSet<>(visitedDownwards);
+        while (!upwardsFrontier.isEmpty() && !downwardsFrontier.isEmpty()) {
+            Set<String> nextFrontier = new HashSet<>();
+            if (upwardsFrontier.size() <= downwardsFrontier.size()) {
+                for (ParentReference parent : loadDirectParents(partitionId, upwardsFrontier.toArray(new String[0]))) {
+                    if (visitedDownwards.contains(parent.getId())) {
+                        return true;
+                    }
+                    if (visitedUpwards.add(parent.getId())) {
+                        nextFrontier.add(parent.getId());
+                    }
+                }
+                upwardsFrontier = nextFrontier;
+            } else {
+                for (ChildrenReference child : loadDirectChildren(partitionId, downwardsFrontier.toArray(new String[0]))) {
+                    if (visitedUpwards.contains(child.getId())) {
+                        return true;
+                    }
+                    if (child.isGroup() && partitionId.equalsIgnoreCase(child.getDataPartitionId())
+                            && visitedDownwards.add(child.getId())) {
+                        nextFrontier.add(child.getId());
+                    }
+                }
+                downwardsFrontier = nextFrontier;
+            }
+        }
+        return false;
+    }
+
     @Override
     public List<ChildrenReference> loadDirectChildren(String partitionId, String... nodeId) {
         RedisConnectionPool connectionPool = this.redisConnector.getPartitionRedisConnectionPool(partitionId);
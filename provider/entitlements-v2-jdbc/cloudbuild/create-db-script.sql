@@ -1,3 +1,10 @@
+DROP TABLE IF EXISTS entitlements_<version>.change_event_outbox;
+DROP TABLE IF EXISTS entitlements_<version>.group_member_count;
+DROP FUNCTION IF EXISTS entitlements_<version>.notify_member_to_group_change() CASCADE;
+DROP FUNCTION IF EXISTS entitlements_<version>.notify_embedded_group_change() CASCADE;
+DROP FUNCTION IF EXISTS entitlements_<version>.notify_member_delete() CASCADE;
+DROP FUNCTION IF EXISTS entitlements_<version>.notify_group_delete() CASCADE;
+DROP TABLE IF EXISTS entitlements_<version>.group_closure;
 DROP TABLE IF EXISTS entitlements_<version>.member_to_group;
 DROP TABLE IF EXISTS entitlements_<version>."member";
 DROP TABLE IF EXISTS entitlements_<version>.embedded_group;
@@ -60,7 +67,7 @@ CREATE TABLE entitlements_<version>.member_to_group
 CONSTRAINT group_as_member_holder_fk FOREIGN KEY (group_id)
 REFERENCES entitlements_<version>."group" (id) MATCH SIMPLE
 ON UPDATE NO ACTION
-ON DELETE NO CASCADE
+ON DELETE NO ACTION
 NOT VALID,
 CONSTRAINT user_as_member_fk FOREIGN KEY (member_id)
 REFERENCES entitlements_<version>.member (id) MATCH SIMPLE
@@ -95,7 +102,187 @@ TABLESPACE pg_default;
 
 CREATE INDEX idx_group_to_group ON embedded_group (parent_id, child_id);
 CREATE INDEX idx_member_to_group ON member_to_group (group_id, member_id);
+CREATE INDEX idx_member_to_group_member ON member_to_group (member_id);
 CREATE INDEX idx_group_partition ON "group" (partition_id);
+CREATE INDEX idx_group_partition_name ON "group" (partition_id, name, id);
 
 ALTER TABLE entitlements_<version>.embedded_group
-OWNER to postgres;
\ No newline at end of file
+OWNER to postgres;
+
+CREATE TABLE entitlements_<version>.group_closure
+(
+    ancestor_id bigint NOT NULL,
+    descendant_id bigint NOT NULL,
+    depth integer NOT NULL,
+    CONSTRAINT group_closure_pk PRIMARY KEY (ancestor_id, descendant_id),
+CONSTRAINT closure_ancestor_fk FOREIGN KEY (ancestor_id)
+REFERENCES entitlements_<version>."group" (id) MATCH SIMPLE
+ON UPDATE NO ACTION
+ON DELETE CASCADE,
+CONSTRAINT closure_descendant_fk FOREIGN KEY (descendant_id)
+REFERENCES entitlements_<version>."group" (id) MATCH SIMPLE
+ON UPDATE NO ACTION
+ON DELETE CASCADE
+)
+
+TABLESPACE pg_default;
+
+CREATE INDEX idx_group_closure_descendant ON entitlements_<version>.group_closure (descendant_id, ancestor_id);
+
+ALTER TABLE entitlements_<version>.group_closure
+OWNER to postgres;
+
+CREATE TABLE entitlements_<version>.group_member_count
+(
+    group_id bigint NOT NULL,
+    owner_users integer NOT NULL DEFAULT 0,
+    member_users integer NOT NULL DEFAULT 0,
+    child_groups integer NOT NULL DEFAULT 0,
+    CONSTRAINT group_member_count_pk PRIMARY KEY (group_id),
+CONSTRAINT member_count_group_fk FOREIGN KEY (group_id)
+REFERENCES entitlements_<version>."group" (id) MATCH SIMPLE
+ON UPDATE NO ACTION
+ON DELETE CASCADE
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE entitlements_<version>.group_member_count
+OWNER to postgres;
+
+CREATE TABLE entitlements_<version>.change_event_outbox
+(
+    id bigserial NOT NULL,
+    partition_id text NOT NULL,
+    payload text NOT NULL,
+    created_at timestamp with time zone NOT NULL DEFAULT now(),
+    CONSTRAINT change_event_outbox_pk PRIMARY KEY (id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE entitlements_<version>.change_event_outbox
+OWNER to postgres;
+
+CREATE FUNCTION entitlements_<version>.notify_member_to_group_change()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    changed_email     TEXT;
+    changed_partition TEXT;
+BEGIN
+    IF current_setting('entitlements.notify', true) IS DISTINCT FROM 'on' THEN
+        RETURN NULL;
+    END IF;
+    SELECT m.email, g.partition_id INTO changed_email, changed_partition
+    FROM entitlements_<version>."member" AS m,
+         entitlements_<version>."group" AS g
+    WHERE m.id = CASE WHEN TG_OP = 'DELETE' THEN OLD.member_id ELSE NEW.member_id END
+      AND g.id = CASE WHEN TG_OP = 'DELETE' THEN OLD.group_id ELSE NEW.group_id END;
+    IF changed_email IS NOT NULL THEN
+        PERFORM pg_notify('entitlements_invalidation',
+                          TG_TABLE_SCHEMA || ':m:' || changed_partition || ':' || changed_email);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER member_to_group_invalidation
+    AFTER INSERT OR UPDATE OR DELETE
+    ON entitlements_<version>.member_to_group
+    FOR EACH ROW
+EXECUTE FUNCTION entitlements_<version>.notify_member_to_group_change();
+
+CREATE FUNCTION entitlements_<version>.notify_embedded_group_change()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    changed_email     TEXT;
+    changed_partition TEXT;
+BEGIN
+    IF current_setting('entitlements.notify', true) IS DISTINCT FROM 'on' THEN
+        RETURN NULL;
+    END IF;
+    SELECT child.email, parent.partition_id INTO changed_email, changed_partition
+    FROM entitlements_<version>."group" AS child,
+         entitlements_<version>."group" AS parent
+    WHERE child.id = CASE WHEN TG_OP = 'DELETE' THEN OLD.child_id ELSE NEW.child_id END
+      AND parent.id = CASE WHEN TG_OP = 'DELETE' THEN OLD.parent_id ELSE NEW.parent_id END;
+    IF changed_email IS NOT NULL THEN
+        PERFORM pg_notify('entitlements_invalidation',
+                          TG_TABLE_SCHEMA || ':g:' || changed_partition || ':' || changed_email);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER embedded_group_invalidation
+    AFTER INSERT OR UPDATE OR DELETE
+    ON entitlements_<version>.embedded_group
+    FOR EACH ROW
+EXECUTE FUNCTION entitlements_<version>.notify_embedded_group_change();
+
+-- The rows deleted by the statement are gone when the AFTER triggers above look them up, so the
+-- members and groups notify their removals themselves while they are still there
+CREATE FUNCTION entitlements_<version>.notify_member_delete()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF current_setting('entitlements.notify', true) IS DISTINCT FROM 'on' THEN
+        RETURN OLD;
+    END IF;
+    PERFORM pg_notify('entitlements_invalidation',
+                      TG_TABLE_SCHEMA || ':m:' || p.partition_id || ':' || OLD.email)
+    FROM (SELECT OLD.partition_id AS partition_id
+          UNION
+          SELECT g.partition_id
+          FROM entitlements_<version>.member_to_group AS mg
+                   JOIN entitlements_<version>."group" AS g ON g.id = mg.group_id
+          WHERE mg.member_id = OLD.id) AS p
+    WHERE p.partition_id IS NOT NULL;
+    RETURN OLD;
+END;
+$$;
+
+CREATE TRIGGER member_delete_invalidation
+    BEFORE DELETE
+    ON entitlements_<version>."member"
+    FOR EACH ROW
+EXECUTE FUNCTION entitlements_<version>.notify_member_delete();
+
+CREATE FUNCTION entitlements_<version>.notify_group_delete()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF current_setting('entitlements.notify', true) IS DISTINCT FROM 'on' THEN
+        RETURN OLD;
+    END IF;
+    PERFORM pg_notify('entitlements_invalidation',
+                      TG_TABLE_SCHEMA || ':g:' || OLD.partition_id || ':' || OLD.email);
+    PERFORM pg_notify('entitlements_invalidation',
+                      TG_TABLE_SCHEMA || ':m:' || OLD.partition_id || ':' || m.email)
+    FROM entitlements_<version>.member_to_group AS mg
+             JOIN entitlements_<version>."member" AS m ON m.id = mg.member_id
+    WHERE mg.group_id = OLD.id;
+    PERFORM pg_notify('entitlements_invalidation',
+                      TG_TABLE_SCHEMA || ':g:' || OLD.partition_id || ':' || child.email)
+    FROM entitlements_<version>.embedded_group AS eg
+             JOIN entitlements_<version>."group" AS child ON child.id = eg.child_id
+    WHERE eg.parent_id = OLD.id;
+    RETURN OLD;
+END;
+$$;
+
+CREATE TRIGGER group_delete_invalidation
+    BEFORE DELETE
+    ON entitlements_<version>."group"
+    FOR EACH ROW
+EXECUTE FUNCTION entitlements_<version>.notify_group_delete();
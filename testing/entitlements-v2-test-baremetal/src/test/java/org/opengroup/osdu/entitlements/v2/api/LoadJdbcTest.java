@@ -15,23 +15,15 @@
  *  limitations under the License.
  */
 
-package org.opengroup.osdu.entitlements.v2.jdbc.model;
+package org.opengroup.osdu.entitlements.v2.api;
 
-import java.util.List;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.springframework.data.relational.core.mapping.Table;
+import org.opengroup.osdu.entitlements.v2.acceptance.LoadTest;
+import org.opengroup.osdu.entitlements.v2.util.AnthosConfigurationService;
+import org.opengroup.osdu.entitlements.v2.util.OpenIDTokenProvider;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-@Table("group")
-public class GroupInfoEntityList {
-
-    private List<GroupInfoEntity> groupInfoEntities;
-    private Long totalCount;
+public class LoadJdbcTest extends LoadTest {
 
+    public LoadJdbcTest() {
+        super(new AnthosConfigurationService(), new OpenIDTokenProvider());
+    }
 }
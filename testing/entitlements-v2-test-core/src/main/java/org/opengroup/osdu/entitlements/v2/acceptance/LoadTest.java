@@ -0,0 +1,112 @@
+package org.opengroup.osdu.entitlements.v2.acceptance;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.ApiHierarchyLoader;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.HierarchyLoader;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.HierarchySpec;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.JdbcHierarchyLoader;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.LoadTestDriver;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.LoadTestReport;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.Operation;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.SyntheticHierarchy;
+import org.opengroup.osdu.entitlements.v2.acceptance.load.SyntheticHierarchyGenerator;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.ConfigurationService;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.EntitlementsV2Service;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.HttpClientService;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.TokenService;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Generates a synthetic hierarchy, loads it and replays a mixed workload against it, reporting p50/p99 latency
+ * and errors per operation. Skipped unless LOAD_TEST_ENABLED is true, see the LOAD_TEST_* settings below.
+ */
+public abstract class LoadTest {
+    private final ConfigurationService configurationService;
+    private final TokenService tokenService;
+    private final HttpClientService httpClientService;
+    private final EntitlementsV2Service entitlementsV2Service;
+    private final long currentTime = System.currentTimeMillis();
+    private SyntheticHierarchy hierarchy;
+    private HierarchyLoader loader;
+
+    public LoadTest(ConfigurationService configurationService, TokenService tokenService) {
+        this.configurationService = configurationService;
+        this.tokenService = tokenService;
+        this.httpClientService = new HttpClientService(configurationService);
+        this.entitlementsV2Service = new EntitlementsV2Service(configurationService, httpClientService);
+    }
+
+    @Before
+    public void setup() throws Exception {
+        Assume.assumeTrue(Boolean.parseBoolean(setting("LOAD_TEST_ENABLED", "false")));
+        HierarchySpec spec = HierarchySpec.builder()
+                .depth(intSetting("LOAD_TEST_DEPTH", 4))
+                .rootGroups(intSetting("LOAD_TEST_ROOT_GROUPS", 5))
+                .fanOut(intSetting("LOAD_TEST_FAN_OUT", 4))
+                .fanIn(intSetting("LOAD_TEST_FAN_IN", 2))
+                .users(intSetting("LOAD_TEST_USERS", 100))
+                .usersPerLeafGroup(intSetting("LOAD_TEST_USERS_PER_LEAF_GROUP", 10))
+                .build();
+        hierarchy = new SyntheticHierarchyGenerator().generate(spec, String.valueOf(currentTime));
+        loader = createLoader();
+        loader.load(hierarchy);
+    }
+
+    @Test
+    public void shouldReplayMixedWorkload() throws Exception {
+        Map<Operation, Integer> workloadMix = new EnumMap<>(Operation.class);
+        workloadMix.put(Operation.LIST_GROUPS, intSetting("LOAD_TEST_WEIGHT_LIST_GROUPS", 40));
+        workloadMix.put(Operation.LIST_MEMBER_GROUPS, intSetting("LOAD_TEST_WEIGHT_LIST_MEMBER_GROUPS", 20));
+        workloadMix.put(Operation.LIST_MEMBERS, intSetting("LOAD_TEST_WEIGHT_LIST_MEMBERS", 20));
+        workloadMix.put(Operation.ADD_MEMBER, intSetting("LOAD_TEST_WEIGHT_ADD_MEMBER", 10));
+        workloadMix.put(Operation.REMOVE_MEMBER, intSetting("LOAD_TEST_WEIGHT_REMOVE_MEMBER", 10));
+
+        int concurrency = intSetting("LOAD_TEST_CONCURRENCY", 20);
+        HttpClientService replayClient = new HttpClientService(configurationService, concurrency);
+        LoadTestReport report = new LoadTestDriver(configurationService, replayClient, hierarchy, workloadMix)
+                .run(tokenService.getToken().getValue(),
+                        intSetting("LOAD_TEST_RPS", 20),
+                        Duration.ofSeconds(intSetting("LOAD_TEST_DURATION_SECONDS", 60)),
+                        concurrency);
+
+        double maxErrorRate = Double.parseDouble(setting("LOAD_TEST_MAX_ERROR_RATE", "0.01"));
+        Assert.assertTrue(report.getTotalCount() > 0);
+        Assert.assertTrue(String.format("Error rate above %s:%n%s", maxErrorRate, report),
+                report.getTotalErrors() <= maxErrorRate * report.getTotalCount());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        if (loader != null && !Boolean.parseBoolean(setting("LOAD_TEST_KEEP_DATA", "false"))) {
+            loader.unload(hierarchy);
+        }
+    }
+
+    protected HierarchyLoader createLoader() {
+        if ("jdbc".equalsIgnoreCase(setting("LOAD_TEST_LOADER", "api"))) {
+            return new JdbcHierarchyLoader(configurationService,
+                    setting("LOAD_TEST_JDBC_URL", null),
+                    setting("LOAD_TEST_JDBC_USERNAME", null),
+                    setting("LOAD_TEST_JDBC_PASSWORD", null),
+                    setting("LOAD_TEST_JDBC_SCHEMA", null));
+        }
+        return new ApiHierarchyLoader(configurationService, entitlementsV2Service,
+                tokenService.getToken().getValue(), intSetting("LOAD_TEST_LOADER_PARALLELISM", 10));
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.parseInt(setting(name, String.valueOf(defaultValue)));
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,86 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.entitlements.v2.acceptance.model.request.AddMemberRequestData;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.ConfigurationService;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.EntitlementsV2Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the hierarchy through the REST API, so every write goes through the same validation, caching and
+ * events as in production. Groups are created level by level before the memberships are added.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ApiHierarchyLoader implements HierarchyLoader {
+    private final ConfigurationService configurationService;
+    private final EntitlementsV2Service entitlementsV2Service;
+    private final String token;
+    private final int parallelism;
+
+    @Override
+    public void load(SyntheticHierarchy hierarchy) throws Exception {
+        List<Callable<Void>> groupCreations = new ArrayList<>();
+        for (String group : hierarchy.getGroups()) {
+            groupCreations.add(() -> {
+                entitlementsV2Service.createGroup(group, token);
+                return null;
+            });
+        }
+        runAll(groupCreations);
+        log.info("Created {} synthetic groups", groupCreations.size());
+
+        List<Callable<Void>> memberAdditions = new ArrayList<>();
+        for (SyntheticHierarchy.Membership membership : hierarchy.getGroupMemberships()) {
+            memberAdditions.add(() -> addMember(membership.getGroupName(),
+                    configurationService.getIdOfGroup(membership.getMember())));
+        }
+        for (SyntheticHierarchy.Membership membership : hierarchy.getUserMemberships()) {
+            memberAdditions.add(() -> addMember(membership.getGroupName(), membership.getMember()));
+        }
+        runAll(memberAdditions);
+        log.info("Added {} synthetic memberships", memberAdditions.size());
+    }
+
+    @Override
+    public void unload(SyntheticHierarchy hierarchy) throws Exception {
+        List<Callable<Void>> groupDeletions = new ArrayList<>();
+        for (String group : hierarchy.getGroups()) {
+            groupDeletions.add(() -> {
+                entitlementsV2Service.deleteGroup(configurationService.getIdOfGroup(group), token);
+                return null;
+            });
+        }
+        runAll(groupDeletions);
+        for (String user : hierarchy.getUsers()) {
+            entitlementsV2Service.deleteMember(user, token);
+        }
+    }
+
+    private Void addMember(String groupName, String memberEmail) throws Exception {
+        entitlementsV2Service.addMember(AddMemberRequestData.builder()
+                .groupEmail(configurationService.getIdOfGroup(groupName))
+                .memberEmail(memberEmail)
+                .role("MEMBER")
+                .build(), token);
+        return null;
+    }
+
+    private void runAll(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
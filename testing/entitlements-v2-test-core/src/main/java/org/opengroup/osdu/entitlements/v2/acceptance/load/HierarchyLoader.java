@@ -0,0 +1,11 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+/**
+ * Persists a synthetic hierarchy into the partition under test and removes it afterwards.
+ */
+public interface HierarchyLoader {
+
+    void load(SyntheticHierarchy hierarchy) throws Exception;
+
+    void unload(SyntheticHierarchy hierarchy) throws Exception;
+}
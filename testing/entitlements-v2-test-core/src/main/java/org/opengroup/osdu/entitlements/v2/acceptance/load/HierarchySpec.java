@@ -0,0 +1,35 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Shape of a synthetic group hierarchy.
+ * Level 0 holds the root groups. Every group of a level has on average fanOut child groups in the level below,
+ * and every child group is a member of fanIn groups of the level above, so each level is fanOut / fanIn times
+ * larger than the previous one. Users are direct members of the groups of the deepest level only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HierarchySpec {
+    @Builder.Default
+    private String namePrefix = "synthetic";
+    @Builder.Default
+    private int depth = 4;
+    @Builder.Default
+    private int rootGroups = 5;
+    @Builder.Default
+    private int fanOut = 4;
+    @Builder.Default
+    private int fanIn = 2;
+    @Builder.Default
+    private int users = 100;
+    @Builder.Default
+    private int usersPerLeafGroup = 10;
+    @Builder.Default
+    private long seed = 42L;
+}
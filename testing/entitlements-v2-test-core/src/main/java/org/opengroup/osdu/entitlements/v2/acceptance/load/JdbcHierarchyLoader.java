@@ -0,0 +1,158 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.ConfigurationService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-loads the hierarchy straight into the tables of the JDBC provider, which is orders of magnitude faster
+ * than the API for production-sized graphs. It bypasses the service, so the user groups cache of the loaded
+ * users should be empty, and deployments with the closure table enabled have to rebuild it before the run.
+ * The JDBC driver of the target database has to be on the classpath.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JdbcHierarchyLoader implements HierarchyLoader {
+    private static final int BATCH_SIZE = 1000;
+
+    private final ConfigurationService configurationService;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String schema;
+
+    @Override
+    public void load(SyntheticHierarchy hierarchy) throws SQLException {
+        String partitionId = configurationService.getTenantId();
+        try (Connection connection = openConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO \"group\" (name, description, email, partition_id) VALUES (?, ?, ?, ?)")) {
+                int count = 0;
+                for (String group : hierarchy.getGroups()) {
+                    statement.setString(1, group);
+                    statement.setString(2, "synthetic");
+                    statement.setString(3, configurationService.getIdOfGroup(group));
+                    statement.setString(4, partitionId);
+                    addToBatch(statement, ++count);
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO member (email, partition_id) VALUES (?, ?) ON CONFLICT (email) DO NOTHING")) {
+                int count = 0;
+                for (String user : hierarchy.getUsers()) {
+                    statement.setString(1, user);
+                    statement.setString(2, partitionId);
+                    addToBatch(statement, ++count);
+                }
+                statement.executeBatch();
+            }
+
+            Map<String, Long> groupIds = selectIds(connection,
+                    "SELECT id, name FROM \"group\" WHERE partition_id = ? AND name = ANY (?)",
+                    partitionId, hierarchy.getGroups());
+            Map<String, Long> memberIds = selectIds(connection,
+                    "SELECT id, email FROM member WHERE partition_id = ? AND email = ANY (?)",
+                    partitionId, hierarchy.getUsers());
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO embedded_group (parent_id, child_id) VALUES (?, ?)")) {
+                int count = 0;
+                for (SyntheticHierarchy.Membership membership : hierarchy.getGroupMemberships()) {
+                    statement.setLong(1, groupIds.get(membership.getGroupName()));
+                    statement.setLong(2, groupIds.get(membership.getMember()));
+                    addToBatch(statement, ++count);
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO member_to_group (group_id, member_id, role) VALUES (?, ?, 'MEMBER')")) {
+                int count = 0;
+                for (SyntheticHierarchy.Membership membership : hierarchy.getUserMemberships()) {
+                    statement.setLong(1, groupIds.get(membership.getGroupName()));
+                    statement.setLong(2, memberIds.get(membership.getMember()));
+                    addToBatch(statement, ++count);
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+        log.info("Inserted {} synthetic groups and {} users", hierarchy.getGroups().size(),
+                hierarchy.getUsers().size());
+    }
+
+    @Override
+    public void unload(SyntheticHierarchy hierarchy) throws SQLException {
+        String partitionId = configurationService.getTenantId();
+        try (Connection connection = openConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM member_to_group WHERE group_id IN "
+                            + "(SELECT id FROM \"group\" WHERE partition_id = ? AND name = ANY (?))")) {
+                statement.setString(1, partitionId);
+                statement.setArray(2, connection.createArrayOf("varchar", hierarchy.getGroups().toArray()));
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM member_to_group WHERE member_id IN "
+                            + "(SELECT id FROM member WHERE partition_id = ? AND email = ANY (?))")) {
+                statement.setString(1, partitionId);
+                statement.setArray(2, connection.createArrayOf("varchar", hierarchy.getUsers().toArray()));
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM member WHERE partition_id = ? AND email = ANY (?)")) {
+                statement.setString(1, partitionId);
+                statement.setArray(2, connection.createArrayOf("varchar", hierarchy.getUsers().toArray()));
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM \"group\" WHERE partition_id = ? AND name = ANY (?)")) {
+                statement.setString(1, partitionId);
+                statement.setArray(2, connection.createArrayOf("varchar", hierarchy.getGroups().toArray()));
+                statement.executeUpdate();
+            }
+            connection.commit();
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+        if (schema != null && !schema.isEmpty()) {
+            connection.setSchema(schema);
+        }
+        return connection;
+    }
+
+    private Map<String, Long> selectIds(Connection connection, String sql, String partitionId, List<String> keys)
+            throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, partitionId);
+            statement.setArray(2, connection.createArrayOf("varchar", keys.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.put(resultSet.getString(2), resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void addToBatch(PreparedStatement statement, int count) throws SQLException {
+        statement.addBatch();
+        if (count % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import com.google.gson.Gson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.opengroup.osdu.entitlements.v2.acceptance.model.request.RequestData;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.ConfigurationService;
+import org.opengroup.osdu.entitlements.v2.acceptance.util.HttpClientService;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a weighted mix of operations against a loaded synthetic hierarchy at a fixed rate.
+ * The rate is open-loop: a request is started on every tick whether or not the previous ones completed, and a tick
+ * finding all the workers busy is counted as dropped instead of delaying the next ones.
+ * The HttpClientService has to allow at least as many connections as the concurrency, otherwise the workers queue
+ * on the client side instead of the service.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadTestDriver {
+    private static final String SCRATCH_USER_FORMAT = "%s-scratch-%d@synthetic.com";
+
+    private final Gson gson = new Gson();
+    private final AtomicLong scratchUsers = new AtomicLong();
+    private final Queue<SyntheticHierarchy.Membership> addedMembers = new ConcurrentLinkedQueue<>();
+    private final ConfigurationService configurationService;
+    private final HttpClientService httpClientService;
+    private final SyntheticHierarchy hierarchy;
+    private final Map<Operation, Integer> workloadMix;
+
+    public LoadTestReport run(String token, int targetRps, Duration duration, int concurrency)
+            throws InterruptedException {
+        if (targetRps <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Target rate and concurrency must be positive, got %d rps and %d workers", targetRps, concurrency));
+        }
+        LoadTestReport report = new LoadTestReport();
+        Semaphore workers = new Semaphore(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long periodMicros = Math.max(1, TimeUnit.SECONDS.toMicros(1) / targetRps);
+        scheduler.scheduleAtFixedRate(() -> {
+            if (!workers.tryAcquire()) {
+                report.recordDropped();
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    execute(nextOperation(), token, report);
+                } finally {
+                    workers.release();
+                }
+            });
+        }, 0, periodMicros, TimeUnit.MICROSECONDS);
+
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        scheduler.shutdownNow();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        report.setElapsedNanos(System.nanoTime() - start);
+        cleanupAddedMembers(token);
+        log.info("Load test finished:\n{}", report);
+        return report;
+    }
+
+    private Operation nextOperation() {
+        int total = workloadMix.values().stream().mapToInt(Integer::intValue).sum();
+        int draw = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : workloadMix.entrySet()) {
+            draw -= entry.getValue();
+            if (draw < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Workload mix must have positive weights");
+    }
+
+    private void execute(Operation operation, String token, LoadTestReport report) {
+        SyntheticHierarchy.Membership removed = null;
+        if (operation == Operation.REMOVE_MEMBER) {
+            removed = addedMembers.poll();
+            if (removed == null) {
+                operation = Operation.ADD_MEMBER;
+            }
+        }
+        SyntheticHierarchy.Membership added = operation == Operation.ADD_MEMBER
+                ? new SyntheticHierarchy.Membership(random(hierarchy.getLeafGroups()), String.format(
+                        SCRATCH_USER_FORMAT, hierarchy.getPrefix(), scratchUsers.incrementAndGet()))
+                : null;
+        RequestData requestData = createRequestData(operation, token, added, removed);
+
+        long start = System.nanoTime();
+        boolean success;
+        try (CloseableHttpResponse response = httpClientService.send(requestData)) {
+            success = response.getCode() < 300;
+        } catch (Exception e) {
+            log.debug("Request {} failed", operation, e);
+            success = false;
+        }
+        report.record(operation, System.nanoTime() - start, success);
+        if (success && added != null) {
+            addedMembers.add(added);
+        }
+    }
+
+    private RequestData createRequestData(Operation operation, String token,
+                                          SyntheticHierarchy.Membership added,
+                                          SyntheticHierarchy.Membership removed) {
+        RequestData.RequestDataBuilder builder = RequestData.builder()
+                .dataPartitionId(configurationService.getTenantId())
+                .token(token);
+        switch (operation) {
+            case LIST_GROUPS:
+                return builder.method("GET").relativePath("groups").build();
+            case LIST_MEMBER_GROUPS:
+                return builder.method("GET")
+                        .relativePath(String.format("members/%s/groups", random(hierarchy.getUsers())))
+                        .queryParams(new HashMap<>(Collections.singletonMap("type", "NONE")))
+                        .build();
+            case LIST_MEMBERS:
+                return builder.method("GET")
+                        .relativePath(String.format("groups/%s/members",
+                                configurationService.getIdOfGroup(random(hierarchy.getGroups()))))
+                        .build();
+            case ADD_MEMBER:
+                Map<String, String> body = new HashMap<>();
+                body.put("email", added.getMember());
+                body.put("role", "MEMBER");
+                return builder.method("POST")
+                        .relativePath(String.format("groups/%s/members",
+                                configurationService.getIdOfGroup(added.getGroupName())))
+                        .body(gson.toJson(body))
+                        .build();
+            case REMOVE_MEMBER:
+                return builder.method("DELETE")
+                        .relativePath(String.format("groups/%s/members/%s",
+                                configurationService.getIdOfGroup(removed.getGroupName()), removed.getMember()))
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    private void cleanupAddedMembers(String token) {
+        SyntheticHierarchy.Membership membership;
+        while ((membership = addedMembers.poll()) != null) {
+            try (CloseableHttpResponse ignored = httpClientService.send(RequestData.builder()
+                    .method("DELETE")
+                    .relativePath(String.format("members/%s", membership.getMember()))
+                    .dataPartitionId(configurationService.getTenantId())
+                    .token(token)
+                    .build())) {
+                log.debug("Deleted scratch member {}", membership.getMember());
+            } catch (Exception e) {
+                log.warn("Unable to delete scratch member {}", membership.getMember(), e);
+            }
+        }
+    }
+
+    private static String random(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
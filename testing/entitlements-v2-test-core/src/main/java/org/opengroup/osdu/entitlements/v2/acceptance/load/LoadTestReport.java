@@ -0,0 +1,118 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and errors per operation collected during a run.
+ */
+public class LoadTestReport {
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long elapsedNanos;
+
+    public LoadTestReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).record(latencyNanos, success);
+    }
+
+    void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Requests not sent because all workers were busy, a growing number means the target RPS is not reached.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Completed requests per second over the run, to compare runs with the same mix at a target RPS the service
+     * cannot keep up with.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getTotalCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long getCount(Operation operation) {
+        return recorders.get(operation).getCount();
+    }
+
+    public long getErrors(Operation operation) {
+        return recorders.get(operation).getErrors();
+    }
+
+    public long getTotalCount() {
+        return Arrays.stream(Operation.values()).mapToLong(this::getCount).sum();
+    }
+
+    public long getTotalErrors() {
+        return Arrays.stream(Operation.values()).mapToLong(this::getErrors).sum();
+    }
+
+    public double getPercentileMillis(Operation operation, double percentile) {
+        return recorders.get(operation).getPercentileNanos(percentile) / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("%-20s %10s %10s %12s %12s%n",
+                "operation", "requests", "errors", "p50 (ms)", "p99 (ms)"));
+        for (Operation operation : Operation.values()) {
+            if (getCount(operation) == 0) {
+                continue;
+            }
+            report.append(String.format("%-20s %10d %10d %12.1f %12.1f%n", operation, getCount(operation),
+                    getErrors(operation), getPercentileMillis(operation, 50), getPercentileMillis(operation, 99)));
+        }
+        report.append(String.format("total requests: %d, errors: %d, dropped: %d, throughput: %.1f/s%n",
+                getTotalCount(), getTotalErrors(), getDropped(), getThroughput()));
+        return report.toString();
+    }
+
+    private static class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long latencyNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        synchronized long getErrors() {
+            return errors;
+        }
+
+        synchronized long getPercentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+/**
+ * Requests replayed by the load test driver.
+ */
+public enum Operation {
+    /** GET /groups of the caller */
+    LIST_GROUPS,
+    /** GET /members/{member_email}/groups of a synthetic user */
+    LIST_MEMBER_GROUPS,
+    /** GET /groups/{group_email}/members of a synthetic group */
+    LIST_MEMBERS,
+    /** POST /groups/{group_email}/members of a scratch user to a leaf group */
+    ADD_MEMBER,
+    /** DELETE /groups/{group_email}/members/{member_email} of a scratch user added before */
+    REMOVE_MEMBER
+}
@@ -0,0 +1,38 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Generated groups, per level starting from the roots, and the memberships linking them.
+ * Group names are short names, the emails are resolved with the ConfigurationService of the target environment.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SyntheticHierarchy {
+    private final String prefix;
+    private final List<List<String>> levels;
+    private final List<String> users;
+    private final List<Membership> groupMemberships;
+    private final List<Membership> userMemberships;
+
+    public List<String> getGroups() {
+        return levels.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<String> getLeafGroups() {
+        return levels.get(levels.size() - 1);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Membership {
+        private String groupName;
+        private String member;
+    }
+}
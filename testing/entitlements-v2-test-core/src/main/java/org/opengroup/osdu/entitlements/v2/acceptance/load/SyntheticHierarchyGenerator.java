@@ -0,0 +1,62 @@
+package org.opengroup.osdu.entitlements.v2.acceptance.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a deterministic hierarchy for a given spec, the same spec and run id always give the same groups and
+ * memberships. The run id keeps the names of consecutive runs apart.
+ */
+public class SyntheticHierarchyGenerator {
+
+    public SyntheticHierarchy generate(HierarchySpec spec, String runId) {
+        Random random = new Random(spec.getSeed());
+        String prefix = String.format("%s-%s", spec.getNamePrefix(), runId);
+
+        List<List<String>> levels = new ArrayList<>();
+        List<SyntheticHierarchy.Membership> groupMemberships = new ArrayList<>();
+        levels.add(createLevel(prefix, 0, spec.getRootGroups()));
+        for (int level = 1; level < spec.getDepth(); level++) {
+            List<String> parents = levels.get(level - 1);
+            int size = Math.max(1, (int) Math.ceil((double) parents.size() * spec.getFanOut() / spec.getFanIn()));
+            List<String> children = createLevel(prefix, level, size);
+            for (String child : children) {
+                for (String parent : pick(parents, spec.getFanIn(), random)) {
+                    groupMemberships.add(new SyntheticHierarchy.Membership(parent, child));
+                }
+            }
+            levels.add(children);
+        }
+
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < spec.getUsers(); i++) {
+            users.add(String.format("%s-user-%d@synthetic.com", prefix, i));
+        }
+        List<SyntheticHierarchy.Membership> userMemberships = new ArrayList<>();
+        for (String leafGroup : levels.get(levels.size() - 1)) {
+            for (String user : pick(users, spec.getUsersPerLeafGroup(), random)) {
+                userMemberships.add(new SyntheticHierarchy.Membership(leafGroup, user));
+            }
+        }
+        return new SyntheticHierarchy(prefix, levels, users, groupMemberships, userMemberships);
+    }
+
+    private List<String> createLevel(String prefix, int level, int size) {
+        List<String> groups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            groups.add(String.format("%s-l%d-g%d", prefix, level, i));
+        }
+        return groups;
+    }
+
+    private List<String> pick(List<String> candidates, int count, Random random) {
+        if (count >= candidates.size()) {
+            return candidates;
+        }
+        List<String> shuffled = new ArrayList<>(candidates);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, count);
+    }
+}
@@ -20,6 +20,8 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class HttpClientService {
 
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+
     private final CloseableHttpClient httpClient;
     private final String baseUrl;
     //set this mode to true if running the service and tests locally
@@ -27,7 +29,14 @@ public class HttpClientService {
     private String header_x_user_id;
 
     public HttpClientService(ConfigurationService configurationService) {
-        this.httpClient = createHttpClient();
+        this(configurationService, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param maxConnections size of the connection pool, which bounds the number of requests in flight
+     */
+    public HttpClientService(ConfigurationService configurationService, int maxConnections) {
+        this.httpClient = createHttpClient(maxConnections);
         this.baseUrl = configurationService.getServiceUrl();
     }
 
@@ -66,20 +75,20 @@ public class HttpClientService {
         return requestBuilder;
     }
 
-    private  PoolingHttpClientConnectionManager createBasicHttpClientConnectionManager() {
+    private  PoolingHttpClientConnectionManager createBasicHttpClientConnectionManager(int maxConnections) {
         ConnectionConfig connConfig = ConnectionConfig.custom()
                 .setConnectTimeout(1500000, TimeUnit.MILLISECONDS)
                 .setSocketTimeout(1500000, TimeUnit.MILLISECONDS)
                 .build();
         PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
         connectionManager.setDefaultConnectionConfig(connConfig);
-        connectionManager.setMaxTotal(20);
-        connectionManager.setDefaultMaxPerRoute(20);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
         return connectionManager;
     }
 
-    private CloseableHttpClient createHttpClient() {
-        PoolingHttpClientConnectionManager cm = createBasicHttpClientConnectionManager();
+    private CloseableHttpClient createHttpClient(int maxConnections) {
+        PoolingHttpClientConnectionManager cm = createBasicHttpClientConnectionManager(maxConnections);
         return HttpClientBuilder.create().setConnectionManager(cm).setConnectionManagerShared(true).build();
     }
 